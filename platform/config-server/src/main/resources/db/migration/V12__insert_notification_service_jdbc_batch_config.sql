@@ -0,0 +1,8 @@
+-- Enable JDBC insert batching for notification-service
+-- Batch attendance events create one notification per student in a single transaction
+-- APPLICATION: notification-service, PROFILE: default, LABEL: master
+
+INSERT INTO CONFIG_PROPERTIES (APPLICATION, PROFILE, LABEL, KEY, VALUE) VALUES
+('notification-service', 'default', 'master', 'spring.jpa.properties.hibernate.jdbc.batch_size', '50'),
+('notification-service', 'default', 'master', 'spring.jpa.properties.hibernate.order_inserts', 'true')
+ON CONFLICT (APPLICATION, PROFILE, LABEL, KEY) DO NOTHING;
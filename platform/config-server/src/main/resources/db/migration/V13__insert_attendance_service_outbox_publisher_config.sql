@@ -0,0 +1,11 @@
+-- Insert outbox publisher configuration for attendance-service
+-- APPLICATION: attendance-service, PROFILE: default, LABEL: master
+
+INSERT INTO CONFIG_PROPERTIES (APPLICATION, PROFILE, LABEL, KEY, VALUE) VALUES
+('attendance-service', 'default', 'master', 'outbox.publisher.batch-size', '${OUTBOX_PUBLISHER_BATCH_SIZE}'),
+('attendance-service', 'default', 'master', 'outbox.publisher.max-attempts', '${OUTBOX_PUBLISHER_MAX_ATTEMPTS}'),
+('attendance-service', 'default', 'master', 'outbox.publisher.initial-backoff-ms', '${OUTBOX_PUBLISHER_INITIAL_BACKOFF_MS}'),
+('attendance-service', 'default', 'master', 'outbox.publisher.max-backoff-ms', '${OUTBOX_PUBLISHER_MAX_BACKOFF_MS}'),
+('attendance-service', 'default', 'master', 'outbox.publisher.poll-interval-ms', '${OUTBOX_PUBLISHER_POLL_INTERVAL_MS}'),
+('attendance-service', 'default', 'master', 'outbox.publisher.retention-hours', '${OUTBOX_PUBLISHER_RETENTION_HOURS}')
+ON CONFLICT (APPLICATION, PROFILE, LABEL, KEY) DO NOTHING;
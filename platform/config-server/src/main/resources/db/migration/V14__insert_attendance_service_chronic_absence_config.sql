@@ -0,0 +1,8 @@
+-- Insert chronic absence detection configuration for attendance-service
+-- APPLICATION: attendance-service, PROFILE: default, LABEL: master
+
+INSERT INTO CONFIG_PROPERTIES (APPLICATION, PROFILE, LABEL, KEY, VALUE) VALUES
+('attendance-service', 'default', 'master', 'attendance.chronic-absence.window-days', '30'),
+('attendance-service', 'default', 'master', 'attendance.chronic-absence.thresholds', '3,5,10'),
+('attendance-service', 'default', 'master', 'attendance.chronic-absence.evaluate-interval-ms', '60000')
+ON CONFLICT (APPLICATION, PROFILE, LABEL, KEY) DO NOTHING;
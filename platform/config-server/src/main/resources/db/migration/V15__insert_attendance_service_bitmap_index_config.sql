@@ -0,0 +1,8 @@
+-- Insert term bitmap index configuration for attendance-service
+-- APPLICATION: attendance-service, PROFILE: default, LABEL: master
+
+INSERT INTO CONFIG_PROPERTIES (APPLICATION, PROFILE, LABEL, KEY, VALUE) VALUES
+('attendance-service', 'default', 'master', 'attendance.bitmap.term-starts', '09-01,01-16,05-01'),
+('attendance-service', 'default', 'master', 'attendance.bitmap.snapshot-interval-ms', '60000'),
+('attendance-service', 'default', 'master', 'attendance.bitmap.replay-margin-seconds', '300')
+ON CONFLICT (APPLICATION, PROFILE, LABEL, KEY) DO NOTHING;
@@ -0,0 +1,10 @@
+-- Insert partition maintenance and archival configuration for attendance-service
+-- APPLICATION: attendance-service, PROFILE: default, LABEL: master
+
+INSERT INTO CONFIG_PROPERTIES (APPLICATION, PROFILE, LABEL, KEY, VALUE) VALUES
+('attendance-service', 'default', 'master', 'attendance.partitions.months-ahead', '3'),
+('attendance-service', 'default', 'master', 'attendance.archive.academic-year-start', '09-01'),
+('attendance-service', 'default', 'master', 'attendance.archive.retain-closed-years', '1'),
+('attendance-service', 'default', 'master', 'attendance.archive.restored-retention-days', '30'),
+('attendance-service', 'default', 'master', 'attendance.archive.directory', '${ATTENDANCE_ARCHIVE_DIR}')
+ON CONFLICT (APPLICATION, PROFILE, LABEL, KEY) DO NOTHING;
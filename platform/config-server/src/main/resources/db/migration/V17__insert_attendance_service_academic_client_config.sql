@@ -0,0 +1,12 @@
+-- Insert academic-service client configuration for attendance-service (class leader validation)
+-- APPLICATION: attendance-service, PROFILE: default, LABEL: master
+
+INSERT INTO CONFIG_PROPERTIES (APPLICATION, PROFILE, LABEL, KEY, VALUE) VALUES
+('attendance-service', 'default', 'master', 'attendance.academic.url', 'http://academic-service'),
+('attendance-service', 'default', 'master', 'attendance.academic.connect-timeout-ms', '1000'),
+('attendance-service', 'default', 'master', 'attendance.academic.read-timeout-ms', '2000'),
+('attendance-service', 'default', 'master', 'attendance.academic.leader-cache.ttl-seconds', '300'),
+('attendance-service', 'default', 'master', 'attendance.academic.leader-cache.stale-seconds', '3600'),
+('attendance-service', 'default', 'master', 'attendance.academic.circuit-breaker.failure-threshold', '5'),
+('attendance-service', 'default', 'master', 'attendance.academic.circuit-breaker.open-seconds', '30')
+ON CONFLICT (APPLICATION, PROFILE, LABEL, KEY) DO NOTHING;
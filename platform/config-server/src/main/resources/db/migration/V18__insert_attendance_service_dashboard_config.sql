@@ -0,0 +1,8 @@
+-- Insert school dashboard configuration for attendance-service
+-- APPLICATION: attendance-service, PROFILE: default, LABEL: master
+
+INSERT INTO CONFIG_PROPERTIES (APPLICATION, PROFILE, LABEL, KEY, VALUE) VALUES
+('attendance-service', 'default', 'master', 'attendance.dashboard.reconcile-interval-ms', '300000'),
+('attendance-service', 'default', 'master', 'attendance.dashboard.idle-evict-minutes', '15'),
+('attendance-service', 'default', 'master', 'attendance.academic.class-directory.ttl-seconds', '3600')
+ON CONFLICT (APPLICATION, PROFILE, LABEL, KEY) DO NOTHING;
@@ -0,0 +1,20 @@
+-- Insert academic calendar configuration for attendance-service
+-- APPLICATION: attendance-service, PROFILE: default, LABEL: master
+-- Term start days moved from the bitmap index to the academic calendar
+
+UPDATE CONFIG_PROPERTIES
+SET KEY = 'attendance.calendar.term-starts'
+WHERE APPLICATION = 'attendance-service' AND PROFILE = 'default' AND LABEL = 'master'
+  AND KEY = 'attendance.bitmap.term-starts'
+  AND NOT EXISTS (
+      SELECT 1 FROM CONFIG_PROPERTIES
+      WHERE APPLICATION = 'attendance-service' AND PROFILE = 'default' AND LABEL = 'master'
+        AND KEY = 'attendance.calendar.term-starts'
+  );
+
+INSERT INTO CONFIG_PROPERTIES (APPLICATION, PROFILE, LABEL, KEY, VALUE) VALUES
+('attendance-service', 'default', 'master', 'attendance.calendar.term-starts', '09-01,01-16,05-01'),
+('attendance-service', 'default', 'master', 'attendance.calendar.school-weekdays', 'MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY'),
+('attendance-service', 'default', 'master', 'attendance.calendar.refresh-interval-ms', '600000'),
+('attendance-service', 'default', 'master', 'attendance.missing-detector.max-range-days', '366')
+ON CONFLICT (APPLICATION, PROFILE, LABEL, KEY) DO NOTHING;
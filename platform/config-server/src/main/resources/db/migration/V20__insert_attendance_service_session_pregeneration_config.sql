@@ -0,0 +1,11 @@
+-- Insert attendance session pre-generation configuration for attendance-service
+-- APPLICATION: attendance-service, PROFILE: default, LABEL: master
+-- default-created-by is recorded as creator for classes without a homeroom or class teacher;
+-- leave it empty to skip such classes
+
+INSERT INTO CONFIG_PROPERTIES (APPLICATION, PROFILE, LABEL, KEY, VALUE) VALUES
+('attendance-service', 'default', 'master', 'attendance.sessions.pregeneration.cron', '0 0 18 * * SUN'),
+('attendance-service', 'default', 'master', 'attendance.sessions.pregeneration.days-ahead', '7'),
+('attendance-service', 'default', 'master', 'attendance.sessions.pregeneration.max-range-days', '31'),
+('attendance-service', 'default', 'master', 'attendance.sessions.pregeneration.default-created-by', '')
+ON CONFLICT (APPLICATION, PROFILE, LABEL, KEY) DO NOTHING;
@@ -0,0 +1,9 @@
+-- Insert attendance correction history configuration for attendance-service
+-- APPLICATION: attendance-service, PROFILE: default, LABEL: master
+-- JDBC batching lets roster writes append all of their corrections in one round trip
+
+INSERT INTO CONFIG_PROPERTIES (APPLICATION, PROFILE, LABEL, KEY, VALUE) VALUES
+('attendance-service', 'default', 'master', 'spring.jpa.properties.hibernate.jdbc.batch_size', '50'),
+('attendance-service', 'default', 'master', 'spring.jpa.properties.hibernate.order_inserts', 'true'),
+('attendance-service', 'default', 'master', 'attendance.corrections.max-range-days', '366')
+ON CONFLICT (APPLICATION, PROFILE, LABEL, KEY) DO NOTHING;
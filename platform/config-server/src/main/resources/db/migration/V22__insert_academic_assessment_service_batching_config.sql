@@ -0,0 +1,9 @@
+-- Insert JDBC batching configuration for academic-assessment-service
+-- APPLICATION: academic-assessment-service, PROFILE: default, LABEL: master
+-- Bulk grade entry writes through JdbcTemplate batches; these keys extend batching to JPA flushes
+
+INSERT INTO CONFIG_PROPERTIES (APPLICATION, PROFILE, LABEL, KEY, VALUE) VALUES
+('academic-assessment-service', 'default', 'master', 'spring.jpa.properties.hibernate.jdbc.batch_size', '50'),
+('academic-assessment-service', 'default', 'master', 'spring.jpa.properties.hibernate.order_inserts', 'true'),
+('academic-assessment-service', 'default', 'master', 'spring.jpa.properties.hibernate.order_updates', 'true')
+ON CONFLICT (APPLICATION, PROFILE, LABEL, KEY) DO NOTHING;
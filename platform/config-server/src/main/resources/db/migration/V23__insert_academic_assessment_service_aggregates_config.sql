@@ -0,0 +1,7 @@
+-- Insert student grade aggregate verification configuration for academic-assessment-service
+-- APPLICATION: academic-assessment-service, PROFILE: default, LABEL: master
+
+INSERT INTO CONFIG_PROPERTIES (APPLICATION, PROFILE, LABEL, KEY, VALUE) VALUES
+('academic-assessment-service', 'default', 'master', 'assessment.aggregates.verification.cron', '0 30 3 * * *'),
+('academic-assessment-service', 'default', 'master', 'assessment.aggregates.verification.max-reported', '100')
+ON CONFLICT (APPLICATION, PROFILE, LABEL, KEY) DO NOTHING;
@@ -0,0 +1,8 @@
+-- Insert weighted gradebook configuration for academic-assessment-service
+-- APPLICATION: academic-assessment-service, PROFILE: default, LABEL: master
+
+INSERT INTO CONFIG_PROPERTIES (APPLICATION, PROFILE, LABEL, KEY, VALUE) VALUES
+('academic-assessment-service', 'default', 'master', 'assessment.gradebook.weighted.default-category-weights', 'HOMEWORK:30,QUIZ:30,EXAM:40'),
+('academic-assessment-service', 'default', 'master', 'assessment.gradebook.weighted.reconcile-interval-ms', '300000'),
+('academic-assessment-service', 'default', 'master', 'assessment.gradebook.weighted.idle-evict-minutes', '30')
+ON CONFLICT (APPLICATION, PROFILE, LABEL, KEY) DO NOTHING;
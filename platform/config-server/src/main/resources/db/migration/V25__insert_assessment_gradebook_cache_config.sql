@@ -0,0 +1,8 @@
+-- Insert gradebook cache configuration for academic-assessment-service
+-- APPLICATION: academic-assessment-service, PROFILE: default, LABEL: master
+
+INSERT INTO CONFIG_PROPERTIES (APPLICATION, PROFILE, LABEL, KEY, VALUE) VALUES
+('academic-assessment-service', 'default', 'master', 'assessment.gradebook.cache.class-max-entries', '500'),
+('academic-assessment-service', 'default', 'master', 'assessment.gradebook.cache.student-max-entries', '5000'),
+('academic-assessment-service', 'default', 'master', 'assessment.gradebook.cache.ttl-seconds', '300')
+ON CONFLICT (APPLICATION, PROFILE, LABEL, KEY) DO NOTHING;
@@ -161,6 +161,16 @@ public class ClassController {
         com.visor.school.academic.model.Class classEntity = classService.updateClassStatus(id, request.status());
         return ResponseEntity.ok(success(ClassResponse.from(classEntity), "Class status updated"));
     }
+
+    /**
+     * Republish every class schedule, so consumers keeping a copy can be seeded or resynchronized
+     */
+    @PostMapping("/schedules/publish")
+    @PreAuthorize("hasRole('ADMINISTRATOR')")
+    public ResponseEntity<ApiResponse<Integer>> republishClassSchedules() {
+        int published = classService.republishClassSchedules();
+        return ResponseEntity.ok(success(published, "Class schedules published"));
+    }
 }
 
 record CreateHomeroomClassRequest(
@@ -0,0 +1,40 @@
+package com.visor.school.academic.controller;
+
+import com.visor.school.academic.service.StudentClassLeadershipService;
+import com.visor.school.common.api.ApiResponse;
+import static com.visor.school.academic.util.ApiResponseHelper.success;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Class leadership lookups for other services
+ * Served under /internal, which the API gateway does not route, so it is reachable only
+ * service-to-service through Eureka. Callers forward the end user's token, so the read is
+ * open to every school role: a student's leadership check resolves through it.
+ */
+@RestController
+@RequestMapping("/internal/academic/classes/{classId}/leaders")
+public class InternalClassLeadershipController {
+
+    private final StudentClassLeadershipService leadershipService;
+
+    public InternalClassLeadershipController(StudentClassLeadershipService leadershipService) {
+        this.leadershipService = leadershipService;
+    }
+
+    /**
+     * Get all class leaders for a class
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMINISTRATOR') or hasRole('TEACHER') or hasRole('STUDENT')")
+    public ResponseEntity<ApiResponse<List<StudentClassLeadershipResponse>>> getClassLeaders(@PathVariable UUID classId) {
+        List<StudentClassLeadershipResponse> responses = leadershipService.getLeadersByClass(classId).stream()
+                .map(StudentClassLeadershipResponse::from)
+                .toList();
+        return ResponseEntity.ok(success(responses));
+    }
+}
@@ -0,0 +1,129 @@
+package com.visor.school.academic.event;
+
+import com.visor.school.academic.model.Schedule;
+import com.visor.school.common.events.BaseEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Publisher for class events to RabbitMQ.
+ * Schedule events carry the class's full current schedule and status, so consumers keeping
+ * a copy can upsert it without calling back.
+ */
+@Component
+public class ClassEventPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(ClassEventPublisher.class);
+    private static final String EXCHANGE_NAME = "school-management.exchange";
+    private static final String CLASS_SCHEDULE_CHANGED_ROUTING_KEY = "academic.class.schedule.changed";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final String serviceName;
+
+    public ClassEventPublisher(
+            RabbitTemplate rabbitTemplate,
+            @Value("${spring.application.name}") String serviceName
+    ) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.serviceName = serviceName;
+    }
+
+    /**
+     * Publish class schedule changed event (class created, status or schedule changed)
+     */
+    public void publishClassScheduleChanged(com.visor.school.academic.model.Class classEntity) {
+        Schedule schedule = classEntity.getSchedule();
+        ClassScheduleChangedEvent event = new ClassScheduleChangedEvent(
+                classEntity.getId(),
+                schedule != null ? schedule.getDaysOfWeek() : null,
+                classEntity.getStatus().name(),
+                classEntity.getStartDate(),
+                classEntity.getEndDate(),
+                classEntity.getHomeroomTeacherId(),
+                classEntity.getClassTeacherId()
+        );
+
+        try {
+            rabbitTemplate.convertAndSend(EXCHANGE_NAME, CLASS_SCHEDULE_CHANGED_ROUTING_KEY, event);
+            logger.info("Published class.schedule.changed event for class: {}", classEntity.getId());
+        } catch (Exception e) {
+            logger.error("Failed to publish class.schedule.changed event for class: {}", classEntity.getId(), e);
+        }
+    }
+}
+
+/**
+ * Class Schedule Changed Event
+ */
+class ClassScheduleChangedEvent extends BaseEvent {
+    private final UUID classId;
+    private final String daysOfWeek;
+    private final String status;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final UUID homeroomTeacherId;
+    private final UUID classTeacherId;
+
+    public ClassScheduleChangedEvent(
+            UUID classId,
+            String daysOfWeek,
+            String status,
+            LocalDate startDate,
+            LocalDate endDate,
+            UUID homeroomTeacherId,
+            UUID classTeacherId
+    ) {
+        super(UUID.randomUUID(), Instant.now(), "1.0", "ClassScheduleChangedEvent");
+        this.classId = classId;
+        this.daysOfWeek = daysOfWeek;
+        this.status = status;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.homeroomTeacherId = homeroomTeacherId;
+        this.classTeacherId = classTeacherId;
+    }
+
+    @Override
+    public UUID getAggregateId() {
+        return classId;
+    }
+
+    @Override
+    public String getAggregateType() {
+        return "Class";
+    }
+
+    public UUID getClassId() {
+        return classId;
+    }
+
+    public String getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public UUID getHomeroomTeacherId() {
+        return homeroomTeacherId;
+    }
+
+    public UUID getClassTeacherId() {
+        return classTeacherId;
+    }
+}
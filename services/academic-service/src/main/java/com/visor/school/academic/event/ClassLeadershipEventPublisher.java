@@ -0,0 +1,140 @@
+package com.visor.school.academic.event;
+
+import com.visor.school.academic.model.StudentClassLeadership;
+import com.visor.school.common.events.BaseEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Publisher for class leadership events to RabbitMQ.
+ * Every event carries the class's full leader list after the change, so consumers
+ * caching leaders per class can replace their entry instead of refetching it.
+ */
+@Component
+public class ClassLeadershipEventPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(ClassLeadershipEventPublisher.class);
+    private static final String EXCHANGE_NAME = "school-management.exchange";
+    private static final String LEADER_ASSIGNED_ROUTING_KEY = "academic.class.leader.assigned";
+    private static final String LEADER_REMOVED_ROUTING_KEY = "academic.class.leader.removed";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final String serviceName;
+
+    public ClassLeadershipEventPublisher(
+            RabbitTemplate rabbitTemplate,
+            @Value("${spring.application.name}") String serviceName
+    ) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.serviceName = serviceName;
+    }
+
+    /**
+     * Publish class leader assigned event
+     */
+    public void publishLeaderAssigned(StudentClassLeadership leadership, List<StudentClassLeadership> classLeaders) {
+        publish(LEADER_ASSIGNED_ROUTING_KEY, "ClassLeaderAssignedEvent", leadership, classLeaders);
+    }
+
+    /**
+     * Publish class leader removed event
+     */
+    public void publishLeaderRemoved(StudentClassLeadership leadership, List<StudentClassLeadership> classLeaders) {
+        publish(LEADER_REMOVED_ROUTING_KEY, "ClassLeaderRemovedEvent", leadership, classLeaders);
+    }
+
+    private void publish(String routingKey, String eventType, StudentClassLeadership leadership,
+                         List<StudentClassLeadership> classLeaders) {
+        ClassLeadershipChangedEvent event = new ClassLeadershipChangedEvent(
+                eventType,
+                leadership.getClassId(),
+                leadership.getStudentId(),
+                leadership.getLeadershipPosition().name(),
+                classLeaders.stream()
+                        .map(leader -> new ClassLeadershipChangedEvent.Leader(
+                                leader.getStudentId(), leader.getLeadershipPosition().name()))
+                        .toList()
+        );
+
+        try {
+            rabbitTemplate.convertAndSend(EXCHANGE_NAME, routingKey, event);
+            logger.info("Published {} event for class: {}", routingKey, leadership.getClassId());
+        } catch (Exception e) {
+            logger.error("Failed to publish {} event for class: {}", routingKey, leadership.getClassId(), e);
+        }
+    }
+}
+
+/**
+ * Class Leadership Changed Event
+ */
+class ClassLeadershipChangedEvent extends BaseEvent {
+    private final UUID classId;
+    private final UUID studentId;
+    private final String leadershipPosition;
+    private final List<Leader> leaders;
+
+    public ClassLeadershipChangedEvent(
+            String eventType,
+            UUID classId,
+            UUID studentId,
+            String leadershipPosition,
+            List<Leader> leaders
+    ) {
+        super(UUID.randomUUID(), Instant.now(), "1.0", eventType);
+        this.classId = classId;
+        this.studentId = studentId;
+        this.leadershipPosition = leadershipPosition;
+        this.leaders = leaders;
+    }
+
+    @Override
+    public UUID getAggregateId() {
+        return classId;
+    }
+
+    @Override
+    public String getAggregateType() {
+        return "Class";
+    }
+
+    public UUID getClassId() {
+        return classId;
+    }
+
+    public UUID getStudentId() {
+        return studentId;
+    }
+
+    public String getLeadershipPosition() {
+        return leadershipPosition;
+    }
+
+    public List<Leader> getLeaders() {
+        return leaders;
+    }
+
+    public static class Leader {
+        private final UUID studentId;
+        private final String leadershipPosition;
+
+        public Leader(UUID studentId, String leadershipPosition) {
+            this.studentId = studentId;
+            this.leadershipPosition = leadershipPosition;
+        }
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public String getLeadershipPosition() {
+            return leadershipPosition;
+        }
+    }
+}
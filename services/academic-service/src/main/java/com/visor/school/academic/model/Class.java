@@ -143,6 +143,14 @@ public class Class {
         this.updatedAt = Instant.now();
     }
 
+    public void assignClassTeacher(UUID teacherId) {
+        if (classType != ClassType.SUBJECT) {
+            throw new IllegalArgumentException("Class teacher can only be assigned to subject classes");
+        }
+        this.classTeacherId = teacherId;
+        this.updatedAt = Instant.now();
+    }
+
     public void incrementEnrollment() {
         this.currentEnrollment++;
         this.updatedAt = Instant.now();
@@ -1,5 +1,6 @@
 package com.visor.school.academic.service;
 
+import com.visor.school.academic.event.ClassEventPublisher;
 import com.visor.school.academic.model.ClassStatus;
 import com.visor.school.academic.model.ClassType;
 import com.visor.school.academic.model.EmploymentStatus;
@@ -16,6 +17,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
@@ -31,15 +33,18 @@ public class ClassService {
     private final ClassRepository classRepository;
     private final TeacherRepository teacherRepository;
     private final TeacherAssignmentRepository teacherAssignmentRepository;
+    private final ClassEventPublisher classEventPublisher;
 
     public ClassService(
             ClassRepository classRepository,
             TeacherRepository teacherRepository,
-            TeacherAssignmentRepository teacherAssignmentRepository
+            TeacherAssignmentRepository teacherAssignmentRepository,
+            ClassEventPublisher classEventPublisher
     ) {
         this.classRepository = classRepository;
         this.teacherRepository = teacherRepository;
         this.teacherAssignmentRepository = teacherAssignmentRepository;
+        this.classEventPublisher = classEventPublisher;
     }
 
     /**
@@ -102,6 +107,8 @@ public class ClassService {
         com.visor.school.academic.model.Class saved = classRepository.save(classEntity);
         logger.info("Homeroom class created: {}", saved.getId());
 
+        classEventPublisher.publishClassScheduleChanged(saved);
+
         return saved;
     }
 
@@ -148,6 +155,8 @@ public class ClassService {
         com.visor.school.academic.model.Class saved = classRepository.save(classEntity);
         logger.info("Subject class created: {}", saved.getId());
 
+        classEventPublisher.publishClassScheduleChanged(saved);
+
         return saved;
     }
 
@@ -200,14 +209,20 @@ public class ClassService {
                 .findFirst()
                 .orElseThrow(() -> new IllegalStateException("Teacher assignment not found"));
 
-        // Update class teacher ID
-        // Note: In a full implementation, we'd need to update the Class entity
-        // For now, we'll create a new assignment with isClassTeacher flag
-        // This would require modifying the Class entity to update classTeacherId
+        teacherAssignment.setClassTeacher(true);
+        teacherAssignment.setAssignedBy(assignedBy);
+        teacherAssignment.setUpdatedAt(Instant.now());
+        teacherAssignmentRepository.save(teacherAssignment);
+
+        classEntity.assignClassTeacher(teacherId);
+        com.visor.school.academic.model.Class saved = classRepository.save(classEntity);
 
         logger.info("Class teacher assigned: teacher {} to class {}", teacherId, classId);
 
-        return classEntity;
+        // Consumers keeping a schedule copy (attendance session pre-generation) need the new teacher
+        classEventPublisher.publishClassScheduleChanged(saved);
+
+        return saved;
     }
 
     /**
@@ -247,6 +262,22 @@ public class ClassService {
         classEntity.updateStatus(status);
         logger.info("Updated class status for {} to {}", id, status);
 
-        return classRepository.save(classEntity);
+        com.visor.school.academic.model.Class saved = classRepository.save(classEntity);
+        classEventPublisher.publishClassScheduleChanged(saved);
+        return saved;
+    }
+
+    /**
+     * Republish the schedule of every class, e.g. to seed a consumer's copy
+     * Returns the number of classes published
+     */
+    @Transactional(readOnly = true)
+    public int republishClassSchedules() {
+        List<com.visor.school.academic.model.Class> classes = classRepository.findAll();
+        for (com.visor.school.academic.model.Class classEntity : classes) {
+            classEventPublisher.publishClassScheduleChanged(classEntity);
+        }
+        logger.info("Republished schedules of {} classes", classes.size());
+        return classes.size();
     }
 }
@@ -1,5 +1,6 @@
 package com.visor.school.academic.service;
 
+import com.visor.school.academic.event.ClassLeadershipEventPublisher;
 import com.visor.school.academic.model.LeadershipPosition;
 import com.visor.school.academic.model.StudentClassLeadership;
 import com.visor.school.academic.repository.StudentClassLeadershipRepository;
@@ -21,9 +22,14 @@ public class StudentClassLeadershipService {
     private static final Logger logger = LoggerFactory.getLogger(StudentClassLeadershipService.class);
 
     private final StudentClassLeadershipRepository leadershipRepository;
+    private final ClassLeadershipEventPublisher classLeadershipEventPublisher;
 
-    public StudentClassLeadershipService(StudentClassLeadershipRepository leadershipRepository) {
+    public StudentClassLeadershipService(
+            StudentClassLeadershipRepository leadershipRepository,
+            ClassLeadershipEventPublisher classLeadershipEventPublisher
+    ) {
         this.leadershipRepository = leadershipRepository;
+        this.classLeadershipEventPublisher = classLeadershipEventPublisher;
     }
 
     /**
@@ -68,6 +74,8 @@ public class StudentClassLeadershipService {
         StudentClassLeadership saved = leadershipRepository.save(leadership);
         logger.info("Class leader assigned: {}", saved.getId());
 
+        classLeadershipEventPublisher.publishLeaderAssigned(saved, leadershipRepository.findByClassId(classId));
+
         return saved;
     }
 
@@ -106,5 +114,7 @@ public class StudentClassLeadershipService {
 
         leadershipRepository.delete(leadership);
         logger.info("Class leader assignment removed");
+
+        classLeadershipEventPublisher.publishLeaderRemoved(leadership, leadershipRepository.findByClassId(classId));
     }
 }
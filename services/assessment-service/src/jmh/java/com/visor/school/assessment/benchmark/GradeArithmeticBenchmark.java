@@ -0,0 +1,221 @@
+package com.visor.school.assessment.benchmark;
+
+import com.visor.school.assessment.model.Grade;
+import com.visor.school.assessment.service.GradeCalculator;
+import com.visor.school.assessment.service.LetterGradeConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recomputes percentage, letter grade and per-student average for every grade, once with the
+ * BigDecimal arithmetic and if-chain converter the service used before and once with the
+ * basis-point fast path. Setup runs both over the full data set and fails the run unless every
+ * percentage, letter grade and average is identical, including GradeCalculator.calculateAverage
+ * and the BigDecimal converter against the old implementations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class GradeArithmeticBenchmark {
+
+    private static final int ASSESSMENTS_PER_STUDENT = 40;
+    private static final int AVERAGE_CHECK_STUDENTS = 1000;
+
+    // Totals in hundredths; powers of two and odd totals produce exact halves at the rounding digit
+    private static final long[] TOTALS = {300, 750, 1000, 1550, 1600, 2000, 2500, 3000, 3200, 5000, 7500, 8000, 10000};
+
+    @Param({"1000000"})
+    private int gradeCount;
+
+    private final LetterGradeConverter converter = new LetterGradeConverter();
+    private final GradeCalculator calculator = new GradeCalculator();
+
+    private long[] scoreHundredths;
+    private long[] totalHundredths;
+    private BigDecimal[] scores;
+    private BigDecimal[] totals;
+    private BigDecimal[] percentages;
+    private int students;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        students = (gradeCount + ASSESSMENTS_PER_STUDENT - 1) / ASSESSMENTS_PER_STUDENT;
+        scoreHundredths = new long[gradeCount];
+        totalHundredths = new long[gradeCount];
+        scores = new BigDecimal[gradeCount];
+        totals = new BigDecimal[gradeCount];
+        percentages = new BigDecimal[gradeCount];
+        for (int i = 0; i < gradeCount; i++) {
+            long total = TOTALS[random.nextInt(TOTALS.length)];
+            long score = random.nextInt(8) == 0 ? total : random.nextLong(total + 1);
+            scoreHundredths[i] = score;
+            totalHundredths[i] = total;
+            scores[i] = BigDecimal.valueOf(score, 2);
+            totals[i] = BigDecimal.valueOf(total, 2);
+            percentages[i] = legacyPercentage(scores[i], totals[i]);
+        }
+        verifyEquivalence();
+    }
+
+    @Benchmark
+    public void decimalRecompute(Blackhole blackhole) {
+        BigDecimal sum = BigDecimal.ZERO;
+        int count = 0;
+        for (int i = 0; i < gradeCount; i++) {
+            BigDecimal percentage = legacyPercentage(scores[i], totals[i]);
+            blackhole.consume(legacyConvert(percentage));
+            sum = sum.add(percentage);
+            if (++count == ASSESSMENTS_PER_STUDENT || i == gradeCount - 1) {
+                blackhole.consume(sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP));
+                sum = BigDecimal.ZERO;
+                count = 0;
+            }
+        }
+    }
+
+    @Benchmark
+    public void basisPointRecompute(Blackhole blackhole) {
+        long sum = 0;
+        int count = 0;
+        for (int i = 0; i < gradeCount; i++) {
+            long basisPoints = GradeCalculator.percentageBasisPoints(scoreHundredths[i], totalHundredths[i]);
+            blackhole.consume(converter.convertBasisPoints(basisPoints));
+            sum += basisPoints;
+            if (++count == ASSESSMENTS_PER_STUDENT || i == gradeCount - 1) {
+                blackhole.consume(GradeCalculator.averageBasisPoints(sum, count));
+                sum = 0;
+                count = 0;
+            }
+        }
+    }
+
+    @Benchmark
+    public void decimalLetterGrades(Blackhole blackhole) {
+        for (BigDecimal percentage : percentages) {
+            blackhole.consume(legacyConvert(percentage));
+        }
+    }
+
+    @Benchmark
+    public void tableLetterGrades(Blackhole blackhole) {
+        for (BigDecimal percentage : percentages) {
+            blackhole.consume(converter.convert(percentage));
+        }
+    }
+
+    private void verifyEquivalence() {
+        long sum = 0;
+        BigDecimal decimalSum = BigDecimal.ZERO;
+        int count = 0;
+        for (int i = 0; i < gradeCount; i++) {
+            BigDecimal expected = percentages[i];
+            long basisPoints = GradeCalculator.percentageBasisPoints(scoreHundredths[i], totalHundredths[i]);
+            if (!BigDecimal.valueOf(basisPoints, 2).equals(expected)) {
+                throw mismatch("percentage", i, expected, basisPoints);
+            }
+            String letter = legacyConvert(expected);
+            if (!letter.equals(converter.convertBasisPoints(basisPoints))
+                    || !letter.equals(converter.convert(expected))
+                    || !letter.equals(converter.convert(scores[i], totals[i]))) {
+                throw mismatch("letter grade", i, letter, basisPoints);
+            }
+
+            sum += basisPoints;
+            decimalSum = decimalSum.add(expected);
+            if (++count == ASSESSMENTS_PER_STUDENT || i == gradeCount - 1) {
+                BigDecimal expectedAverage = decimalSum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+                long average = GradeCalculator.averageBasisPoints(sum, count);
+                if (!BigDecimal.valueOf(average, 2).equals(expectedAverage)) {
+                    throw mismatch("average", i, expectedAverage, average);
+                }
+                sum = 0;
+                decimalSum = BigDecimal.ZERO;
+                count = 0;
+            }
+        }
+
+        for (int student = 0; student < Math.min(students, AVERAGE_CHECK_STUDENTS); student++) {
+            UUID studentId = UUID.randomUUID();
+            List<Grade> grades = new ArrayList<>(ASSESSMENTS_PER_STUDENT);
+            BigDecimal expectedSum = BigDecimal.ZERO;
+            int end = Math.min(gradeCount, (student + 1) * ASSESSMENTS_PER_STUDENT);
+            for (int i = student * ASSESSMENTS_PER_STUDENT; i < end; i++) {
+                grades.add(new Grade(studentId, UUID.randomUUID(), scores[i], totals[i], studentId));
+                expectedSum = expectedSum.add(percentages[i]);
+            }
+            BigDecimal expected = expectedSum.divide(BigDecimal.valueOf(grades.size()), 2, RoundingMode.HALF_UP);
+            BigDecimal actual = calculator.calculateAverage(grades);
+            if (!actual.equals(expected)) {
+                throw mismatch("calculateAverage", student, expected, actual);
+            }
+        }
+    }
+
+    private static IllegalStateException mismatch(String what, int index, Object expected, Object actual) {
+        return new IllegalStateException(
+            "Fast path " + what + " differs at " + index + ": expected " + expected + ", got " + actual);
+    }
+
+    // Grade.calculatePercentage as it was before the fast path
+    private static BigDecimal legacyPercentage(BigDecimal score, BigDecimal totalPoints) {
+        if (totalPoints.compareTo(BigDecimal.ZERO) > 0) {
+            return score.divide(totalPoints, 4, RoundingMode.HALF_UP)
+                .multiply(new BigDecimal("100.0"))
+                .setScale(2, RoundingMode.HALF_UP);
+        }
+        return BigDecimal.ZERO;
+    }
+
+    // LetterGradeConverter.convert as it was before the threshold table
+    private static String legacyConvert(BigDecimal percentage) {
+        if (percentage.compareTo(new BigDecimal("97.0")) >= 0) {
+            return "A+";
+        } else if (percentage.compareTo(new BigDecimal("93.0")) >= 0) {
+            return "A";
+        } else if (percentage.compareTo(new BigDecimal("90.0")) >= 0) {
+            return "A-";
+        } else if (percentage.compareTo(new BigDecimal("87.0")) >= 0) {
+            return "B+";
+        } else if (percentage.compareTo(new BigDecimal("83.0")) >= 0) {
+            return "B";
+        } else if (percentage.compareTo(new BigDecimal("80.0")) >= 0) {
+            return "B-";
+        } else if (percentage.compareTo(new BigDecimal("77.0")) >= 0) {
+            return "C+";
+        } else if (percentage.compareTo(new BigDecimal("73.0")) >= 0) {
+            return "C";
+        } else if (percentage.compareTo(new BigDecimal("70.0")) >= 0) {
+            return "C-";
+        } else if (percentage.compareTo(new BigDecimal("67.0")) >= 0) {
+            return "D+";
+        } else if (percentage.compareTo(new BigDecimal("63.0")) >= 0) {
+            return "D";
+        } else if (percentage.compareTo(new BigDecimal("60.0")) >= 0) {
+            return "D-";
+        } else {
+            return "F";
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.visor.school.assessment.config;
+
+import com.visor.school.assessment.event.GradeEventPublisher;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * RabbitMQ configuration for academic-assessment-service.
+ * Configures JSON message converter for publishing domain events; consumers read them as maps.
+ */
+@Configuration
+public class RabbitMQConfig {
+
+    @Bean
+    public MessageConverter messageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+    @Bean
+    public TopicExchange schoolManagementExchange() {
+        return new TopicExchange(GradeEventPublisher.EXCHANGE_NAME, true, false);
+    }
+
+    /**
+     * Per-instance queue feeding the in-memory weighted gradebooks. Every replica keeps its own
+     * copy, so each needs every grade event rather than a share of a work queue.
+     */
+    @Bean
+    public Queue gradeFeedQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding gradeFeedRecordedBinding() {
+        return BindingBuilder
+            .bind(gradeFeedQueue())
+            .to(schoolManagementExchange())
+            .with(GradeEventPublisher.GRADE_RECORDED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding gradeFeedUpdatedBinding() {
+        return BindingBuilder
+            .bind(gradeFeedQueue())
+            .to(schoolManagementExchange())
+            .with(GradeEventPublisher.GRADE_UPDATED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding gradeFeedBatchRecordedBinding() {
+        return BindingBuilder
+            .bind(gradeFeedQueue())
+            .to(schoolManagementExchange())
+            .with(GradeEventPublisher.GRADE_BATCH_RECORDED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding gradeFeedCategoryWeightsChangedBinding() {
+        return BindingBuilder
+            .bind(gradeFeedQueue())
+            .to(schoolManagementExchange())
+            .with(GradeEventPublisher.CATEGORY_WEIGHTS_CHANGED_ROUTING_KEY);
+    }
+}
@@ -1,8 +1,11 @@
 package com.visor.school.assessment.controller;
 
 import com.visor.school.assessment.model.Assessment;
+import com.visor.school.assessment.model.AssessmentCategory;
 import com.visor.school.assessment.model.AssessmentType;
 import com.visor.school.assessment.service.AssessmentService;
+import com.visor.school.assessment.service.ScoreDistributionService;
+import com.visor.school.assessment.service.ScoreDistributionService.ScoreDistribution;
 import com.visor.school.common.api.ApiResponse;
 import com.visor.school.common.api.Permissions;
 import jakarta.validation.Valid;
@@ -29,9 +32,12 @@ import java.util.stream.Collectors;
 public class AssessmentController {
     
     private final AssessmentService assessmentService;
+    private final ScoreDistributionService scoreDistributionService;
 
-    public AssessmentController(AssessmentService assessmentService) {
+    public AssessmentController(AssessmentService assessmentService,
+                                ScoreDistributionService scoreDistributionService) {
         this.assessmentService = assessmentService;
+        this.scoreDistributionService = scoreDistributionService;
     }
 
     /**
@@ -44,6 +50,7 @@ public class AssessmentController {
             request.getClassId(),
             request.getName(),
             AssessmentType.valueOf(request.getType()),
+            request.getCategory() != null ? AssessmentCategory.valueOf(request.getCategory()) : null,
             request.getTotalPoints(),
             request.getCreatedBy(), // In production, get from JWT token
             request.getDescription(),
@@ -82,6 +89,29 @@ public class AssessmentController {
         return ResponseEntity.ok(ApiResponse.success(responses));
     }
 
+    /**
+     * Get the score distribution of an assessment's grades: mean, standard deviation, median,
+     * percentiles and a histogram with bins of binWidth percentage points
+     */
+    @GetMapping("/{id}/statistics")
+    @PreAuthorize("hasRole('ADMINISTRATOR') or hasRole('TEACHER')")
+    public ResponseEntity<ApiResponse<ScoreDistribution>> getScoreDistribution(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "10") int binWidth) {
+        return ResponseEntity.ok(ApiResponse.success(scoreDistributionService.getDistribution(id, binWidth)));
+    }
+
+    /**
+     * Rebuild an assessment's score distribution from its grades
+     */
+    @PostMapping("/{id}/statistics/rebuild")
+    @PreAuthorize("hasRole('ADMINISTRATOR')")
+    public ResponseEntity<ApiResponse<ScoreDistribution>> rebuildScoreDistribution(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "10") int binWidth) {
+        return ResponseEntity.ok(ApiResponse.success(scoreDistributionService.rebuild(id, binWidth)));
+    }
+
     /**
      * Publish an assessment
      */
@@ -107,6 +137,7 @@ class CreateAssessmentRequest {
     @Positive
     private BigDecimal totalPoints;
 
+    private String category; // Defaults from type: HOMEWORK, QUIZ or EXAM
     private String description;
     private BigDecimal weight;
     private String dueDate;
@@ -121,6 +152,8 @@ class CreateAssessmentRequest {
     public void setName(String name) { this.name = name; }
     public String getType() { return type; }
     public void setType(String type) { this.type = type; }
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
     public BigDecimal getTotalPoints() { return totalPoints; }
     public void setTotalPoints(BigDecimal totalPoints) { this.totalPoints = totalPoints; }
     public String getDescription() { return description; }
@@ -138,6 +171,7 @@ class AssessmentResponse {
     private final UUID classId;
     private final String name;
     private final String type;
+    private final String category;
     private final String description;
     private final String totalPoints;
     private final String weight;
@@ -147,13 +181,14 @@ class AssessmentResponse {
     private final String createdAt;
     private final String updatedAt;
 
-    public AssessmentResponse(UUID id, UUID classId, String name, String type, String description,
+    public AssessmentResponse(UUID id, UUID classId, String name, String type, String category, String description,
                              String totalPoints, String weight, String dueDate, UUID createdBy,
                              String status, String createdAt, String updatedAt) {
         this.id = id;
         this.classId = classId;
         this.name = name;
         this.type = type;
+        this.category = category;
         this.description = description;
         this.totalPoints = totalPoints;
         this.weight = weight;
@@ -170,6 +205,7 @@ class AssessmentResponse {
             assessment.getClassId(),
             assessment.getName(),
             assessment.getType().name(),
+            assessment.getCategory().name(),
             assessment.getDescription(),
             assessment.getTotalPoints().toString(),
             assessment.getWeight() != null ? assessment.getWeight().toString() : null,
@@ -186,6 +222,7 @@ class AssessmentResponse {
     public UUID getClassId() { return classId; }
     public String getName() { return name; }
     public String getType() { return type; }
+    public String getCategory() { return category; }
     public String getDescription() { return description; }
     public String getTotalPoints() { return totalPoints; }
     public String getWeight() { return weight; }
@@ -2,11 +2,15 @@ package com.visor.school.assessment.controller;
 
 import com.visor.school.assessment.model.Grade;
 import com.visor.school.assessment.service.GradeService;
+import com.visor.school.assessment.service.GradeService.BulkGradeResult;
+import com.visor.school.assessment.service.GradeService.GradeEntry;
 import com.visor.school.common.api.ApiResponse;
 import com.visor.school.common.api.Permissions;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -47,6 +51,27 @@ public class GradeController {
         return ResponseEntity.ok(ApiResponse.success(GradeResponse.from(grade)));
     }
 
+    /**
+     * Record or update grades for many students on one assessment in a single transaction
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMINISTRATOR') or (hasRole('TEACHER') and hasAuthority('" + Permissions.MANAGE_GRADES + "'))")
+    public ResponseEntity<ApiResponse<List<BulkGradeResponse>>> recordGrades(@Valid @RequestBody BulkRecordGradesRequest request) {
+        List<GradeEntry> entries = request.getGrades().stream()
+            .map(grade -> new GradeEntry(grade.getStudentId(), grade.getScore(), grade.getNotes(), grade.getExpectedVersion()))
+            .collect(Collectors.toList());
+        List<BulkGradeResult> results = gradeService.recordGrades(
+            request.getAssessmentId(),
+            entries,
+            request.getRecordedBy() // In production, get from JWT token
+        );
+
+        List<BulkGradeResponse> responses = results.stream()
+            .map(BulkGradeResponse::from)
+            .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success(responses));
+    }
+
     /**
      * Update an existing grade
      */
@@ -120,6 +145,50 @@ class RecordGradeRequest {
     public void setRecordedBy(UUID recordedBy) { this.recordedBy = recordedBy; }
 }
 
+class BulkRecordGradesRequest {
+    @NotNull
+    private UUID assessmentId;
+
+    @NotNull
+    private UUID recordedBy; // In production, get from JWT token
+
+    @NotEmpty
+    @Size(max = 1000)
+    @Valid
+    private List<BulkGradeEntryRequest> grades;
+
+    // Getters and Setters
+    public UUID getAssessmentId() { return assessmentId; }
+    public void setAssessmentId(UUID assessmentId) { this.assessmentId = assessmentId; }
+    public UUID getRecordedBy() { return recordedBy; }
+    public void setRecordedBy(UUID recordedBy) { this.recordedBy = recordedBy; }
+    public List<BulkGradeEntryRequest> getGrades() { return grades; }
+    public void setGrades(List<BulkGradeEntryRequest> grades) { this.grades = grades; }
+}
+
+class BulkGradeEntryRequest {
+    @NotNull
+    private UUID studentId;
+
+    @NotNull
+    @PositiveOrZero
+    private BigDecimal score;
+
+    private String notes;
+
+    private Long expectedVersion; // Version last read by the client; omit to skip the check
+
+    // Getters and Setters
+    public UUID getStudentId() { return studentId; }
+    public void setStudentId(UUID studentId) { this.studentId = studentId; }
+    public BigDecimal getScore() { return score; }
+    public void setScore(BigDecimal score) { this.score = score; }
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+    public Long getExpectedVersion() { return expectedVersion; }
+    public void setExpectedVersion(Long expectedVersion) { this.expectedVersion = expectedVersion; }
+}
+
 class UpdateGradeRequest {
     @NotNull
     private UUID studentId;
@@ -211,3 +280,53 @@ class GradeResponse {
     public String getUpdatedBy() { return updatedBy; }
     public String getNotes() { return notes; }
 }
+
+class BulkGradeResponse {
+    private final UUID id;
+    private final UUID studentId;
+    private final String score;
+    private final String totalPoints;
+    private final String percentage;
+    private final String letterGrade;
+    private final String notes;
+    private final long version;
+    private final String outcome;
+
+    public BulkGradeResponse(UUID id, UUID studentId, String score, String totalPoints, String percentage,
+                            String letterGrade, String notes, long version, String outcome) {
+        this.id = id;
+        this.studentId = studentId;
+        this.score = score;
+        this.totalPoints = totalPoints;
+        this.percentage = percentage;
+        this.letterGrade = letterGrade;
+        this.notes = notes;
+        this.version = version;
+        this.outcome = outcome;
+    }
+
+    public static BulkGradeResponse from(BulkGradeResult result) {
+        return new BulkGradeResponse(
+            result.getGradeId(),
+            result.getStudentId(),
+            result.getScore().toString(),
+            result.getTotalPoints().toString(),
+            result.getPercentage().toString(),
+            result.getLetterGrade(),
+            result.getNotes(),
+            result.getVersion(),
+            result.getOutcome().name()
+        );
+    }
+
+    // Getters
+    public UUID getId() { return id; }
+    public UUID getStudentId() { return studentId; }
+    public String getScore() { return score; }
+    public String getTotalPoints() { return totalPoints; }
+    public String getPercentage() { return percentage; }
+    public String getLetterGrade() { return letterGrade; }
+    public String getNotes() { return notes; }
+    public long getVersion() { return version; }
+    public String getOutcome() { return outcome; }
+}
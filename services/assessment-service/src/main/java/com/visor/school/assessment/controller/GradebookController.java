@@ -1,13 +1,30 @@
 package com.visor.school.assessment.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.visor.school.assessment.model.AssessmentCategory;
 import com.visor.school.assessment.service.ClassGradebook;
 import com.visor.school.assessment.service.GradebookService;
+import com.visor.school.assessment.service.StudentGradeAggregateService;
+import com.visor.school.assessment.service.StudentGradeAggregateService.DriftReport;
+import com.visor.school.assessment.service.StudentGradeAggregateService.GradeSummary;
 import com.visor.school.assessment.service.StudentGradebook;
+import com.visor.school.assessment.service.WeightedGradebookService;
+import com.visor.school.assessment.service.WeightedGradebookService.StudentWeightedGrades;
+import com.visor.school.assessment.service.WeightedGradebookService.WeightedClassGradebook;
 import com.visor.school.common.api.ApiResponse;
+import com.visor.school.common.api.Permissions;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -20,9 +37,15 @@ import java.util.stream.Collectors;
 public class GradebookController {
     
     private final GradebookService gradebookService;
+    private final StudentGradeAggregateService studentGradeAggregateService;
+    private final WeightedGradebookService weightedGradebookService;
 
-    public GradebookController(GradebookService gradebookService) {
+    public GradebookController(GradebookService gradebookService,
+                               StudentGradeAggregateService studentGradeAggregateService,
+                               WeightedGradebookService weightedGradebookService) {
         this.gradebookService = gradebookService;
+        this.studentGradeAggregateService = studentGradeAggregateService;
+        this.weightedGradebookService = weightedGradebookService;
     }
 
     /**
@@ -35,6 +58,48 @@ public class GradebookController {
         return ResponseEntity.ok(ApiResponse.success(ClassGradebookResponse.from(gradebook)));
     }
 
+    /**
+     * Get weighted averages per category and overall for every student of a class
+     */
+    @GetMapping("/class/{classId}/weighted")
+    @PreAuthorize("hasRole('ADMINISTRATOR') or hasRole('TEACHER')")
+    public ResponseEntity<ApiResponse<WeightedClassGradebook>> getWeightedClassGradebook(@PathVariable UUID classId) {
+        return ResponseEntity.ok(ApiResponse.success(weightedGradebookService.getClassGradebook(classId)));
+    }
+
+    /**
+     * Get one student's weighted averages per category and overall in a class
+     */
+    @GetMapping("/class/{classId}/weighted/student/{studentId}")
+    @PreAuthorize("hasRole('ADMINISTRATOR') or hasRole('TEACHER') or hasRole('STUDENT') or hasRole('PARENT')")
+    public ResponseEntity<ApiResponse<StudentWeightedGrades>> getStudentWeightedGrades(
+            @PathVariable UUID classId,
+            @PathVariable UUID studentId) {
+        return ResponseEntity.ok(ApiResponse.success(weightedGradebookService.getStudentGrades(classId, studentId)));
+    }
+
+    /**
+     * Get the category weights of a class
+     */
+    @GetMapping("/class/{classId}/category-weights")
+    @PreAuthorize("hasRole('ADMINISTRATOR') or hasRole('TEACHER') or hasRole('STUDENT') or hasRole('PARENT')")
+    public ResponseEntity<ApiResponse<Map<AssessmentCategory, BigDecimal>>> getCategoryWeights(@PathVariable UUID classId) {
+        return ResponseEntity.ok(ApiResponse.success(weightedGradebookService.getCategoryWeights(classId)));
+    }
+
+    /**
+     * Set some or all category weights of a class
+     */
+    @PutMapping("/class/{classId}/category-weights")
+    @PreAuthorize("hasRole('ADMINISTRATOR') or (hasRole('TEACHER') and hasAuthority('" + Permissions.MANAGE_GRADES + "'))")
+    public ResponseEntity<ApiResponse<Map<AssessmentCategory, BigDecimal>>> setCategoryWeights(
+            @PathVariable UUID classId,
+            @Valid @RequestBody SetCategoryWeightsRequest request) {
+        Map<AssessmentCategory, BigDecimal> weights = weightedGradebookService.setCategoryWeights(
+            classId, request.getWeights(), request.getUpdatedBy());
+        return ResponseEntity.ok(ApiResponse.success(weights, "Category weights updated successfully"));
+    }
+
     /**
      * Get student gradebook with all assessments and grades
      */
@@ -44,65 +109,113 @@ public class GradebookController {
         StudentGradebook gradebook = gradebookService.getStudentGradebook(studentId);
         return ResponseEntity.ok(ApiResponse.success(StudentGradebookResponse.from(gradebook)));
     }
+
+    /**
+     * Get a student's grade averages overall and per class, from the running aggregates
+     */
+    @GetMapping("/student/{studentId}/summary")
+    @PreAuthorize("hasRole('ADMINISTRATOR') or hasRole('TEACHER') or hasRole('STUDENT') or hasRole('PARENT')")
+    public ResponseEntity<ApiResponse<List<GradeSummary>>> getStudentGradeSummary(@PathVariable UUID studentId) {
+        return ResponseEntity.ok(ApiResponse.success(studentGradeAggregateService.getSummaries(studentId)));
+    }
+
+    /**
+     * Recompute the running aggregates from grades and report any drift
+     */
+    @PostMapping("/aggregates/verify")
+    @PreAuthorize("hasRole('ADMINISTRATOR')")
+    public ResponseEntity<ApiResponse<DriftReport>> verifyAggregates() {
+        return ResponseEntity.ok(ApiResponse.success(studentGradeAggregateService.verify()));
+    }
 }
 
+class SetCategoryWeightsRequest {
+    @NotEmpty
+    private Map<AssessmentCategory, BigDecimal> weights;
+
+    @NotNull
+    private UUID updatedBy; // In production, get from JWT token
+
+    // Getters and Setters
+    public Map<AssessmentCategory, BigDecimal> getWeights() { return weights; }
+    public void setWeights(Map<AssessmentCategory, BigDecimal> weights) { this.weights = weights; }
+    public UUID getUpdatedBy() { return updatedBy; }
+    public void setUpdatedBy(UUID updatedBy) { this.updatedBy = updatedBy; }
+}
+
+/**
+ * Class gradebook JSON written straight from the score matrix, without per-grade maps:
+ * assessments, then each student's grades (cells without a grade omitted), then averages
+ */
+@JsonSerialize(using = ClassGradebookResponse.Serializer.class)
 class ClassGradebookResponse {
-    private final UUID classId;
-    private final List<Map<String, Object>> assessments;
-    private final Map<String, List<Map<String, Object>>> studentGrades;
-    private final Map<String, Object> studentAverages;
-
-    public ClassGradebookResponse(UUID classId, List<Map<String, Object>> assessments,
-                                 Map<String, List<Map<String, Object>>> studentGrades,
-                                 Map<String, Object> studentAverages) {
-        this.classId = classId;
-        this.assessments = assessments;
-        this.studentGrades = studentGrades;
-        this.studentAverages = studentAverages;
+    private final ClassGradebook gradebook;
+
+    private ClassGradebookResponse(ClassGradebook gradebook) {
+        this.gradebook = gradebook;
     }
 
     public static ClassGradebookResponse from(ClassGradebook gradebook) {
-        List<Map<String, Object>> assessments = gradebook.getAssessments().stream()
-            .map(assessment -> {
-                Map<String, Object> map = new HashMap<>();
-                map.put("id", assessment.getId().toString());
-                map.put("name", assessment.getName());
-                map.put("type", assessment.getType().name());
-                map.put("totalPoints", assessment.getTotalPoints().toString());
-                map.put("status", assessment.getStatus().name());
-                return map;
-            })
-            .collect(Collectors.toList());
+        return new ClassGradebookResponse(gradebook);
+    }
 
-        Map<String, List<Map<String, Object>>> studentGrades = new HashMap<>();
-        for (Map.Entry<UUID, List<com.visor.school.assessment.model.Grade>> entry : gradebook.getStudentGrades().entrySet()) {
-            List<Map<String, Object>> gradesList = entry.getValue().stream()
-                .map(grade -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", grade.getId().toString());
-                    map.put("assessmentId", grade.getAssessmentId().toString());
-                    map.put("score", grade.getScore());
-                    map.put("percentage", grade.getPercentage());
-                    map.put("letterGrade", grade.getLetterGrade() != null ? grade.getLetterGrade() : "");
-                    return map;
-                })
-                .collect(Collectors.toList());
-            studentGrades.put(entry.getKey().toString(), gradesList);
-        }
+    static class Serializer extends StdSerializer<ClassGradebookResponse> {
 
-        Map<String, Object> studentAverages = new HashMap<>();
-        for (Map.Entry<UUID, java.math.BigDecimal> entry : gradebook.getStudentAverages().entrySet()) {
-            studentAverages.put(entry.getKey().toString(), entry.getValue());
+        Serializer() {
+            super(ClassGradebookResponse.class);
         }
 
-        return new ClassGradebookResponse(gradebook.getClassId(), assessments, studentGrades, studentAverages);
+        @Override
+        public void serialize(ClassGradebookResponse value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            ClassGradebook gradebook = value.gradebook;
+            List<ClassGradebook.AssessmentColumn> assessments = gradebook.getAssessments();
+            int students = gradebook.getStudentCount();
+
+            gen.writeStartObject();
+            gen.writeStringField("classId", gradebook.getClassId().toString());
+
+            gen.writeArrayFieldStart("assessments");
+            for (ClassGradebook.AssessmentColumn assessment : assessments) {
+                gen.writeStartObject();
+                gen.writeStringField("id", assessment.id().toString());
+                gen.writeStringField("name", assessment.name());
+                gen.writeStringField("type", assessment.type().name());
+                gen.writeStringField("totalPoints", assessment.totalPoints().toString());
+                gen.writeStringField("status", assessment.status().name());
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+
+            gen.writeObjectFieldStart("studentGrades");
+            for (int row = 0; row < students; row++) {
+                gen.writeArrayFieldStart(gradebook.getStudentId(row).toString());
+                for (int column = 0; column < assessments.size(); column++) {
+                    if (!gradebook.hasGrade(row, column)) {
+                        continue;
+                    }
+                    String letterGrade = gradebook.getLetterGrade(row, column);
+                    gen.writeStartObject();
+                    gen.writeStringField("id", gradebook.getGradeId(row, column).toString());
+                    gen.writeStringField("assessmentId", assessments.get(column).id().toString());
+                    gen.writeNumberField("score", gradebook.getScore(row, column));
+                    gen.writeNumberField("percentage", gradebook.getPercentage(row, column));
+                    gen.writeStringField("letterGrade", letterGrade != null ? letterGrade : "");
+                    gen.writeEndObject();
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+
+            gen.writeObjectFieldStart("studentAverages");
+            for (int row = 0; row < students; row++) {
+                gen.writeNumberField(gradebook.getStudentId(row).toString(), gradebook.getStudentAverage(row));
+            }
+            gen.writeEndObject();
+
+            gen.writeEndObject();
+        }
     }
-
-    // Getters
-    public UUID getClassId() { return classId; }
-    public List<Map<String, Object>> getAssessments() { return assessments; }
-    public Map<String, List<Map<String, Object>>> getStudentGrades() { return studentGrades; }
-    public Map<String, Object> getStudentAverages() { return studentAverages; }
 }
 
 class StudentGradebookResponse {
@@ -65,19 +65,11 @@ public class ReportCollectionController {
             @RequestHeader("X-User-Id") String userId) {
         UUID classTeacherId = UUID.fromString(userId);
 
-        // First aggregate the report
-        Map<String, Object> reportData = reportCollectionService.aggregateReport(request.getCollectionId());
-
-        // Add additional data if provided
-        if (request.getAdditionalData() != null) {
-            reportData.putAll(request.getAdditionalData());
-        }
-
-        // Then submit it
+        // The report is aggregated from the collection's snapshot, with any additional data merged over it
         ReportSubmission submission = reportCollectionService.submitReport(
             request.getCollectionId(),
             classTeacherId,
-            reportData
+            request.getAdditionalData()
         );
 
         ReportSubmissionResponse response = ReportSubmissionResponse.from(submission);
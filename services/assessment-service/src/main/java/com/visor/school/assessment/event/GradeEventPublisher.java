@@ -1,16 +1,22 @@
 package com.visor.school.assessment.event;
 
 import com.visor.school.assessment.model.Grade;
+import com.visor.school.assessment.repository.GradeBulkRepository.GradeRow;
 import com.visor.school.common.events.BaseEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Publisher for grade-related events to RabbitMQ
@@ -22,6 +28,8 @@ public class GradeEventPublisher {
     public static final String EXCHANGE_NAME = "school-management.exchange";
     public static final String GRADE_RECORDED_ROUTING_KEY = "assessment.grade.recorded";
     public static final String GRADE_UPDATED_ROUTING_KEY = "assessment.grade.updated";
+    public static final String GRADE_BATCH_RECORDED_ROUTING_KEY = "assessment.grade.batch.recorded";
+    public static final String CATEGORY_WEIGHTS_CHANGED_ROUTING_KEY = "assessment.class.weights.changed";
     
     private final RabbitTemplate rabbitTemplate;
     private final String serviceName;
@@ -35,46 +43,96 @@ public class GradeEventPublisher {
     /**
      * Publish grade recorded event
      */
-    public void publishGradeRecorded(Grade grade) {
-        GradeRecordedEvent event = new GradeRecordedEvent(
+    public void publishGradeRecorded(Grade grade, UUID classId) {
+        sendAfterCommit(GRADE_RECORDED_ROUTING_KEY, () -> new GradeRecordedEvent(
             grade.getId(),
             grade.getStudentId(),
             grade.getAssessmentId(),
+            classId,
             grade.getScore(),
             grade.getTotalPoints(),
             grade.getPercentage(),
             grade.getLetterGrade(),
-            grade.getRecordedBy()
-        );
-
-        try {
-            rabbitTemplate.convertAndSend(EXCHANGE_NAME, GRADE_RECORDED_ROUTING_KEY, event);
-            logger.info("Published assessment.grade.recorded event for grade: {}", grade.getId());
-        } catch (Exception e) {
-            logger.error("Failed to publish assessment.grade.recorded event for grade: {}", grade.getId(), e);
-        }
+            grade.getRecordedBy(),
+            grade.getVersion()
+        ), "grade: " + grade.getId());
     }
 
     /**
      * Publish grade updated event
      */
-    public void publishGradeUpdated(Grade grade) {
+    public void publishGradeUpdated(Grade grade, UUID classId) {
         UUID updatedBy = grade.getUpdatedBy() != null ? grade.getUpdatedBy() : grade.getRecordedBy();
-        GradeUpdatedEvent event = new GradeUpdatedEvent(
+        sendAfterCommit(GRADE_UPDATED_ROUTING_KEY, () -> new GradeUpdatedEvent(
             grade.getId(),
             grade.getStudentId(),
             grade.getAssessmentId(),
+            classId,
             grade.getScore(),
             grade.getPercentage(),
             grade.getLetterGrade(),
-            updatedBy
-        );
+            updatedBy,
+            grade.getVersion()
+        ), "grade: " + grade.getId());
+    }
+
+    /**
+     * Publish one event for all grades created or updated by a bulk submission
+     * Nothing is sent if no grade was written
+     */
+    public void publishGradesBatchRecorded(UUID assessmentId, UUID classId, UUID recordedBy,
+                                           List<GradeRow> created, List<GradeRow> updated) {
+        List<RecordedGrade> grades = new ArrayList<>(created.size() + updated.size());
+        for (GradeRow row : created) {
+            grades.add(RecordedGrade.from(row, "CREATED", row.getVersion()));
+        }
+        for (GradeRow row : updated) {
+            // Updated rows were written with their read version + 1
+            grades.add(RecordedGrade.from(row, "UPDATED", row.getVersion() + 1));
+        }
+        if (grades.isEmpty()) {
+            return;
+        }
+
+        sendAfterCommit(GRADE_BATCH_RECORDED_ROUTING_KEY,
+            () -> new GradesBatchRecordedEvent(assessmentId, classId, recordedBy, grades),
+            "assessment: " + assessmentId + " with " + grades.size() + " grades");
+    }
 
+    /**
+     * Publish a change of a class's category weights, so every replica drops its weighted gradebook
+     */
+    public void publishCategoryWeightsChanged(UUID classId, UUID updatedBy) {
+        sendAfterCommit(CATEGORY_WEIGHTS_CHANGED_ROUTING_KEY,
+            () -> new CategoryWeightsChangedEvent(classId, updatedBy),
+            "class: " + classId);
+    }
+
+    /**
+     * Build and send the event once the surrounding transaction commits, so consumers (including
+     * this service's gradebook caches) never act on a grade that is not yet visible or was rolled
+     * back, and the event timestamp is never earlier than the commit. Grade events carry the
+     * grade's committed version, which orders them per grade independent of any clock.
+     */
+    private void sendAfterCommit(String routingKey, Supplier<BaseEvent> event, String subject) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(routingKey, event, subject);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                send(routingKey, event, subject);
+            }
+        });
+    }
+
+    private void send(String routingKey, Supplier<BaseEvent> event, String subject) {
         try {
-            rabbitTemplate.convertAndSend(EXCHANGE_NAME, GRADE_UPDATED_ROUTING_KEY, event);
-            logger.info("Published assessment.grade.updated event for grade: {}", grade.getId());
+            rabbitTemplate.convertAndSend(EXCHANGE_NAME, routingKey, event.get());
+            logger.info("Published {} event for {}", routingKey, subject);
         } catch (Exception e) {
-            logger.error("Failed to publish assessment.grade.updated event for grade: {}", grade.getId(), e);
+            logger.error("Failed to publish {} event for {}", routingKey, subject, e);
         }
     }
 }
@@ -86,24 +144,28 @@ class GradeRecordedEvent extends BaseEvent {
     private final UUID gradeId;
     private final UUID studentId;
     private final UUID assessmentId;
+    private final UUID classId;
     private final BigDecimal score;
     private final BigDecimal totalPoints;
     private final BigDecimal percentage;
     private final String letterGrade;
     private final UUID recordedBy;
+    private final Long gradeVersion;
 
-    public GradeRecordedEvent(UUID gradeId, UUID studentId, UUID assessmentId, 
+    public GradeRecordedEvent(UUID gradeId, UUID studentId, UUID assessmentId, UUID classId,
                              BigDecimal score, BigDecimal totalPoints, BigDecimal percentage,
-                             String letterGrade, UUID recordedBy) {
+                             String letterGrade, UUID recordedBy, Long gradeVersion) {
         super(UUID.randomUUID(), Instant.now(), "1.0");
         this.gradeId = gradeId;
         this.studentId = studentId;
         this.assessmentId = assessmentId;
+        this.classId = classId;
         this.score = score;
         this.totalPoints = totalPoints;
         this.percentage = percentage;
         this.letterGrade = letterGrade;
         this.recordedBy = recordedBy;
+        this.gradeVersion = gradeVersion;
     }
 
     @Override
@@ -125,11 +187,13 @@ class GradeRecordedEvent extends BaseEvent {
     public UUID getGradeId() { return gradeId; }
     public UUID getStudentId() { return studentId; }
     public UUID getAssessmentId() { return assessmentId; }
+    public UUID getClassId() { return classId; }
     public BigDecimal getScore() { return score; }
     public BigDecimal getTotalPoints() { return totalPoints; }
     public BigDecimal getPercentage() { return percentage; }
     public String getLetterGrade() { return letterGrade; }
     public UUID getRecordedBy() { return recordedBy; }
+    public Long getGradeVersion() { return gradeVersion; }
 }
 
 /**
@@ -139,21 +203,26 @@ class GradeUpdatedEvent extends BaseEvent {
     private final UUID gradeId;
     private final UUID studentId;
     private final UUID assessmentId;
+    private final UUID classId;
     private final BigDecimal score;
     private final BigDecimal percentage;
     private final String letterGrade;
     private final UUID updatedBy;
+    private final Long gradeVersion;
 
-    public GradeUpdatedEvent(UUID gradeId, UUID studentId, UUID assessmentId,
-                            BigDecimal score, BigDecimal percentage, String letterGrade, UUID updatedBy) {
+    public GradeUpdatedEvent(UUID gradeId, UUID studentId, UUID assessmentId, UUID classId,
+                            BigDecimal score, BigDecimal percentage, String letterGrade, UUID updatedBy,
+                            Long gradeVersion) {
         super(UUID.randomUUID(), Instant.now(), "1.0");
         this.gradeId = gradeId;
         this.studentId = studentId;
         this.assessmentId = assessmentId;
+        this.classId = classId;
         this.score = score;
         this.percentage = percentage;
         this.letterGrade = letterGrade;
         this.updatedBy = updatedBy;
+        this.gradeVersion = gradeVersion;
     }
 
     @Override
@@ -175,8 +244,123 @@ class GradeUpdatedEvent extends BaseEvent {
     public UUID getGradeId() { return gradeId; }
     public UUID getStudentId() { return studentId; }
     public UUID getAssessmentId() { return assessmentId; }
+    public UUID getClassId() { return classId; }
     public BigDecimal getScore() { return score; }
     public BigDecimal getPercentage() { return percentage; }
     public String getLetterGrade() { return letterGrade; }
     public UUID getUpdatedBy() { return updatedBy; }
+    public Long getGradeVersion() { return gradeVersion; }
+}
+
+/**
+ * Grades Batch Recorded Event
+ */
+class GradesBatchRecordedEvent extends BaseEvent {
+    private final UUID assessmentId;
+    private final UUID classId;
+    private final UUID recordedBy;
+    private final List<RecordedGrade> grades;
+
+    public GradesBatchRecordedEvent(UUID assessmentId, UUID classId, UUID recordedBy, List<RecordedGrade> grades) {
+        super(UUID.randomUUID(), Instant.now(), "1.0");
+        this.assessmentId = assessmentId;
+        this.classId = classId;
+        this.recordedBy = recordedBy;
+        this.grades = grades;
+    }
+
+    @Override
+    public String getEventType() {
+        return "assessment.grade.batch.recorded";
+    }
+
+    @Override
+    public UUID getAggregateId() {
+        return assessmentId;
+    }
+
+    @Override
+    public String getAggregateType() {
+        return "Assessment";
+    }
+
+    // Getters
+    public UUID getAssessmentId() { return assessmentId; }
+    public UUID getClassId() { return classId; }
+    public UUID getRecordedBy() { return recordedBy; }
+    public List<RecordedGrade> getGrades() { return grades; }
+}
+
+/**
+ * One grade of a batch; outcome is CREATED or UPDATED, gradeVersion is the grade's version after the write
+ */
+class RecordedGrade {
+    private final UUID gradeId;
+    private final UUID studentId;
+    private final BigDecimal score;
+    private final BigDecimal totalPoints;
+    private final BigDecimal percentage;
+    private final String letterGrade;
+    private final String outcome;
+    private final long gradeVersion;
+
+    public RecordedGrade(UUID gradeId, UUID studentId, BigDecimal score, BigDecimal totalPoints,
+                         BigDecimal percentage, String letterGrade, String outcome, long gradeVersion) {
+        this.gradeId = gradeId;
+        this.studentId = studentId;
+        this.score = score;
+        this.totalPoints = totalPoints;
+        this.percentage = percentage;
+        this.letterGrade = letterGrade;
+        this.outcome = outcome;
+        this.gradeVersion = gradeVersion;
+    }
+
+    static RecordedGrade from(GradeRow row, String outcome, long gradeVersion) {
+        return new RecordedGrade(row.getId(), row.getStudentId(), row.getScore(), row.getTotalPoints(),
+            row.getPercentage(), row.getLetterGrade(), outcome, gradeVersion);
+    }
+
+    // Getters
+    public UUID getGradeId() { return gradeId; }
+    public UUID getStudentId() { return studentId; }
+    public BigDecimal getScore() { return score; }
+    public BigDecimal getTotalPoints() { return totalPoints; }
+    public BigDecimal getPercentage() { return percentage; }
+    public String getLetterGrade() { return letterGrade; }
+    public String getOutcome() { return outcome; }
+    public long getGradeVersion() { return gradeVersion; }
+}
+
+/**
+ * Category Weights Changed Event
+ */
+class CategoryWeightsChangedEvent extends BaseEvent {
+    private final UUID classId;
+    private final UUID updatedBy;
+
+    public CategoryWeightsChangedEvent(UUID classId, UUID updatedBy) {
+        super(UUID.randomUUID(), Instant.now(), "1.0");
+        this.classId = classId;
+        this.updatedBy = updatedBy;
+    }
+
+    @Override
+    public String getEventType() {
+        return "assessment.class.weights.changed";
+    }
+
+    @Override
+    public UUID getAggregateId() {
+        return classId;
+    }
+
+    @Override
+    public String getAggregateType() {
+        return "Class";
+    }
+
+    // Getters
+    public UUID getClassId() { return classId; }
+    public UUID getUpdatedBy() { return updatedBy; }
 }
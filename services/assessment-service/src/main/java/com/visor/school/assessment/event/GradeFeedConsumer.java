@@ -0,0 +1,82 @@
+package com.visor.school.assessment.event;
+
+import com.visor.school.assessment.service.GradebookCache;
+import com.visor.school.assessment.service.WeightedGradebookService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Feeds this service's own grade events into the in-memory weighted gradebooks and invalidates
+ * the cached gradebooks of the affected class and students. Category weight changes drop the
+ * class's weighted gradebook.
+ */
+@Component
+public class GradeFeedConsumer {
+    private static final Logger logger = LoggerFactory.getLogger(GradeFeedConsumer.class);
+
+    private final WeightedGradebookService weightedGradebookService;
+    private final GradebookCache gradebookCache;
+
+    public GradeFeedConsumer(WeightedGradebookService weightedGradebookService, GradebookCache gradebookCache) {
+        this.weightedGradebookService = weightedGradebookService;
+        this.gradebookCache = gradebookCache;
+    }
+
+    @RabbitListener(queues = "#{gradeFeedQueue.name}")
+    public void handleGradeEvent(Map<String, Object> event,
+                                 @Header(AmqpHeaders.RECEIVED_ROUTING_KEY) String routingKey) {
+        try {
+            UUID classId = UUID.fromString(event.get("classId").toString());
+            if (GradeEventPublisher.CATEGORY_WEIGHTS_CHANGED_ROUTING_KEY.equals(routingKey)) {
+                weightedGradebookService.invalidateClass(classId);
+                return;
+            }
+            UUID assessmentId = UUID.fromString(event.get("assessmentId").toString());
+
+            if (GradeEventPublisher.GRADE_BATCH_RECORDED_ROUTING_KEY.equals(routingKey)) {
+                if (!(event.get("grades") instanceof List<?> grades)) {
+                    return;
+                }
+                List<UUID> studentIds = new ArrayList<>(grades.size());
+                List<Map<?, ?>> entries = new ArrayList<>(grades.size());
+                for (Object gradeObj : grades) {
+                    if (gradeObj instanceof Map<?, ?> grade) {
+                        studentIds.add(UUID.fromString(grade.get("studentId").toString()));
+                        entries.add(grade);
+                    }
+                }
+                // Invalidate before applying, so a failure below cannot leave the cached gradebooks stale
+                gradebookCache.invalidateGrades(classId, studentIds);
+                for (int i = 0; i < entries.size(); i++) {
+                    Map<?, ?> grade = entries.get(i);
+                    weightedGradebookService.applyGrade(classId, assessmentId, studentIds.get(i),
+                        new BigDecimal(grade.get("percentage").toString()),
+                        version(grade.get("gradeVersion")));
+                }
+            } else {
+                UUID studentId = UUID.fromString(event.get("studentId").toString());
+                gradebookCache.invalidateGrades(classId, List.of(studentId));
+                weightedGradebookService.applyGrade(classId, assessmentId, studentId,
+                    new BigDecimal(event.get("percentage").toString()),
+                    version(event.get("gradeVersion")));
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to apply {} event to weighted gradebooks", routingKey, e);
+        }
+    }
+
+    // Committed grade version; null if missing, e.g. from a publisher that predates versioned events
+    private static Long version(Object version) {
+        return version instanceof Number number ? number.longValue() : null;
+    }
+}
@@ -31,6 +31,10 @@ public class Assessment {
     @Column(name = "type", nullable = false)
     private AssessmentType type;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", nullable = false)
+    private AssessmentCategory category;
+
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
@@ -75,6 +79,7 @@ public class Assessment {
         this.classId = classId;
         this.name = name;
         this.type = type;
+        this.category = type != null ? AssessmentCategory.of(type) : null;
         this.totalPoints = totalPoints;
         this.createdBy = createdBy;
         validate();
@@ -90,6 +95,15 @@ public class Assessment {
         validate();
     }
 
+    // Full constructor with an explicit category; null keeps the type's default
+    public Assessment(UUID classId, String name, AssessmentType type, AssessmentCategory category,
+                     BigDecimal totalPoints, UUID createdBy, String description, BigDecimal weight, LocalDate dueDate) {
+        this(classId, name, type, totalPoints, createdBy, description, weight, dueDate);
+        if (category != null) {
+            this.category = category;
+        }
+    }
+
     private void validate() {
         if (name == null || name.isBlank()) {
             throw new IllegalArgumentException("Assessment name cannot be blank");
@@ -151,6 +165,10 @@ public class Assessment {
         return type;
     }
 
+    public AssessmentCategory getCategory() {
+        return category;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -0,0 +1,22 @@
+package com.visor.school.assessment.model;
+
+/**
+ * Assessment category enumeration
+ * Categories carry the per-class weights of the weighted gradebook
+ */
+public enum AssessmentCategory {
+    HOMEWORK,
+    QUIZ,
+    EXAM;
+
+    /**
+     * Default category of an assessment type
+     */
+    public static AssessmentCategory of(AssessmentType type) {
+        return switch (type) {
+            case ASSIGNMENT, PROJECT -> HOMEWORK;
+            case QUIZ -> QUIZ;
+            case TEST, EXAM, FINAL_EXAM -> EXAM;
+        };
+    }
+}
@@ -3,9 +3,12 @@ package com.visor.school.assessment.repository;
 import com.visor.school.assessment.model.Assessment;
 import com.visor.school.assessment.model.AssessmentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -13,4 +16,7 @@ public interface AssessmentRepository extends JpaRepository<Assessment, UUID> {
     List<Assessment> findByClassId(UUID classId);
     List<Assessment> findByStatus(AssessmentStatus status);
     List<Assessment> findByClassIdAndStatus(UUID classId, AssessmentStatus status);
+
+    @Query("SELECT a.classId FROM Assessment a WHERE a.id = :id")
+    Optional<UUID> findClassIdById(@Param("id") UUID id);
 }
@@ -0,0 +1,275 @@
+package com.visor.school.assessment.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Score distribution sketches in assessment_score_sketches.
+ * Each assessment keeps its grade count, the sum and sum of squares of its percentages in basis
+ * points, and a histogram of 1000 bins of 0.1 percentage points. Writes add deltas with atomic
+ * updates, so concurrent grade writes on the same assessment never overwrite each other.
+ */
+@Repository
+public class AssessmentScoreSketchRepository {
+
+    /**
+     * Number of histogram bins; the last one also holds 100%
+     */
+    public static final int BIN_COUNT = 1000;
+
+    /**
+     * Width of a histogram bin in basis points
+     */
+    public static final int BIN_WIDTH = 10;
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String APPLY_MOMENTS_SQL = """
+        INSERT INTO assessment_score_sketches (
+            assessment_id, grade_count, percentage_sum, percentage_square_sum, bins, updated_at
+        )
+        VALUES (?, ?, ?, ?, array_fill(0, ARRAY[1000]), now())
+        ON CONFLICT (assessment_id) DO UPDATE
+        SET grade_count = assessment_score_sketches.grade_count + EXCLUDED.grade_count,
+            percentage_sum = assessment_score_sketches.percentage_sum + EXCLUDED.percentage_sum,
+            percentage_square_sum = assessment_score_sketches.percentage_square_sum + EXCLUDED.percentage_square_sum,
+            updated_at = EXCLUDED.updated_at
+        """;
+
+    private static final String APPLY_BIN_SQL =
+        "UPDATE assessment_score_sketches SET bins[?] = bins[?] + ? WHERE assessment_id = ?";
+
+    private static final String LOCK_SQL = """
+        INSERT INTO assessment_score_sketches (
+            assessment_id, grade_count, percentage_sum, percentage_square_sum, bins, updated_at
+        )
+        VALUES (?, 0, 0, 0, array_fill(0, ARRAY[1000]), now())
+        ON CONFLICT (assessment_id) DO UPDATE
+        SET updated_at = EXCLUDED.updated_at
+        """;
+
+    private static final String REPLACE_SQL = """
+        UPDATE assessment_score_sketches
+        SET grade_count = ?, percentage_sum = ?, percentage_square_sum = ?, bins = ?, updated_at = now()
+        WHERE assessment_id = ?
+        """;
+
+    private static final String FIND_SQL =
+        "SELECT grade_count, percentage_sum, percentage_square_sum, bins " +
+        "FROM assessment_score_sketches WHERE assessment_id = ?";
+
+    private static final String STREAM_PERCENTAGES_SQL =
+        "SELECT (percentage * 100)::bigint AS percentage FROM grades WHERE assessment_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AssessmentScoreSketchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Histogram bin of a percentage in basis points, 0-based
+     */
+    public static int binOf(long percentageBasisPoints) {
+        return (int) Math.min(percentageBasisPoints / BIN_WIDTH, BIN_COUNT - 1);
+    }
+
+    /**
+     * Add the deltas to their assessments' sketches: one batch for the moments, one for the bins.
+     * Deltas of the same assessment are combined and assessments are written in key order, so
+     * concurrent transactions lock sketch rows in the same order.
+     */
+    public void applyDeltas(List<SketchDelta> deltas) {
+        TreeMap<UUID, CombinedDelta> combined = new TreeMap<>();
+        for (SketchDelta delta : deltas) {
+            combined.computeIfAbsent(delta.getAssessmentId(), id -> new CombinedDelta()).add(delta);
+        }
+        combined.values().removeIf(CombinedDelta::isEmpty);
+        if (combined.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<UUID, CombinedDelta>> moments = List.copyOf(combined.entrySet());
+        jdbcTemplate.batchUpdate(APPLY_MOMENTS_SQL, moments, moments.size(),
+            (PreparedStatement ps, Map.Entry<UUID, CombinedDelta> entry) -> {
+                CombinedDelta delta = entry.getValue();
+                ps.setObject(1, entry.getKey());
+                ps.setInt(2, Math.toIntExact(delta.gradeCount));
+                ps.setLong(3, delta.percentageSum);
+                ps.setLong(4, delta.percentageSquareSum);
+            });
+
+        List<BinDelta> bins = new ArrayList<>();
+        combined.forEach((assessmentId, delta) -> delta.bins.forEach((bin, count) -> {
+            if (count != 0) {
+                bins.add(new BinDelta(assessmentId, bin, count));
+            }
+        }));
+        if (bins.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(APPLY_BIN_SQL, bins, bins.size(), (PreparedStatement ps, BinDelta bin) -> {
+            ps.setInt(1, bin.bin() + 1);
+            ps.setInt(2, bin.bin() + 1);
+            ps.setInt(3, bin.count());
+            ps.setObject(4, bin.assessmentId());
+        });
+    }
+
+    public Optional<ScoreSketch> find(UUID assessmentId) {
+        return jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> {
+            Array array = rs.getArray("bins");
+            Integer[] stored = (Integer[]) array.getArray();
+            int[] bins = new int[BIN_COUNT];
+            for (int i = 0; i < stored.length && i < BIN_COUNT; i++) {
+                bins[i] = stored[i];
+            }
+            return new ScoreSketch(
+                rs.getLong("grade_count"),
+                rs.getLong("percentage_sum"),
+                rs.getLong("percentage_square_sum"),
+                bins
+            );
+        }, assessmentId).stream().findFirst();
+    }
+
+    /**
+     * Create the assessment's sketch row if missing and lock it until the transaction ends;
+     * grade writes on the assessment wait for the lock before adding their deltas
+     */
+    public void lock(UUID assessmentId) {
+        jdbcTemplate.update(LOCK_SQL, assessmentId);
+    }
+
+    /**
+     * Overwrite a locked sketch row
+     */
+    public void replace(UUID assessmentId, ScoreSketch sketch) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(REPLACE_SQL);
+            Integer[] bins = new Integer[BIN_COUNT];
+            for (int i = 0; i < BIN_COUNT; i++) {
+                bins[i] = sketch.getBins()[i];
+            }
+            ps.setLong(1, sketch.getGradeCount());
+            ps.setLong(2, sketch.getPercentageSum());
+            ps.setLong(3, sketch.getPercentageSquareSum());
+            ps.setArray(4, connection.createArrayOf("integer", bins));
+            ps.setObject(5, assessmentId);
+            return ps;
+        });
+    }
+
+    /**
+     * Stream the assessment's grade percentages, in basis points, through a server-side cursor.
+     * Must run inside a transaction for the driver to fetch in chunks.
+     */
+    public void streamPercentages(UUID assessmentId, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(STREAM_PERCENTAGES_SQL);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setObject(1, assessmentId);
+            return ps;
+        }, handler);
+    }
+
+    private record BinDelta(UUID assessmentId, int bin, int count) {
+    }
+
+    private static final class CombinedDelta {
+        private long gradeCount;
+        private long percentageSum;
+        private long percentageSquareSum;
+        private final TreeMap<Integer, Integer> bins = new TreeMap<>();
+
+        private void add(SketchDelta delta) {
+            if (delta.getRemovedPercentage() != null) {
+                long removed = delta.getRemovedPercentage();
+                gradeCount--;
+                percentageSum -= removed;
+                percentageSquareSum -= removed * removed;
+                bins.merge(binOf(removed), -1, Integer::sum);
+            }
+            if (delta.getAddedPercentage() != null) {
+                long added = delta.getAddedPercentage();
+                gradeCount++;
+                percentageSum += added;
+                percentageSquareSum += added * added;
+                bins.merge(binOf(added), 1, Integer::sum);
+            }
+        }
+
+        private boolean isEmpty() {
+            return gradeCount == 0 && percentageSum == 0 && percentageSquareSum == 0
+                && bins.values().stream().allMatch(count -> count == 0);
+        }
+    }
+
+    /**
+     * One grade percentage leaving and/or entering an assessment's sketch, in basis points;
+     * a new grade only adds, a changed grade removes its previous percentage and adds the new one
+     */
+    public static class SketchDelta {
+        private final UUID assessmentId;
+        private final Long removedPercentage;
+        private final Long addedPercentage;
+
+        public SketchDelta(UUID assessmentId, Long removedPercentage, Long addedPercentage) {
+            this.assessmentId = assessmentId;
+            this.removedPercentage = removedPercentage;
+            this.addedPercentage = addedPercentage;
+        }
+
+        public UUID getAssessmentId() {
+            return assessmentId;
+        }
+
+        public Long getRemovedPercentage() {
+            return removedPercentage;
+        }
+
+        public Long getAddedPercentage() {
+            return addedPercentage;
+        }
+    }
+
+    public static class ScoreSketch {
+        private final long gradeCount;
+        private final long percentageSum;
+        private final long percentageSquareSum;
+        private final int[] bins;
+
+        public ScoreSketch(long gradeCount, long percentageSum, long percentageSquareSum, int[] bins) {
+            this.gradeCount = gradeCount;
+            this.percentageSum = percentageSum;
+            this.percentageSquareSum = percentageSquareSum;
+            this.bins = bins;
+        }
+
+        public long getGradeCount() {
+            return gradeCount;
+        }
+
+        public long getPercentageSum() {
+            return percentageSum;
+        }
+
+        public long getPercentageSquareSum() {
+            return percentageSquareSum;
+        }
+
+        public int[] getBins() {
+            return bins;
+        }
+    }
+}
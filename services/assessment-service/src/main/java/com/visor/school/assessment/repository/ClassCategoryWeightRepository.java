@@ -0,0 +1,63 @@
+package com.visor.school.assessment.repository;
+
+import com.visor.school.assessment.model.AssessmentCategory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-class category weights in class_category_weights; categories without a row use the
+ * configured defaults
+ */
+@Repository
+public class ClassCategoryWeightRepository {
+
+    private static final String FIND_BY_CLASS_SQL =
+        "SELECT category, weight FROM class_category_weights WHERE class_id = ?";
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO class_category_weights (class_id, category, weight, updated_by, updated_at)
+        VALUES (?, ?, ?, ?, now())
+        ON CONFLICT (class_id, category) DO UPDATE
+        SET weight = EXCLUDED.weight,
+            updated_by = EXCLUDED.updated_by,
+            updated_at = EXCLUDED.updated_at
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ClassCategoryWeightRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Weights stored for the class; categories without a row are absent
+     */
+    public Map<AssessmentCategory, BigDecimal> findByClassId(UUID classId) {
+        Map<AssessmentCategory, BigDecimal> weights = new EnumMap<>(AssessmentCategory.class);
+        jdbcTemplate.query(FIND_BY_CLASS_SQL, rs -> {
+            weights.put(AssessmentCategory.valueOf(rs.getString("category")), rs.getBigDecimal("weight"));
+        }, classId);
+        return weights;
+    }
+
+    /**
+     * Insert or replace the given category weights of a class in one batch
+     */
+    public void upsert(UUID classId, Map<AssessmentCategory, BigDecimal> weights, UUID updatedBy) {
+        List<Map.Entry<AssessmentCategory, BigDecimal>> entries = List.copyOf(weights.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, entries, entries.size(),
+            (PreparedStatement ps, Map.Entry<AssessmentCategory, BigDecimal> entry) -> {
+                ps.setObject(1, classId);
+                ps.setString(2, entry.getKey().name());
+                ps.setBigDecimal(3, entry.getValue());
+                ps.setObject(4, updatedBy);
+            });
+    }
+}
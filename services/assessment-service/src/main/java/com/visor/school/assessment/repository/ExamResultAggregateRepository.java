@@ -0,0 +1,155 @@
+package com.visor.school.assessment.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Exam result totals of a class computed in the database.
+ * One grouping-sets query returns a row per assessment (subject) and a class total row, so no
+ * grade is loaded into the service.
+ */
+@Repository
+public class ExamResultAggregateRepository {
+
+    private static final String AGGREGATE_BY_CLASS_SQL = """
+        SELECT a.id AS assessment_id,
+               MAX(a.name) AS assessment_name,
+               COUNT(g.id) AS grade_count,
+               COUNT(DISTINCT g.student_id) AS student_count,
+               ROUND(AVG(g.score), 2) AS average_score,
+               ROUND(AVG(g.percentage), 2) AS average_percentage,
+               GROUPING(a.id) AS is_total
+        FROM grades g
+        JOIN assessments a ON a.id = g.assessment_id
+        WHERE a.class_id = ?
+        GROUP BY GROUPING SETS ((a.id), ())
+        ORDER BY is_total DESC, assessment_name, assessment_id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExamResultAggregateRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Class totals and per-assessment breakdown; all counts are zero when the class has no grades
+     */
+    public ExamResultTotals aggregateByClassId(UUID classId) {
+        List<SubjectTotals> subjects = new ArrayList<>();
+        SubjectTotals[] total = new SubjectTotals[1];
+        jdbcTemplate.query(AGGREGATE_BY_CLASS_SQL, rs -> {
+            SubjectTotals row = new SubjectTotals(
+                rs.getObject("assessment_id", UUID.class),
+                rs.getString("assessment_name"),
+                rs.getLong("grade_count"),
+                rs.getLong("student_count"),
+                rs.getBigDecimal("average_score"),
+                rs.getBigDecimal("average_percentage")
+            );
+            if (rs.getInt("is_total") == 1) {
+                total[0] = row;
+            } else {
+                subjects.add(row);
+            }
+        }, classId);
+
+        SubjectTotals classTotal = total[0];
+        return new ExamResultTotals(
+            classTotal != null ? classTotal.getGradeCount() : 0,
+            classTotal != null ? classTotal.getStudentCount() : 0,
+            classTotal != null ? classTotal.getAverageScore() : null,
+            classTotal != null ? classTotal.getAveragePercentage() : null,
+            subjects
+        );
+    }
+
+    public static class ExamResultTotals {
+        private final long gradeCount;
+        private final long studentCount;
+        private final BigDecimal averageScore; // null without grades
+        private final BigDecimal averagePercentage; // null without grades
+        private final List<SubjectTotals> subjects;
+
+        public ExamResultTotals(long gradeCount, long studentCount, BigDecimal averageScore,
+                                BigDecimal averagePercentage, List<SubjectTotals> subjects) {
+            this.gradeCount = gradeCount;
+            this.studentCount = studentCount;
+            this.averageScore = averageScore;
+            this.averagePercentage = averagePercentage;
+            this.subjects = subjects;
+        }
+
+        public long getGradeCount() {
+            return gradeCount;
+        }
+
+        public long getStudentCount() {
+            return studentCount;
+        }
+
+        public long getSubjectCount() {
+            return subjects.size();
+        }
+
+        public BigDecimal getAverageScore() {
+            return averageScore;
+        }
+
+        public BigDecimal getAveragePercentage() {
+            return averagePercentage;
+        }
+
+        public List<SubjectTotals> getSubjects() {
+            return subjects;
+        }
+    }
+
+    public static class SubjectTotals {
+        private final UUID assessmentId; // null on the class total row
+        private final String assessmentName;
+        private final long gradeCount;
+        private final long studentCount;
+        private final BigDecimal averageScore;
+        private final BigDecimal averagePercentage;
+
+        public SubjectTotals(UUID assessmentId, String assessmentName, long gradeCount, long studentCount,
+                             BigDecimal averageScore, BigDecimal averagePercentage) {
+            this.assessmentId = assessmentId;
+            this.assessmentName = assessmentName;
+            this.gradeCount = gradeCount;
+            this.studentCount = studentCount;
+            this.averageScore = averageScore;
+            this.averagePercentage = averagePercentage;
+        }
+
+        public UUID getAssessmentId() {
+            return assessmentId;
+        }
+
+        public String getAssessmentName() {
+            return assessmentName;
+        }
+
+        public long getGradeCount() {
+            return gradeCount;
+        }
+
+        public long getStudentCount() {
+            return studentCount;
+        }
+
+        public BigDecimal getAverageScore() {
+            return averageScore;
+        }
+
+        public BigDecimal getAveragePercentage() {
+            return averagePercentage;
+        }
+    }
+}
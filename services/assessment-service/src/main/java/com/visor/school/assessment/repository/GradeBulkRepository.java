@@ -0,0 +1,173 @@
+package com.visor.school.assessment.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Batched writes against grades that do not fit the JPA entity lifecycle.
+ * Each method sends its rows as one JDBC batch and reports a per-row update count, so
+ * callers can detect rows that lost an optimistic locking race.
+ */
+@Repository
+public class GradeBulkRepository {
+
+    // A concurrent insert of the same (student_id, assessment_id) yields an update count of 0
+    private static final String INSERT_SQL = """
+        INSERT INTO grades (
+            id, student_id, assessment_id, score, total_points, percentage, letter_grade,
+            recorded_by, recorded_at, updated_at, notes, version
+        )
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+        ON CONFLICT (student_id, assessment_id) DO NOTHING
+        """;
+
+    // Same version check and increment Hibernate applies for @Version on Grade
+    private static final String UPDATE_SQL = """
+        UPDATE grades
+        SET score = ?,
+            percentage = ?,
+            letter_grade = ?,
+            notes = ?,
+            updated_by = ?,
+            updated_at = ?,
+            version = version + 1
+        WHERE id = ? AND version = ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GradeBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert new grades; element i of the result is 1 when rows[i] was inserted, 0 when the
+     * student already had a grade for the assessment
+     */
+    public int[] insertAll(List<GradeRow> rows) {
+        if (rows.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (PreparedStatement ps, GradeRow row) -> {
+            int index = 1;
+            ps.setObject(index++, row.getId());
+            ps.setObject(index++, row.getStudentId());
+            ps.setObject(index++, row.getAssessmentId());
+            ps.setBigDecimal(index++, row.getScore());
+            ps.setBigDecimal(index++, row.getTotalPoints());
+            ps.setBigDecimal(index++, row.getPercentage());
+            ps.setString(index++, row.getLetterGrade());
+            ps.setObject(index++, row.getWrittenBy());
+            ps.setTimestamp(index++, Timestamp.from(row.getWrittenAt()));
+            ps.setTimestamp(index++, Timestamp.from(row.getWrittenAt()));
+            ps.setString(index, row.getNotes());
+        })[0];
+    }
+
+    /**
+     * Write the score, letter grade and notes of existing grades, each guarded by the version it
+     * was read at; element i of the result is 1 when rows[i] was updated, 0 when its version no
+     * longer matched
+     */
+    public int[] updateAll(List<GradeRow> rows) {
+        if (rows.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(UPDATE_SQL, rows, rows.size(), (PreparedStatement ps, GradeRow row) -> {
+            int index = 1;
+            ps.setBigDecimal(index++, row.getScore());
+            ps.setBigDecimal(index++, row.getPercentage());
+            ps.setString(index++, row.getLetterGrade());
+            ps.setString(index++, row.getNotes());
+            ps.setObject(index++, row.getWrittenBy());
+            ps.setTimestamp(index++, Timestamp.from(row.getWrittenAt()));
+            ps.setObject(index++, row.getId());
+            ps.setLong(index, row.getVersion());
+        })[0];
+    }
+
+    /**
+     * One grade to insert or update. For updates, version is the version the row was read at;
+     * after a successful write the stored version is version + 1 (or 0 for inserts).
+     */
+    public static class GradeRow {
+        private final UUID id;
+        private final UUID studentId;
+        private final UUID assessmentId;
+        private final BigDecimal score;
+        private final BigDecimal totalPoints;
+        private final BigDecimal percentage;
+        private final String letterGrade;
+        private final String notes;
+        private final UUID writtenBy;
+        private final Instant writtenAt;
+        private final long version;
+
+        public GradeRow(UUID id, UUID studentId, UUID assessmentId, BigDecimal score, BigDecimal totalPoints,
+                        BigDecimal percentage, String letterGrade, String notes, UUID writtenBy,
+                        Instant writtenAt, long version) {
+            this.id = id;
+            this.studentId = studentId;
+            this.assessmentId = assessmentId;
+            this.score = score;
+            this.totalPoints = totalPoints;
+            this.percentage = percentage;
+            this.letterGrade = letterGrade;
+            this.notes = notes;
+            this.writtenBy = writtenBy;
+            this.writtenAt = writtenAt;
+            this.version = version;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public UUID getAssessmentId() {
+            return assessmentId;
+        }
+
+        public BigDecimal getScore() {
+            return score;
+        }
+
+        public BigDecimal getTotalPoints() {
+            return totalPoints;
+        }
+
+        public BigDecimal getPercentage() {
+            return percentage;
+        }
+
+        public String getLetterGrade() {
+            return letterGrade;
+        }
+
+        public String getNotes() {
+            return notes;
+        }
+
+        public UUID getWrittenBy() {
+            return writtenBy;
+        }
+
+        public Instant getWrittenAt() {
+            return writtenAt;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+}
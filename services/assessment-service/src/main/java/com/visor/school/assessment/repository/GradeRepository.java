@@ -1,11 +1,16 @@
 package com.visor.school.assessment.repository;
 
+import com.visor.school.assessment.model.AssessmentCategory;
+import com.visor.school.assessment.model.AssessmentStatus;
+import com.visor.school.assessment.model.AssessmentType;
 import com.visor.school.assessment.model.Grade;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,4 +24,91 @@ public interface GradeRepository extends JpaRepository<Grade, UUID> {
     
     @Query("SELECT g FROM Grade g JOIN Assessment a ON g.assessmentId = a.id WHERE a.classId = :classId")
     List<Grade> findByClassId(@Param("classId") UUID classId);
+
+    /**
+     * Every assessment of a class joined with its grades, one row per grade
+     * Assessments without grades appear once with null grade columns
+     */
+    @Query("SELECT a.id AS assessmentId, a.name AS assessmentName, a.type AS assessmentType, " +
+           "a.totalPoints AS totalPoints, a.status AS assessmentStatus, " +
+           "g.id AS gradeId, g.studentId AS studentId, g.score AS score, g.percentage AS percentage, " +
+           "g.letterGrade AS letterGrade " +
+           "FROM Assessment a LEFT JOIN Grade g ON g.assessmentId = a.id " +
+           "WHERE a.classId = :classId ORDER BY a.createdAt, a.id")
+    List<GradebookCell> findGradebookCellsByClassId(@Param("classId") UUID classId);
+
+    /**
+     * Category and weight of every assessment of a class with its grades' percentages and versions
+     * Assessments without grades appear once with null grade columns
+     */
+    @Query("SELECT a.id AS assessmentId, a.category AS category, a.weight AS weight, " +
+           "g.studentId AS studentId, g.percentage AS percentage, g.version AS version " +
+           "FROM Assessment a LEFT JOIN Grade g ON g.assessmentId = a.id " +
+           "WHERE a.classId = :classId")
+    List<WeightedCell> findWeightedCellsByClassId(@Param("classId") UUID classId);
+
+    /**
+     * Current state of the given students' grades on one assessment, read without managing
+     * entities so batched JDBC writes are not followed by a second flush
+     */
+    @Query("SELECT g.id AS id, g.studentId AS studentId, g.score AS score, g.totalPoints AS totalPoints, " +
+           "g.percentage AS percentage, g.letterGrade AS letterGrade, g.notes AS notes, g.version AS version " +
+           "FROM Grade g WHERE g.assessmentId = :assessmentId AND g.studentId IN :studentIds")
+    List<GradeState> findStatesByAssessmentIdAndStudentIdIn(
+        @Param("assessmentId") UUID assessmentId,
+        @Param("studentIds") Collection<UUID> studentIds);
+
+    interface GradebookCell {
+        UUID getAssessmentId();
+
+        String getAssessmentName();
+
+        AssessmentType getAssessmentType();
+
+        BigDecimal getTotalPoints();
+
+        AssessmentStatus getAssessmentStatus();
+
+        UUID getGradeId();
+
+        UUID getStudentId();
+
+        BigDecimal getScore();
+
+        BigDecimal getPercentage();
+
+        String getLetterGrade();
+    }
+
+    interface WeightedCell {
+        UUID getAssessmentId();
+
+        AssessmentCategory getCategory();
+
+        BigDecimal getWeight();
+
+        UUID getStudentId();
+
+        BigDecimal getPercentage();
+
+        Long getVersion();
+    }
+
+    interface GradeState {
+        UUID getId();
+
+        UUID getStudentId();
+
+        BigDecimal getScore();
+
+        BigDecimal getTotalPoints();
+
+        BigDecimal getPercentage();
+
+        String getLetterGrade();
+
+        String getNotes();
+
+        Long getVersion();
+    }
 }
@@ -0,0 +1,351 @@
+package com.visor.school.assessment.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Running grade sums in student_grade_aggregates.
+ * Each student has one row per class and an overall row under OVERALL_CLASS_ID. Writes add
+ * deltas with an atomic upsert, so concurrent grade writes for the same student never overwrite
+ * each other's totals.
+ */
+@Repository
+public class StudentGradeAggregateRepository {
+
+    /**
+     * class_id of a student's overall row
+     */
+    public static final UUID OVERALL_CLASS_ID = new UUID(0L, 0L);
+
+    private static final String APPLY_DELTA_SQL = """
+        INSERT INTO student_grade_aggregates (
+            student_id, class_id, grade_count, percentage_sum, score_sum, total_points_sum, updated_at
+        )
+        VALUES (?, ?, ?, ?, ?, ?, now())
+        ON CONFLICT (student_id, class_id) DO UPDATE
+        SET grade_count = student_grade_aggregates.grade_count + EXCLUDED.grade_count,
+            percentage_sum = student_grade_aggregates.percentage_sum + EXCLUDED.percentage_sum,
+            score_sum = student_grade_aggregates.score_sum + EXCLUDED.score_sum,
+            total_points_sum = student_grade_aggregates.total_points_sum + EXCLUDED.total_points_sum,
+            updated_at = EXCLUDED.updated_at
+        """;
+
+    private static final String SELECT_COLUMNS =
+        "SELECT student_id, class_id, grade_count, percentage_sum, score_sum, total_points_sum " +
+        "FROM student_grade_aggregates ";
+
+    /**
+     * Recomputes every aggregate from grades in one snapshot and returns the rows that differ.
+     * Rows whose totals are all zero count as absent on both sides.
+     */
+    private static final String FIND_DRIFT_SQL = """
+        WITH expected AS (
+            SELECT g.student_id,
+                   COALESCE(a.class_id, '00000000-0000-0000-0000-000000000000'::uuid) AS class_id,
+                   COUNT(*)::int AS grade_count,
+                   SUM(g.percentage * 100)::bigint AS percentage_sum,
+                   SUM(g.score * 100)::bigint AS score_sum,
+                   SUM(g.total_points * 100)::bigint AS total_points_sum
+            FROM grades g
+            JOIN assessments a ON a.id = g.assessment_id
+            GROUP BY GROUPING SETS ((g.student_id, a.class_id), (g.student_id))
+        ),
+        compared AS (
+            SELECT COALESCE(e.student_id, s.student_id) AS student_id,
+                   COALESCE(e.class_id, s.class_id) AS class_id,
+                   COALESCE(e.grade_count, 0) AS expected_count,
+                   COALESCE(s.grade_count, 0) AS actual_count,
+                   COALESCE(e.percentage_sum, 0) AS expected_percentage_sum,
+                   COALESCE(s.percentage_sum, 0) AS actual_percentage_sum,
+                   COALESCE(e.score_sum, 0) AS expected_score_sum,
+                   COALESCE(s.score_sum, 0) AS actual_score_sum,
+                   COALESCE(e.total_points_sum, 0) AS expected_total_points_sum,
+                   COALESCE(s.total_points_sum, 0) AS actual_total_points_sum
+            FROM expected e
+            FULL OUTER JOIN student_grade_aggregates s
+              ON s.student_id = e.student_id AND s.class_id = e.class_id
+        )
+        SELECT *, COUNT(*) OVER () AS drift_count
+        FROM compared
+        WHERE expected_count <> actual_count
+           OR expected_percentage_sum <> actual_percentage_sum
+           OR expected_score_sum <> actual_score_sum
+           OR expected_total_points_sum <> actual_total_points_sum
+        ORDER BY student_id, class_id
+        LIMIT ?
+        """;
+
+    private static final RowMapper<StudentGradeAggregate> AGGREGATE_MAPPER = (rs, rowNum) -> new StudentGradeAggregate(
+        rs.getObject("student_id", UUID.class),
+        rs.getObject("class_id", UUID.class),
+        rs.getInt("grade_count"),
+        rs.getLong("percentage_sum"),
+        rs.getLong("score_sum"),
+        rs.getLong("total_points_sum")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StudentGradeAggregateRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add each delta to its student's class row and overall row in one JDBC batch.
+     * Deltas for the same row are combined and rows are written in key order, so concurrent
+     * transactions lock aggregate rows in the same order.
+     */
+    public void applyDeltas(List<AggregateDelta> deltas) {
+        TreeMap<AggregateKey, long[]> rows = new TreeMap<>();
+        for (AggregateDelta delta : deltas) {
+            add(rows, new AggregateKey(delta.getStudentId(), delta.getClassId()), delta);
+            add(rows, new AggregateKey(delta.getStudentId(), OVERALL_CLASS_ID), delta);
+        }
+        rows.values().removeIf(sums -> sums[0] == 0 && sums[1] == 0 && sums[2] == 0 && sums[3] == 0);
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<AggregateKey, long[]>> entries = List.copyOf(rows.entrySet());
+        jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, entries, entries.size(),
+            (PreparedStatement ps, Map.Entry<AggregateKey, long[]> entry) -> {
+                long[] sums = entry.getValue();
+                ps.setObject(1, entry.getKey().studentId());
+                ps.setObject(2, entry.getKey().classId());
+                ps.setInt(3, Math.toIntExact(sums[0]));
+                ps.setLong(4, sums[1]);
+                ps.setLong(5, sums[2]);
+                ps.setLong(6, sums[3]);
+            });
+    }
+
+    /**
+     * All aggregate rows of a student, the overall row first
+     */
+    public List<StudentGradeAggregate> findByStudentId(UUID studentId) {
+        return jdbcTemplate.query(
+            SELECT_COLUMNS + "WHERE student_id = ? ORDER BY class_id <> '00000000-0000-0000-0000-000000000000'::uuid, class_id",
+            AGGREGATE_MAPPER, studentId);
+    }
+
+    public Optional<StudentGradeAggregate> find(UUID studentId, UUID classId) {
+        return jdbcTemplate.query(SELECT_COLUMNS + "WHERE student_id = ? AND class_id = ?",
+            AGGREGATE_MAPPER, studentId, classId).stream().findFirst();
+    }
+
+    /**
+     * Aggregate rows that differ from a recomputation over grades, at most limit of them;
+     * each row carries the total number of drifted rows
+     */
+    public List<AggregateDrift> findDrift(int limit) {
+        return jdbcTemplate.query(FIND_DRIFT_SQL, (rs, rowNum) -> new AggregateDrift(
+            rs.getObject("student_id", UUID.class),
+            rs.getObject("class_id", UUID.class),
+            rs.getInt("expected_count"),
+            rs.getInt("actual_count"),
+            rs.getLong("expected_percentage_sum"),
+            rs.getLong("actual_percentage_sum"),
+            rs.getLong("expected_score_sum"),
+            rs.getLong("actual_score_sum"),
+            rs.getLong("expected_total_points_sum"),
+            rs.getLong("actual_total_points_sum"),
+            rs.getLong("drift_count")
+        ), limit);
+    }
+
+    private static void add(TreeMap<AggregateKey, long[]> rows, AggregateKey key, AggregateDelta delta) {
+        long[] sums = rows.computeIfAbsent(key, k -> new long[4]);
+        sums[0] += delta.getGradeCount();
+        sums[1] += delta.getPercentageSum();
+        sums[2] += delta.getScoreSum();
+        sums[3] += delta.getTotalPointsSum();
+    }
+
+    private record AggregateKey(UUID studentId, UUID classId) implements Comparable<AggregateKey> {
+        private static final Comparator<AggregateKey> ORDER =
+            Comparator.comparing(AggregateKey::studentId).thenComparing(AggregateKey::classId);
+
+        @Override
+        public int compareTo(AggregateKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    /**
+     * Change to one student's totals in one class; percentages in basis points, scores and
+     * points in hundredths
+     */
+    public static class AggregateDelta {
+        private final UUID studentId;
+        private final UUID classId;
+        private final int gradeCount;
+        private final long percentageSum;
+        private final long scoreSum;
+        private final long totalPointsSum;
+
+        public AggregateDelta(UUID studentId, UUID classId, int gradeCount, long percentageSum,
+                              long scoreSum, long totalPointsSum) {
+            this.studentId = studentId;
+            this.classId = classId;
+            this.gradeCount = gradeCount;
+            this.percentageSum = percentageSum;
+            this.scoreSum = scoreSum;
+            this.totalPointsSum = totalPointsSum;
+        }
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public UUID getClassId() {
+            return classId;
+        }
+
+        public int getGradeCount() {
+            return gradeCount;
+        }
+
+        public long getPercentageSum() {
+            return percentageSum;
+        }
+
+        public long getScoreSum() {
+            return scoreSum;
+        }
+
+        public long getTotalPointsSum() {
+            return totalPointsSum;
+        }
+    }
+
+    public static class StudentGradeAggregate {
+        private final UUID studentId;
+        private final UUID classId;
+        private final int gradeCount;
+        private final long percentageSum;
+        private final long scoreSum;
+        private final long totalPointsSum;
+
+        public StudentGradeAggregate(UUID studentId, UUID classId, int gradeCount, long percentageSum,
+                                     long scoreSum, long totalPointsSum) {
+            this.studentId = studentId;
+            this.classId = classId;
+            this.gradeCount = gradeCount;
+            this.percentageSum = percentageSum;
+            this.scoreSum = scoreSum;
+            this.totalPointsSum = totalPointsSum;
+        }
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public UUID getClassId() {
+            return classId;
+        }
+
+        public boolean isOverall() {
+            return OVERALL_CLASS_ID.equals(classId);
+        }
+
+        public int getGradeCount() {
+            return gradeCount;
+        }
+
+        public long getPercentageSum() {
+            return percentageSum;
+        }
+
+        public long getScoreSum() {
+            return scoreSum;
+        }
+
+        public long getTotalPointsSum() {
+            return totalPointsSum;
+        }
+    }
+
+    public static class AggregateDrift {
+        private final UUID studentId;
+        private final UUID classId;
+        private final int expectedCount;
+        private final int actualCount;
+        private final long expectedPercentageSum;
+        private final long actualPercentageSum;
+        private final long expectedScoreSum;
+        private final long actualScoreSum;
+        private final long expectedTotalPointsSum;
+        private final long actualTotalPointsSum;
+        private final long driftCount;
+
+        public AggregateDrift(UUID studentId, UUID classId, int expectedCount, int actualCount,
+                              long expectedPercentageSum, long actualPercentageSum,
+                              long expectedScoreSum, long actualScoreSum,
+                              long expectedTotalPointsSum, long actualTotalPointsSum, long driftCount) {
+            this.studentId = studentId;
+            this.classId = classId;
+            this.expectedCount = expectedCount;
+            this.actualCount = actualCount;
+            this.expectedPercentageSum = expectedPercentageSum;
+            this.actualPercentageSum = actualPercentageSum;
+            this.expectedScoreSum = expectedScoreSum;
+            this.actualScoreSum = actualScoreSum;
+            this.expectedTotalPointsSum = expectedTotalPointsSum;
+            this.actualTotalPointsSum = actualTotalPointsSum;
+            this.driftCount = driftCount;
+        }
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public UUID getClassId() {
+            return classId;
+        }
+
+        public int getExpectedCount() {
+            return expectedCount;
+        }
+
+        public int getActualCount() {
+            return actualCount;
+        }
+
+        public long getExpectedPercentageSum() {
+            return expectedPercentageSum;
+        }
+
+        public long getActualPercentageSum() {
+            return actualPercentageSum;
+        }
+
+        public long getExpectedScoreSum() {
+            return expectedScoreSum;
+        }
+
+        public long getActualScoreSum() {
+            return actualScoreSum;
+        }
+
+        public long getExpectedTotalPointsSum() {
+            return expectedTotalPointsSum;
+        }
+
+        public long getActualTotalPointsSum() {
+            return actualTotalPointsSum;
+        }
+
+        public long getDriftCount() {
+            return driftCount;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.visor.school.assessment.service;
 
 import com.visor.school.assessment.model.Assessment;
+import com.visor.school.assessment.model.AssessmentCategory;
 import com.visor.school.assessment.model.AssessmentType;
 import com.visor.school.assessment.repository.AssessmentRepository;
 import org.slf4j.Logger;
@@ -22,9 +23,11 @@ public class AssessmentService {
     private static final Logger logger = LoggerFactory.getLogger(AssessmentService.class);
     
     private final AssessmentRepository assessmentRepository;
+    private final GradebookCache gradebookCache;
 
-    public AssessmentService(AssessmentRepository assessmentRepository) {
+    public AssessmentService(AssessmentRepository assessmentRepository, GradebookCache gradebookCache) {
         this.assessmentRepository = assessmentRepository;
+        this.gradebookCache = gradebookCache;
     }
 
     /**
@@ -34,6 +37,7 @@ public class AssessmentService {
             UUID classId,
             String name,
             AssessmentType type,
+            AssessmentCategory category,
             BigDecimal totalPoints,
             UUID createdBy,
             String description,
@@ -45,6 +49,7 @@ public class AssessmentService {
             classId,
             name,
             type,
+            category,
             totalPoints,
             createdBy,
             description,
@@ -53,6 +58,7 @@ public class AssessmentService {
         );
 
         Assessment saved = assessmentRepository.save(assessment);
+        gradebookCache.invalidateClassAfterCommit(classId);
         logger.info("Assessment created: {}", saved.getId());
         return saved;
     }
@@ -82,6 +88,7 @@ public class AssessmentService {
 
         assessment.publish();
         Assessment saved = assessmentRepository.save(assessment);
+        gradebookCache.invalidateClassAfterCommit(saved.getClassId());
 
         logger.info("Assessment published: {}", assessmentId);
         return saved;
@@ -95,7 +102,9 @@ public class AssessmentService {
             .orElseThrow(() -> new IllegalArgumentException("Assessment not found: " + assessmentId));
 
         assessment.markAsGrading();
-        return assessmentRepository.save(assessment);
+        Assessment saved = assessmentRepository.save(assessment);
+        gradebookCache.invalidateClassAfterCommit(saved.getClassId());
+        return saved;
     }
 
     /**
@@ -106,6 +115,8 @@ public class AssessmentService {
             .orElseThrow(() -> new IllegalArgumentException("Assessment not found: " + assessmentId));
 
         assessment.complete();
-        return assessmentRepository.save(assessment);
+        Assessment saved = assessmentRepository.save(assessment);
+        gradebookCache.invalidateClassAfterCommit(saved.getClassId());
+        return saved;
     }
 }
@@ -1,30 +1,88 @@
 package com.visor.school.assessment.service;
 
-import com.visor.school.assessment.model.Assessment;
-import com.visor.school.assessment.model.Grade;
+import com.visor.school.assessment.model.AssessmentStatus;
+import com.visor.school.assessment.model.AssessmentType;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Class gradebook as a dense students x assessments matrix.
+ * Cells are stored row-major (student row, assessment column) in primitive arrays; a cell without
+ * a grade has a null grade ID and NaN score and percentage. Instances are immutable.
+ */
 public class ClassGradebook {
     private final UUID classId;
-    private final List<Assessment> assessments;
-    private final Map<UUID, List<Grade>> studentGrades;
-    private final Map<UUID, BigDecimal> studentAverages;
+    private final List<AssessmentColumn> assessments;
+    private final UUID[] studentIds;
+    private final Map<UUID, Integer> studentIndex;
+    private final Map<UUID, Integer> assessmentIndex;
+    private final UUID[] gradeIds;
+    private final double[] scores;
+    private final double[] percentages;
+    private final String[] letterGrades;
+    private final double[] studentAverages;
 
-    public ClassGradebook(UUID classId, List<Assessment> assessments,
-                         Map<UUID, List<Grade>> studentGrades,
-                         Map<UUID, BigDecimal> studentAverages) {
+    public ClassGradebook(UUID classId, List<AssessmentColumn> assessments, UUID[] studentIds,
+                          Map<UUID, Integer> studentIndex, Map<UUID, Integer> assessmentIndex,
+                          UUID[] gradeIds, double[] scores, double[] percentages, String[] letterGrades,
+                          double[] studentAverages) {
         this.classId = classId;
         this.assessments = assessments;
-        this.studentGrades = studentGrades;
+        this.studentIds = studentIds;
+        this.studentIndex = studentIndex;
+        this.assessmentIndex = assessmentIndex;
+        this.gradeIds = gradeIds;
+        this.scores = scores;
+        this.percentages = percentages;
+        this.letterGrades = letterGrades;
         this.studentAverages = studentAverages;
     }
 
     public UUID getClassId() { return classId; }
-    public List<Assessment> getAssessments() { return assessments; }
-    public Map<UUID, List<Grade>> getStudentGrades() { return studentGrades; }
-    public Map<UUID, BigDecimal> getStudentAverages() { return studentAverages; }
+    public List<AssessmentColumn> getAssessments() { return assessments; }
+    public int getStudentCount() { return studentIds.length; }
+    public int getAssessmentCount() { return assessments.size(); }
+    public UUID getStudentId(int row) { return studentIds[row]; }
+
+    /**
+     * Row of a student, or -1 if the student has no grade in the class
+     */
+    public int studentRow(UUID studentId) {
+        Integer row = studentIndex.get(studentId);
+        return row != null ? row : -1;
+    }
+
+    /**
+     * Column of an assessment, or -1 if it does not belong to the class
+     */
+    public int assessmentColumn(UUID assessmentId) {
+        Integer column = assessmentIndex.get(assessmentId);
+        return column != null ? column : -1;
+    }
+
+    public boolean hasGrade(int row, int column) { return gradeIds[cell(row, column)] != null; }
+    public UUID getGradeId(int row, int column) { return gradeIds[cell(row, column)]; }
+    public double getScore(int row, int column) { return scores[cell(row, column)]; }
+    public double getPercentage(int row, int column) { return percentages[cell(row, column)]; }
+    public String getLetterGrade(int row, int column) { return letterGrades[cell(row, column)]; }
+
+    /**
+     * Mean percentage of the student's grades, rounded half-up to two decimals
+     */
+    public double getStudentAverage(int row) { return studentAverages[row]; }
+
+    public BigDecimal getStudentAverageDecimal(int row) {
+        return BigDecimal.valueOf(Math.round(studentAverages[row] * 100), 2);
+    }
+
+    private int cell(int row, int column) {
+        return row * assessments.size() + column;
+    }
+
+    public record AssessmentColumn(UUID id, String name, AssessmentType type, BigDecimal totalPoints,
+                                   AssessmentStatus status) {
+    }
 }
@@ -11,10 +11,18 @@ import java.util.UUID;
 
 /**
  * Grade calculation service
+ *
+ * Scores, total points and percentages are stored with two decimals, so the hot paths work on
+ * scaled longs: scores in hundredths of a point and percentages in basis points (hundredths of a
+ * percent). Rounding is half-up at the same positions the BigDecimal arithmetic rounds, so
+ * results are identical; values that do not fit that representation use BigDecimal.
  */
 @Service
 public class GradeCalculator {
 
+    // Integer digits allowed for the long path; keeps hundredths * 10^4 within a long
+    private static final int MAX_INTEGER_DIGITS = 12;
+
     /**
      * Calculate average grade from a list of grades
      */
@@ -23,11 +31,20 @@ public class GradeCalculator {
             return BigDecimal.ZERO;
         }
 
-        BigDecimal totalPercentage = grades.stream()
-            .map(Grade::getPercentage)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        return totalPercentage.divide(BigDecimal.valueOf(grades.size()), 2, RoundingMode.HALF_UP);
+        long totalBasisPoints = 0;
+        for (Grade grade : grades) {
+            BigDecimal percentage = grade.getPercentage();
+            if (!fitsHundredths(percentage)) {
+                return calculateAverageDecimal(grades);
+            }
+            try {
+                totalBasisPoints = Math.addExact(totalBasisPoints, toHundredths(percentage));
+            } catch (ArithmeticException e) {
+                return calculateAverageDecimal(grades);
+            }
+        }
+
+        return BigDecimal.valueOf(divideHalfUp(totalBasisPoints, grades.size()), 2);
     }
 
     /**
@@ -60,4 +77,58 @@ public class GradeCalculator {
     public BigDecimal calculateClassAverage(List<Grade> grades) {
         return calculateAverage(grades);
     }
+
+    /**
+     * Percentage of a score in basis points, matching Grade.calculatePercentage:
+     * the ratio is rounded half-up to four decimals, i.e. to whole basis points.
+     * Both arguments are in hundredths; a non-positive total yields 0.
+     */
+    public static long percentageBasisPoints(long scoreHundredths, long totalPointsHundredths) {
+        if (totalPointsHundredths <= 0) {
+            return 0;
+        }
+        return divideHalfUp(scoreHundredths * 10_000, totalPointsHundredths);
+    }
+
+    /**
+     * Mean of summed basis points (or hundredths) rounded half-up to a whole unit,
+     * matching BigDecimal.divide(count, 2, HALF_UP) on the two-decimal values
+     */
+    public static long averageBasisPoints(long totalBasisPoints, long count) {
+        return divideHalfUp(totalBasisPoints, count);
+    }
+
+    /**
+     * Whether a value is exactly representable in hundredths within the long path's range
+     */
+    public static boolean fitsHundredths(BigDecimal value) {
+        return value.scale() <= 2 && value.precision() - value.scale() <= MAX_INTEGER_DIGITS;
+    }
+
+    /**
+     * The value in hundredths; only valid when fitsHundredths(value)
+     */
+    public static long toHundredths(BigDecimal value) {
+        return value.movePointRight(2).longValue();
+    }
+
+    // Quotient rounded half-up (halves away from zero) for a positive divisor
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder >= divisor - remainder) {
+            quotient++;
+        } else if (-remainder >= divisor + remainder) {
+            quotient--;
+        }
+        return quotient;
+    }
+
+    private static BigDecimal calculateAverageDecimal(List<Grade> grades) {
+        BigDecimal totalPercentage = grades.stream()
+            .map(Grade::getPercentage)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return totalPercentage.divide(BigDecimal.valueOf(grades.size()), 2, RoundingMode.HALF_UP);
+    }
 }
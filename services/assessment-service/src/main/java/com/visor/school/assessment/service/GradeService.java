@@ -5,15 +5,28 @@ import com.visor.school.assessment.model.Assessment;
 import com.visor.school.assessment.model.AssessmentStatus;
 import com.visor.school.assessment.model.Grade;
 import com.visor.school.assessment.repository.AssessmentRepository;
+import com.visor.school.assessment.repository.GradeBulkRepository;
+import com.visor.school.assessment.repository.GradeBulkRepository.GradeRow;
 import com.visor.school.assessment.repository.GradeRepository;
+import com.visor.school.assessment.repository.GradeRepository.GradeState;
+import com.visor.school.assessment.repository.AssessmentScoreSketchRepository.SketchDelta;
+import com.visor.school.assessment.repository.StudentGradeAggregateRepository.AggregateDelta;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -25,21 +38,30 @@ public class GradeService {
     private static final Logger logger = LoggerFactory.getLogger(GradeService.class);
     
     private final GradeRepository gradeRepository;
+    private final GradeBulkRepository gradeBulkRepository;
     private final AssessmentRepository assessmentRepository;
-    private final GradeCalculator gradeCalculator;
     private final LetterGradeConverter letterGradeConverter;
+    private final StudentGradeAggregateService studentGradeAggregateService;
+    private final ScoreDistributionService scoreDistributionService;
     private final GradeEventPublisher gradeEventPublisher;
+    private final GradebookCache gradebookCache;
 
     public GradeService(GradeRepository gradeRepository,
+                       GradeBulkRepository gradeBulkRepository,
                        AssessmentRepository assessmentRepository,
-                       GradeCalculator gradeCalculator,
                        LetterGradeConverter letterGradeConverter,
-                       GradeEventPublisher gradeEventPublisher) {
+                       StudentGradeAggregateService studentGradeAggregateService,
+                       ScoreDistributionService scoreDistributionService,
+                       GradeEventPublisher gradeEventPublisher,
+                       GradebookCache gradebookCache) {
         this.gradeRepository = gradeRepository;
+        this.gradeBulkRepository = gradeBulkRepository;
         this.assessmentRepository = assessmentRepository;
-        this.gradeCalculator = gradeCalculator;
         this.letterGradeConverter = letterGradeConverter;
+        this.studentGradeAggregateService = studentGradeAggregateService;
+        this.scoreDistributionService = scoreDistributionService;
         this.gradeEventPublisher = gradeEventPublisher;
+        this.gradebookCache = gradebookCache;
     }
 
     /**
@@ -66,13 +88,20 @@ public class GradeService {
         Optional<Grade> existingGrade = gradeRepository.findByStudentIdAndAssessmentId(studentId, assessmentId);
 
         Grade grade;
+        AggregateDelta aggregateDelta;
+        SketchDelta sketchDelta;
         if (existingGrade.isPresent()) {
             // Update existing grade
             grade = existingGrade.get();
+            BigDecimal previousScore = grade.getScore();
+            BigDecimal previousPercentage = grade.getPercentage();
             grade.updateScore(score, recordedBy);
             if (notes != null) {
                 grade.addNotes(notes);
             }
+            aggregateDelta = StudentGradeAggregateService.changed(studentId, assessment.getClassId(),
+                previousScore, previousPercentage, grade.getScore(), grade.getPercentage());
+            sketchDelta = ScoreDistributionService.changed(assessmentId, previousPercentage, grade.getPercentage());
         } else {
             // Create new grade
             grade = new Grade(studentId, assessmentId, score, assessment.getTotalPoints(), recordedBy);
@@ -82,17 +111,122 @@ public class GradeService {
             // Calculate and set letter grade
             String letterGrade = letterGradeConverter.convert(grade.getPercentage());
             grade.assignLetterGrade(letterGrade);
+            aggregateDelta = StudentGradeAggregateService.added(studentId, assessment.getClassId(),
+                grade.getScore(), grade.getTotalPoints(), grade.getPercentage());
+            sketchDelta = ScoreDistributionService.added(assessmentId, grade.getPercentage());
         }
 
         Grade saved = gradeRepository.save(grade);
+        studentGradeAggregateService.apply(List.of(aggregateDelta));
+        scoreDistributionService.apply(List.of(sketchDelta));
         logger.info("Grade recorded: {}", saved.getId());
 
         // Publish event
-        gradeEventPublisher.publishGradeRecorded(saved);
+        gradeEventPublisher.publishGradeRecorded(saved, assessment.getClassId());
+        gradebookCache.invalidateGradesAfterCommit(assessment.getClassId(), List.of(studentId));
 
         return saved;
     }
 
+    /**
+     * Record grades for many students on one assessment.
+     * The assessment is validated once and existing grades are read with one query; new grades
+     * are inserted and changed grades updated in one JDBC batch each, and a single
+     * assessment.grade.batch.recorded event is published. An entry's expectedVersion, when set,
+     * must match the stored grade's version; any entry that loses a version race rolls back the
+     * whole submission with an optimistic locking failure.
+     */
+    public List<BulkGradeResult> recordGrades(UUID assessmentId, List<GradeEntry> entries, UUID recordedBy) {
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("At least one grade entry is required");
+        }
+        logger.info("Recording {} grades for assessment: {}", entries.size(), assessmentId);
+
+        Assessment assessment = assessmentRepository.findById(assessmentId)
+            .orElseThrow(() -> new IllegalArgumentException("Assessment not found: " + assessmentId));
+
+        if (assessment.getStatus() != AssessmentStatus.PUBLISHED) {
+            throw new IllegalArgumentException(
+                "Assessment must be published to record grades, current status: " + assessment.getStatus());
+        }
+
+        Set<UUID> studentIds = new LinkedHashSet<>();
+        for (GradeEntry entry : entries) {
+            if (!studentIds.add(entry.getStudentId())) {
+                throw new IllegalArgumentException("Duplicate grade entry for student: " + entry.getStudentId());
+            }
+        }
+
+        Map<UUID, GradeState> existing = new HashMap<>();
+        for (GradeState state : gradeRepository.findStatesByAssessmentIdAndStudentIdIn(assessmentId, studentIds)) {
+            existing.put(state.getStudentId(), state);
+        }
+
+        Instant now = Instant.now();
+        List<GradeRow> inserts = new ArrayList<>();
+        List<GradeRow> updates = new ArrayList<>();
+        List<BulkGradeResult> results = new ArrayList<>(entries.size());
+        List<AggregateDelta> aggregateDeltas = new ArrayList<>(entries.size());
+        List<SketchDelta> sketchDeltas = new ArrayList<>(entries.size());
+        for (GradeEntry entry : entries) {
+            GradeState state = existing.get(entry.getStudentId());
+            if (entry.getExpectedVersion() != null
+                    && (state == null || !entry.getExpectedVersion().equals(state.getVersion()))) {
+                throw new ObjectOptimisticLockingFailureException(
+                    "Grade for student " + entry.getStudentId() + " on assessment " + assessmentId
+                        + " is not at version " + entry.getExpectedVersion(), null);
+            }
+
+            BigDecimal totalPoints = state != null ? state.getTotalPoints() : assessment.getTotalPoints();
+            validateScore(entry.getScore(), totalPoints);
+            BigDecimal percentage = Grade.calculatePercentage(entry.getScore(), totalPoints);
+            String letterGrade = letterGradeConverter.convert(percentage);
+
+            if (state == null) {
+                GradeRow row = new GradeRow(UUID.randomUUID(), entry.getStudentId(), assessmentId, entry.getScore(),
+                    totalPoints, percentage, letterGrade, entry.getNotes(), recordedBy, now, 0L);
+                inserts.add(row);
+                aggregateDeltas.add(StudentGradeAggregateService.added(
+                    row.getStudentId(), assessment.getClassId(), row.getScore(), totalPoints, percentage));
+                sketchDeltas.add(ScoreDistributionService.added(assessmentId, percentage));
+                results.add(BulkGradeResult.of(row, row.getVersion(), BulkGradeOutcome.CREATED));
+                continue;
+            }
+
+            String notes = entry.getNotes() != null ? entry.getNotes() : state.getNotes();
+            GradeRow row = new GradeRow(state.getId(), entry.getStudentId(), assessmentId, entry.getScore(),
+                totalPoints, percentage, letterGrade, notes, recordedBy, now, state.getVersion());
+            if (entry.getScore().compareTo(state.getScore()) == 0
+                    && letterGrade.equals(state.getLetterGrade())
+                    && Objects.equals(notes, state.getNotes())) {
+                results.add(BulkGradeResult.of(row, row.getVersion(), BulkGradeOutcome.UNCHANGED));
+            } else {
+                updates.add(row);
+                aggregateDeltas.add(StudentGradeAggregateService.changed(row.getStudentId(), assessment.getClassId(),
+                    state.getScore(), state.getPercentage(), row.getScore(), percentage));
+                sketchDeltas.add(ScoreDistributionService.changed(assessmentId, state.getPercentage(), percentage));
+                results.add(BulkGradeResult.of(row, row.getVersion() + 1, BulkGradeOutcome.UPDATED));
+            }
+        }
+
+        requireWritten(inserts, gradeBulkRepository.insertAll(inserts), "recorded");
+        requireWritten(updates, gradeBulkRepository.updateAll(updates), "modified");
+        studentGradeAggregateService.apply(aggregateDeltas);
+        scoreDistributionService.apply(sketchDeltas);
+        logger.info("Grades recorded for assessment {}: {} created, {} updated, {} unchanged",
+            assessmentId, inserts.size(), updates.size(), entries.size() - inserts.size() - updates.size());
+
+        gradeEventPublisher.publishGradesBatchRecorded(assessmentId, assessment.getClassId(), recordedBy, inserts, updates);
+        if (!inserts.isEmpty() || !updates.isEmpty()) {
+            List<UUID> changedStudentIds = new ArrayList<>(inserts.size() + updates.size());
+            inserts.forEach(row -> changedStudentIds.add(row.getStudentId()));
+            updates.forEach(row -> changedStudentIds.add(row.getStudentId()));
+            gradebookCache.invalidateGradesAfterCommit(assessment.getClassId(), changedStudentIds);
+        }
+
+        return results;
+    }
+
     /**
      * Update an existing grade
      */
@@ -108,6 +242,10 @@ public class GradeService {
             .orElseThrow(() -> new IllegalArgumentException(
                 "Grade not found for student: " + studentId + ", assessment: " + assessmentId));
 
+        UUID classId = assessmentRepository.findClassIdById(assessmentId)
+            .orElseThrow(() -> new IllegalArgumentException("Assessment not found: " + assessmentId));
+        BigDecimal previousScore = grade.getScore();
+        BigDecimal previousPercentage = grade.getPercentage();
         grade.updateScore(newScore, updatedBy);
 
         // Update letter grade
@@ -119,9 +257,14 @@ public class GradeService {
         }
 
         Grade saved = gradeRepository.save(grade);
+        studentGradeAggregateService.apply(List.of(StudentGradeAggregateService.changed(
+            studentId, classId, previousScore, previousPercentage, saved.getScore(), saved.getPercentage())));
+        scoreDistributionService.apply(List.of(
+            ScoreDistributionService.changed(assessmentId, previousPercentage, saved.getPercentage())));
 
         // Publish event
-        gradeEventPublisher.publishGradeUpdated(saved);
+        gradeEventPublisher.publishGradeUpdated(saved, classId);
+        gradebookCache.invalidateGradesAfterCommit(classId, List.of(studentId));
 
         return saved;
     }
@@ -144,10 +287,135 @@ public class GradeService {
 
     /**
      * Calculate average grade for a student
+     * Read from the student's running aggregate rather than re-summing every grade
      */
     @Transactional(readOnly = true)
     public BigDecimal calculateAverageGrade(UUID studentId) {
-        List<Grade> grades = gradeRepository.findByStudentId(studentId);
-        return gradeCalculator.calculateAverage(grades);
+        return studentGradeAggregateService.getOverallAverage(studentId);
+    }
+
+    // Same bounds Grade enforces, checked before anything is written
+    private static void validateScore(BigDecimal score, BigDecimal totalPoints) {
+        if (score.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Score cannot be negative, got: " + score);
+        }
+        if (score.compareTo(totalPoints) > 0) {
+            throw new IllegalArgumentException("Score cannot exceed total points (" + totalPoints + "), got: " + score);
+        }
+    }
+
+    // An update count of 0 means another transaction inserted or changed the grade since it was read
+    private static void requireWritten(List<GradeRow> rows, int[] counts, String action) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                GradeRow row = rows.get(i);
+                throw new ObjectOptimisticLockingFailureException(
+                    "Grade for student " + row.getStudentId() + " on assessment " + row.getAssessmentId()
+                        + " was " + action + " concurrently", null);
+            }
+        }
+    }
+
+    public static class GradeEntry {
+        private final UUID studentId;
+        private final BigDecimal score;
+        private final String notes;
+        private final Long expectedVersion; // null to skip the version check
+
+        public GradeEntry(UUID studentId, BigDecimal score, String notes, Long expectedVersion) {
+            this.studentId = studentId;
+            this.score = score;
+            this.notes = notes;
+            this.expectedVersion = expectedVersion;
+        }
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public BigDecimal getScore() {
+            return score;
+        }
+
+        public String getNotes() {
+            return notes;
+        }
+
+        public Long getExpectedVersion() {
+            return expectedVersion;
+        }
+    }
+
+    public enum BulkGradeOutcome {
+        CREATED,
+        UPDATED,
+        UNCHANGED
+    }
+
+    public static class BulkGradeResult {
+        private final UUID gradeId;
+        private final UUID studentId;
+        private final BigDecimal score;
+        private final BigDecimal totalPoints;
+        private final BigDecimal percentage;
+        private final String letterGrade;
+        private final String notes;
+        private final long version;
+        private final BulkGradeOutcome outcome;
+
+        public BulkGradeResult(UUID gradeId, UUID studentId, BigDecimal score, BigDecimal totalPoints,
+                               BigDecimal percentage, String letterGrade, String notes, long version,
+                               BulkGradeOutcome outcome) {
+            this.gradeId = gradeId;
+            this.studentId = studentId;
+            this.score = score;
+            this.totalPoints = totalPoints;
+            this.percentage = percentage;
+            this.letterGrade = letterGrade;
+            this.notes = notes;
+            this.version = version;
+            this.outcome = outcome;
+        }
+
+        static BulkGradeResult of(GradeRow row, long version, BulkGradeOutcome outcome) {
+            return new BulkGradeResult(row.getId(), row.getStudentId(), row.getScore(), row.getTotalPoints(),
+                row.getPercentage(), row.getLetterGrade(), row.getNotes(), version, outcome);
+        }
+
+        public UUID getGradeId() {
+            return gradeId;
+        }
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public BigDecimal getScore() {
+            return score;
+        }
+
+        public BigDecimal getTotalPoints() {
+            return totalPoints;
+        }
+
+        public BigDecimal getPercentage() {
+            return percentage;
+        }
+
+        public String getLetterGrade() {
+            return letterGrade;
+        }
+
+        public String getNotes() {
+            return notes;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public BulkGradeOutcome getOutcome() {
+            return outcome;
+        }
     }
 }
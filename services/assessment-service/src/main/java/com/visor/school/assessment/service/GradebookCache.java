@@ -0,0 +1,172 @@
+package com.visor.school.assessment.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded LRU caches of class gradebooks (by class) and student gradebooks (by student).
+ *
+ * Grade events invalidate exactly the affected class and students, and assessment changes the
+ * affected class; a TTL bounds staleness from changes no event reports. A load that overlaps an
+ * invalidation is returned but not cached, so a gradebook read before a grade write committed is
+ * never kept after it. Hits, misses, evictions and sizes are exported as the standard cache.*
+ * meters, tagged gradebook.class and gradebook.student.
+ */
+@Component
+public class GradebookCache {
+
+    private final Segment<UUID, ClassGradebook> classGradebooks;
+    private final Segment<UUID, StudentGradebook> studentGradebooks;
+
+    public GradebookCache(
+            MeterRegistry meterRegistry,
+            @Value("${assessment.gradebook.cache.class-max-entries:500}") int classMaxEntries,
+            @Value("${assessment.gradebook.cache.student-max-entries:5000}") int studentMaxEntries,
+            @Value("${assessment.gradebook.cache.ttl-seconds:300}") long ttlSeconds) {
+        long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.classGradebooks = new Segment<>("gradebook.class", classMaxEntries, ttlNanos, meterRegistry);
+        this.studentGradebooks = new Segment<>("gradebook.student", studentMaxEntries, ttlNanos, meterRegistry);
+    }
+
+    public ClassGradebook getClassGradebook(UUID classId, Supplier<ClassGradebook> loader) {
+        return classGradebooks.get(classId, loader);
+    }
+
+    public StudentGradebook getStudentGradebook(UUID studentId, Supplier<StudentGradebook> loader) {
+        return studentGradebooks.get(studentId, loader);
+    }
+
+    /**
+     * Drop the gradebooks a grade change affects: its class and its students
+     */
+    public void invalidateGrades(UUID classId, Collection<UUID> studentIds) {
+        if (classId != null) {
+            classGradebooks.invalidate(classId);
+        }
+        for (UUID studentId : studentIds) {
+            studentGradebooks.invalidate(studentId);
+        }
+    }
+
+    /**
+     * Drop the gradebooks a grade change affects once the current transaction commits, so the writing
+     * replica reads its own write without waiting for the grade event
+     */
+    public void invalidateGradesAfterCommit(UUID classId, Collection<UUID> studentIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateGrades(classId, studentIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateGrades(classId, studentIds);
+            }
+        });
+    }
+
+    /**
+     * Drop a class gradebook once the current transaction commits, e.g. after an assessment change
+     */
+    public void invalidateClassAfterCommit(UUID classId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            classGradebooks.invalidate(classId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                classGradebooks.invalidate(classId);
+            }
+        });
+    }
+
+    private static final class Segment<K, V> {
+        private final long ttlNanos;
+        private final LinkedHashMap<K, CachedValue<V>> entries;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private long generation; // bumped by every invalidation
+
+        private Segment(String name, int maxEntries, long ttlNanos, MeterRegistry meterRegistry) {
+            this.ttlNanos = ttlNanos;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, CachedValue<V>> eldest) {
+                    if (size() > maxEntries) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+
+            FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tag("cache", name).tag("result", "hit")
+                .description("Gradebook reads served from memory")
+                .register(meterRegistry);
+            FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tag("cache", name).tag("result", "miss")
+                .description("Gradebook reads loaded from the database")
+                .register(meterRegistry);
+            FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", name)
+                .description("Gradebooks evicted to stay within the size bound")
+                .register(meterRegistry);
+            Gauge.builder("cache.size", this, Segment::size)
+                .tag("cache", name)
+                .register(meterRegistry);
+        }
+
+        private V get(K key, Supplier<V> loader) {
+            long loadGeneration;
+            synchronized (this) {
+                CachedValue<V> cached = entries.get(key);
+                if (cached != null && System.nanoTime() - cached.loadedAt() < ttlNanos) {
+                    hits.increment();
+                    return cached.value();
+                }
+                if (cached != null) {
+                    entries.remove(key);
+                }
+                misses.increment();
+                loadGeneration = generation;
+            }
+
+            long loadedAt = System.nanoTime();
+            V value = loader.get();
+            synchronized (this) {
+                if (loadGeneration == generation) {
+                    entries.put(key, new CachedValue<>(value, loadedAt));
+                }
+            }
+            return value;
+        }
+
+        private synchronized void invalidate(K key) {
+            generation++;
+            entries.remove(key);
+        }
+
+        private synchronized double size() {
+            return entries.size();
+        }
+    }
+
+    private record CachedValue<V>(V value, long loadedAt) {
+    }
+}
@@ -1,70 +1,121 @@
 package com.visor.school.assessment.service;
 
-import com.visor.school.assessment.model.Assessment;
 import com.visor.school.assessment.model.Grade;
-import com.visor.school.assessment.repository.AssessmentRepository;
 import com.visor.school.assessment.repository.GradeRepository;
+import com.visor.school.assessment.repository.GradeRepository.GradebookCell;
+import com.visor.school.assessment.service.ClassGradebook.AssessmentColumn;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Gradebook service for viewing class and student gradebooks
+ * Gradebooks are served from GradebookCache; the service opens no transaction of its own, so a
+ * cache hit never touches the database and each load runs its queries in the repositories' own transactions
  */
 @Service
-@Transactional(readOnly = true)
 public class GradebookService {
     
-    private final AssessmentRepository assessmentRepository;
     private final GradeRepository gradeRepository;
-    private final GradeCalculator gradeCalculator;
+    private final StudentGradeAggregateService studentGradeAggregateService;
+    private final GradebookCache gradebookCache;
 
-    public GradebookService(AssessmentRepository assessmentRepository,
-                           GradeRepository gradeRepository,
-                           GradeCalculator gradeCalculator) {
-        this.assessmentRepository = assessmentRepository;
+    public GradebookService(GradeRepository gradeRepository,
+                           StudentGradeAggregateService studentGradeAggregateService,
+                           GradebookCache gradebookCache) {
         this.gradeRepository = gradeRepository;
-        this.gradeCalculator = gradeCalculator;
+        this.studentGradeAggregateService = studentGradeAggregateService;
+        this.gradebookCache = gradebookCache;
     }
 
     /**
      * Get class gradebook with all assessments and student grades
      */
     public ClassGradebook getClassGradebook(UUID classId) {
-        List<Assessment> assessments = assessmentRepository.findByClassId(classId);
-        List<UUID> assessmentIds = assessments.stream()
-            .map(Assessment::getId)
-            .collect(Collectors.toList());
+        return gradebookCache.getClassGradebook(classId, () -> loadClassGradebook(classId));
+    }
 
-        Map<UUID, List<Grade>> studentGrades = new HashMap<>();
+    /**
+     * Get student gradebook with all assessments and grades
+     */
+    public StudentGradebook getStudentGradebook(UUID studentId) {
+        return gradebookCache.getStudentGradebook(studentId, () -> loadStudentGradebook(studentId));
+    }
+
+    // Loads assessments and grades with one projection query into a dense score matrix
+    private ClassGradebook loadClassGradebook(UUID classId) {
+        List<GradebookCell> cells = gradeRepository.findGradebookCellsByClassId(classId);
 
-        // Get all grades for assessments in this class
-        for (UUID assessmentId : assessmentIds) {
-            List<Grade> grades = gradeRepository.findByAssessmentId(assessmentId);
-            for (Grade grade : grades) {
-                studentGrades.computeIfAbsent(grade.getStudentId(), k -> new ArrayList<>()).add(grade);
+        // Columns in query order (assessment creation), rows in order of first grade
+        List<AssessmentColumn> assessments = new ArrayList<>();
+        Map<UUID, Integer> assessmentIndex = new HashMap<>();
+        Map<UUID, Integer> studentIndex = new LinkedHashMap<>();
+        for (GradebookCell cell : cells) {
+            if (!assessmentIndex.containsKey(cell.getAssessmentId())) {
+                assessmentIndex.put(cell.getAssessmentId(), assessments.size());
+                assessments.add(new AssessmentColumn(
+                    cell.getAssessmentId(),
+                    cell.getAssessmentName(),
+                    cell.getAssessmentType(),
+                    cell.getTotalPoints(),
+                    cell.getAssessmentStatus()
+                ));
+            }
+            if (cell.getGradeId() != null) {
+                studentIndex.putIfAbsent(cell.getStudentId(), studentIndex.size());
             }
         }
 
-        // Calculate averages for each student
-        Map<UUID, BigDecimal> studentAverages = studentGrades.entrySet().stream()
-            .collect(Collectors.toMap(
-                Map.Entry::getKey,
-                entry -> gradeCalculator.calculateAverage(entry.getValue())
-            ));
+        int columns = assessments.size();
+        int rows = studentIndex.size();
+        UUID[] gradeIds = new UUID[rows * columns];
+        double[] scores = new double[rows * columns];
+        double[] percentages = new double[rows * columns];
+        String[] letterGrades = new String[rows * columns];
+        Arrays.fill(scores, Double.NaN);
+        Arrays.fill(percentages, Double.NaN);
 
-        return new ClassGradebook(classId, assessments, studentGrades, studentAverages);
+        // Percentages have two decimals, so averages are summed exactly in hundredths
+        long[] percentageSums = new long[rows];
+        int[] gradeCounts = new int[rows];
+        for (GradebookCell cell : cells) {
+            if (cell.getGradeId() == null) {
+                continue;
+            }
+            int row = studentIndex.get(cell.getStudentId());
+            int index = row * columns + assessmentIndex.get(cell.getAssessmentId());
+            gradeIds[index] = cell.getGradeId();
+            scores[index] = cell.getScore().doubleValue();
+            percentages[index] = cell.getPercentage().doubleValue();
+            letterGrades[index] = cell.getLetterGrade();
+            percentageSums[row] += GradeCalculator.toHundredths(cell.getPercentage());
+            gradeCounts[row]++;
+        }
+
+        double[] studentAverages = new double[rows];
+        for (int row = 0; row < rows; row++) {
+            studentAverages[row] = GradeCalculator.averageBasisPoints(percentageSums[row], gradeCounts[row]) / 100.0;
+        }
+
+        return new ClassGradebook(
+            classId,
+            List.copyOf(assessments),
+            studentIndex.keySet().toArray(new UUID[0]),
+            Map.copyOf(studentIndex),
+            Map.copyOf(assessmentIndex),
+            gradeIds,
+            scores,
+            percentages,
+            letterGrades,
+            studentAverages
+        );
     }
 
-    /**
-     * Get student gradebook with all assessments and grades
-     */
-    public StudentGradebook getStudentGradebook(UUID studentId) {
+    // The average comes from the student's running aggregate instead of re-summing the grades
+    private StudentGradebook loadStudentGradebook(UUID studentId) {
         List<Grade> grades = gradeRepository.findByStudentId(studentId);
-        BigDecimal average = gradeCalculator.calculateAverage(grades);
+        BigDecimal average = studentGradeAggregateService.getOverallAverage(studentId);
 
         return new StudentGradebook(studentId, grades, average);
     }
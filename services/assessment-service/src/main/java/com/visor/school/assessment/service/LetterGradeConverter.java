@@ -1,62 +1,79 @@
 package com.visor.school.assessment.service;
 
+import com.visor.school.assessment.model.Grade;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 /**
  * Letter grade conversion service
  * Converts percentage scores to letter grades
+ *
+ * The grade bands are a sorted threshold table searched by binary search. Percentages can be
+ * given as BigDecimal (compared against preallocated thresholds) or as basis points, i.e.
+ * hundredths of a percent, which is exact for every percentage Grade stores.
  */
 @Service
 public class LetterGradeConverter {
 
+    // Lower bound of each band in basis points, ascending; LETTERS[i] applies below THRESHOLDS[i]
+    private static final long[] THRESHOLDS = {
+        6000, 6300, 6700, 7000, 7300, 7700, 8000, 8300, 8700, 9000, 9300, 9700
+    };
+    private static final String[] LETTERS = {
+        "F", "D-", "D", "D+", "C-", "C", "C+", "B-", "B", "B+", "A-", "A", "A+"
+    };
+    private static final BigDecimal[] DECIMAL_THRESHOLDS = new BigDecimal[THRESHOLDS.length];
+
+    static {
+        for (int i = 0; i < THRESHOLDS.length; i++) {
+            DECIMAL_THRESHOLDS[i] = BigDecimal.valueOf(THRESHOLDS[i], 2);
+        }
+    }
+
     /**
      * Convert percentage to letter grade
      */
     public String convert(BigDecimal percentage) {
-        if (percentage.compareTo(new BigDecimal("97.0")) >= 0) {
-            return "A+";
-        } else if (percentage.compareTo(new BigDecimal("93.0")) >= 0) {
-            return "A";
-        } else if (percentage.compareTo(new BigDecimal("90.0")) >= 0) {
-            return "A-";
-        } else if (percentage.compareTo(new BigDecimal("87.0")) >= 0) {
-            return "B+";
-        } else if (percentage.compareTo(new BigDecimal("83.0")) >= 0) {
-            return "B";
-        } else if (percentage.compareTo(new BigDecimal("80.0")) >= 0) {
-            return "B-";
-        } else if (percentage.compareTo(new BigDecimal("77.0")) >= 0) {
-            return "C+";
-        } else if (percentage.compareTo(new BigDecimal("73.0")) >= 0) {
-            return "C";
-        } else if (percentage.compareTo(new BigDecimal("70.0")) >= 0) {
-            return "C-";
-        } else if (percentage.compareTo(new BigDecimal("67.0")) >= 0) {
-            return "D+";
-        } else if (percentage.compareTo(new BigDecimal("63.0")) >= 0) {
-            return "D";
-        } else if (percentage.compareTo(new BigDecimal("60.0")) >= 0) {
-            return "D-";
-        } else {
-            return "F";
+        // Number of thresholds at or below the percentage
+        int low = 0;
+        int high = DECIMAL_THRESHOLDS.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (percentage.compareTo(DECIMAL_THRESHOLDS[mid]) >= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return LETTERS[low];
+    }
+
+    /**
+     * Convert a percentage in basis points (9350 for 93.50%) to letter grade
+     */
+    public String convertBasisPoints(long percentageBasisPoints) {
+        int low = 0;
+        int high = THRESHOLDS.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (percentageBasisPoints >= THRESHOLDS[mid]) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
         }
+        return LETTERS[low];
     }
 
     /**
      * Convert score and total points to letter grade
      */
     public String convert(BigDecimal score, BigDecimal totalPoints) {
-        BigDecimal percentage;
-        if (totalPoints.compareTo(BigDecimal.ZERO) > 0) {
-            percentage = score.divide(totalPoints, 4, RoundingMode.HALF_UP)
-                .multiply(new BigDecimal("100.0"))
-                .setScale(2, RoundingMode.HALF_UP);
-        } else {
-            percentage = BigDecimal.ZERO;
+        if (GradeCalculator.fitsHundredths(score) && GradeCalculator.fitsHundredths(totalPoints)) {
+            return convertBasisPoints(GradeCalculator.percentageBasisPoints(
+                GradeCalculator.toHundredths(score), GradeCalculator.toHundredths(totalPoints)));
         }
-        return convert(percentage);
+        return convert(Grade.calculatePercentage(score, totalPoints));
     }
 }
@@ -3,10 +3,11 @@ package com.visor.school.assessment.service;
 import com.visor.school.assessment.event.ReportEventPublisher;
 import com.visor.school.assessment.model.ExamResultCollection;
 import com.visor.school.assessment.model.ExamResultCollectionStatus;
-import com.visor.school.assessment.model.Grade;
 import com.visor.school.assessment.model.ReportSubmission;
+import com.visor.school.assessment.repository.ExamResultAggregateRepository;
+import com.visor.school.assessment.repository.ExamResultAggregateRepository.ExamResultTotals;
+import com.visor.school.assessment.repository.ExamResultAggregateRepository.SubjectTotals;
 import com.visor.school.assessment.repository.ExamResultCollectionRepository;
-import com.visor.school.assessment.repository.GradeRepository;
 import com.visor.school.assessment.repository.ReportSubmissionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,7 +17,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Report collection service for class teachers (grades 7-12)
@@ -26,19 +26,22 @@ import java.util.stream.Collectors;
 @Transactional
 public class ReportCollectionService {
     private static final Logger logger = LoggerFactory.getLogger(ReportCollectionService.class);
+
+    // metadata key of the exam result totals taken when the collection was created
+    private static final String SNAPSHOT_KEY = "snapshot";
     
     private final ExamResultCollectionRepository examResultCollectionRepository;
     private final ReportSubmissionRepository reportSubmissionRepository;
-    private final GradeRepository gradeRepository;
+    private final ExamResultAggregateRepository examResultAggregateRepository;
     private final ReportEventPublisher reportEventPublisher;
 
     public ReportCollectionService(ExamResultCollectionRepository examResultCollectionRepository,
                                   ReportSubmissionRepository reportSubmissionRepository,
-                                  GradeRepository gradeRepository,
+                                  ExamResultAggregateRepository examResultAggregateRepository,
                                   ReportEventPublisher reportEventPublisher) {
         this.examResultCollectionRepository = examResultCollectionRepository;
         this.reportSubmissionRepository = reportSubmissionRepository;
-        this.gradeRepository = gradeRepository;
+        this.examResultAggregateRepository = examResultAggregateRepository;
         this.reportEventPublisher = reportEventPublisher;
     }
 
@@ -71,16 +74,14 @@ public class ReportCollectionService {
             }
         }
 
-        // Get all grades for this class
-        List<Grade> grades = gradeRepository.findByClassId(classId);
+        // Totals come from one aggregate query and are kept on the collection as its snapshot
+        ExamResultTotals totals = examResultAggregateRepository.aggregateByClassId(classId);
+        Instant snapshotAt = Instant.now();
 
-        // Create new collection
         Map<String, Object> metadata = new HashMap<>();
-        metadata.put("gradeCount", String.valueOf(grades.size()));
-        metadata.put("subjectCount", String.valueOf(grades.stream()
-            .map(Grade::getAssessmentId)
-            .distinct()
-            .count()));
+        metadata.put("gradeCount", String.valueOf(totals.getGradeCount()));
+        metadata.put("subjectCount", String.valueOf(totals.getSubjectCount()));
+        metadata.put(SNAPSHOT_KEY, toSnapshot(totals, snapshotAt));
 
         ExamResultCollection collection = new ExamResultCollection(
             classId,
@@ -90,21 +91,17 @@ public class ReportCollectionService {
             metadata
         );
 
-        ExamResultCollection saved = examResultCollectionRepository.save(collection);
-        logger.info("Created exam result collection: {}", saved.getId());
-
         // Mark as completed if all grades are collected
-        ExamResultCollection finalCollection;
-        if (!grades.isEmpty()) {
-            saved.setStatus(ExamResultCollectionStatus.COMPLETED);
-            saved.setCompletedAt(Instant.now());
-            long distinctSubjects = grades.stream().map(Grade::getAssessmentId).distinct().count();
-            saved.setSummary("Collected " + grades.size() + " exam results from " + distinctSubjects + " subjects");
-            finalCollection = examResultCollectionRepository.save(saved);
-        } else {
-            finalCollection = saved;
+        if (totals.getGradeCount() > 0) {
+            collection.setStatus(ExamResultCollectionStatus.COMPLETED);
+            collection.setCompletedAt(snapshotAt);
+            collection.setSummary("Collected " + totals.getGradeCount() + " exam results from " +
+                totals.getSubjectCount() + " subjects");
         }
 
+        ExamResultCollection finalCollection = examResultCollectionRepository.save(collection);
+        logger.info("Created exam result collection: {}", finalCollection.getId());
+
         // Publish event
         reportEventPublisher.publishReportCollectedEvent(
             finalCollection.getId(),
@@ -131,41 +128,21 @@ public class ReportCollectionService {
             throw new IllegalStateException("Collection must be completed before aggregating report");
         }
 
-        // Get all grades for this collection
-        List<Grade> grades = gradeRepository.findByClassId(collection.getClassId());
-
-        // Aggregate report data
-        double averageScore = grades.stream()
-            .map(Grade::getScore)
-            .mapToDouble(BigDecimal::doubleValue)
-            .average()
-            .orElse(0.0);
-
-        Map<String, Object> reportData = new HashMap<>();
-        reportData.put("collectionId", collection.getId().toString());
-        reportData.put("classId", collection.getClassId().toString());
-        reportData.put("academicYear", collection.getAcademicYear());
-        reportData.put("term", collection.getTerm());
-        reportData.put("totalGrades", grades.size());
-        reportData.put("totalStudents", grades.stream().map(Grade::getStudentId).distinct().count());
-        reportData.put("subjectCount", grades.stream().map(Grade::getAssessmentId).distinct().count());
-        reportData.put("averageScore", averageScore);
-        reportData.put("collectedAt", collection.getCollectedAt() != null ? collection.getCollectedAt().toString() : "");
-        reportData.put("completedAt", collection.getCompletedAt() != null ? collection.getCompletedAt().toString() : "");
-
+        Map<String, Object> reportData = buildReport(collection);
         logger.info("Aggregated report for collection: {}", collectionId);
         return reportData;
     }
 
     /**
      * Submit aggregated report to school administration
+     * The report is built from the collection's snapshot; additionalData, if any, is merged over it
      * Requires SUBMIT_REPORTS permission
      * Only class teachers (grades 7-12) can submit reports
      */
     public ReportSubmission submitReport(
             UUID collectionId,
             UUID classTeacherId,
-            Map<String, Object> reportData) {
+            Map<String, Object> additionalData) {
         logger.info("Submitting report for collection: {} by teacher: {}", collectionId, classTeacherId);
 
         // Validate: Only class teachers (grades 7-12) with SUBMIT_REPORTS permission can submit
@@ -179,6 +156,11 @@ public class ReportCollectionService {
             throw new IllegalStateException("Collection must be completed before submitting report");
         }
 
+        Map<String, Object> reportData = buildReport(collection);
+        if (additionalData != null) {
+            reportData.putAll(additionalData);
+        }
+
         // Create submission
         ReportSubmission submission = new ReportSubmission(
             collectionId,
@@ -206,4 +188,60 @@ public class ReportCollectionService {
 
         return saved;
     }
+
+    // Report data from the collection's snapshot; collections created before snapshots were
+    // kept are aggregated on the fly
+    private Map<String, Object> buildReport(ExamResultCollection collection) {
+        Map<String, Object> snapshot = snapshotOf(collection);
+
+        Map<String, Object> reportData = new HashMap<>();
+        reportData.put("collectionId", collection.getId().toString());
+        reportData.put("classId", collection.getClassId().toString());
+        reportData.put("academicYear", collection.getAcademicYear());
+        reportData.put("term", collection.getTerm());
+        reportData.put("totalGrades", snapshot.get("totalGrades"));
+        reportData.put("totalStudents", snapshot.get("totalStudents"));
+        reportData.put("subjectCount", snapshot.get("subjectCount"));
+        reportData.put("averageScore", snapshot.get("averageScore"));
+        reportData.put("averagePercentage", snapshot.get("averagePercentage"));
+        reportData.put("subjects", snapshot.get("subjects"));
+        reportData.put("snapshotAt", snapshot.get("snapshotAt"));
+        reportData.put("collectedAt", collection.getCollectedAt() != null ? collection.getCollectedAt().toString() : "");
+        reportData.put("completedAt", collection.getCompletedAt() != null ? collection.getCompletedAt().toString() : "");
+        return reportData;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> snapshotOf(ExamResultCollection collection) {
+        Map<String, Object> metadata = collection.getMetadata();
+        if (metadata != null && metadata.get(SNAPSHOT_KEY) instanceof Map<?, ?> snapshot) {
+            return (Map<String, Object>) snapshot;
+        }
+        logger.debug("Collection {} has no result snapshot, aggregating grades", collection.getId());
+        return toSnapshot(examResultAggregateRepository.aggregateByClassId(collection.getClassId()), Instant.now());
+    }
+
+    private static Map<String, Object> toSnapshot(ExamResultTotals totals, Instant snapshotAt) {
+        List<Map<String, Object>> subjects = new ArrayList<>(totals.getSubjects().size());
+        for (SubjectTotals subject : totals.getSubjects()) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("assessmentId", subject.getAssessmentId().toString());
+            entry.put("assessmentName", subject.getAssessmentName());
+            entry.put("gradeCount", subject.getGradeCount());
+            entry.put("studentCount", subject.getStudentCount());
+            entry.put("averageScore", subject.getAverageScore());
+            entry.put("averagePercentage", subject.getAveragePercentage());
+            subjects.add(entry);
+        }
+
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("snapshotAt", snapshotAt.toString());
+        snapshot.put("totalGrades", totals.getGradeCount());
+        snapshot.put("totalStudents", totals.getStudentCount());
+        snapshot.put("subjectCount", totals.getSubjectCount());
+        snapshot.put("averageScore", totals.getAverageScore() != null ? totals.getAverageScore() : BigDecimal.ZERO);
+        snapshot.put("averagePercentage", totals.getAveragePercentage() != null ? totals.getAveragePercentage() : BigDecimal.ZERO);
+        snapshot.put("subjects", subjects);
+        return snapshot;
+    }
 }
@@ -0,0 +1,256 @@
+package com.visor.school.assessment.service;
+
+import com.visor.school.assessment.repository.AssessmentRepository;
+import com.visor.school.assessment.repository.AssessmentScoreSketchRepository;
+import com.visor.school.assessment.repository.AssessmentScoreSketchRepository.ScoreSketch;
+import com.visor.school.assessment.repository.AssessmentScoreSketchRepository.SketchDelta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.visor.school.assessment.repository.AssessmentScoreSketchRepository.BIN_COUNT;
+import static com.visor.school.assessment.repository.AssessmentScoreSketchRepository.BIN_WIDTH;
+
+/**
+ * Score distribution statistics per assessment, from its persisted sketch.
+ *
+ * Grade writes pass their change as sketch deltas, which land in assessment_score_sketches in the
+ * caller's transaction. Percentages are fixed-point, so the sketch keeps exact integer sums of
+ * them and of their squares: the mean and standard deviation computed from these are exact, and
+ * a changed grade can be taken out again, which a floating-point running variance cannot do
+ * without drift. Median and percentiles are interpolated within histogram bins of 0.1 points.
+ */
+@Service
+public class ScoreDistributionService {
+    private static final Logger logger = LoggerFactory.getLogger(ScoreDistributionService.class);
+
+    private static final int[] PERCENTILES = {10, 25, 50, 75, 90};
+    private static final MathContext SQRT_CONTEXT = new MathContext(20);
+
+    private final AssessmentScoreSketchRepository assessmentScoreSketchRepository;
+    private final AssessmentRepository assessmentRepository;
+
+    public ScoreDistributionService(AssessmentScoreSketchRepository assessmentScoreSketchRepository,
+                                    AssessmentRepository assessmentRepository) {
+        this.assessmentScoreSketchRepository = assessmentScoreSketchRepository;
+        this.assessmentRepository = assessmentRepository;
+    }
+
+    /**
+     * Delta for a newly recorded grade
+     */
+    public static SketchDelta added(UUID assessmentId, BigDecimal percentage) {
+        return new SketchDelta(assessmentId, null, GradeCalculator.toHundredths(percentage));
+    }
+
+    /**
+     * Delta for a grade whose percentage changed
+     */
+    public static SketchDelta changed(UUID assessmentId, BigDecimal previousPercentage, BigDecimal percentage) {
+        return new SketchDelta(assessmentId,
+            GradeCalculator.toHundredths(previousPercentage), GradeCalculator.toHundredths(percentage));
+    }
+
+    /**
+     * Apply grade changes in the current transaction
+     */
+    @Transactional
+    public void apply(List<SketchDelta> deltas) {
+        assessmentScoreSketchRepository.applyDeltas(deltas);
+    }
+
+    /**
+     * Distribution of an assessment's grade percentages, with a histogram of binWidth points
+     */
+    @Transactional(readOnly = true)
+    public ScoreDistribution getDistribution(UUID assessmentId, int binWidth) {
+        validateBinWidth(binWidth);
+        requireAssessment(assessmentId);
+        ScoreSketch sketch = assessmentScoreSketchRepository.find(assessmentId)
+            .orElseGet(() -> new ScoreSketch(0, 0, 0, new int[BIN_COUNT]));
+        return ScoreDistribution.from(assessmentId, sketch, binWidth);
+    }
+
+    /**
+     * Rebuild an assessment's sketch from its grades in one streaming pass over a cursor.
+     * The sketch row is locked first, so grade writes in flight add their deltas after the rebuild.
+     */
+    @Transactional
+    public ScoreDistribution rebuild(UUID assessmentId, int binWidth) {
+        validateBinWidth(binWidth);
+        requireAssessment(assessmentId);
+        assessmentScoreSketchRepository.lock(assessmentId);
+
+        long[] moments = new long[3];
+        int[] bins = new int[BIN_COUNT];
+        assessmentScoreSketchRepository.streamPercentages(assessmentId, rs -> {
+            long percentage = rs.getLong("percentage");
+            moments[0]++;
+            moments[1] += percentage;
+            moments[2] += percentage * percentage;
+            bins[AssessmentScoreSketchRepository.binOf(percentage)]++;
+        });
+
+        ScoreSketch sketch = new ScoreSketch(moments[0], moments[1], moments[2], bins);
+        assessmentScoreSketchRepository.replace(assessmentId, sketch);
+        logger.info("Rebuilt score sketch for assessment {} from {} grades", assessmentId, moments[0]);
+        return ScoreDistribution.from(assessmentId, sketch, binWidth);
+    }
+
+    private void requireAssessment(UUID assessmentId) {
+        if (!assessmentRepository.existsById(assessmentId)) {
+            throw new IllegalArgumentException("Assessment not found: " + assessmentId);
+        }
+    }
+
+    private static void validateBinWidth(int binWidth) {
+        if (binWidth < 1 || binWidth > 100 || 100 % binWidth != 0) {
+            throw new IllegalArgumentException("Bin width must be a divisor of 100 points, got: " + binWidth);
+        }
+    }
+
+    public static class ScoreDistribution {
+        private final UUID assessmentId;
+        private final long gradeCount;
+        private final BigDecimal mean; // null without grades
+        private final BigDecimal standardDeviation; // population standard deviation; null without grades
+        private final BigDecimal median; // null without grades
+        private final Map<String, BigDecimal> percentiles;
+        private final List<HistogramBin> histogram;
+
+        public ScoreDistribution(UUID assessmentId, long gradeCount, BigDecimal mean, BigDecimal standardDeviation,
+                                 BigDecimal median, Map<String, BigDecimal> percentiles, List<HistogramBin> histogram) {
+            this.assessmentId = assessmentId;
+            this.gradeCount = gradeCount;
+            this.mean = mean;
+            this.standardDeviation = standardDeviation;
+            this.median = median;
+            this.percentiles = percentiles;
+            this.histogram = histogram;
+        }
+
+        static ScoreDistribution from(UUID assessmentId, ScoreSketch sketch, int binWidth) {
+            long n = sketch.getGradeCount();
+            int[] bins = sketch.getBins();
+            List<HistogramBin> histogram = histogram(bins, binWidth);
+            if (n <= 0) {
+                return new ScoreDistribution(assessmentId, 0, null, null, null, Map.of(), histogram);
+            }
+
+            BigDecimal mean = BigDecimal.valueOf(GradeCalculator.averageBasisPoints(sketch.getPercentageSum(), n), 2);
+
+            // Population variance in basis points squared: (n * sum(x^2) - sum(x)^2) / n^2
+            BigInteger sum = BigInteger.valueOf(sketch.getPercentageSum());
+            BigInteger spread = BigInteger.valueOf(n).multiply(BigInteger.valueOf(sketch.getPercentageSquareSum()))
+                .subtract(sum.multiply(sum))
+                .max(BigInteger.ZERO);
+            BigDecimal standardDeviation = new BigDecimal(spread).sqrt(SQRT_CONTEXT)
+                .divide(BigDecimal.valueOf(n), SQRT_CONTEXT)
+                .movePointLeft(2)
+                .setScale(2, RoundingMode.HALF_UP);
+
+            Map<String, BigDecimal> percentiles = new LinkedHashMap<>();
+            for (int p : PERCENTILES) {
+                percentiles.put("p" + p, percentile(bins, n, p));
+            }
+            return new ScoreDistribution(assessmentId, n, mean, standardDeviation, percentiles.get("p50"),
+                percentiles, histogram);
+        }
+
+        // Value below which p percent of the grades fall, interpolated linearly within its bin
+        private static BigDecimal percentile(int[] bins, long n, int p) {
+            long target = p * n; // rank in hundredths of a grade
+            long before = 0;
+            for (int bin = 0; bin < bins.length; bin++) {
+                long count = bins[bin];
+                if (count > 0 && 100 * (before + count) >= target) {
+                    long offset = GradeCalculator.averageBasisPoints(BIN_WIDTH * (target - 100 * before), 100 * count);
+                    long basisPoints = Math.min((long) bin * BIN_WIDTH + offset, 10_000);
+                    return BigDecimal.valueOf(basisPoints, 2);
+                }
+                before += count;
+            }
+            return BigDecimal.valueOf(10_000, 2);
+        }
+
+        private static List<HistogramBin> histogram(int[] bins, int binWidth) {
+            int binsPerBucket = binWidth * 100 / BIN_WIDTH;
+            List<HistogramBin> histogram = new ArrayList<>(100 / binWidth);
+            for (int start = 0; start < bins.length; start += binsPerBucket) {
+                long count = 0;
+                for (int bin = start; bin < start + binsPerBucket; bin++) {
+                    count += bins[bin];
+                }
+                int from = start * BIN_WIDTH / 100;
+                histogram.add(new HistogramBin(from, from + binWidth, count));
+            }
+            return histogram;
+        }
+
+        public UUID getAssessmentId() {
+            return assessmentId;
+        }
+
+        public long getGradeCount() {
+            return gradeCount;
+        }
+
+        public BigDecimal getMean() {
+            return mean;
+        }
+
+        public BigDecimal getStandardDeviation() {
+            return standardDeviation;
+        }
+
+        public BigDecimal getMedian() {
+            return median;
+        }
+
+        public Map<String, BigDecimal> getPercentiles() {
+            return percentiles;
+        }
+
+        public List<HistogramBin> getHistogram() {
+            return histogram;
+        }
+    }
+
+    /**
+     * Grades with a percentage in [from, to); the last bin also holds 100%
+     */
+    public static class HistogramBin {
+        private final int from;
+        private final int to;
+        private final long count;
+
+        public HistogramBin(int from, int to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        public int getFrom() {
+            return from;
+        }
+
+        public int getTo() {
+            return to;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
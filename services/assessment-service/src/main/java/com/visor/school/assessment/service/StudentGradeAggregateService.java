@@ -0,0 +1,199 @@
+package com.visor.school.assessment.service;
+
+import com.visor.school.assessment.repository.StudentGradeAggregateRepository;
+import com.visor.school.assessment.repository.StudentGradeAggregateRepository.AggregateDelta;
+import com.visor.school.assessment.repository.StudentGradeAggregateRepository.AggregateDrift;
+import com.visor.school.assessment.repository.StudentGradeAggregateRepository.StudentGradeAggregate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-student running grade totals, per class and overall.
+ *
+ * Grade writes pass their change as deltas, which land in student_grade_aggregates in the caller's
+ * transaction, so averages are read from one row instead of re-summing every grade. Sums are kept
+ * in the same units the columns store (percentages in basis points, scores and points in
+ * hundredths), which makes the averages identical to GradeCalculator's over the raw grades.
+ * A scheduled verification recomputes the totals from grades and reports any drift.
+ */
+@Service
+public class StudentGradeAggregateService {
+    private static final Logger logger = LoggerFactory.getLogger(StudentGradeAggregateService.class);
+
+    private final StudentGradeAggregateRepository studentGradeAggregateRepository;
+    private final int maxReportedDrift;
+
+    public StudentGradeAggregateService(
+            StudentGradeAggregateRepository studentGradeAggregateRepository,
+            @Value("${assessment.aggregates.verification.max-reported:100}") int maxReportedDrift) {
+        this.studentGradeAggregateRepository = studentGradeAggregateRepository;
+        this.maxReportedDrift = maxReportedDrift;
+    }
+
+    /**
+     * Delta for a newly recorded grade
+     */
+    public static AggregateDelta added(UUID studentId, UUID classId, BigDecimal score, BigDecimal totalPoints,
+                                       BigDecimal percentage) {
+        return new AggregateDelta(studentId, classId, 1,
+            storedHundredths(percentage), storedHundredths(score), storedHundredths(totalPoints));
+    }
+
+    /**
+     * Delta for a grade whose score, and with it the percentage, changed
+     */
+    public static AggregateDelta changed(UUID studentId, UUID classId, BigDecimal previousScore,
+                                         BigDecimal previousPercentage, BigDecimal score, BigDecimal percentage) {
+        return new AggregateDelta(studentId, classId, 0,
+            storedHundredths(percentage) - storedHundredths(previousPercentage),
+            storedHundredths(score) - storedHundredths(previousScore),
+            0);
+    }
+
+    /**
+     * Apply grade changes in the current transaction
+     */
+    @Transactional
+    public void apply(List<AggregateDelta> deltas) {
+        studentGradeAggregateRepository.applyDeltas(deltas);
+    }
+
+    /**
+     * Mean percentage over all of a student's grades, as GradeCalculator.calculateAverage would
+     * return it; zero when the student has no grades
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getOverallAverage(UUID studentId) {
+        return studentGradeAggregateRepository
+            .find(studentId, StudentGradeAggregateRepository.OVERALL_CLASS_ID)
+            .map(aggregate -> GradeSummary.from(aggregate).getAverage())
+            .orElse(BigDecimal.ZERO);
+    }
+
+    /**
+     * The student's overall totals followed by one entry per class
+     */
+    @Transactional(readOnly = true)
+    public List<GradeSummary> getSummaries(UUID studentId) {
+        return studentGradeAggregateRepository.findByStudentId(studentId).stream()
+            .map(GradeSummary::from)
+            .toList();
+    }
+
+    @Scheduled(cron = "${assessment.aggregates.verification.cron:0 30 3 * * *}")
+    public void verifyScheduled() {
+        verify();
+    }
+
+    /**
+     * Recompute every aggregate from grades and report the rows that differ.
+     * A single statement compares both sides, so grade writes in flight never show as drift.
+     */
+    public DriftReport verify() {
+        long started = System.nanoTime();
+        List<AggregateDrift> drift = studentGradeAggregateRepository.findDrift(maxReportedDrift);
+        long driftCount = drift.isEmpty() ? 0 : drift.get(0).getDriftCount();
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        if (driftCount == 0) {
+            logger.info("Student grade aggregates verified in {} ms: no drift", elapsedMs);
+        } else {
+            logger.warn("Student grade aggregates verified in {} ms: {} rows drifted", elapsedMs, driftCount);
+            for (AggregateDrift row : drift) {
+                logger.warn("Aggregate drift for student {} class {}: count {} vs {}, percentage sum {} vs {}, " +
+                        "score sum {} vs {}, total points sum {} vs {}",
+                    row.getStudentId(), row.getClassId(),
+                    row.getExpectedCount(), row.getActualCount(),
+                    row.getExpectedPercentageSum(), row.getActualPercentageSum(),
+                    row.getExpectedScoreSum(), row.getActualScoreSum(),
+                    row.getExpectedTotalPointsSum(), row.getActualTotalPointsSum());
+            }
+        }
+        return new DriftReport(Instant.now(), driftCount, drift);
+    }
+
+    // Hundredths of the value as a NUMERIC(_, 2) column stores it
+    private static long storedHundredths(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    public static class GradeSummary {
+        private final UUID classId; // null for the overall summary
+        private final int gradeCount;
+        private final BigDecimal average;
+        private final BigDecimal pointsPercentage;
+
+        public GradeSummary(UUID classId, int gradeCount, BigDecimal average, BigDecimal pointsPercentage) {
+            this.classId = classId;
+            this.gradeCount = gradeCount;
+            this.average = average;
+            this.pointsPercentage = pointsPercentage;
+        }
+
+        static GradeSummary from(StudentGradeAggregate aggregate) {
+            int count = aggregate.getGradeCount();
+            BigDecimal average = count > 0
+                ? BigDecimal.valueOf(GradeCalculator.averageBasisPoints(aggregate.getPercentageSum(), count), 2)
+                : BigDecimal.ZERO;
+            BigDecimal pointsPercentage = BigDecimal.valueOf(
+                GradeCalculator.percentageBasisPoints(aggregate.getScoreSum(), aggregate.getTotalPointsSum()), 2);
+            return new GradeSummary(aggregate.isOverall() ? null : aggregate.getClassId(), count, average, pointsPercentage);
+        }
+
+        public UUID getClassId() {
+            return classId;
+        }
+
+        public int getGradeCount() {
+            return gradeCount;
+        }
+
+        /**
+         * Mean of the grade percentages, rounded half-up to two decimals
+         */
+        public BigDecimal getAverage() {
+            return average;
+        }
+
+        /**
+         * Total score over total points as a percentage, i.e. the average weighted by points
+         */
+        public BigDecimal getPointsPercentage() {
+            return pointsPercentage;
+        }
+    }
+
+    public static class DriftReport {
+        private final Instant verifiedAt;
+        private final long driftCount;
+        private final List<AggregateDrift> rows; // at most max-reported of them
+
+        public DriftReport(Instant verifiedAt, long driftCount, List<AggregateDrift> rows) {
+            this.verifiedAt = verifiedAt;
+            this.driftCount = driftCount;
+            this.rows = rows;
+        }
+
+        public Instant getVerifiedAt() {
+            return verifiedAt;
+        }
+
+        public long getDriftCount() {
+            return driftCount;
+        }
+
+        public List<AggregateDrift> getRows() {
+            return rows;
+        }
+    }
+}
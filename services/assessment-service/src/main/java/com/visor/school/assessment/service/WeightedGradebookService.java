@@ -0,0 +1,517 @@
+package com.visor.school.assessment.service;
+
+import com.visor.school.assessment.event.GradeEventPublisher;
+import com.visor.school.assessment.model.AssessmentCategory;
+import com.visor.school.assessment.repository.ClassCategoryWeightRepository;
+import com.visor.school.assessment.repository.GradeRepository;
+import com.visor.school.assessment.repository.GradeRepository.WeightedCell;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Weighted class averages per student and per assessment category.
+ *
+ * Each requested class is loaded once, with its category weights and one query over its
+ * assessments and grades, into per-student sums of weight x percentage for each category. Grade
+ * events then replace single cells, so one changed grade costs O(1) instead of a class reload.
+ * Within a category, assessments count by their weight (null counts as 1); the overall average
+ * is the category-weighted mean of the student's category averages, over the categories the
+ * student has grades in. All sums are in hundredths of weight times basis points of percentage.
+ * A periodic reconcile reloads resident classes and evicts idle ones.
+ *
+ * Grade events carry the grade's committed version and each cell keeps the version it holds, so a
+ * late or duplicate event never overwrites a newer value, whatever the replicas' clocks say. Events
+ * arriving while a class loads are buffered and replayed onto the load before it becomes resident;
+ * replaying an event the load already reflects is a no-op by version. A category weight change is
+ * published on the same feed, so every replica drops the class, not only the one that wrote it.
+ */
+@Service
+public class WeightedGradebookService {
+    private static final Logger logger = LoggerFactory.getLogger(WeightedGradebookService.class);
+
+    private static final AssessmentCategory[] CATEGORIES = AssessmentCategory.values();
+    private static final long DEFAULT_ASSESSMENT_WEIGHT = 100; // 1.00 in hundredths
+    private static final BigDecimal MAX_CATEGORY_WEIGHT = new BigDecimal("100");
+
+    private final GradeRepository gradeRepository;
+    private final ClassCategoryWeightRepository classCategoryWeightRepository;
+    private final GradeEventPublisher gradeEventPublisher;
+    private final Map<AssessmentCategory, BigDecimal> defaultCategoryWeights;
+    private final long idleEvictNanos;
+
+    private final ConcurrentMap<UUID, ClassTotals> classes = new ConcurrentHashMap<>();
+
+    // Orders grade events against class loads; taken before any ClassTotals monitor
+    private final Object feedLock = new Object();
+    private final Map<UUID, PendingLoad> pendingLoads = new HashMap<>(); // guarded by feedLock
+
+    public WeightedGradebookService(
+            GradeRepository gradeRepository,
+            ClassCategoryWeightRepository classCategoryWeightRepository,
+            GradeEventPublisher gradeEventPublisher,
+            @Value("${assessment.gradebook.weighted.default-category-weights:HOMEWORK:30,QUIZ:30,EXAM:40}")
+            String[] defaultCategoryWeights,
+            @Value("${assessment.gradebook.weighted.idle-evict-minutes:30}") long idleEvictMinutes) {
+        this.gradeRepository = gradeRepository;
+        this.classCategoryWeightRepository = classCategoryWeightRepository;
+        this.gradeEventPublisher = gradeEventPublisher;
+        this.defaultCategoryWeights = parseCategoryWeights(defaultCategoryWeights);
+        this.idleEvictNanos = Duration.ofMinutes(idleEvictMinutes).toNanos();
+    }
+
+    /**
+     * Weighted averages of every student with grades in the class
+     */
+    public WeightedClassGradebook getClassGradebook(UUID classId) {
+        ClassTotals totals = resident(classId);
+        synchronized (totals) {
+            totals.lastReadAt = System.nanoTime();
+            if (totals.view == null) {
+                totals.view = render(totals);
+            }
+            return totals.view;
+        }
+    }
+
+    /**
+     * Weighted averages of one student in the class; empty categories when the student has no grades
+     */
+    public StudentWeightedGrades getStudentGrades(UUID classId, UUID studentId) {
+        ClassTotals totals = resident(classId);
+        synchronized (totals) {
+            totals.lastReadAt = System.nanoTime();
+            StudentTotals student = totals.students.get(studentId);
+            return student != null
+                ? render(studentId, student, totals.categoryWeights)
+                : new StudentWeightedGrades(studentId, List.of(), null);
+        }
+    }
+
+    /**
+     * Category weights of a class, the configured defaults filling categories it has not set
+     */
+    public Map<AssessmentCategory, BigDecimal> getCategoryWeights(UUID classId) {
+        ClassTotals totals = classes.get(classId);
+        if (totals != null) {
+            synchronized (totals) {
+                return toDecimals(totals.categoryWeights);
+            }
+        }
+        return resolveCategoryWeights(classId);
+    }
+
+    /**
+     * Set some or all category weights of a class; the class is reloaded on its next read, on every replica
+     */
+    @Transactional
+    public Map<AssessmentCategory, BigDecimal> setCategoryWeights(UUID classId, Map<AssessmentCategory, BigDecimal> weights,
+                                                                  UUID updatedBy) {
+        if (weights == null || weights.isEmpty()) {
+            throw new IllegalArgumentException("At least one category weight is required");
+        }
+        Map<AssessmentCategory, BigDecimal> normalized = new EnumMap<>(AssessmentCategory.class);
+        weights.forEach((category, weight) -> normalized.put(category, validCategoryWeight(category, weight)));
+
+        classCategoryWeightRepository.upsert(classId, normalized, updatedBy);
+        invalidateAfterCommit(classId);
+        gradeEventPublisher.publishCategoryWeightsChanged(classId, updatedBy);
+        return resolveCategoryWeights(classId);
+    }
+
+    /**
+     * Apply one grade's percentage at a committed version from a grade event to the resident class, if any.
+     * A grade on an assessment created after the load, or an event without a version, drops the class so
+     * it reloads on next read.
+     */
+    public void applyGrade(UUID classId, UUID assessmentId, UUID studentId, BigDecimal percentage, Long version) {
+        GradeChange change = new GradeChange(assessmentId, studentId, GradeCalculator.toHundredths(percentage), version);
+        synchronized (feedLock) {
+            PendingLoad pending = pendingLoads.get(classId);
+            if (pending != null) {
+                pending.changes.add(change);
+            }
+            ClassTotals totals = classes.get(classId);
+            if (totals == null) {
+                return;
+            }
+            boolean applied;
+            synchronized (totals) {
+                applied = totals.apply(change);
+            }
+            if (!applied) {
+                classes.remove(classId, totals);
+            }
+        }
+    }
+
+    /**
+     * Reload resident classes and evict classes nobody has read recently
+     */
+    @Scheduled(fixedDelayString = "${assessment.gradebook.weighted.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long now = System.nanoTime();
+        for (ClassTotals totals : classes.values()) {
+            boolean idle;
+            synchronized (totals) {
+                idle = now - totals.lastReadAt > idleEvictNanos;
+            }
+            if (idle) {
+                classes.remove(totals.classId, totals);
+                continue;
+            }
+            ClassTotals reloaded = loadResident(totals.classId, totals);
+            if (classes.get(totals.classId) == reloaded) {
+                logger.debug("Weighted gradebook for class {} reloaded on reconcile", totals.classId);
+            }
+        }
+    }
+
+    private ClassTotals resident(UUID classId) {
+        ClassTotals totals = classes.get(classId);
+        return totals != null ? totals : loadResident(classId, null);
+    }
+
+    /**
+     * Load a class and make it resident in place of replacing (null when the class is not resident).
+     * The database is read without holding feedLock; grade events meanwhile are buffered and replayed
+     * onto the load under it, so none is lost between the read and the swap.
+     */
+    private ClassTotals loadResident(UUID classId, ClassTotals replacing) {
+        synchronized (feedLock) {
+            pendingLoads.computeIfAbsent(classId, id -> new PendingLoad()).loaders++;
+        }
+        ClassTotals loaded;
+        try {
+            loaded = load(classId);
+        } catch (RuntimeException e) {
+            synchronized (feedLock) {
+                releasePendingLoad(classId);
+            }
+            throw e;
+        }
+
+        synchronized (feedLock) {
+            PendingLoad pending = releasePendingLoad(classId);
+            boolean complete = !pending.invalidated;
+            for (GradeChange change : pending.changes) {
+                complete &= loaded.apply(change);
+            }
+            ClassTotals current = classes.get(classId);
+            if (current != replacing) {
+                // Loaded concurrently by a reader, or replaced or dropped since the reconcile started
+                return current != null ? current : loaded;
+            }
+            if (!complete) {
+                // Missed an assessment or was invalidated during the load: serve it once, keep nothing resident
+                if (replacing != null) {
+                    classes.remove(classId, replacing);
+                }
+                return loaded;
+            }
+            if (replacing != null) {
+                synchronized (replacing) {
+                    loaded.lastReadAt = replacing.lastReadAt;
+                }
+            }
+            classes.put(classId, loaded);
+            return loaded;
+        }
+    }
+
+    // Caller holds feedLock
+    private PendingLoad releasePendingLoad(UUID classId) {
+        PendingLoad pending = pendingLoads.get(classId);
+        if (--pending.loaders == 0) {
+            pendingLoads.remove(classId);
+        }
+        return pending;
+    }
+
+    private ClassTotals load(UUID classId) {
+        long[] categoryWeights = toHundredths(resolveCategoryWeights(classId));
+        ClassTotals totals = new ClassTotals(classId, categoryWeights);
+
+        for (WeightedCell cell : gradeRepository.findWeightedCellsByClassId(classId)) {
+            AssessmentWeight assessment = totals.assessments.computeIfAbsent(cell.getAssessmentId(),
+                id -> new AssessmentWeight(cell.getCategory().ordinal(),
+                    cell.getWeight() != null ? GradeCalculator.toHundredths(cell.getWeight()) : DEFAULT_ASSESSMENT_WEIGHT));
+            if (cell.getStudentId() != null) {
+                totals.students.computeIfAbsent(cell.getStudentId(), id -> new StudentTotals())
+                    .set(cell.getAssessmentId(), assessment, GradeCalculator.toHundredths(cell.getPercentage()),
+                        cell.getVersion());
+            }
+        }
+        return totals;
+    }
+
+    private Map<AssessmentCategory, BigDecimal> resolveCategoryWeights(UUID classId) {
+        Map<AssessmentCategory, BigDecimal> weights = new EnumMap<>(defaultCategoryWeights);
+        weights.putAll(classCategoryWeightRepository.findByClassId(classId));
+        return weights;
+    }
+
+    /**
+     * Drop a resident class, e.g. when another replica changed its category weights
+     */
+    public void invalidateClass(UUID classId) {
+        invalidate(classId);
+    }
+
+    private void invalidateAfterCommit(UUID classId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(classId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(classId);
+            }
+        });
+    }
+
+    // A load in flight may have read the old state, so it must not become resident either
+    private void invalidate(UUID classId) {
+        synchronized (feedLock) {
+            classes.remove(classId);
+            PendingLoad pending = pendingLoads.get(classId);
+            if (pending != null) {
+                pending.invalidated = true;
+            }
+        }
+    }
+
+    private static WeightedClassGradebook render(ClassTotals totals) {
+        List<StudentWeightedGrades> students = new ArrayList<>(totals.students.size());
+        totals.students.forEach((studentId, student) ->
+            students.add(render(studentId, student, totals.categoryWeights)));
+        students.sort((a, b) -> a.getStudentId().compareTo(b.getStudentId()));
+        return new WeightedClassGradebook(totals.classId, toDecimals(totals.categoryWeights), students);
+    }
+
+    private static StudentWeightedGrades render(UUID studentId, StudentTotals student, long[] categoryWeights) {
+        List<CategoryAverage> categories = new ArrayList<>(CATEGORIES.length);
+        long weightedTotal = 0;
+        long weightTotal = 0;
+        for (int c = 0; c < CATEGORIES.length; c++) {
+            if (student.counts[c] == 0) {
+                continue;
+            }
+            BigDecimal average = null;
+            if (student.weightSums[c] > 0) {
+                // Weighted mean, rounded half-up to basis points like the unweighted averages
+                long averageBasisPoints = GradeCalculator.averageBasisPoints(student.weightedSums[c], student.weightSums[c]);
+                average = BigDecimal.valueOf(averageBasisPoints, 2);
+                weightedTotal += categoryWeights[c] * averageBasisPoints;
+                weightTotal += categoryWeights[c];
+            }
+            categories.add(new CategoryAverage(CATEGORIES[c], student.counts[c], average));
+        }
+        BigDecimal weightedAverage = weightTotal > 0
+            ? BigDecimal.valueOf(GradeCalculator.averageBasisPoints(weightedTotal, weightTotal), 2)
+            : null;
+        return new StudentWeightedGrades(studentId, categories, weightedAverage);
+    }
+
+    private static BigDecimal validCategoryWeight(AssessmentCategory category, BigDecimal weight) {
+        if (category == null) {
+            throw new IllegalArgumentException("Category is required");
+        }
+        if (weight == null || weight.signum() < 0 || weight.compareTo(MAX_CATEGORY_WEIGHT) > 0) {
+            throw new IllegalArgumentException("Weight of " + category + " must be between 0 and 100, got: " + weight);
+        }
+        return weight.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static Map<AssessmentCategory, BigDecimal> parseCategoryWeights(String[] entries) {
+        Map<AssessmentCategory, BigDecimal> weights = new EnumMap<>(AssessmentCategory.class);
+        for (AssessmentCategory category : CATEGORIES) {
+            weights.put(category, BigDecimal.ZERO.setScale(2));
+        }
+        for (String entry : entries) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Category weight must be CATEGORY:weight, got: " + entry);
+            }
+            AssessmentCategory category = AssessmentCategory.valueOf(parts[0].trim());
+            weights.put(category, validCategoryWeight(category, new BigDecimal(parts[1].trim())));
+        }
+        return weights;
+    }
+
+    private static long[] toHundredths(Map<AssessmentCategory, BigDecimal> weights) {
+        long[] hundredths = new long[CATEGORIES.length];
+        weights.forEach((category, weight) -> hundredths[category.ordinal()] = GradeCalculator.toHundredths(weight));
+        return hundredths;
+    }
+
+    private static Map<AssessmentCategory, BigDecimal> toDecimals(long[] hundredths) {
+        Map<AssessmentCategory, BigDecimal> weights = new EnumMap<>(AssessmentCategory.class);
+        for (int c = 0; c < CATEGORIES.length; c++) {
+            weights.put(CATEGORIES[c], BigDecimal.valueOf(hundredths[c], 2));
+        }
+        return weights;
+    }
+
+    // Category ordinal and weight in hundredths of one assessment
+    private record AssessmentWeight(int category, long weight) {
+    }
+
+    // One grade's percentage in basis points at a committed version; version is null for unversioned events
+    private record GradeChange(UUID assessmentId, UUID studentId, long percentage, Long version) {
+    }
+
+    // Grade events received while loads of a class are in flight
+    private static final class PendingLoad {
+        private final List<GradeChange> changes = new ArrayList<>();
+        private int loaders;
+        private boolean invalidated;
+    }
+
+    private static final class ClassTotals {
+        private final UUID classId;
+        private final long[] categoryWeights; // hundredths, by category ordinal
+        private final Map<UUID, AssessmentWeight> assessments = new HashMap<>();
+        private final Map<UUID, StudentTotals> students = new HashMap<>();
+        private long lastReadAt = System.nanoTime();
+        private WeightedClassGradebook view;
+
+        private ClassTotals(UUID classId, long[] categoryWeights) {
+            this.classId = classId;
+            this.categoryWeights = categoryWeights;
+        }
+
+        // False if the change cannot be applied and the class must reload
+        private boolean apply(GradeChange change) {
+            AssessmentWeight assessment = assessments.get(change.assessmentId());
+            if (assessment == null || change.version() == null) {
+                return false;
+            }
+            if (students.computeIfAbsent(change.studentId(), id -> new StudentTotals())
+                    .set(change.assessmentId(), assessment, change.percentage(), change.version())) {
+                view = null;
+            }
+            return true;
+        }
+    }
+
+    // One student's sums by category ordinal, and the percentage and version behind each graded assessment
+    private static final class StudentTotals {
+        private final long[] weightedSums = new long[CATEGORIES.length];
+        private final long[] weightSums = new long[CATEGORIES.length];
+        private final int[] counts = new int[CATEGORIES.length];
+        private final Map<UUID, GradeCell> cells = new HashMap<>();
+
+        // False if the cell already holds this or a newer version
+        private boolean set(UUID assessmentId, AssessmentWeight assessment, long percentageBasisPoints, long version) {
+            GradeCell previous = cells.get(assessmentId);
+            if (previous != null && previous.version() >= version) {
+                return false;
+            }
+            cells.put(assessmentId, new GradeCell(percentageBasisPoints, version));
+            int c = assessment.category();
+            if (previous != null) {
+                weightedSums[c] -= assessment.weight() * previous.percentage();
+            } else {
+                weightSums[c] += assessment.weight();
+                counts[c]++;
+            }
+            weightedSums[c] += assessment.weight() * percentageBasisPoints;
+            return true;
+        }
+    }
+
+    private record GradeCell(long percentage, long version) {
+    }
+
+    public static class WeightedClassGradebook {
+        private final UUID classId;
+        private final Map<AssessmentCategory, BigDecimal> categoryWeights;
+        private final List<StudentWeightedGrades> students;
+
+        public WeightedClassGradebook(UUID classId, Map<AssessmentCategory, BigDecimal> categoryWeights,
+                                      List<StudentWeightedGrades> students) {
+            this.classId = classId;
+            this.categoryWeights = categoryWeights;
+            this.students = students;
+        }
+
+        public UUID getClassId() {
+            return classId;
+        }
+
+        public Map<AssessmentCategory, BigDecimal> getCategoryWeights() {
+            return categoryWeights;
+        }
+
+        public List<StudentWeightedGrades> getStudents() {
+            return students;
+        }
+    }
+
+    public static class StudentWeightedGrades {
+        private final UUID studentId;
+        private final List<CategoryAverage> categories;
+        private final BigDecimal weightedAverage; // null when no category with weight has grades
+
+        public StudentWeightedGrades(UUID studentId, List<CategoryAverage> categories, BigDecimal weightedAverage) {
+            this.studentId = studentId;
+            this.categories = categories;
+            this.weightedAverage = weightedAverage;
+        }
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public List<CategoryAverage> getCategories() {
+            return categories;
+        }
+
+        public BigDecimal getWeightedAverage() {
+            return weightedAverage;
+        }
+    }
+
+    public static class CategoryAverage {
+        private final AssessmentCategory category;
+        private final int gradeCount;
+        private final BigDecimal average; // null when every graded assessment has weight 0
+
+        public CategoryAverage(AssessmentCategory category, int gradeCount, BigDecimal average) {
+            this.category = category;
+            this.gradeCount = gradeCount;
+            this.average = average;
+        }
+
+        public AssessmentCategory getCategory() {
+            return category;
+        }
+
+        public int getGradeCount() {
+            return gradeCount;
+        }
+
+        public BigDecimal getAverage() {
+            return average;
+        }
+    }
+}
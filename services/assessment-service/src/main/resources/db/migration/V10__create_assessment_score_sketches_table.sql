@@ -0,0 +1,48 @@
+-- Create assessment_score_sketches: score distribution sketch per assessment
+-- Updated in the same transaction as every grade write, so distribution statistics never scan grades.
+-- Percentages are exact integers in basis points; the histogram has 1000 bins of 0.1 percentage points.
+
+CREATE TABLE IF NOT EXISTS assessment_score_sketches (
+    assessment_id UUID PRIMARY KEY REFERENCES assessments(id) ON DELETE CASCADE,
+    grade_count INTEGER NOT NULL DEFAULT 0 CHECK (grade_count >= 0),
+    percentage_sum BIGINT NOT NULL DEFAULT 0,
+    percentage_square_sum BIGINT NOT NULL DEFAULT 0,
+    bins INTEGER[] NOT NULL DEFAULT array_fill(0, ARRAY[1000]),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Backfill from existing grades
+WITH moments AS (
+    SELECT assessment_id,
+           COUNT(*) AS grade_count,
+           SUM((percentage * 100)::bigint) AS percentage_sum,
+           SUM((percentage * 100)::bigint * (percentage * 100)::bigint) AS percentage_square_sum
+    FROM grades
+    GROUP BY assessment_id
+),
+binned AS (
+    SELECT assessment_id,
+           LEAST(FLOOR(percentage * 10)::int, 999) + 1 AS bin,
+           COUNT(*)::int AS bin_count
+    FROM grades
+    GROUP BY assessment_id, LEAST(FLOOR(percentage * 10)::int, 999) + 1
+)
+INSERT INTO assessment_score_sketches (assessment_id, grade_count, percentage_sum, percentage_square_sum, bins)
+SELECT m.assessment_id,
+       m.grade_count,
+       m.percentage_sum,
+       m.percentage_square_sum,
+       ARRAY(
+           SELECT COALESCE(b.bin_count, 0)
+           FROM generate_series(1, 1000) AS i
+           LEFT JOIN binned b ON b.assessment_id = m.assessment_id AND b.bin = i
+           ORDER BY i
+       )
+FROM moments m
+ON CONFLICT (assessment_id) DO NOTHING;
+
+-- Comments
+COMMENT ON TABLE assessment_score_sketches IS 'Score distribution sketch per assessment, maintained with every grade write';
+COMMENT ON COLUMN assessment_score_sketches.percentage_sum IS 'Sum of grade percentages in basis points (hundredths of a percent)';
+COMMENT ON COLUMN assessment_score_sketches.percentage_square_sum IS 'Sum of squared grade percentages in basis points';
+COMMENT ON COLUMN assessment_score_sketches.bins IS 'Grade counts per 0.1 percentage point, 1-based; bin 1000 also holds 100%';
@@ -0,0 +1,34 @@
+-- Create student_grade_aggregates: running grade totals per student, per class and overall
+-- Updated in the same transaction as every grade write, so averages are single-row reads.
+-- Amounts are exact integers: percentages in basis points, scores and points in hundredths.
+
+CREATE TABLE IF NOT EXISTS student_grade_aggregates (
+    student_id UUID NOT NULL,
+    class_id UUID NOT NULL,
+    grade_count INTEGER NOT NULL DEFAULT 0 CHECK (grade_count >= 0),
+    percentage_sum BIGINT NOT NULL DEFAULT 0,
+    score_sum BIGINT NOT NULL DEFAULT 0,
+    total_points_sum BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (student_id, class_id)
+);
+
+-- Backfill from existing grades: one row per student and class, plus the overall row
+INSERT INTO student_grade_aggregates (student_id, class_id, grade_count, percentage_sum, score_sum, total_points_sum)
+SELECT g.student_id,
+       COALESCE(a.class_id, '00000000-0000-0000-0000-000000000000'::uuid),
+       COUNT(*),
+       SUM(g.percentage * 100)::bigint,
+       SUM(g.score * 100)::bigint,
+       SUM(g.total_points * 100)::bigint
+FROM grades g
+JOIN assessments a ON a.id = g.assessment_id
+GROUP BY GROUPING SETS ((g.student_id, a.class_id), (g.student_id))
+ON CONFLICT (student_id, class_id) DO NOTHING;
+
+-- Comments
+COMMENT ON TABLE student_grade_aggregates IS 'Running grade sums per student and class, maintained with every grade write';
+COMMENT ON COLUMN student_grade_aggregates.class_id IS 'Class of the grades; the nil UUID holds the student''s overall totals';
+COMMENT ON COLUMN student_grade_aggregates.percentage_sum IS 'Sum of grade percentages in basis points (hundredths of a percent)';
+COMMENT ON COLUMN student_grade_aggregates.score_sum IS 'Sum of scores in hundredths of a point; weighted by points, the average is score_sum / total_points_sum';
+COMMENT ON COLUMN student_grade_aggregates.total_points_sum IS 'Sum of assessment total points in hundredths of a point';
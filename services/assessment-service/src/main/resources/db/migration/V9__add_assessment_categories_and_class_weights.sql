@@ -0,0 +1,31 @@
+-- Add assessment categories and per-class category weights for the weighted gradebook
+
+ALTER TABLE assessments
+ADD COLUMN IF NOT EXISTS category VARCHAR(20);
+
+-- Existing assessments take the default category of their type
+UPDATE assessments
+SET category = CASE type
+        WHEN 'ASSIGNMENT' THEN 'HOMEWORK'
+        WHEN 'PROJECT' THEN 'HOMEWORK'
+        WHEN 'QUIZ' THEN 'QUIZ'
+        ELSE 'EXAM'
+    END
+WHERE category IS NULL;
+
+ALTER TABLE assessments
+ALTER COLUMN category SET NOT NULL;
+
+CREATE TABLE IF NOT EXISTS class_category_weights (
+    class_id UUID NOT NULL,
+    category VARCHAR(20) NOT NULL,
+    weight DECIMAL(5,2) NOT NULL CHECK (weight >= 0 AND weight <= 100),
+    updated_by UUID NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (class_id, category)
+);
+
+-- Comments
+COMMENT ON COLUMN assessments.category IS 'Gradebook category (HOMEWORK, QUIZ, EXAM); defaults from the assessment type';
+COMMENT ON COLUMN assessments.weight IS 'Relative weight of the assessment within its category; null counts as 1';
+COMMENT ON TABLE class_category_weights IS 'Weight of each assessment category in a class''s weighted average';
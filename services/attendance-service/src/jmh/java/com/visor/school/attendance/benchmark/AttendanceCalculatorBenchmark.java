@@ -0,0 +1,62 @@
+package com.visor.school.attendance.benchmark;
+
+import com.visor.school.attendance.model.AttendanceRecord;
+import com.visor.school.attendance.service.AttendanceCalculator;
+import com.visor.school.attendance.service.AttendanceCalculator.AttendanceRate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attendance rate over a class's records, for a single day's list and for a date range
+ * filtered to school days. Records span 60 days; the range covers the middle 30.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttendanceCalculatorBenchmark {
+
+    private static final int DAYS = 60;
+
+    @Param({"30", "1000", "100000"})
+    private int size;
+
+    private AttendanceCalculator calculator;
+    private List<AttendanceRecord> records;
+    private LocalDate rangeStart;
+    private LocalDate rangeEnd;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        calculator = new AttendanceCalculator(BenchmarkFixtures.academicCalendar());
+        records = BenchmarkFixtures.records(size, DAYS);
+        rangeStart = BenchmarkFixtures.START_DATE.plusDays(DAYS / 4);
+        rangeEnd = rangeStart.plusDays(DAYS / 2 - 1);
+    }
+
+    @Benchmark
+    public AttendanceRate calculateAttendanceRate() {
+        return calculator.calculateAttendanceRate(records);
+    }
+
+    @Benchmark
+    public AttendanceRate calculateAttendanceRateForRange() {
+        return calculator.calculateAttendanceRateForRange(records, rangeStart, rangeEnd);
+    }
+}
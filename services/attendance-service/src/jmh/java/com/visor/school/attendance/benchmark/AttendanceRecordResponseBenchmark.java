@@ -0,0 +1,49 @@
+package com.visor.school.attendance.benchmark;
+
+import com.visor.school.attendance.controller.AttendanceController.AttendanceRecordResponse;
+import com.visor.school.attendance.model.AttendanceRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity-to-response mapping as done by the attendance list endpoints
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttendanceRecordResponseBenchmark {
+
+    @Param({"30", "1000", "100000"})
+    private int size;
+
+    private List<AttendanceRecord> records;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        records = BenchmarkFixtures.records(size, 1);
+    }
+
+    @Benchmark
+    public List<AttendanceRecordResponse> mapRecords() {
+        return records.stream()
+            .map(AttendanceRecordResponse::from)
+            .collect(Collectors.toList());
+    }
+}
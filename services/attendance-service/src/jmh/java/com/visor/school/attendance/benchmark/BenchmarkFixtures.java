@@ -0,0 +1,207 @@
+package com.visor.school.attendance.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.visor.school.attendance.model.AttendanceRecord;
+import com.visor.school.attendance.model.AttendanceStatus;
+import com.visor.school.attendance.repository.AcademicCalendarDayRepository;
+import com.visor.school.attendance.repository.AttendanceBulkRepository.UpsertOutcome;
+import com.visor.school.attendance.repository.AttendanceBulkRepository.UpsertedRow;
+import com.visor.school.attendance.service.AcademicCalendar;
+import com.visor.school.attendance.service.AttendanceService.AttendanceEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Synthetic data and in-memory stand-ins shared by the attendance benchmarks.
+ * Data is generated from fixed seeds so runs are comparable over time.
+ */
+final class BenchmarkFixtures {
+
+    static final LocalDate START_DATE = LocalDate.of(2025, 9, 1);
+    static final long SEED = 20250901L;
+
+    private static final AttendanceStatus[] STATUSES = AttendanceStatus.values();
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Application code logs at INFO on every call; keep the console out of the measurement
+     */
+    static void quietLogging() {
+        if (LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME) instanceof ch.qos.logback.classic.Logger root) {
+            root.setLevel(Level.WARN);
+        }
+    }
+
+    /**
+     * Records of one class spread over the given number of consecutive days, mostly PRESENT
+     */
+    static List<AttendanceRecord> records(int size, int days) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        UUID classId = uuid(random);
+        UUID teacherId = uuid(random);
+        List<AttendanceRecord> records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            records.add(new AttendanceRecord(
+                uuid(random),
+                classId,
+                START_DATE.plusDays(random.nextInt(days)),
+                status(random),
+                teacherId,
+                null,
+                null,
+                null,
+                random.nextInt(10) == 0 ? "Arrived after first bell" : null
+            ));
+        }
+        return records;
+    }
+
+    /**
+     * A roster with one entry per distinct student
+     */
+    static List<AttendanceEntry> roster(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<AttendanceEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new AttendanceEntry(uuid(random), status(random), null));
+        }
+        return entries;
+    }
+
+    /**
+     * What the roster upsert statement would return for the entries: 40% inserted, 30% updated
+     * from another status, 30% unchanged
+     */
+    static List<UpsertedRow> upsertedRows(List<AttendanceEntry> entries) {
+        SplittableRandom random = new SplittableRandom(SEED + 1);
+        List<UpsertedRow> rows = new ArrayList<>(entries.size());
+        for (AttendanceEntry entry : entries) {
+            int bucket = random.nextInt(10);
+            AttendanceStatus status = entry.getStatus();
+            if (bucket < 4) {
+                rows.add(new UpsertedRow(uuid(random), entry.getStudentId(), status, null, UpsertOutcome.INSERTED));
+            } else if (bucket < 7) {
+                AttendanceStatus previous = STATUSES[(status.ordinal() + 1) % STATUSES.length];
+                rows.add(new UpsertedRow(uuid(random), entry.getStudentId(), status, previous, UpsertOutcome.UPDATED));
+            } else {
+                rows.add(new UpsertedRow(uuid(random), entry.getStudentId(), status, status, UpsertOutcome.UNCHANGED));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Calendar with the default Monday-Friday school week and no exceptions
+     */
+    static AcademicCalendar academicCalendar() {
+        return new AcademicCalendar(
+            repository(AcademicCalendarDayRepository.class),
+            new String[] {"09-01", "01-16", "05-01"},
+            new String[] {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY"}
+        );
+    }
+
+    /**
+     * Object mapper configured like Spring Boot's default one
+     */
+    static ObjectMapper objectMapper() {
+        return JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    }
+
+    /**
+     * Spring Data repository stand-in: save and saveAll return their argument, list finders
+     * return an empty list and everything else returns null, false or zero
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "save", "saveAll", "saveAndFlush":
+                    return args[0];
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return type.getSimpleName() + " stub";
+                default:
+                    break;
+            }
+            Class<?> returnType = method.getReturnType();
+            if (List.class.isAssignableFrom(returnType)) {
+                return List.of();
+            }
+            if (returnType == boolean.class) {
+                return false;
+            }
+            if (returnType == int.class) {
+                return 0;
+            }
+            if (returnType == long.class) {
+                return 0L;
+            }
+            return null;
+        });
+    }
+
+    private static AttendanceStatus status(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < 85) {
+            return AttendanceStatus.PRESENT;
+        }
+        if (roll < 92) {
+            return AttendanceStatus.ABSENT;
+        }
+        return roll < 97 ? AttendanceStatus.LATE : AttendanceStatus.EXCUSED;
+    }
+
+    private static UUID uuid(SplittableRandom random) {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+
+    /**
+     * JdbcTemplate that answers the roster upsert with canned rows and accepts every update,
+     * so only the Java side of a roster write is measured
+     */
+    static final class CannedJdbcTemplate extends JdbcTemplate {
+        private final List<?> rows;
+
+        CannedJdbcTemplate(List<?> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String sql, PreparedStatementSetter pss, RowMapper<T> rowMapper) {
+            return (List<T>) rows;
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler rch, Object... args) {
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.visor.school.attendance.benchmark;
+
+import com.visor.school.attendance.event.AttendanceEventPublisher;
+import com.visor.school.attendance.repository.AttendanceBulkRepository;
+import com.visor.school.attendance.repository.AttendanceBulkRepository.UpsertedRow;
+import com.visor.school.attendance.repository.AttendanceCorrectionRepository;
+import com.visor.school.attendance.repository.AttendanceRollupRepository;
+import com.visor.school.attendance.repository.OutboxEventRepository;
+import com.visor.school.attendance.service.AttendanceCorrectionService;
+import com.visor.school.attendance.service.AttendanceService;
+import com.visor.school.attendance.service.AttendanceService.AttendanceEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AttendanceService.markRosterAttendance without the database: duplicate validation, statement
+ * parameter arrays, rollup delta, correction rows and the outbox event payload. The upsert
+ * statement itself is answered by a canned result, so its round trip is not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RosterUpsertBenchmark {
+
+    @Param({"30", "1000", "100000"})
+    private int size;
+
+    private AttendanceService attendanceService;
+    private List<AttendanceEntry> entries;
+    private UUID classId;
+    private UUID teacherId;
+    private LocalDate date;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.quietLogging();
+        entries = BenchmarkFixtures.roster(size);
+        List<UpsertedRow> rows = BenchmarkFixtures.upsertedRows(entries);
+        BenchmarkFixtures.CannedJdbcTemplate jdbcTemplate = new BenchmarkFixtures.CannedJdbcTemplate(rows);
+
+        attendanceService = new AttendanceService(
+            null,
+            new AttendanceBulkRepository(jdbcTemplate),
+            new AttendanceRollupRepository(jdbcTemplate),
+            null,
+            new AttendanceEventPublisher(
+                BenchmarkFixtures.repository(OutboxEventRepository.class),
+                BenchmarkFixtures.objectMapper(),
+                "attendance-service"),
+            null,
+            null,
+            null,
+            new AttendanceCorrectionService(BenchmarkFixtures.repository(AttendanceCorrectionRepository.class), 366),
+            null
+        );
+        classId = UUID.nameUUIDFromBytes("benchmark-class".getBytes());
+        teacherId = UUID.nameUUIDFromBytes("benchmark-teacher".getBytes());
+        date = LocalDate.now().minusDays(1);
+    }
+
+    @Benchmark
+    public List<UpsertedRow> markRosterAttendance() {
+        return attendanceService.markRosterAttendance(classId, date, teacherId, entries);
+    }
+}
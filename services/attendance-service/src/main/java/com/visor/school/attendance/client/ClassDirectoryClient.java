@@ -0,0 +1,117 @@
+package com.visor.school.attendance.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Name and grade level of every class, fetched from academic-service one grade at a time
+ * (GET /v1/academic/classes/grade/{gradeLevel}) and cached as a whole.
+ *
+ * Calls go through a circuit breaker. When a refresh fails the previous directory is kept,
+ * and with none loaded yet an empty directory is returned; callers treat unknown classes
+ * as having no grade level rather than failing.
+ */
+@Component
+public class ClassDirectoryClient {
+    private static final Logger logger = LoggerFactory.getLogger(ClassDirectoryClient.class);
+
+    private static final String CLASSES_BY_GRADE_PATH = "/v1/academic/classes/grade/{gradeLevel}";
+    private static final int MIN_GRADE_LEVEL = 1;
+    private static final int MAX_GRADE_LEVEL = 12;
+
+    private final RestTemplate restTemplate;
+    private final String academicServiceUrl;
+    private final long ttlNanos;
+    private final CircuitBreaker circuitBreaker;
+
+    private volatile Directory directory;
+
+    public ClassDirectoryClient(
+            RestTemplate restTemplate,
+            @Value("${attendance.academic.url:http://academic-service}") String academicServiceUrl,
+            @Value("${attendance.academic.class-directory.ttl-seconds:3600}") long ttlSeconds,
+            @Value("${attendance.academic.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${attendance.academic.circuit-breaker.open-seconds:30}") long openSeconds) {
+        this.restTemplate = restTemplate;
+        this.academicServiceUrl = academicServiceUrl;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.circuitBreaker = new CircuitBreaker("academic-service-classes", failureThreshold, Duration.ofSeconds(openSeconds));
+    }
+
+    /**
+     * All known classes keyed by class ID; refreshed when older than the TTL
+     */
+    public Directory getDirectory() {
+        Directory current = directory;
+        long now = System.nanoTime();
+        if (current != null && now - current.loadedAt() < ttlNanos) {
+            return current;
+        }
+
+        synchronized (this) {
+            current = directory;
+            if (current != null && now - current.loadedAt() < ttlNanos) {
+                return current;
+            }
+            if (circuitBreaker.tryAcquire()) {
+                // Every outcome must settle the breaker, or a failed half-open trial would keep it half-open
+                boolean healthy = false;
+                try {
+                    Map<UUID, ClassInfo> classes = fetchClasses();
+                    healthy = true;
+                    long version = current != null && current.classes().equals(classes)
+                        ? current.version()
+                        : (current != null ? current.version() + 1 : 1);
+                    directory = new Directory(Map.copyOf(classes), version, now);
+                    return directory;
+                } catch (RestClientException e) {
+                    logger.warn("Class directory refresh failed: {}", e.getMessage());
+                } finally {
+                    if (healthy) {
+                        circuitBreaker.onSuccess();
+                    } else {
+                        circuitBreaker.onFailure();
+                    }
+                }
+            }
+        }
+        return current != null ? current : new Directory(Map.of(), 0, now);
+    }
+
+    private Map<UUID, ClassInfo> fetchClasses() {
+        Map<UUID, ClassInfo> classes = new HashMap<>();
+        for (int gradeLevel = MIN_GRADE_LEVEL; gradeLevel <= MAX_GRADE_LEVEL; gradeLevel++) {
+            JsonNode response = restTemplate.getForObject(
+                academicServiceUrl + CLASSES_BY_GRADE_PATH, JsonNode.class, gradeLevel);
+            if (response == null) {
+                continue;
+            }
+            for (JsonNode classNode : response.path("data")) {
+                classes.put(
+                    UUID.fromString(classNode.path("id").asText()),
+                    new ClassInfo(classNode.path("className").asText(), classNode.path("gradeLevel").asInt(gradeLevel))
+                );
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Snapshot of the class directory; version changes only when its content does
+     */
+    public record Directory(Map<UUID, ClassInfo> classes, long version, long loadedAt) {
+    }
+
+    public record ClassInfo(String className, int gradeLevel) {
+    }
+}
@@ -0,0 +1,139 @@
+package com.visor.school.attendance.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Class leader lookups against academic-service, cached per class.
+ *
+ * A miss fetches every leader of the class in one call to academic-service's internal endpoint
+ * (GET /internal/academic/classes/{classId}/leaders), which the gateway does not expose,
+ * so later checks for any student of that class are answered locally until the entry expires.
+ * Leadership events from academic-service carry the class's full leader list and replace the entry
+ * directly. Calls go through a circuit breaker; while academic-service is unavailable an expired
+ * entry is still served up to the stale limit, and checks without any entry fail.
+ */
+@Component
+public class ClassLeaderClient {
+    private static final Logger logger = LoggerFactory.getLogger(ClassLeaderClient.class);
+
+    private static final String CLASS_LEADERS_PATH = "/internal/academic/classes/{classId}/leaders";
+
+    private final RestTemplate restTemplate;
+    private final String academicServiceUrl;
+    private final long ttlNanos;
+    private final long staleNanos;
+    private final CircuitBreaker circuitBreaker;
+
+    private final ConcurrentMap<UUID, ClassLeaders> cache = new ConcurrentHashMap<>();
+
+    public ClassLeaderClient(
+            RestTemplate restTemplate,
+            @Value("${attendance.academic.url:http://academic-service}") String academicServiceUrl,
+            @Value("${attendance.academic.leader-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${attendance.academic.leader-cache.stale-seconds:3600}") long staleSeconds,
+            @Value("${attendance.academic.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${attendance.academic.circuit-breaker.open-seconds:30}") long openSeconds) {
+        this.restTemplate = restTemplate;
+        this.academicServiceUrl = academicServiceUrl;
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.staleNanos = Duration.ofSeconds(Math.max(staleSeconds, ttlSeconds)).toNanos();
+        this.circuitBreaker = new CircuitBreaker("academic-service", failureThreshold, Duration.ofSeconds(openSeconds));
+    }
+
+    /**
+     * Whether the student currently holds a leadership position in the class
+     */
+    public boolean isClassLeader(UUID classId, UUID studentId) {
+        return getLeaders(classId).contains(studentId);
+    }
+
+    /**
+     * Student IDs of the class's leaders, from cache when fresh
+     */
+    public Set<UUID> getLeaders(UUID classId) {
+        ClassLeaders cached = cache.get(classId);
+        long now = System.nanoTime();
+        if (cached != null && now - cached.loadedAt() < ttlNanos) {
+            return cached.studentIds();
+        }
+
+        if (circuitBreaker.tryAcquire()) {
+            // Every outcome must settle the breaker, or a failed half-open trial would keep it half-open
+            boolean healthy = false;
+            try {
+                Set<UUID> leaders = fetchLeaders(classId);
+                healthy = true;
+                return put(classId, new ClassLeaders(leaders, now)).studentIds();
+            } catch (HttpClientErrorException e) {
+                // A rejected request says nothing about academic-service's health
+                healthy = true;
+                throw new IllegalArgumentException(
+                    "Class leader lookup rejected by academic-service for class " + classId + ": " + e.getStatusCode(), e);
+            } catch (RestClientException e) {
+                logger.warn("Class leader lookup failed for class {}: {}", classId, e.getMessage());
+            } finally {
+                if (healthy) {
+                    circuitBreaker.onSuccess();
+                } else {
+                    circuitBreaker.onFailure();
+                }
+            }
+        }
+
+        if (cached != null && now - cached.loadedAt() < staleNanos) {
+            logger.warn("Serving stale class leaders for class {} (circuit {})", classId, circuitBreaker.getState());
+            return cached.studentIds();
+        }
+        throw new IllegalStateException("Class leader validation is unavailable for class " + classId);
+    }
+
+    /**
+     * Replace the cached leaders of a class with the list carried by a leadership event
+     */
+    public void applyLeadershipChange(UUID classId, Collection<UUID> leaderStudentIds) {
+        put(classId, new ClassLeaders(Set.copyOf(leaderStudentIds), System.nanoTime()));
+        logger.debug("Class leaders for class {} updated from event: {}", classId, leaderStudentIds.size());
+    }
+
+    /**
+     * Drop the cached leaders of a class so the next check refetches them
+     */
+    public void invalidate(UUID classId) {
+        cache.remove(classId);
+    }
+
+    private Set<UUID> fetchLeaders(UUID classId) {
+        JsonNode response = restTemplate.getForObject(academicServiceUrl + CLASS_LEADERS_PATH, JsonNode.class, classId);
+        Set<UUID> leaders = new HashSet<>();
+        if (response != null) {
+            for (JsonNode leader : response.path("data")) {
+                leaders.add(UUID.fromString(leader.path("studentId").asText()));
+            }
+        }
+        return Set.copyOf(leaders);
+    }
+
+    // A fetch that started before a leadership event must not overwrite the event's newer list
+    private ClassLeaders put(UUID classId, ClassLeaders entry) {
+        return cache.merge(classId, entry,
+            (existing, candidate) -> candidate.loadedAt() - existing.loadedAt() >= 0 ? candidate : existing);
+    }
+
+    private record ClassLeaders(Set<UUID> studentIds, long loadedAt) {
+    }
+}
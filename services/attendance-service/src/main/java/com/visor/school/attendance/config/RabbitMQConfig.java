@@ -0,0 +1,100 @@
+package com.visor.school.attendance.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * RabbitMQ configuration for attendance-service.
+ * Configures JSON message converter for publishing domain events; consumers read them as maps.
+ */
+@Configuration
+public class RabbitMQConfig {
+
+    public static final String EXCHANGE_NAME = "school-management.exchange";
+
+    // Routing keys consumed back by this service
+    public static final String ATTENDANCE_MARKED_ROUTING_KEY = "attendance.marked";
+    public static final String ATTENDANCE_BATCH_MARKED_ROUTING_KEY = "attendance.batch.marked";
+
+    // academic.class.leader.assigned / academic.class.leader.removed
+    public static final String CLASS_LEADER_ROUTING_PATTERN = "academic.class.leader.*";
+    public static final String CLASS_SCHEDULE_CHANGED_ROUTING_KEY = "academic.class.schedule.changed";
+
+    public static final String CLASS_SCHEDULE_QUEUE = "attendance_class_schedule_queue";
+
+    @Bean
+    public MessageConverter messageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+    @Bean
+    public TopicExchange schoolManagementExchange() {
+        return new TopicExchange(EXCHANGE_NAME, true, false);
+    }
+
+    /**
+     * Per-instance queue feeding the in-memory attendance indexes (chronic absence windows,
+     * term bitmaps). Every replica keeps its own copy, so each needs every event rather
+     * than a share of a work queue.
+     */
+    @Bean
+    public Queue attendanceFeedQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding attendanceFeedMarkedBinding() {
+        return BindingBuilder
+            .bind(attendanceFeedQueue())
+            .to(schoolManagementExchange())
+            .with(ATTENDANCE_MARKED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding attendanceFeedBatchMarkedBinding() {
+        return BindingBuilder
+            .bind(attendanceFeedQueue())
+            .to(schoolManagementExchange())
+            .with(ATTENDANCE_BATCH_MARKED_ROUTING_KEY);
+    }
+
+    /**
+     * Per-instance queue keeping each replica's class leader cache current
+     */
+    @Bean
+    public Queue classLeaderFeedQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding classLeaderFeedBinding() {
+        return BindingBuilder
+            .bind(classLeaderFeedQueue())
+            .to(schoolManagementExchange())
+            .with(CLASS_LEADER_ROUTING_PATTERN);
+    }
+
+    /**
+     * Shared durable queue feeding the class_schedules table; one replica applying each
+     * event is enough, and events sent while the service is down must not be lost
+     */
+    @Bean
+    public Queue classScheduleQueue() {
+        return new Queue(CLASS_SCHEDULE_QUEUE, true, false, false);
+    }
+
+    @Bean
+    public Binding classScheduleBinding() {
+        return BindingBuilder
+            .bind(classScheduleQueue())
+            .to(schoolManagementExchange())
+            .with(CLASS_SCHEDULE_CHANGED_ROUTING_KEY);
+    }
+}
@@ -0,0 +1,50 @@
+package com.visor.school.attendance.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * HTTP client configuration for calls to other services.
+ * Service names are resolved through Eureka, and the caller's bearer token is forwarded
+ * so the target service applies its own role checks.
+ */
+@Configuration
+public class RestClientConfig {
+
+    @Bean
+    @LoadBalanced
+    public RestTemplate restTemplate(
+            RestTemplateBuilder builder,
+            @Value("${attendance.academic.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${attendance.academic.read-timeout-ms:2000}") long readTimeoutMs) {
+        return builder
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .readTimeout(Duration.ofMillis(readTimeoutMs))
+            .additionalInterceptors(forwardAuthorization())
+            .build();
+    }
+
+    private static ClientHttpRequestInterceptor forwardAuthorization() {
+        return (request, body, execution) -> {
+            if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+                HttpServletRequest incoming = attributes.getRequest();
+                String authorization = incoming.getHeader(HttpHeaders.AUTHORIZATION);
+                if (authorization != null && !request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+                    request.getHeaders().set(HttpHeaders.AUTHORIZATION, authorization);
+                }
+            }
+            return execution.execute(request, body);
+        };
+    }
+}
@@ -0,0 +1,186 @@
+package com.visor.school.attendance.controller;
+
+import com.visor.school.attendance.model.AcademicCalendarDay;
+import com.visor.school.attendance.service.AcademicCalendar;
+import com.visor.school.common.api.ApiResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Academic calendar exceptions (holidays, closures, make-up days)
+ * Reading requires TEACHER or ADMINISTRATOR role; changes require ADMINISTRATOR role
+ */
+@RestController
+@RequestMapping("/v1/attendance/calendar")
+public class AcademicCalendarController {
+
+    private final AcademicCalendar academicCalendar;
+
+    public AcademicCalendarController(AcademicCalendar academicCalendar) {
+        this.academicCalendar = academicCalendar;
+    }
+
+    /**
+     * Calendar exceptions and the number of school days in a date range
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMINISTRATOR')")
+    public ResponseEntity<ApiResponse<CalendarRangeResponse>> getCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        List<CalendarDayResponse> days = academicCalendar.getDays(startDate, endDate).stream()
+            .map(CalendarDayResponse::from)
+            .collect(Collectors.toList());
+        int schoolDays = academicCalendar.countSchoolDays(startDate, endDate);
+        return ResponseEntity.ok(ApiResponse.success(new CalendarRangeResponse(startDate, endDate, schoolDays, days)));
+    }
+
+    /**
+     * Mark a date as a school day or not
+     */
+    @PutMapping("/days/{date}")
+    @PreAuthorize("hasRole('ADMINISTRATOR')")
+    public ResponseEntity<ApiResponse<CalendarDayResponse>> setDay(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @Valid @RequestBody SetCalendarDayRequest request) {
+        AcademicCalendarDay day = academicCalendar.setDay(
+            date, request.getSchoolDay(), request.getDescription(), request.getUpdatedBy());
+        return ResponseEntity.ok(ApiResponse.success(CalendarDayResponse.from(day), "Academic calendar updated"));
+    }
+
+    /**
+     * Remove an exception so the date follows the weekly pattern again
+     */
+    @DeleteMapping("/days/{date}")
+    @PreAuthorize("hasRole('ADMINISTRATOR')")
+    public ResponseEntity<ApiResponse<Void>> clearDay(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        academicCalendar.clearDay(date);
+        return ResponseEntity.ok(ApiResponse.success(null, "Academic calendar entry removed"));
+    }
+
+    // Request DTO
+    public static class SetCalendarDayRequest {
+        @NotNull
+        private Boolean schoolDay;
+
+        @Size(max = 200)
+        private String description;
+
+        private UUID updatedBy; // From JWT token in production
+
+        public Boolean getSchoolDay() {
+            return schoolDay;
+        }
+
+        public void setSchoolDay(Boolean schoolDay) {
+            this.schoolDay = schoolDay;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public UUID getUpdatedBy() {
+            return updatedBy;
+        }
+
+        public void setUpdatedBy(UUID updatedBy) {
+            this.updatedBy = updatedBy;
+        }
+    }
+
+    // Response DTOs
+    public static class CalendarRangeResponse {
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final int schoolDays;
+        private final List<CalendarDayResponse> exceptions;
+
+        public CalendarRangeResponse(LocalDate startDate, LocalDate endDate, int schoolDays,
+                                     List<CalendarDayResponse> exceptions) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.schoolDays = schoolDays;
+            this.exceptions = exceptions;
+        }
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+
+        public int getSchoolDays() {
+            return schoolDays;
+        }
+
+        public List<CalendarDayResponse> getExceptions() {
+            return exceptions;
+        }
+    }
+
+    public static class CalendarDayResponse {
+        private final LocalDate date;
+        private final boolean schoolDay;
+        private final String description;
+        private final UUID updatedBy;
+        private final Instant updatedAt;
+
+        public CalendarDayResponse(LocalDate date, boolean schoolDay, String description, UUID updatedBy,
+                                   Instant updatedAt) {
+            this.date = date;
+            this.schoolDay = schoolDay;
+            this.description = description;
+            this.updatedBy = updatedBy;
+            this.updatedAt = updatedAt;
+        }
+
+        public static CalendarDayResponse from(AcademicCalendarDay day) {
+            return new CalendarDayResponse(
+                day.getDate(),
+                day.isSchoolDay(),
+                day.getDescription(),
+                day.getUpdatedBy(),
+                day.getUpdatedAt()
+            );
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public boolean isSchoolDay() {
+            return schoolDay;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public UUID getUpdatedBy() {
+            return updatedBy;
+        }
+
+        public Instant getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
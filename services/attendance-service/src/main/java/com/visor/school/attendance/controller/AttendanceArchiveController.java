@@ -0,0 +1,121 @@
+package com.visor.school.attendance.controller;
+
+import com.visor.school.attendance.model.AttendanceArchive;
+import com.visor.school.attendance.service.AttendancePartitionService;
+import com.visor.school.common.api.ApiResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Archived attendance partitions
+ * Requires ADMINISTRATOR role
+ */
+@RestController
+@RequestMapping("/v1/attendance/archives")
+@PreAuthorize("hasRole('ADMINISTRATOR')")
+public class AttendanceArchiveController {
+
+    private final AttendancePartitionService attendancePartitionService;
+
+    public AttendanceArchiveController(AttendancePartitionService attendancePartitionService) {
+        this.attendancePartitionService = attendancePartitionService;
+    }
+
+    /**
+     * List archived monthly partitions, newest first
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<AttendanceArchiveResponse>>> getArchives() {
+        List<AttendanceArchiveResponse> response = attendancePartitionService.getArchives().stream()
+            .map(AttendanceArchiveResponse::from)
+            .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    /**
+     * Archive closed academic years now instead of waiting for the scheduled run
+     */
+    @PostMapping("/run")
+    public ResponseEntity<ApiResponse<Integer>> archiveClosedYears() {
+        int archived = attendancePartitionService.archiveClosedYears();
+        return ResponseEntity.ok(ApiResponse.success(archived, "Attendance partitions archived"));
+    }
+
+    /**
+     * Load an archived partition back into attendance_records
+     */
+    @PostMapping("/{archiveId}/restore")
+    public ResponseEntity<ApiResponse<AttendanceArchiveResponse>> restoreArchive(@PathVariable UUID archiveId) {
+        AttendanceArchive archive = attendancePartitionService.restoreArchive(archiveId);
+        return ResponseEntity.ok(ApiResponse.success(AttendanceArchiveResponse.from(archive), "Attendance archive restored"));
+    }
+
+    // Response DTO
+    public static class AttendanceArchiveResponse {
+        private final UUID id;
+        private final String partitionName;
+        private final LocalDate rangeStart;
+        private final LocalDate rangeEnd;
+        private final long rowCount;
+        private final Instant archivedAt;
+        private final Instant restoredAt;
+
+        public AttendanceArchiveResponse(UUID id, String partitionName, LocalDate rangeStart, LocalDate rangeEnd,
+                                         long rowCount, Instant archivedAt, Instant restoredAt) {
+            this.id = id;
+            this.partitionName = partitionName;
+            this.rangeStart = rangeStart;
+            this.rangeEnd = rangeEnd;
+            this.rowCount = rowCount;
+            this.archivedAt = archivedAt;
+            this.restoredAt = restoredAt;
+        }
+
+        public static AttendanceArchiveResponse from(AttendanceArchive archive) {
+            return new AttendanceArchiveResponse(
+                archive.getId(),
+                archive.getPartitionName(),
+                archive.getRangeStart(),
+                archive.getRangeEnd(),
+                archive.getRowCount(),
+                archive.getArchivedAt(),
+                archive.getRestoredAt()
+            );
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public String getPartitionName() {
+            return partitionName;
+        }
+
+        public LocalDate getRangeStart() {
+            return rangeStart;
+        }
+
+        public LocalDate getRangeEnd() {
+            return rangeEnd;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public Instant getArchivedAt() {
+            return archivedAt;
+        }
+
+        public Instant getRestoredAt() {
+            return restoredAt;
+        }
+    }
+}
@@ -2,15 +2,26 @@ package com.visor.school.attendance.controller;
 
 import com.visor.school.attendance.model.AttendanceRecord;
 import com.visor.school.attendance.model.AttendanceStatus;
+import com.visor.school.attendance.repository.AttendanceBulkRepository.UpsertOutcome;
+import com.visor.school.attendance.repository.AttendanceBulkRepository.UpsertedRow;
+import com.visor.school.attendance.service.AttendanceExportFormat;
+import com.visor.school.attendance.service.AttendanceExportService;
 import com.visor.school.attendance.service.AttendanceService;
+import com.visor.school.attendance.service.AttendanceService.AttendanceEntry;
+import com.visor.school.attendance.service.AttendanceService.AttendanceHistoryPage;
 import com.visor.school.common.api.ApiResponse;
+import com.visor.school.common.api.Constants;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -26,9 +37,11 @@ import java.util.stream.Collectors;
 public class AttendanceController {
 
     private final AttendanceService attendanceService;
+    private final AttendanceExportService attendanceExportService;
 
-    public AttendanceController(AttendanceService attendanceService) {
+    public AttendanceController(AttendanceService attendanceService, AttendanceExportService attendanceExportService) {
         this.attendanceService = attendanceService;
+        this.attendanceExportService = attendanceExportService;
     }
 
     /**
@@ -51,6 +64,29 @@ public class AttendanceController {
             .body(ApiResponse.success(AttendanceRecordResponse.from(record), "Attendance marked successfully"));
     }
 
+    /**
+     * Mark attendance for a whole class roster in one batched upsert
+     */
+    @PostMapping("/roster")
+    @PreAuthorize("hasRole('TEACHER') and hasPermission(null, 'MANAGE_ATTENDANCE')")
+    public ResponseEntity<ApiResponse<RosterAttendanceResponse>> markRosterAttendance(
+            @Valid @RequestBody MarkRosterAttendanceRequest request) {
+        List<AttendanceEntry> entries = request.getEntries().stream()
+            .map(e -> new AttendanceEntry(e.getStudentId(), e.getStatus(), e.getNotes()))
+            .collect(Collectors.toList());
+
+        List<UpsertedRow> results = attendanceService.markRosterAttendance(
+            request.getClassId(),
+            request.getDate(),
+            request.getMarkedBy(), // From JWT token in production
+            entries
+        );
+
+        return ResponseEntity.ok(ApiResponse.success(
+            RosterAttendanceResponse.from(request.getClassId(), request.getDate(), results),
+            "Roster attendance marked successfully"));
+    }
+
     /**
      * Get attendance records for a class
      */
@@ -67,18 +103,34 @@ public class AttendanceController {
     }
 
     /**
-     * Get attendance records for a student
+     * Get attendance history for a student, newest first, one keyset page at a time
      */
     @GetMapping("/student/{studentId}")
     @PreAuthorize("hasRole('TEACHER') or hasRole('ADMINISTRATOR') or hasRole('PARENT')")
-    public ResponseEntity<ApiResponse<List<AttendanceRecordResponse>>> getAttendanceByStudent(
+    public ResponseEntity<ApiResponse<AttendanceHistoryResponse>> getAttendanceByStudent(
             @PathVariable UUID studentId,
-            @RequestParam(required = false) UUID classId) {
-        List<AttendanceRecord> records = attendanceService.getAttendanceByStudent(studentId, classId);
-        List<AttendanceRecordResponse> responses = records.stream()
-            .map(AttendanceRecordResponse::from)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(ApiResponse.success(responses));
+            @RequestParam(required = false) UUID classId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + Constants.DEFAULT_PAGE_SIZE) int limit) {
+        AttendanceHistoryPage page = attendanceService.getAttendanceHistory(studentId, classId, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success(AttendanceHistoryResponse.from(page)));
+    }
+
+    /**
+     * Export a student's full attendance history as CSV or NDJSON
+     */
+    @GetMapping("/student/{studentId}/export")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMINISTRATOR') or hasRole('PARENT')")
+    public ResponseEntity<StreamingResponseBody> exportAttendanceByStudent(
+            @PathVariable UUID studentId,
+            @RequestParam(defaultValue = "CSV") AttendanceExportFormat format) {
+        StreamingResponseBody body = out -> attendanceExportService.exportStudentHistory(studentId, format, out);
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"attendance-" + studentId + "." + format.getFileExtension() + "\"")
+            .body(body);
     }
 
     // Request/Response DTOs
@@ -150,6 +202,214 @@ public class AttendanceController {
         }
     }
 
+    public static class MarkRosterAttendanceRequest {
+        @NotNull
+        private UUID classId;
+
+        @NotNull
+        private LocalDate date;
+
+        @NotNull
+        private UUID markedBy; // Teacher ID (from JWT token in production)
+
+        @NotEmpty
+        @Valid
+        private List<RosterEntryRequest> entries;
+
+        public UUID getClassId() {
+            return classId;
+        }
+
+        public void setClassId(UUID classId) {
+            this.classId = classId;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public UUID getMarkedBy() {
+            return markedBy;
+        }
+
+        public void setMarkedBy(UUID markedBy) {
+            this.markedBy = markedBy;
+        }
+
+        public List<RosterEntryRequest> getEntries() {
+            return entries;
+        }
+
+        public void setEntries(List<RosterEntryRequest> entries) {
+            this.entries = entries;
+        }
+    }
+
+    public static class RosterEntryRequest {
+        @NotNull
+        private UUID studentId;
+
+        @NotNull
+        private AttendanceStatus status;
+
+        private String notes;
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public void setStudentId(UUID studentId) {
+            this.studentId = studentId;
+        }
+
+        public AttendanceStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(AttendanceStatus status) {
+            this.status = status;
+        }
+
+        public String getNotes() {
+            return notes;
+        }
+
+        public void setNotes(String notes) {
+            this.notes = notes;
+        }
+    }
+
+    public static class RosterAttendanceResponse {
+        private final UUID classId;
+        private final LocalDate date;
+        private final int inserted;
+        private final int updated;
+        private final int unchanged;
+        private final List<RosterEntryResponse> entries;
+
+        public RosterAttendanceResponse(UUID classId, LocalDate date, int inserted, int updated,
+                                        int unchanged, List<RosterEntryResponse> entries) {
+            this.classId = classId;
+            this.date = date;
+            this.inserted = inserted;
+            this.updated = updated;
+            this.unchanged = unchanged;
+            this.entries = entries;
+        }
+
+        public static RosterAttendanceResponse from(UUID classId, LocalDate date, List<UpsertedRow> rows) {
+            int inserted = 0;
+            int updated = 0;
+            int unchanged = 0;
+            for (UpsertedRow row : rows) {
+                switch (row.getOutcome()) {
+                    case INSERTED -> inserted++;
+                    case UPDATED -> updated++;
+                    case UNCHANGED -> unchanged++;
+                }
+            }
+            List<RosterEntryResponse> entries = rows.stream()
+                .map(RosterEntryResponse::from)
+                .collect(Collectors.toList());
+            return new RosterAttendanceResponse(classId, date, inserted, updated, unchanged, entries);
+        }
+
+        // Getters
+        public UUID getClassId() {
+            return classId;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public int getInserted() {
+            return inserted;
+        }
+
+        public int getUpdated() {
+            return updated;
+        }
+
+        public int getUnchanged() {
+            return unchanged;
+        }
+
+        public List<RosterEntryResponse> getEntries() {
+            return entries;
+        }
+    }
+
+    public static class RosterEntryResponse {
+        private final UUID recordId;
+        private final UUID studentId;
+        private final String status;
+        private final UpsertOutcome outcome;
+
+        public RosterEntryResponse(UUID recordId, UUID studentId, String status, UpsertOutcome outcome) {
+            this.recordId = recordId;
+            this.studentId = studentId;
+            this.status = status;
+            this.outcome = outcome;
+        }
+
+        public static RosterEntryResponse from(UpsertedRow row) {
+            return new RosterEntryResponse(
+                row.getRecordId(),
+                row.getStudentId(),
+                row.getStatus().name(),
+                row.getOutcome()
+            );
+        }
+
+        // Getters
+        public UUID getRecordId() {
+            return recordId;
+        }
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public UpsertOutcome getOutcome() {
+            return outcome;
+        }
+    }
+
+    public static class AttendanceHistoryResponse {
+        private final List<AttendanceRecordResponse> records;
+        private final String nextCursor;
+
+        public AttendanceHistoryResponse(List<AttendanceRecordResponse> records, String nextCursor) {
+            this.records = records;
+            this.nextCursor = nextCursor;
+        }
+
+        public static AttendanceHistoryResponse from(AttendanceHistoryPage page) {
+            List<AttendanceRecordResponse> records = page.getRecords().stream()
+                .map(AttendanceRecordResponse::from)
+                .collect(Collectors.toList());
+            return new AttendanceHistoryResponse(records, page.getNextCursor());
+        }
+
+        // Getters
+        public List<AttendanceRecordResponse> getRecords() {
+            return records;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+
     public static class AttendanceRecordResponse {
         private final UUID id;
         private final UUID studentId;
@@ -0,0 +1,132 @@
+package com.visor.school.attendance.controller;
+
+import com.visor.school.attendance.model.AttendanceCorrection;
+import com.visor.school.attendance.model.AttendanceStatus;
+import com.visor.school.attendance.service.AttendanceCorrectionService;
+import com.visor.school.attendance.service.AttendanceCorrectionService.AttendanceAsOf;
+import com.visor.school.common.api.ApiResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Attendance correction history and point-in-time attendance for disputes and audits
+ * Requires TEACHER or ADMINISTRATOR role
+ */
+@RestController
+@RequestMapping("/v1/attendance")
+public class AttendanceCorrectionController {
+
+    private final AttendanceCorrectionService attendanceCorrectionService;
+
+    public AttendanceCorrectionController(AttendanceCorrectionService attendanceCorrectionService) {
+        this.attendanceCorrectionService = attendanceCorrectionService;
+    }
+
+    /**
+     * Status corrections of one attendance record, oldest first
+     */
+    @GetMapping("/records/{recordId}/corrections")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMINISTRATOR')")
+    public ResponseEntity<ApiResponse<List<CorrectionResponse>>> getCorrections(@PathVariable UUID recordId) {
+        List<CorrectionResponse> responses = attendanceCorrectionService.getCorrections(recordId).stream()
+            .map(CorrectionResponse::from)
+            .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success(responses));
+    }
+
+    /**
+     * Attendance of a class on a date as it stood at an instant
+     */
+    @GetMapping("/class/{classId}/as-of")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMINISTRATOR')")
+    public ResponseEntity<ApiResponse<List<AttendanceAsOf>>> getClassAttendanceAsOf(
+            @PathVariable UUID classId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam Instant at) {
+        return ResponseEntity.ok(ApiResponse.success(attendanceCorrectionService.getClassAttendanceAsOf(classId, date, at)));
+    }
+
+    /**
+     * Attendance of a student over a date range as it stood at an instant
+     */
+    @GetMapping("/student/{studentId}/as-of")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMINISTRATOR')")
+    public ResponseEntity<ApiResponse<List<AttendanceAsOf>>> getStudentAttendanceAsOf(
+            @PathVariable UUID studentId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam Instant at) {
+        return ResponseEntity.ok(ApiResponse.success(
+            attendanceCorrectionService.getStudentAttendanceAsOf(studentId, startDate, endDate, at)));
+    }
+
+    public static class CorrectionResponse {
+        private final UUID id;
+        private final UUID attendanceRecordId;
+        private final AttendanceStatus previousStatus;
+        private final AttendanceStatus newStatus;
+        private final String correctionReason;
+        private final UUID correctedBy;
+        private final Instant correctedAt;
+
+        public CorrectionResponse(UUID id, UUID attendanceRecordId, AttendanceStatus previousStatus,
+                                  AttendanceStatus newStatus, String correctionReason, UUID correctedBy,
+                                  Instant correctedAt) {
+            this.id = id;
+            this.attendanceRecordId = attendanceRecordId;
+            this.previousStatus = previousStatus;
+            this.newStatus = newStatus;
+            this.correctionReason = correctionReason;
+            this.correctedBy = correctedBy;
+            this.correctedAt = correctedAt;
+        }
+
+        public static CorrectionResponse from(AttendanceCorrection correction) {
+            return new CorrectionResponse(
+                correction.getId(),
+                correction.getAttendanceRecordId(),
+                correction.getPreviousStatus(),
+                correction.getNewStatus(),
+                correction.getCorrectionReason(),
+                correction.getCorrectedBy(),
+                correction.getCorrectedAt()
+            );
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public UUID getAttendanceRecordId() {
+            return attendanceRecordId;
+        }
+
+        public AttendanceStatus getPreviousStatus() {
+            return previousStatus;
+        }
+
+        public AttendanceStatus getNewStatus() {
+            return newStatus;
+        }
+
+        public String getCorrectionReason() {
+            return correctionReason;
+        }
+
+        public UUID getCorrectedBy() {
+            return correctedBy;
+        }
+
+        public Instant getCorrectedAt() {
+            return correctedAt;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.visor.school.attendance.controller;
+
+import com.visor.school.attendance.service.AttendanceExportFormat;
+import com.visor.school.attendance.service.AttendanceExportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Attendance export controller
+ * Streams raw attendance records as CSV or NDJSON with constant memory
+ * Parameters are validated before the body is returned; once streaming starts the status is already sent
+ */
+@RestController
+@RequestMapping("/v1/reports")
+public class AttendanceExportController {
+
+    private final AttendanceExportService attendanceExportService;
+
+    public AttendanceExportController(AttendanceExportService attendanceExportService) {
+        this.attendanceExportService = attendanceExportService;
+    }
+
+    /**
+     * Export attendance records for a class over a date range
+     */
+    @GetMapping("/class/{classId}/export")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMINISTRATOR')")
+    public ResponseEntity<StreamingResponseBody> exportClassAttendance(
+            @PathVariable UUID classId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "CSV") AttendanceExportFormat format) {
+        attendanceExportService.validateRange(startDate, endDate);
+        StreamingResponseBody body = out ->
+            attendanceExportService.exportClassRange(classId, startDate, endDate, format, out);
+        return streaming(format, "attendance-" + classId + "-" + startDate + "-" + endDate, body);
+    }
+
+    /**
+     * Export attendance records for the whole school over a date range
+     */
+    @GetMapping("/school/export")
+    @PreAuthorize("hasRole('ADMINISTRATOR')")
+    public ResponseEntity<StreamingResponseBody> exportSchoolAttendance(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "CSV") AttendanceExportFormat format) {
+        attendanceExportService.validateRange(startDate, endDate);
+        StreamingResponseBody body = out ->
+            attendanceExportService.exportSchoolRange(startDate, endDate, format, out);
+        return streaming(format, "attendance-school-" + startDate + "-" + endDate, body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> streaming(AttendanceExportFormat format, String baseName,
+                                                            StreamingResponseBody body) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + baseName + "." + format.getFileExtension() + "\"")
+            .body(body);
+    }
+}
@@ -1,15 +1,30 @@
 package com.visor.school.attendance.controller;
 
+import com.visor.school.attendance.controller.AttendanceController.AttendanceRecordResponse;
 import com.visor.school.attendance.service.AttendanceService;
 import com.visor.school.attendance.service.AttendanceService.AttendanceReport;
+import com.visor.school.attendance.service.AttendanceService.StudentTermRate;
+import com.visor.school.attendance.service.MissingAttendanceDetector;
+import com.visor.school.attendance.service.MissingAttendanceDetector.MissingAttendance;
+import com.visor.school.attendance.service.SchoolDashboardService;
+import com.visor.school.attendance.service.SchoolDashboardService.SchoolDashboard;
 import com.visor.school.common.api.ApiResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Attendance report controller
@@ -20,9 +35,14 @@ import java.util.UUID;
 public class AttendanceReportController {
 
     private final AttendanceService attendanceService;
+    private final SchoolDashboardService schoolDashboardService;
+    private final MissingAttendanceDetector missingAttendanceDetector;
 
-    public AttendanceReportController(AttendanceService attendanceService) {
+    public AttendanceReportController(AttendanceService attendanceService, SchoolDashboardService schoolDashboardService,
+                                      MissingAttendanceDetector missingAttendanceDetector) {
         this.attendanceService = attendanceService;
+        this.schoolDashboardService = schoolDashboardService;
+        this.missingAttendanceDetector = missingAttendanceDetector;
     }
 
     /**
@@ -33,12 +53,204 @@ public class AttendanceReportController {
     public ResponseEntity<ApiResponse<AttendanceReportResponse>> generateClassReport(
             @PathVariable UUID classId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        AttendanceReport report = attendanceService.generateClassReport(classId, startDate, endDate);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean includeRecords) {
+        AttendanceReport report = attendanceService.generateClassReport(classId, startDate, endDate, includeRecords);
         return ResponseEntity.ok(ApiResponse.success(AttendanceReportResponse.from(report)));
     }
 
-    // Response DTO
+    /**
+     * School-wide attendance counts per class and grade level for a day
+     * Supports If-None-Match, including weak tags and *; an unchanged dashboard is answered with 304 and no body
+     */
+    @GetMapping("/school/{date}")
+    @PreAuthorize("hasRole('ADMINISTRATOR')")
+    public ResponseEntity<ApiResponse<SchoolDashboard>> getSchoolDashboard(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        SchoolDashboard dashboard = schoolDashboardService.getDashboard(date);
+        if (notModified(ifNoneMatch, dashboard.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(dashboard.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .build();
+        }
+        return ResponseEntity.ok()
+            .eTag(dashboard.getEtag())
+            .cacheControl(CacheControl.noCache())
+            .body(ApiResponse.success(dashboard));
+    }
+
+    /**
+     * Classes with school days in the range that have no attendance records
+     */
+    @GetMapping("/missing-attendance")
+    @PreAuthorize("hasRole('ADMINISTRATOR')")
+    public ResponseEntity<ApiResponse<List<MissingAttendance>>> findMissingAttendance(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(ApiResponse.success(missingAttendanceDetector.findMissing(startDate, endDate)));
+    }
+
+    /**
+     * Term-to-date attendance rates for many students, e.g. a whole grade level
+     * The term is the one containing date (today when omitted)
+     */
+    @PostMapping("/students/attendance-rates")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMINISTRATOR')")
+    public ResponseEntity<ApiResponse<List<StudentTermRateResponse>>> getStudentTermRates(
+            @Valid @RequestBody StudentTermRatesRequest request) {
+        LocalDate date = request.getDate() != null ? request.getDate() : LocalDate.now();
+        List<StudentTermRateResponse> response = attendanceService.getStudentTermRates(request.getStudentIds(), date)
+            .stream()
+            .map(StudentTermRateResponse::from)
+            .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    /**
+     * Rebuild the daily attendance rollup for a date range from raw records
+     */
+    @PostMapping("/rollup/rebuild")
+    @PreAuthorize("hasRole('ADMINISTRATOR')")
+    public ResponseEntity<ApiResponse<Integer>> rebuildDailyRollup(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        int rows = attendanceService.rebuildDailyRollup(startDate, endDate);
+        schoolDashboardService.invalidate(startDate, endDate);
+        return ResponseEntity.ok(ApiResponse.success(rows, "Attendance rollup rebuilt"));
+    }
+
+    // If-None-Match uses the weak comparison (RFC 9110, 13.1.2); * matches any current representation
+    private static boolean notModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        ETag current = ETag.create(etag);
+        for (ETag candidate : ETag.parse(ifNoneMatch)) {
+            if (candidate.isWildcard() || candidate.compare(current, false)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Request DTO
+    public static class StudentTermRatesRequest {
+        @NotEmpty
+        @Size(max = 5000)
+        private List<UUID> studentIds;
+
+        private LocalDate date;
+
+        public List<UUID> getStudentIds() {
+            return studentIds;
+        }
+
+        public void setStudentIds(List<UUID> studentIds) {
+            this.studentIds = studentIds;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+    }
+
+    // Response DTOs
+    public static class StudentTermRateResponse {
+        private final UUID studentId;
+        private final LocalDate termStart;
+        private final LocalDate termEnd;
+        private final double attendanceRate;
+        private final int total;
+        private final int present;
+        private final int absent;
+        private final int late;
+        private final int excused;
+        private final int currentPresentStreak;
+        private final int longestPresentStreak;
+
+        public StudentTermRateResponse(UUID studentId, LocalDate termStart, LocalDate termEnd,
+                                       double attendanceRate, int total, int present, int absent, int late,
+                                       int excused, int currentPresentStreak, int longestPresentStreak) {
+            this.studentId = studentId;
+            this.termStart = termStart;
+            this.termEnd = termEnd;
+            this.attendanceRate = attendanceRate;
+            this.total = total;
+            this.present = present;
+            this.absent = absent;
+            this.late = late;
+            this.excused = excused;
+            this.currentPresentStreak = currentPresentStreak;
+            this.longestPresentStreak = longestPresentStreak;
+        }
+
+        public static StudentTermRateResponse from(StudentTermRate rate) {
+            return new StudentTermRateResponse(
+                rate.getStudentId(),
+                rate.getTermStart(),
+                rate.getTermEnd(),
+                rate.getAttendanceRate().getRate(),
+                rate.getAttendanceRate().getTotal(),
+                rate.getAttendanceRate().getPresent(),
+                rate.getAttendanceRate().getAbsent(),
+                rate.getAttendanceRate().getLate(),
+                rate.getAttendanceRate().getExcused(),
+                rate.getCurrentPresentStreak(),
+                rate.getLongestPresentStreak()
+            );
+        }
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public LocalDate getTermStart() {
+            return termStart;
+        }
+
+        public LocalDate getTermEnd() {
+            return termEnd;
+        }
+
+        public double getAttendanceRate() {
+            return attendanceRate;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getPresent() {
+            return present;
+        }
+
+        public int getAbsent() {
+            return absent;
+        }
+
+        public int getLate() {
+            return late;
+        }
+
+        public int getExcused() {
+            return excused;
+        }
+
+        public int getCurrentPresentStreak() {
+            return currentPresentStreak;
+        }
+
+        public int getLongestPresentStreak() {
+            return longestPresentStreak;
+        }
+    }
+
     public static class AttendanceReportResponse {
         private final UUID classId;
         private final LocalDate startDate;
@@ -50,10 +262,12 @@ public class AttendanceReportController {
         private final int absent;
         private final int late;
         private final int excused;
+        private final List<AttendanceRecordResponse> records; // Only populated when includeRecords=true
 
         public AttendanceReportResponse(UUID classId, LocalDate startDate, LocalDate endDate,
                                        long totalDays, double attendanceRate, int total,
-                                       int present, int absent, int late, int excused) {
+                                       int present, int absent, int late, int excused,
+                                       List<AttendanceRecordResponse> records) {
             this.classId = classId;
             this.startDate = startDate;
             this.endDate = endDate;
@@ -64,6 +278,7 @@ public class AttendanceReportController {
             this.absent = absent;
             this.late = late;
             this.excused = excused;
+            this.records = records;
         }
 
         public static AttendanceReportResponse from(AttendanceReport report) {
@@ -77,7 +292,10 @@ public class AttendanceReportController {
                 report.getAttendanceRate().getPresent(),
                 report.getAttendanceRate().getAbsent(),
                 report.getAttendanceRate().getLate(),
-                report.getAttendanceRate().getExcused()
+                report.getAttendanceRate().getExcused(),
+                report.getRecords().isEmpty() ? null : report.getRecords().stream()
+                    .map(AttendanceRecordResponse::from)
+                    .collect(Collectors.toList())
             );
         }
 
@@ -121,5 +339,9 @@ public class AttendanceReportController {
         public int getExcused() {
             return excused;
         }
+
+        public List<AttendanceRecordResponse> getRecords() {
+            return records;
+        }
     }
 }
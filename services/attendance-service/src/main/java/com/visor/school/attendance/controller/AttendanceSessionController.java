@@ -4,6 +4,7 @@ import com.visor.school.attendance.model.AttendanceSession;
 import com.visor.school.attendance.model.AttendanceStatus;
 import com.visor.school.attendance.service.AttendanceService;
 import com.visor.school.attendance.service.AttendanceService.AttendanceEntry;
+import com.visor.school.attendance.service.SessionPreGenerationService;
 import com.visor.school.common.api.ApiResponse;
 import com.visor.school.common.api.Permissions;
 import jakarta.validation.Valid;
@@ -31,9 +32,12 @@ import java.util.stream.Collectors;
 public class AttendanceSessionController {
 
     private final AttendanceService attendanceService;
+    private final SessionPreGenerationService sessionPreGenerationService;
 
-    public AttendanceSessionController(AttendanceService attendanceService) {
+    public AttendanceSessionController(AttendanceService attendanceService,
+                                       SessionPreGenerationService sessionPreGenerationService) {
         this.attendanceService = attendanceService;
+        this.sessionPreGenerationService = sessionPreGenerationService;
     }
 
     /**
@@ -53,6 +57,19 @@ public class AttendanceSessionController {
             .body(ApiResponse.success(AttendanceSessionResponse.from(session), "Attendance session created successfully"));
     }
 
+    /**
+     * Pre-generate PENDING sessions for all scheduled classes over a date range
+     * Returns the number of sessions created; existing sessions are kept
+     */
+    @PostMapping("/pregenerate")
+    @PreAuthorize("hasRole('ADMINISTRATOR')")
+    public ResponseEntity<ApiResponse<Integer>> pregenerateSessions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        int created = sessionPreGenerationService.generate(startDate, endDate);
+        return ResponseEntity.ok(ApiResponse.success(created, "Attendance sessions pre-generated"));
+    }
+
     /**
      * Delegate session to class leader
      */
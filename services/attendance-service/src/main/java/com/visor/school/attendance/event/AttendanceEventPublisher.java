@@ -1,20 +1,29 @@
 package com.visor.school.attendance.event;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.visor.school.common.events.BaseEvent;
 import com.visor.school.attendance.model.AttendanceRecord;
 import com.visor.school.attendance.model.AttendanceSession;
+import com.visor.school.attendance.model.AttendanceStatus;
+import com.visor.school.attendance.model.OutboxEvent;
+import com.visor.school.attendance.repository.AttendanceBulkRepository.UpsertOutcome;
+import com.visor.school.attendance.repository.AttendanceBulkRepository.UpsertedRow;
+import com.visor.school.attendance.repository.OutboxEventRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
- * Publisher for attendance-related events to RabbitMQ
+ * Publisher for attendance-related events to RabbitMQ.
+ * Events are queued in the outbox within the caller's transaction and relayed by OutboxPublisherService.
  */
 @Component
 public class AttendanceEventPublisher {
@@ -22,40 +31,79 @@ public class AttendanceEventPublisher {
 
     public static final String EXCHANGE_NAME = "school-management.exchange";
     public static final String ATTENDANCE_MARKED_ROUTING_KEY = "attendance.marked";
+    public static final String ATTENDANCE_BATCH_MARKED_ROUTING_KEY = "attendance.batch.marked";
     public static final String SESSION_DELEGATED_ROUTING_KEY = "attendance.session.delegated";
     public static final String SESSION_COLLECTED_ROUTING_KEY = "attendance.session.collected";
     public static final String SESSION_APPROVED_ROUTING_KEY = "attendance.session.approved";
     public static final String SESSION_REJECTED_ROUTING_KEY = "attendance.session.rejected";
+    public static final String CHRONIC_ABSENCE_ALERT_ROUTING_KEY = "attendance.alert.chronic-absence";
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
     private final String serviceName;
 
     public AttendanceEventPublisher(
-            RabbitTemplate rabbitTemplate,
+            OutboxEventRepository outboxEventRepository,
+            ObjectMapper objectMapper,
             @Value("${spring.application.name}") String serviceName) {
-        this.rabbitTemplate = rabbitTemplate;
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
         this.serviceName = serviceName;
     }
 
     /**
      * Publish attendance marked event (direct marking)
+     * previousStatus is null when the record was created
      */
-    public void publishAttendanceMarked(AttendanceRecord record) {
+    public void publishAttendanceMarked(AttendanceRecord record, AttendanceStatus previousStatus) {
         AttendanceMarkedEvent event = new AttendanceMarkedEvent(
             record.getId(),
             record.getStudentId(),
             record.getClassId(),
             record.getDate(),
             record.getStatus().name(),
+            previousStatus != null ? previousStatus.name() : null,
             record.getMarkedBy()
         );
 
-        try {
-            rabbitTemplate.convertAndSend(EXCHANGE_NAME, ATTENDANCE_MARKED_ROUTING_KEY, event);
-            logger.info("Published attendance.marked event for record: {}", record.getId());
-        } catch (Exception e) {
-            logger.error("Failed to publish attendance.marked event for record: {}", record.getId(), e);
-        }
+        queueOutboxEvent(event, ATTENDANCE_MARKED_ROUTING_KEY);
+        logger.info("Queued attendance.marked event for record: {}", record.getId());
+    }
+
+    /**
+     * Publish one event for all changed entries of a roster submission or session collection
+     * Unchanged entries are omitted; nothing is sent if no entry changed
+     */
+    public void publishAttendanceBatchMarked(UUID classId, LocalDate date, UUID markedBy, UUID collectedBy,
+                                             UUID sessionId, List<UpsertedRow> rows) {
+        List<MarkedEntry> entries = new ArrayList<>(rows.size());
+        for (UpsertedRow row : rows) {
+            if (row.getOutcome() != UpsertOutcome.UNCHANGED) {
+                entries.add(new MarkedEntry(
+                    row.getRecordId(),
+                    row.getStudentId(),
+                    row.getStatus().name(),
+                    row.getPreviousStatus() != null ? row.getPreviousStatus().name() : null,
+                    row.getOutcome().name()
+                ));
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        AttendanceBatchMarkedEvent event = new AttendanceBatchMarkedEvent(
+            classId,
+            date,
+            markedBy,
+            collectedBy,
+            sessionId,
+            entries
+        );
+
+        queueOutboxEvent(event, ATTENDANCE_BATCH_MARKED_ROUTING_KEY);
+        logger.info("Queued attendance.batch.marked event for class {} on {} with {} entries",
+                classId, date, entries.size());
     }
 
     /**
@@ -70,12 +118,8 @@ public class AttendanceEventPublisher {
             session.getCreatedBy()
         );
 
-        try {
-            rabbitTemplate.convertAndSend(EXCHANGE_NAME, SESSION_DELEGATED_ROUTING_KEY, event);
-            logger.info("Published attendance.session.delegated event for session: {}", session.getId());
-        } catch (Exception e) {
-            logger.error("Failed to publish attendance.session.delegated event for session: {}", session.getId(), e);
-        }
+        queueOutboxEvent(event, SESSION_DELEGATED_ROUTING_KEY);
+        logger.info("Queued attendance.session.delegated event for session: {}", session.getId());
     }
 
     /**
@@ -94,12 +138,8 @@ public class AttendanceEventPublisher {
             session.getCreatedBy()
         );
 
-        try {
-            rabbitTemplate.convertAndSend(EXCHANGE_NAME, SESSION_COLLECTED_ROUTING_KEY, event);
-            logger.info("Published attendance.session.collected event for session: {}", session.getId());
-        } catch (Exception e) {
-            logger.error("Failed to publish attendance.session.collected event for session: {}", session.getId(), e);
-        }
+        queueOutboxEvent(event, SESSION_COLLECTED_ROUTING_KEY);
+        logger.info("Queued attendance.session.collected event for session: {}", session.getId());
     }
 
     /**
@@ -114,12 +154,8 @@ public class AttendanceEventPublisher {
             session.getDelegatedTo()
         );
 
-        try {
-            rabbitTemplate.convertAndSend(EXCHANGE_NAME, SESSION_APPROVED_ROUTING_KEY, event);
-            logger.info("Published attendance.session.approved event for session: {}", session.getId());
-        } catch (Exception e) {
-            logger.error("Failed to publish attendance.session.approved event for session: {}", session.getId(), e);
-        }
+        queueOutboxEvent(event, SESSION_APPROVED_ROUTING_KEY);
+        logger.info("Queued attendance.session.approved event for session: {}", session.getId());
     }
 
     /**
@@ -135,11 +171,41 @@ public class AttendanceEventPublisher {
             session.getDelegatedTo()
         );
 
+        queueOutboxEvent(event, SESSION_REJECTED_ROUTING_KEY);
+        logger.info("Queued attendance.session.rejected event for session: {}", session.getId());
+    }
+
+    /**
+     * Publish chronic absence alert when a student's rolling absence count crosses a threshold
+     */
+    public void publishChronicAbsenceAlert(UUID studentId, UUID classId, int absences, int threshold,
+                                           LocalDate windowStart, LocalDate windowEnd) {
+        ChronicAbsenceAlertEvent event = new ChronicAbsenceAlertEvent(
+            studentId,
+            classId,
+            absences,
+            threshold,
+            windowStart,
+            windowEnd
+        );
+
+        queueOutboxEvent(event, CHRONIC_ABSENCE_ALERT_ROUTING_KEY);
+        logger.info("Queued attendance.alert.chronic-absence event for student {}: {} absences (threshold {})",
+            studentId, absences, threshold);
+    }
+
+    private void queueOutboxEvent(BaseEvent event, String routingKey) {
         try {
-            rabbitTemplate.convertAndSend(EXCHANGE_NAME, SESSION_REJECTED_ROUTING_KEY, event);
-            logger.info("Published attendance.session.rejected event for session: {}", session.getId());
-        } catch (Exception e) {
-            logger.error("Failed to publish attendance.session.rejected event for session: {}", session.getId(), e);
+            String payload = objectMapper.writeValueAsString(event);
+            outboxEventRepository.save(OutboxEvent.pending(
+                routingKey,
+                EXCHANGE_NAME,
+                routingKey,
+                payload,
+                Instant.now()
+            ));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + routingKey + " event " + event.getEventId(), e);
         }
     }
 
@@ -150,16 +216,18 @@ public class AttendanceEventPublisher {
         private final UUID classId;
         private final LocalDate date;
         private final String status;
+        private final String previousStatus;
         private final UUID markedBy;
 
         public AttendanceMarkedEvent(UUID attendanceRecordId, UUID studentId, UUID classId,
-                                    LocalDate date, String status, UUID markedBy) {
+                                    LocalDate date, String status, String previousStatus, UUID markedBy) {
             super(UUID.randomUUID(), Instant.now(), "1.0", "AttendanceMarkedEvent");
             this.attendanceRecordId = attendanceRecordId;
             this.studentId = studentId;
             this.classId = classId;
             this.date = date;
             this.status = status;
+            this.previousStatus = previousStatus;
             this.markedBy = markedBy;
         }
 
@@ -193,11 +261,106 @@ public class AttendanceEventPublisher {
             return status;
         }
 
+        public String getPreviousStatus() {
+            return previousStatus;
+        }
+
         public UUID getMarkedBy() {
             return markedBy;
         }
     }
 
+    public static class AttendanceBatchMarkedEvent extends BaseEvent {
+        private final UUID classId;
+        private final LocalDate date;
+        private final UUID markedBy;
+        private final UUID collectedBy;
+        private final UUID sessionId;
+        private final List<MarkedEntry> entries;
+
+        public AttendanceBatchMarkedEvent(UUID classId, LocalDate date, UUID markedBy, UUID collectedBy,
+                                          UUID sessionId, List<MarkedEntry> entries) {
+            super(UUID.randomUUID(), Instant.now(), "1.0", "AttendanceBatchMarkedEvent");
+            this.classId = classId;
+            this.date = date;
+            this.markedBy = markedBy;
+            this.collectedBy = collectedBy;
+            this.sessionId = sessionId;
+            this.entries = entries;
+        }
+
+        @Override
+        public UUID getAggregateId() {
+            return sessionId != null ? sessionId : classId;
+        }
+
+        @Override
+        public String getAggregateType() {
+            return sessionId != null ? "AttendanceSession" : "Class";
+        }
+
+        public UUID getClassId() {
+            return classId;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public UUID getMarkedBy() {
+            return markedBy;
+        }
+
+        public UUID getCollectedBy() {
+            return collectedBy;
+        }
+
+        public UUID getSessionId() {
+            return sessionId;
+        }
+
+        public List<MarkedEntry> getEntries() {
+            return entries;
+        }
+    }
+
+    public static class MarkedEntry {
+        private final UUID attendanceRecordId;
+        private final UUID studentId;
+        private final String status;
+        private final String previousStatus;
+        private final String outcome;
+
+        public MarkedEntry(UUID attendanceRecordId, UUID studentId, String status, String previousStatus,
+                           String outcome) {
+            this.attendanceRecordId = attendanceRecordId;
+            this.studentId = studentId;
+            this.status = status;
+            this.previousStatus = previousStatus;
+            this.outcome = outcome;
+        }
+
+        public UUID getAttendanceRecordId() {
+            return attendanceRecordId;
+        }
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getPreviousStatus() {
+            return previousStatus;
+        }
+
+        public String getOutcome() {
+            return outcome;
+        }
+    }
+
     public static class SessionDelegatedEvent extends BaseEvent {
         private final UUID sessionId;
         private final UUID classId;
@@ -395,4 +558,58 @@ public class AttendanceEventPublisher {
             return collectedBy;
         }
     }
+
+    public static class ChronicAbsenceAlertEvent extends BaseEvent {
+        private final UUID studentId;
+        private final UUID classId;
+        private final int absences;
+        private final int threshold;
+        private final LocalDate windowStart;
+        private final LocalDate windowEnd;
+
+        public ChronicAbsenceAlertEvent(UUID studentId, UUID classId, int absences, int threshold,
+                                        LocalDate windowStart, LocalDate windowEnd) {
+            super(UUID.randomUUID(), Instant.now(), "1.0", "ChronicAbsenceAlertEvent");
+            this.studentId = studentId;
+            this.classId = classId;
+            this.absences = absences;
+            this.threshold = threshold;
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+        }
+
+        @Override
+        public UUID getAggregateId() {
+            return studentId;
+        }
+
+        @Override
+        public String getAggregateType() {
+            return "Student";
+        }
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public UUID getClassId() {
+            return classId;
+        }
+
+        public int getAbsences() {
+            return absences;
+        }
+
+        public int getThreshold() {
+            return threshold;
+        }
+
+        public LocalDate getWindowStart() {
+            return windowStart;
+        }
+
+        public LocalDate getWindowEnd() {
+            return windowEnd;
+        }
+    }
 }
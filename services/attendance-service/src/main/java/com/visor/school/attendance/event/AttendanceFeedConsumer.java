@@ -0,0 +1,102 @@
+package com.visor.school.attendance.event;
+
+import com.visor.school.attendance.config.RabbitMQConfig;
+import com.visor.school.attendance.model.AttendanceStatus;
+import com.visor.school.attendance.service.AttendanceBitmapIndex;
+import com.visor.school.attendance.service.ChronicAbsenceEngine;
+import com.visor.school.attendance.service.SchoolDashboardService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Feeds this service's own attendance events into the in-memory attendance indexes and the school dashboard
+ */
+@Component
+public class AttendanceFeedConsumer {
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceFeedConsumer.class);
+
+    private final ChronicAbsenceEngine chronicAbsenceEngine;
+    private final AttendanceBitmapIndex attendanceBitmapIndex;
+    private final SchoolDashboardService schoolDashboardService;
+
+    public AttendanceFeedConsumer(ChronicAbsenceEngine chronicAbsenceEngine, AttendanceBitmapIndex attendanceBitmapIndex,
+                                  SchoolDashboardService schoolDashboardService) {
+        this.chronicAbsenceEngine = chronicAbsenceEngine;
+        this.attendanceBitmapIndex = attendanceBitmapIndex;
+        this.schoolDashboardService = schoolDashboardService;
+    }
+
+    @RabbitListener(queues = "#{attendanceFeedQueue.name}")
+    public void handleAttendanceEvent(Map<String, Object> event,
+                                      @Header(AmqpHeaders.RECEIVED_ROUTING_KEY) String routingKey) {
+        try {
+            UUID classId = UUID.fromString(event.get("classId").toString());
+            LocalDate date = LocalDate.parse(event.get("date").toString());
+            Instant occurredAt = occurredAt(event);
+
+            if (RabbitMQConfig.ATTENDANCE_BATCH_MARKED_ROUTING_KEY.equals(routingKey)) {
+                if (!(event.get("entries") instanceof List<?> entries)) {
+                    return;
+                }
+                for (Object entryObj : entries) {
+                    if (entryObj instanceof Map<?, ?> entry) {
+                        apply(
+                            UUID.fromString(entry.get("studentId").toString()),
+                            classId,
+                            date,
+                            statusOf(entry.get("previousStatus")),
+                            AttendanceStatus.valueOf(entry.get("status").toString()),
+                            occurredAt
+                        );
+                    }
+                }
+            } else {
+                apply(
+                    UUID.fromString(event.get("studentId").toString()),
+                    classId,
+                    date,
+                    statusOf(event.get("previousStatus")),
+                    AttendanceStatus.valueOf(event.get("status").toString()),
+                    occurredAt
+                );
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to apply {} event to attendance indexes", routingKey, e);
+        }
+    }
+
+    private void apply(UUID studentId, UUID classId, LocalDate date, AttendanceStatus previousStatus,
+                       AttendanceStatus status, Instant occurredAt) {
+        chronicAbsenceEngine.apply(studentId, classId, date, status);
+        attendanceBitmapIndex.apply(studentId, classId, date, status);
+        schoolDashboardService.apply(classId, date, previousStatus, status, occurredAt);
+    }
+
+    private static AttendanceStatus statusOf(Object value) {
+        return value != null ? AttendanceStatus.valueOf(value.toString()) : null;
+    }
+
+    // BaseEvent timestamp; null if missing or not ISO-8601
+    private static Instant occurredAt(Map<String, Object> event) {
+        Object timestamp = event.get("timestamp");
+        if (timestamp == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(timestamp.toString());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.visor.school.attendance.event;
+
+import com.visor.school.attendance.client.ClassLeaderClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies academic-service class leadership events to the class leader cache
+ */
+@Component
+public class ClassLeadershipConsumer {
+    private static final Logger logger = LoggerFactory.getLogger(ClassLeadershipConsumer.class);
+
+    private final ClassLeaderClient classLeaderClient;
+
+    public ClassLeadershipConsumer(ClassLeaderClient classLeaderClient) {
+        this.classLeaderClient = classLeaderClient;
+    }
+
+    @RabbitListener(queues = "#{classLeaderFeedQueue.name}")
+    public void handleLeadershipEvent(Map<String, Object> event,
+                                      @Header(AmqpHeaders.RECEIVED_ROUTING_KEY) String routingKey) {
+        UUID classId;
+        try {
+            classId = UUID.fromString(event.get("classId").toString());
+        } catch (RuntimeException e) {
+            logger.error("Ignoring {} event without a valid classId", routingKey, e);
+            return;
+        }
+
+        try {
+            if (!(event.get("leaders") instanceof List<?> leaders)) {
+                classLeaderClient.invalidate(classId);
+                return;
+            }
+            List<UUID> studentIds = new ArrayList<>(leaders.size());
+            for (Object leaderObj : leaders) {
+                if (leaderObj instanceof Map<?, ?> leader) {
+                    studentIds.add(UUID.fromString(leader.get("studentId").toString()));
+                }
+            }
+            classLeaderClient.applyLeadershipChange(classId, studentIds);
+        } catch (RuntimeException e) {
+            // Fall back to refetching rather than keeping an entry the event contradicts
+            classLeaderClient.invalidate(classId);
+            logger.error("Failed to apply {} event for class {}", routingKey, classId, e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.visor.school.attendance.event;
+
+import com.visor.school.attendance.config.RabbitMQConfig;
+import com.visor.school.attendance.repository.ClassScheduleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Copies academic-service class schedule events into class_schedules
+ */
+@Component
+public class ClassScheduleConsumer {
+    private static final Logger logger = LoggerFactory.getLogger(ClassScheduleConsumer.class);
+
+    // A class without a schedule (e.g. a homeroom class) meets on every school day
+    private static final int ALL_DAYS = 0x7F;
+
+    private final ClassScheduleRepository classScheduleRepository;
+
+    public ClassScheduleConsumer(ClassScheduleRepository classScheduleRepository) {
+        this.classScheduleRepository = classScheduleRepository;
+    }
+
+    @RabbitListener(queues = RabbitMQConfig.CLASS_SCHEDULE_QUEUE)
+    public void handleClassScheduleChanged(Map<String, Object> event) {
+        UUID classId;
+        int daysOfWeek;
+        String status;
+        LocalDate startDate;
+        LocalDate endDate;
+        UUID homeroomTeacherId;
+        UUID classTeacherId;
+        Instant eventAt;
+        try {
+            classId = UUID.fromString(event.get("classId").toString());
+            daysOfWeek = daysOfWeekMask(event.get("daysOfWeek"));
+            status = event.get("status").toString();
+            startDate = toDate(event.get("startDate"));
+            if (startDate == null) {
+                throw new IllegalArgumentException("startDate is required");
+            }
+            endDate = toDate(event.get("endDate"));
+            homeroomTeacherId = toUuid(event.get("homeroomTeacherId"));
+            classTeacherId = toUuid(event.get("classTeacherId"));
+            eventAt = toInstant(event.get("timestamp"));
+        } catch (RuntimeException e) {
+            logger.error("Ignoring malformed class schedule event: {}", event, e);
+            return;
+        }
+
+        // Database failures propagate so the message is redelivered
+        boolean applied = classScheduleRepository.upsert(classId, daysOfWeek, status, startDate, endDate,
+            homeroomTeacherId, classTeacherId, eventAt);
+        if (!applied) {
+            logger.debug("Skipped out-of-order schedule event for class {}", classId);
+        }
+    }
+
+    // "MONDAY,WEDNESDAY" -> bit 0 and bit 2; unknown day names are ignored like Schedule.getDays does
+    private static int daysOfWeekMask(Object daysOfWeek) {
+        if (daysOfWeek == null || daysOfWeek.toString().isBlank()) {
+            return ALL_DAYS;
+        }
+        int mask = 0;
+        for (String day : daysOfWeek.toString().split(",")) {
+            try {
+                mask |= 1 << (DayOfWeek.valueOf(day.trim().toUpperCase()).getValue() - 1);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring unknown day of week in class schedule: {}", day);
+            }
+        }
+        return mask;
+    }
+
+    // Dates arrive as ISO strings or [year, month, day] depending on the publisher's Jackson settings
+    private static LocalDate toDate(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof List<?> parts) {
+            return LocalDate.of(
+                ((Number) parts.get(0)).intValue(),
+                ((Number) parts.get(1)).intValue(),
+                ((Number) parts.get(2)).intValue());
+        }
+        return LocalDate.parse(value.toString());
+    }
+
+    private static UUID toUuid(Object value) {
+        return value != null ? UUID.fromString(value.toString()) : null;
+    }
+
+    // BaseEvent timestamp as an ISO string or epoch seconds with a fraction; now if missing
+    private static Instant toInstant(Object value) {
+        if (value == null) {
+            return Instant.now();
+        }
+        if (value instanceof Number) {
+            BigDecimal seconds = new BigDecimal(value.toString());
+            return Instant.ofEpochSecond(seconds.longValue(),
+                seconds.remainder(BigDecimal.ONE).movePointRight(9).intValue());
+        }
+        return Instant.parse(value.toString());
+    }
+}
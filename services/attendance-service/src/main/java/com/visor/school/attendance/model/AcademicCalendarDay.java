@@ -0,0 +1,67 @@
+package com.visor.school.attendance.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A date that differs from the weekly school-day pattern: a holiday or closure on a
+ * school weekday (schoolDay = false) or a make-up day on a non-school weekday (schoolDay = true)
+ */
+@Entity
+@Table(name = "academic_calendar_days")
+public class AcademicCalendarDay {
+
+    @Id
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "school_day", nullable = false)
+    private boolean schoolDay;
+
+    @Column(name = "description", length = 200)
+    private String description;
+
+    @Column(name = "updated_by")
+    private UUID updatedBy;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // Default constructor for JPA
+    protected AcademicCalendarDay() {
+    }
+
+    public AcademicCalendarDay(LocalDate date, boolean schoolDay, String description, UUID updatedBy) {
+        this.date = date;
+        update(schoolDay, description, updatedBy);
+    }
+
+    public void update(boolean schoolDay, String description, UUID updatedBy) {
+        this.schoolDay = schoolDay;
+        this.description = description;
+        this.updatedBy = updatedBy;
+        this.updatedAt = Instant.now();
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public boolean isSchoolDay() {
+        return schoolDay;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public UUID getUpdatedBy() {
+        return updatedBy;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
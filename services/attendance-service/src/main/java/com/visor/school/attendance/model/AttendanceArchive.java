@@ -0,0 +1,112 @@
+package com.visor.school.attendance.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Catalog entry for one monthly attendance_records partition exported to a compressed file
+ * The partition can be restored from the file and attached again on demand
+ */
+@Entity
+@Table(name = "attendance_archives")
+public class AttendanceArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "partition_name", nullable = false, unique = true, length = 63)
+    private String partitionName;
+
+    @Column(name = "range_start", nullable = false)
+    private LocalDate rangeStart;
+
+    @Column(name = "range_end", nullable = false)
+    private LocalDate rangeEnd; // Exclusive
+
+    @Column(name = "file_path", nullable = false, columnDefinition = "TEXT")
+    private String filePath;
+
+    @Column(name = "row_count", nullable = false)
+    private long rowCount;
+
+    @Column(name = "sha256", nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    @Column(name = "restored_at")
+    private Instant restoredAt;
+
+    // Default constructor for JPA
+    protected AttendanceArchive() {
+    }
+
+    public AttendanceArchive(String partitionName, LocalDate rangeStart, LocalDate rangeEnd) {
+        this.partitionName = partitionName;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+    }
+
+    /**
+     * Record a (re-)export of the partition; clears any previous restore
+     */
+    public void archived(String filePath, long rowCount, String sha256) {
+        this.filePath = filePath;
+        this.rowCount = rowCount;
+        this.sha256 = sha256;
+        this.archivedAt = Instant.now();
+        this.restoredAt = null;
+    }
+
+    public void restored() {
+        if (restoredAt != null) {
+            throw new IllegalStateException("Archive " + partitionName + " is already restored");
+        }
+        this.restoredAt = Instant.now();
+    }
+
+    public boolean isRestored() {
+        return restoredAt != null;
+    }
+
+    // Getters
+    public UUID getId() {
+        return id;
+    }
+
+    public String getPartitionName() {
+        return partitionName;
+    }
+
+    public LocalDate getRangeStart() {
+        return rangeStart;
+    }
+
+    public LocalDate getRangeEnd() {
+        return rangeEnd;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+
+    public Instant getRestoredAt() {
+        return restoredAt;
+    }
+}
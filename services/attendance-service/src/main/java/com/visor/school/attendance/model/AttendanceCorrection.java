@@ -0,0 +1,89 @@
+package com.visor.school.attendance.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One status change of an existing attendance record; rows are only ever appended
+ */
+@Entity
+@Table(name = "attendance_corrections", indexes = {
+    @Index(name = "idx_corrections_record_corrected_at", columnList = "attendance_record_id,corrected_at")
+})
+public class AttendanceCorrection {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "attendance_record_id", nullable = false)
+    private UUID attendanceRecordId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status", nullable = false)
+    private AttendanceStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_status", nullable = false)
+    private AttendanceStatus newStatus;
+
+    @Column(name = "correction_reason", columnDefinition = "TEXT")
+    private String correctionReason;
+
+    @Column(name = "corrected_by", nullable = false)
+    private UUID correctedBy;
+
+    @Column(name = "corrected_at", nullable = false)
+    private Instant correctedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Default constructor for JPA
+    protected AttendanceCorrection() {
+    }
+
+    public AttendanceCorrection(UUID attendanceRecordId, AttendanceStatus previousStatus, AttendanceStatus newStatus,
+                                String correctionReason, UUID correctedBy, Instant correctedAt) {
+        this.attendanceRecordId = attendanceRecordId;
+        this.previousStatus = previousStatus;
+        this.newStatus = newStatus;
+        this.correctionReason = correctionReason;
+        this.correctedBy = correctedBy;
+        this.correctedAt = correctedAt;
+        this.createdAt = Instant.now();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getAttendanceRecordId() {
+        return attendanceRecordId;
+    }
+
+    public AttendanceStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public AttendanceStatus getNewStatus() {
+        return newStatus;
+    }
+
+    public String getCorrectionReason() {
+        return correctionReason;
+    }
+
+    public UUID getCorrectedBy() {
+        return correctedBy;
+    }
+
+    public Instant getCorrectedAt() {
+        return correctedAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -10,12 +10,13 @@ import java.util.UUID;
  * Supports both direct teacher marking and session-based class leader collection
  */
 @Entity
-@Table(name = "attendance_records", indexes = {
-    @Index(name = "idx_attendance_student_class_date", columnList = "student_id,class_id,date", unique = true),
-    @Index(name = "idx_attendance_class", columnList = "class_id"),
+@Table(name = "attendance_records", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"student_id", "class_id", "date"})
+}, indexes = {
     @Index(name = "idx_attendance_date", columnList = "date"),
     @Index(name = "idx_attendance_session", columnList = "session_id"),
-    @Index(name = "idx_attendance_collected_by", columnList = "collected_by")
+    @Index(name = "idx_attendance_collected_by", columnList = "collected_by"),
+    @Index(name = "idx_attendance_student_date_id", columnList = "student_id,date,id")
 })
 public class AttendanceRecord {
     
@@ -0,0 +1,7 @@
+package com.visor.school.attendance.model;
+
+public enum OutboxStatus {
+    PENDING,
+    PUBLISHED,
+    DEAD
+}
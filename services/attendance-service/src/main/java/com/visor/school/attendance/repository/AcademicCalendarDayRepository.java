@@ -0,0 +1,13 @@
+package com.visor.school.attendance.repository;
+
+import com.visor.school.attendance.model.AcademicCalendarDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AcademicCalendarDayRepository extends JpaRepository<AcademicCalendarDay, LocalDate> {
+    List<AcademicCalendarDay> findByDateBetweenOrderByDate(LocalDate startDate, LocalDate endDate);
+}
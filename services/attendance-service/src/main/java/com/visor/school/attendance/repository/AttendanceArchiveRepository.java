@@ -0,0 +1,16 @@
+package com.visor.school.attendance.repository;
+
+import com.visor.school.attendance.model.AttendanceArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface AttendanceArchiveRepository extends JpaRepository<AttendanceArchive, UUID> {
+    Optional<AttendanceArchive> findByPartitionName(String partitionName);
+
+    List<AttendanceArchive> findAllByOrderByRangeStartDesc();
+}
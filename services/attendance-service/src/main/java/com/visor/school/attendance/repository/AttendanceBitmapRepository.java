@@ -0,0 +1,186 @@
+package com.visor.school.attendance.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persisted snapshots of per-student term bitmaps, plus the record scans used to build or catch them up.
+ * Each of a student's classes has its own row; bitsets are stored as big-endian longs in BYTEA
+ * columns, one column per attendance status.
+ */
+@Repository
+public class AttendanceBitmapRepository {
+
+    private static final String FIND_SNAPSHOTS_SQL = """
+        SELECT student_id, class_id, present_bits, absent_bits, late_bits, excused_bits, snapshot_at
+        FROM attendance_term_bitmaps
+        WHERE term_start = ? AND student_id = ANY(?)
+        """;
+
+    // snapshot_at is taken from the database clock, backed off by the replay margin
+    private static final String UPSERT_SNAPSHOT_SQL = """
+        INSERT INTO attendance_term_bitmaps (
+            student_id, term_start, class_id, term_end, present_bits, absent_bits, late_bits, excused_bits, snapshot_at
+        )
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, now() - make_interval(secs => ?))
+        ON CONFLICT (student_id, term_start, class_id) DO UPDATE
+        SET term_end = EXCLUDED.term_end,
+            present_bits = EXCLUDED.present_bits,
+            absent_bits = EXCLUDED.absent_bits,
+            late_bits = EXCLUDED.late_bits,
+            excused_bits = EXCLUDED.excused_bits,
+            snapshot_at = EXCLUDED.snapshot_at
+        """;
+
+    private static final String STREAM_STATUSES_SQL = """
+        SELECT student_id, class_id, date, status
+        FROM attendance_records
+        WHERE student_id = ANY(?) AND date BETWEEN ? AND ?
+        ORDER BY updated_at
+        """;
+
+    private static final String STREAM_STATUSES_UPDATED_AFTER_SQL = """
+        SELECT student_id, class_id, date, status
+        FROM attendance_records
+        WHERE student_id = ANY(?) AND date BETWEEN ? AND ? AND updated_at > ?
+        ORDER BY updated_at
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AttendanceBitmapRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Snapshot> findSnapshots(LocalDate termStart, Collection<UUID> studentIds) {
+        return jdbcTemplate.query(
+            FIND_SNAPSHOTS_SQL,
+            (PreparedStatement ps) -> {
+                ps.setObject(1, termStart);
+                ps.setArray(2, uuidArray(ps.getConnection(), studentIds));
+            },
+            (rs, rowNum) -> new Snapshot(
+                rs.getObject("student_id", UUID.class),
+                rs.getObject("class_id", UUID.class),
+                new long[][] {
+                    toWords(rs.getBytes("present_bits")),
+                    toWords(rs.getBytes("absent_bits")),
+                    toWords(rs.getBytes("late_bits")),
+                    toWords(rs.getBytes("excused_bits"))
+                },
+                rs.getTimestamp("snapshot_at")
+            )
+        );
+    }
+
+    /**
+     * Upsert snapshots for one term, one row per student and class; words are indexed [status ordinal][word]
+     */
+    public void saveSnapshots(LocalDate termStart, LocalDate termEnd, List<UUID> studentIds, List<UUID> classIds,
+                              List<long[][]> words, long replayMarginSeconds) {
+        jdbcTemplate.batchUpdate(UPSERT_SNAPSHOT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                long[][] statusWords = words.get(i);
+                ps.setObject(1, studentIds.get(i));
+                ps.setObject(2, termStart);
+                ps.setObject(3, classIds.get(i));
+                ps.setObject(4, termEnd);
+                ps.setBytes(5, toBytes(statusWords[0]));
+                ps.setBytes(6, toBytes(statusWords[1]));
+                ps.setBytes(7, toBytes(statusWords[2]));
+                ps.setBytes(8, toBytes(statusWords[3]));
+                ps.setLong(9, replayMarginSeconds);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return studentIds.size();
+            }
+        });
+    }
+
+    /**
+     * Stream (student_id, class_id, date, status) for the students over a date range, oldest write first.
+     * When updatedAfter is set only rows written after it are returned.
+     */
+    public void streamStatuses(Collection<UUID> studentIds, LocalDate startDate, LocalDate endDate,
+                               Timestamp updatedAfter, RowCallbackHandler handler) {
+        jdbcTemplate.query(
+            updatedAfter != null ? STREAM_STATUSES_UPDATED_AFTER_SQL : STREAM_STATUSES_SQL,
+            (PreparedStatement ps) -> {
+                ps.setArray(1, uuidArray(ps.getConnection(), studentIds));
+                ps.setObject(2, startDate);
+                ps.setObject(3, endDate);
+                if (updatedAfter != null) {
+                    ps.setTimestamp(4, updatedAfter);
+                }
+            },
+            handler
+        );
+    }
+
+    private static Array uuidArray(Connection connection, Collection<UUID> ids) throws SQLException {
+        return connection.createArrayOf("uuid", ids.toArray());
+    }
+
+    private static byte[] toBytes(long[] words) {
+        ByteBuffer buffer = ByteBuffer.allocate(words.length * Long.BYTES);
+        for (long word : words) {
+            buffer.putLong(word);
+        }
+        return buffer.array();
+    }
+
+    private static long[] toWords(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long[] words = new long[bytes.length / Long.BYTES];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = buffer.getLong();
+        }
+        return words;
+    }
+
+    public static class Snapshot {
+        private final UUID studentId;
+        private final UUID classId;
+        private final long[][] words;
+        private final Timestamp snapshotAt;
+
+        public Snapshot(UUID studentId, UUID classId, long[][] words, Timestamp snapshotAt) {
+            this.studentId = studentId;
+            this.classId = classId;
+            this.words = words;
+            this.snapshotAt = snapshotAt;
+        }
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public UUID getClassId() {
+            return classId;
+        }
+
+        public long[][] getWords() {
+            return words;
+        }
+
+        public Timestamp getSnapshotAt() {
+            return snapshotAt;
+        }
+    }
+}
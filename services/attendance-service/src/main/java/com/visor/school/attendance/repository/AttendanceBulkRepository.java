@@ -0,0 +1,222 @@
+package com.visor.school.attendance.repository;
+
+import com.visor.school.attendance.model.AttendanceStatus;
+import com.visor.school.attendance.service.AttendanceService.AttendanceEntry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based writes against attendance_records that do not fit the JPA entity lifecycle.
+ * Each method issues a single statement regardless of the number of rows involved.
+ */
+@Repository
+public class AttendanceBulkRepository {
+
+    // Serializes roster upserts of one class and day until commit
+    private static final String LOCK_CLASS_DAY_SQL = """
+        SELECT pg_advisory_xact_lock(hashtextextended(?::text || '/' || ?::text, 0))
+        """;
+
+    /**
+     * Upserts a whole roster in one statement, keyed on UNIQUE(student_id, class_id, date).
+     * The existing CTE locks the rows it reads, so previous_status is the committed status this
+     * statement replaces even when another writer changed the record concurrently; rows whose
+     * status and notes are already identical are reported as UNCHANGED and left untouched
+     * (no version bump).
+     */
+    private static final String UPSERT_ROSTER_SQL = """
+        WITH input AS (
+            SELECT e.student_id, e.status, e.notes, e.ord
+            FROM unnest(?::uuid[], ?::varchar[], ?::text[]) WITH ORDINALITY AS e(student_id, status, notes, ord)
+        ),
+        existing AS (
+            SELECT ar.id, ar.student_id, ar.status
+            FROM attendance_records ar
+            JOIN input i ON ar.student_id = i.student_id
+            WHERE ar.class_id = ? AND ar.date = ?
+            FOR UPDATE OF ar
+        ),
+        upserted AS (
+            INSERT INTO attendance_records (
+                student_id, class_id, date, status, marked_by, collected_by, session_id,
+                notes, marked_at, updated_at, version
+            )
+            SELECT i.student_id, ?, ?, i.status, ?, ?, ?, i.notes, now(), now(), 0
+            FROM input i
+            ON CONFLICT (student_id, class_id, date) DO UPDATE
+            SET status = EXCLUDED.status,
+                notes = EXCLUDED.notes,
+                updated_by = ?,
+                updated_at = EXCLUDED.updated_at,
+                version = attendance_records.version + 1
+            WHERE attendance_records.status IS DISTINCT FROM EXCLUDED.status
+               OR attendance_records.notes IS DISTINCT FROM EXCLUDED.notes
+            RETURNING id, student_id, (xmax = 0) AS inserted
+        )
+        SELECT i.student_id,
+               COALESCE(u.id, e.id) AS id,
+               i.status,
+               e.status AS previous_status,
+               CASE
+                   WHEN u.inserted THEN 'INSERTED'
+                   WHEN u.id IS NOT NULL THEN 'UPDATED'
+                   ELSE 'UNCHANGED'
+               END AS outcome
+        FROM input i
+        LEFT JOIN upserted u ON u.student_id = i.student_id
+        LEFT JOIN existing e ON e.student_id = i.student_id
+        ORDER BY i.ord
+        """;
+
+    // The session's date pins the statement to a single partition
+    private static final String APPROVE_SESSION_RECORDS_SQL = """
+        UPDATE attendance_records
+        SET approved_by = ?,
+            updated_by = ?,
+            updated_at = now(),
+            version = version + 1
+        WHERE session_id = ? AND date = ?
+          AND approved_by IS DISTINCT FROM ?
+        """;
+
+    private static final String REVOKE_SESSION_APPROVAL_SQL = """
+        UPDATE attendance_records
+        SET approved_by = NULL,
+            updated_by = ?,
+            updated_at = now(),
+            version = version + 1
+        WHERE session_id = ? AND date = ?
+          AND approved_by IS NOT NULL
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AttendanceBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert or update one row per entry for the given class and date.
+     * Exactly one of markedBy (direct marking) or collectedBy + sessionId (session-based)
+     * must be set; updatedBy is stamped on rows that already existed and changed.
+     * Must run in a transaction: rosters for the same class and day are serialized until commit,
+     * since row locks cannot cover records two rosters would both insert.
+     */
+    public List<UpsertedRow> upsertRoster(
+            UUID classId,
+            LocalDate date,
+            UUID markedBy,
+            UUID collectedBy,
+            UUID sessionId,
+            UUID updatedBy,
+            List<AttendanceEntry> entries) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        UUID[] studentIds = new UUID[entries.size()];
+        String[] statuses = new String[entries.size()];
+        String[] notes = new String[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            AttendanceEntry entry = entries.get(i);
+            studentIds[i] = entry.getStudentId();
+            statuses[i] = entry.getStatus().name();
+            notes[i] = entry.getNotes();
+        }
+
+        jdbcTemplate.query(LOCK_CLASS_DAY_SQL, (RowCallbackHandler) rs -> { }, classId, date);
+        return jdbcTemplate.query(
+            UPSERT_ROSTER_SQL,
+            (PreparedStatement ps) -> {
+                Connection connection = ps.getConnection();
+                Array studentIdArray = connection.createArrayOf("uuid", studentIds);
+                Array statusArray = connection.createArrayOf("varchar", statuses);
+                Array notesArray = connection.createArrayOf("text", notes);
+                int index = 1;
+                ps.setArray(index++, studentIdArray);
+                ps.setArray(index++, statusArray);
+                ps.setArray(index++, notesArray);
+                ps.setObject(index++, classId);
+                ps.setObject(index++, date);
+                ps.setObject(index++, classId);
+                ps.setObject(index++, date);
+                ps.setObject(index++, markedBy);
+                ps.setObject(index++, collectedBy);
+                ps.setObject(index++, sessionId);
+                ps.setObject(index, updatedBy);
+            },
+            (rs, rowNum) -> new UpsertedRow(
+                rs.getObject("id", UUID.class),
+                rs.getObject("student_id", UUID.class),
+                AttendanceStatus.valueOf(rs.getString("status")),
+                rs.getString("previous_status") != null ? AttendanceStatus.valueOf(rs.getString("previous_status")) : null,
+                UpsertOutcome.valueOf(rs.getString("outcome"))
+            )
+        );
+    }
+
+    /**
+     * Stamp approvedBy on every record collected in the session; returns the number of rows changed
+     */
+    public int approveSessionRecords(UUID sessionId, LocalDate date, UUID approvedBy) {
+        return jdbcTemplate.update(APPROVE_SESSION_RECORDS_SQL, approvedBy, approvedBy, sessionId, date, approvedBy);
+    }
+
+    /**
+     * Clear approval from every record collected in the session; returns the number of rows changed
+     */
+    public int revokeSessionApproval(UUID sessionId, LocalDate date, UUID updatedBy) {
+        return jdbcTemplate.update(REVOKE_SESSION_APPROVAL_SQL, updatedBy, sessionId, date);
+    }
+
+    public enum UpsertOutcome {
+        INSERTED,
+        UPDATED,
+        UNCHANGED
+    }
+
+    public static class UpsertedRow {
+        private final UUID recordId;
+        private final UUID studentId;
+        private final AttendanceStatus status;
+        private final AttendanceStatus previousStatus; // null when the record was inserted
+        private final UpsertOutcome outcome;
+
+        public UpsertedRow(UUID recordId, UUID studentId, AttendanceStatus status,
+                           AttendanceStatus previousStatus, UpsertOutcome outcome) {
+            this.recordId = recordId;
+            this.studentId = studentId;
+            this.status = status;
+            this.previousStatus = previousStatus;
+            this.outcome = outcome;
+        }
+
+        public UUID getRecordId() {
+            return recordId;
+        }
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public AttendanceStatus getStatus() {
+            return status;
+        }
+
+        public AttendanceStatus getPreviousStatus() {
+            return previousStatus;
+        }
+
+        public UpsertOutcome getOutcome() {
+            return outcome;
+        }
+    }
+}
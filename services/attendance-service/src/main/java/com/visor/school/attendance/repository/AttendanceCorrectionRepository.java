@@ -0,0 +1,79 @@
+package com.visor.school.attendance.repository;
+
+import com.visor.school.attendance.model.AttendanceCorrection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for attendance corrections.
+ * As-of queries take each record's current status unless it was corrected after the given
+ * instant, in which case the earliest later correction's previous status is what held then.
+ * That is one index probe on (attendance_record_id, corrected_at) per record.
+ */
+@Repository
+public interface AttendanceCorrectionRepository extends JpaRepository<AttendanceCorrection, UUID> {
+
+    List<AttendanceCorrection> findByAttendanceRecordIdOrderByCorrectedAtAsc(UUID attendanceRecordId);
+
+    @Query(value = """
+        SELECT ar.id AS "recordId", ar.student_id AS "studentId", ar.class_id AS "classId", ar.date AS "date",
+               COALESCE(c.previous_status, ar.status) AS "status", c.previous_status IS NOT NULL AS "correctedSince"
+        FROM attendance_records ar
+        LEFT JOIN LATERAL (
+            SELECT ac.previous_status
+            FROM attendance_corrections ac
+            WHERE ac.attendance_record_id = ar.id AND ac.corrected_at > :asOf
+            ORDER BY ac.corrected_at
+            LIMIT 1
+        ) c ON true
+        WHERE ar.class_id = :classId AND ar.date = :date AND ar.marked_at <= :asOf
+        ORDER BY ar.student_id
+        """, nativeQuery = true)
+    List<RecordAsOf> findClassAttendanceAsOf(
+        @Param("classId") UUID classId,
+        @Param("date") LocalDate date,
+        @Param("asOf") Instant asOf
+    );
+
+    @Query(value = """
+        SELECT ar.id AS "recordId", ar.student_id AS "studentId", ar.class_id AS "classId", ar.date AS "date",
+               COALESCE(c.previous_status, ar.status) AS "status", c.previous_status IS NOT NULL AS "correctedSince"
+        FROM attendance_records ar
+        LEFT JOIN LATERAL (
+            SELECT ac.previous_status
+            FROM attendance_corrections ac
+            WHERE ac.attendance_record_id = ar.id AND ac.corrected_at > :asOf
+            ORDER BY ac.corrected_at
+            LIMIT 1
+        ) c ON true
+        WHERE ar.student_id = :studentId AND ar.date BETWEEN :startDate AND :endDate AND ar.marked_at <= :asOf
+        ORDER BY ar.date, ar.class_id
+        """, nativeQuery = true)
+    List<RecordAsOf> findStudentAttendanceAsOf(
+        @Param("studentId") UUID studentId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("asOf") Instant asOf
+    );
+
+    interface RecordAsOf {
+        UUID getRecordId();
+
+        UUID getStudentId();
+
+        UUID getClassId();
+
+        LocalDate getDate();
+
+        String getStatus();
+
+        boolean isCorrectedSince();
+    }
+}
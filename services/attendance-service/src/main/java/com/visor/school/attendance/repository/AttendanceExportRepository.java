@@ -0,0 +1,62 @@
+package com.visor.school.attendance.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Cursor-based reads of attendance_records for exports.
+ * Rows are handed to the callback one at a time and never collected, so memory stays
+ * constant regardless of range size. Must be called inside a transaction: the PostgreSQL
+ * driver only honours the fetch size (server-side cursor) with autocommit disabled.
+ */
+@Repository
+public class AttendanceExportRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String EXPORT_COLUMNS = """
+        SELECT id, student_id, class_id, date, status, marked_by, collected_by,
+               session_id, approved_by, notes
+        FROM attendance_records
+        """;
+
+    private static final String BY_CLASS_AND_RANGE_SQL = EXPORT_COLUMNS + """
+        WHERE class_id = ? AND date BETWEEN ? AND ?
+        ORDER BY date, student_id
+        """;
+
+    private static final String BY_RANGE_SQL = EXPORT_COLUMNS + """
+        WHERE date BETWEEN ? AND ?
+        ORDER BY date, class_id, student_id
+        """;
+
+    private static final String BY_STUDENT_SQL = EXPORT_COLUMNS + """
+        WHERE student_id = ?
+        ORDER BY date DESC, id DESC
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AttendanceExportRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    public void streamByClassIdAndDateRange(UUID classId, LocalDate startDate, LocalDate endDate,
+                                            RowCallbackHandler handler) {
+        jdbcTemplate.query(BY_CLASS_AND_RANGE_SQL, handler, classId, startDate, endDate);
+    }
+
+    public void streamByDateRange(LocalDate startDate, LocalDate endDate, RowCallbackHandler handler) {
+        jdbcTemplate.query(BY_RANGE_SQL, handler, startDate, endDate);
+    }
+
+    public void streamByStudentId(UUID studentId, RowCallbackHandler handler) {
+        jdbcTemplate.query(BY_STUDENT_SQL, handler, studentId);
+    }
+}
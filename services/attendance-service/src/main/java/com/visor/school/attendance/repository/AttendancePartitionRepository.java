@@ -0,0 +1,144 @@
+package com.visor.school.attendance.repository;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Partition maintenance for attendance_records (monthly RANGE partitions on date).
+ * Partition names are derived from their month, attendance_records_yYYYYmMM, and are
+ * validated against that pattern before being interpolated into DDL.
+ */
+@Repository
+public class AttendancePartitionRepository {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("attendance_records_y(\\d{4})m(\\d{2})");
+
+    // Explicit column list so archive files stay loadable if columns are appended later
+    private static final String COLUMNS =
+        "id, student_id, class_id, date, status, marked_by, collected_by, session_id, approved_by, "
+            + "notes, marked_at, updated_at, updated_by, version";
+
+    private static final String FIND_PARTITIONS_SQL = """
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'attendance_records'::regclass
+        ORDER BY c.relname
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AttendancePartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Month covered by a partition name, or null for names outside the monthly scheme (e.g. the default partition)
+     */
+    public static YearMonth monthOf(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+
+    /**
+     * Create the partition for a month if missing; returns its name
+     */
+    public String createPartition(YearMonth month) {
+        return jdbcTemplate.queryForObject(
+            "SELECT create_attendance_records_partition(?)", String.class, month.atDay(1));
+    }
+
+    /**
+     * Names of the monthly partitions currently attached, oldest first
+     */
+    public List<String> findAttachedPartitions() {
+        return jdbcTemplate.queryForList(FIND_PARTITIONS_SQL, String.class).stream()
+            .filter(name -> monthOf(name) != null)
+            .toList();
+    }
+
+    /**
+     * Block reads and writes on a partition table until the current transaction ends
+     */
+    public void lockExclusive(String partitionName) {
+        jdbcTemplate.execute("LOCK TABLE " + checked(partitionName) + " IN ACCESS EXCLUSIVE MODE");
+    }
+
+    /**
+     * COPY a partition out as CSV with header, ordered by id so the same rows always produce the
+     * same bytes; returns the number of rows written
+     */
+    public long copyOut(String partitionName, OutputStream out) {
+        String sql = "COPY (SELECT " + COLUMNS + " FROM " + checked(partitionName) + " ORDER BY id) "
+            + "TO STDOUT (FORMAT csv, HEADER true)";
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Load CSV produced by copyOut into a standalone table shaped like attendance_records; returns rows loaded
+     */
+    public long copyIn(String partitionName, InputStream in) {
+        String table = checked(partitionName);
+        jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE attendance_records INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        String sql = "COPY " + table + " (" + COLUMNS + ") FROM STDIN (FORMAT csv, HEADER true)";
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public void attach(String partitionName) {
+        YearMonth month = monthOf(partitionName);
+        jdbcTemplate.execute(String.format(
+            "ALTER TABLE attendance_records ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+            checked(partitionName), month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+
+    public void detach(String partitionName) {
+        jdbcTemplate.execute("ALTER TABLE attendance_records DETACH PARTITION " + checked(partitionName));
+    }
+
+    public void drop(String partitionName) {
+        jdbcTemplate.execute("DROP TABLE " + checked(partitionName));
+    }
+
+    /**
+     * True if rows for the month landed in the default partition (written after the month was archived)
+     */
+    public boolean defaultPartitionHasRows(YearMonth month) {
+        Boolean exists = jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM attendance_records_default WHERE date >= ? AND date < ?)",
+            Boolean.class, month.atDay(1), month.plusMonths(1).atDay(1));
+        return Boolean.TRUE.equals(exists);
+    }
+
+    private static String checked(String partitionName) {
+        if (monthOf(partitionName) == null) {
+            throw new IllegalArgumentException("Not an attendance_records monthly partition: " + partitionName);
+        }
+        return partitionName;
+    }
+}
@@ -2,6 +2,7 @@ package com.visor.school.attendance.repository;
 
 import com.visor.school.attendance.model.AttendanceRecord;
 import com.visor.school.attendance.model.AttendanceStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -25,6 +26,39 @@ public interface AttendanceRepository extends JpaRepository<AttendanceRecord, UU
     @Query("SELECT ar FROM AttendanceRecord ar WHERE ar.studentId = :studentId AND ar.classId = :classId")
     List<AttendanceRecord> findByStudentIdAndClassId(@Param("studentId") UUID studentId, @Param("classId") UUID classId);
     
+    // Keyset pagination over a student's history, newest first (idx_attendance_student_date_id)
+    @Query("SELECT ar FROM AttendanceRecord ar WHERE ar.studentId = :studentId ORDER BY ar.date DESC, ar.id DESC")
+    List<AttendanceRecord> findStudentHistoryFirstPage(@Param("studentId") UUID studentId, Pageable pageable);
+
+    @Query("SELECT ar FROM AttendanceRecord ar WHERE ar.studentId = :studentId " +
+           "AND (ar.date < :date OR (ar.date = :date AND ar.id < :id)) " +
+           "ORDER BY ar.date DESC, ar.id DESC")
+    List<AttendanceRecord> findStudentHistoryAfter(
+        @Param("studentId") UUID studentId,
+        @Param("date") LocalDate date,
+        @Param("id") UUID id,
+        Pageable pageable
+    );
+
+    @Query("SELECT ar FROM AttendanceRecord ar WHERE ar.studentId = :studentId AND ar.classId = :classId " +
+           "ORDER BY ar.date DESC, ar.id DESC")
+    List<AttendanceRecord> findStudentClassHistoryFirstPage(
+        @Param("studentId") UUID studentId,
+        @Param("classId") UUID classId,
+        Pageable pageable
+    );
+
+    @Query("SELECT ar FROM AttendanceRecord ar WHERE ar.studentId = :studentId AND ar.classId = :classId " +
+           "AND (ar.date < :date OR (ar.date = :date AND ar.id < :id)) " +
+           "ORDER BY ar.date DESC, ar.id DESC")
+    List<AttendanceRecord> findStudentClassHistoryAfter(
+        @Param("studentId") UUID studentId,
+        @Param("classId") UUID classId,
+        @Param("date") LocalDate date,
+        @Param("id") UUID id,
+        Pageable pageable
+    );
+
     @Query("SELECT ar FROM AttendanceRecord ar WHERE ar.sessionId = :sessionId")
     List<AttendanceRecord> findBySessionId(@Param("sessionId") UUID sessionId);
     
@@ -41,4 +75,21 @@ public interface AttendanceRepository extends JpaRepository<AttendanceRecord, UU
         @Param("date") LocalDate date,
         @Param("status") AttendanceStatus status
     );
+
+    // Window warm-up for ChronicAbsenceEngine: only the three columns the ring buffers need
+    @Query("SELECT ar.studentId AS studentId, ar.classId AS classId, ar.date AS date FROM AttendanceRecord ar " +
+           "WHERE ar.status = :status AND ar.date BETWEEN :startDate AND :endDate")
+    List<StudentDay> findStudentDaysByStatusAndDateRange(
+        @Param("status") AttendanceStatus status,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    interface StudentDay {
+        UUID getStudentId();
+
+        UUID getClassId();
+
+        LocalDate getDate();
+    }
 }
@@ -0,0 +1,222 @@
+package com.visor.school.attendance.repository;
+
+import com.visor.school.attendance.model.AttendanceStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Access to the attendance_daily_rollup projection.
+ * Writers apply per-status deltas so concurrent transactions on the same class and day
+ * never overwrite each other's counts.
+ */
+@Repository
+public class AttendanceRollupRepository {
+
+    private static final String APPLY_DELTA_SQL = """
+        INSERT INTO attendance_daily_rollup (
+            class_id, date, present_count, absent_count, late_count, excused_count, updated_at
+        )
+        VALUES (?, ?, ?, ?, ?, ?, now())
+        ON CONFLICT (class_id, date) DO UPDATE
+        SET present_count = attendance_daily_rollup.present_count + EXCLUDED.present_count,
+            absent_count = attendance_daily_rollup.absent_count + EXCLUDED.absent_count,
+            late_count = attendance_daily_rollup.late_count + EXCLUDED.late_count,
+            excused_count = attendance_daily_rollup.excused_count + EXCLUDED.excused_count,
+            updated_at = EXCLUDED.updated_at
+        """;
+
+    private static final String SUM_BY_CLASS_AND_RANGE_SQL = """
+        SELECT COALESCE(SUM(present_count), 0) AS present,
+               COALESCE(SUM(absent_count), 0) AS absent,
+               COALESCE(SUM(late_count), 0) AS late,
+               COALESCE(SUM(excused_count), 0) AS excused
+        FROM attendance_daily_rollup
+        WHERE class_id = ? AND date BETWEEN ? AND ?
+        """;
+
+    private static final String FIND_BY_DATE_SQL = """
+        SELECT class_id, present_count, absent_count, late_count, excused_count
+        FROM attendance_daily_rollup
+        WHERE date = ?
+        """;
+
+    private static final String FIND_RECORDED_DAYS_SQL = """
+        SELECT class_id, date
+        FROM attendance_daily_rollup
+        WHERE date BETWEEN ? AND ?
+          AND present_count + absent_count + late_count + excused_count > 0
+        """;
+
+    // Conflicts with the ROW EXCLUSIVE lock every delta upsert takes, and with itself
+    private static final String LOCK_ROLLUP_SQL = """
+        LOCK TABLE attendance_daily_rollup IN SHARE ROW EXCLUSIVE MODE
+        """;
+
+    private static final String REBUILD_RANGE_SQL = """
+        INSERT INTO attendance_daily_rollup (
+            class_id, date, present_count, absent_count, late_count, excused_count, updated_at
+        )
+        SELECT class_id,
+               date,
+               COUNT(*) FILTER (WHERE status = 'PRESENT'),
+               COUNT(*) FILTER (WHERE status = 'ABSENT'),
+               COUNT(*) FILTER (WHERE status = 'LATE'),
+               COUNT(*) FILTER (WHERE status = 'EXCUSED'),
+               now()
+        FROM attendance_records
+        WHERE date BETWEEN ? AND ?
+        GROUP BY class_id, date
+        ON CONFLICT (class_id, date) DO UPDATE
+        SET present_count = EXCLUDED.present_count,
+            absent_count = EXCLUDED.absent_count,
+            late_count = EXCLUDED.late_count,
+            excused_count = EXCLUDED.excused_count,
+            updated_at = EXCLUDED.updated_at
+        """;
+
+    private static final String DELETE_ORPHANS_SQL = """
+        DELETE FROM attendance_daily_rollup r
+        WHERE r.date BETWEEN ? AND ?
+          AND NOT EXISTS (
+              SELECT 1 FROM attendance_records a
+              WHERE a.class_id = r.class_id AND a.date = r.date
+          )
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AttendanceRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add a per-status delta (indexed by AttendanceStatus ordinal) to one class-day.
+     * No-op when every component is zero.
+     */
+    public void applyDelta(UUID classId, LocalDate date, int[] delta) {
+        boolean changed = false;
+        for (int d : delta) {
+            changed |= d != 0;
+        }
+        if (!changed) {
+            return;
+        }
+
+        jdbcTemplate.update(
+            APPLY_DELTA_SQL,
+            classId,
+            date,
+            delta[AttendanceStatus.PRESENT.ordinal()],
+            delta[AttendanceStatus.ABSENT.ordinal()],
+            delta[AttendanceStatus.LATE.ordinal()],
+            delta[AttendanceStatus.EXCUSED.ordinal()]
+        );
+    }
+
+    /**
+     * Record a single status transition; previousStatus is null for a new record
+     */
+    public void applyTransition(UUID classId, LocalDate date, AttendanceStatus previousStatus, AttendanceStatus newStatus) {
+        int[] delta = new int[AttendanceStatus.values().length];
+        if (previousStatus != null) {
+            delta[previousStatus.ordinal()]--;
+        }
+        delta[newStatus.ordinal()]++;
+        applyDelta(classId, date, delta);
+    }
+
+    /**
+     * Total counts for a class over an inclusive date range, read from O(days) rollup rows
+     */
+    public RollupCounts sumByClassIdAndDateRange(UUID classId, LocalDate startDate, LocalDate endDate) {
+        return jdbcTemplate.queryForObject(
+            SUM_BY_CLASS_AND_RANGE_SQL,
+            (rs, rowNum) -> new RollupCounts(
+                rs.getInt("present"),
+                rs.getInt("absent"),
+                rs.getInt("late"),
+                rs.getInt("excused")
+            ),
+            classId,
+            startDate,
+            endDate
+        );
+    }
+
+    /**
+     * Counts of every class with attendance on a day, keyed by class ID
+     */
+    public Map<UUID, RollupCounts> findByDate(LocalDate date) {
+        Map<UUID, RollupCounts> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(
+            FIND_BY_DATE_SQL,
+            (RowCallbackHandler) rs -> counts.put(
+                rs.getObject("class_id", UUID.class),
+                new RollupCounts(
+                    rs.getInt("present_count"),
+                    rs.getInt("absent_count"),
+                    rs.getInt("late_count"),
+                    rs.getInt("excused_count")
+                )
+            ),
+            date
+        );
+        return counts;
+    }
+
+    /**
+     * Stream (class_id, date) for every class-day in an inclusive range that has at least one record
+     */
+    public void streamRecordedDays(LocalDate startDate, LocalDate endDate, RowCallbackHandler handler) {
+        jdbcTemplate.query(FIND_RECORDED_DAYS_SQL, handler, startDate, endDate);
+    }
+
+    /**
+     * Regenerate all rollup rows in an inclusive date range from attendance_records.
+     * Must run in a transaction: the rollup is locked against delta writers until commit, so a
+     * writer either commits before the recount reads its record or applies its delta after it.
+     * Returns the number of class-day rows written.
+     */
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        jdbcTemplate.execute(LOCK_ROLLUP_SQL);
+        int rows = jdbcTemplate.update(REBUILD_RANGE_SQL, startDate, endDate);
+        jdbcTemplate.update(DELETE_ORPHANS_SQL, startDate, endDate);
+        return rows;
+    }
+
+    public static class RollupCounts {
+        private final int present;
+        private final int absent;
+        private final int late;
+        private final int excused;
+
+        public RollupCounts(int present, int absent, int late, int excused) {
+            this.present = present;
+            this.absent = absent;
+            this.late = late;
+            this.excused = excused;
+        }
+
+        public int getPresent() {
+            return present;
+        }
+
+        public int getAbsent() {
+            return absent;
+        }
+
+        public int getLate() {
+            return late;
+        }
+
+        public int getExcused() {
+            return excused;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.visor.school.attendance.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Alerted chronic absence levels in chronic_absence_alerts, the deduplication point for alerts
+ * raised by several replicas evaluating the same windows.
+ */
+@Repository
+public class ChronicAbsenceAlertRepository {
+
+    // Returns a row only when the stored level was missing or lower, i.e. for exactly one writer
+    private static final String RAISE_SQL = """
+        INSERT INTO chronic_absence_alerts (student_id, alerted_level, threshold, absences, window_end, updated_at)
+        VALUES (?, ?, ?, ?, ?, now())
+        ON CONFLICT (student_id) DO UPDATE
+        SET alerted_level = EXCLUDED.alerted_level,
+            threshold = EXCLUDED.threshold,
+            absences = EXCLUDED.absences,
+            window_end = EXCLUDED.window_end,
+            updated_at = EXCLUDED.updated_at
+        WHERE chronic_absence_alerts.alerted_level < EXCLUDED.alerted_level
+        RETURNING student_id
+        """;
+
+    private static final String LOWER_SQL =
+        "UPDATE chronic_absence_alerts SET alerted_level = ?, updated_at = now() "
+            + "WHERE student_id = ? AND alerted_level > ?";
+
+    private static final String CLEAR_SQL = "DELETE FROM chronic_absence_alerts WHERE student_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChronicAbsenceAlertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Raise a student's alerted level; true if this call raised it and the alert should be sent
+     */
+    public boolean raise(UUID studentId, int level, int threshold, int absences, LocalDate windowEnd) {
+        return !jdbcTemplate.queryForList(RAISE_SQL, UUID.class, studentId, level, threshold, absences, windowEnd)
+            .isEmpty();
+    }
+
+    /**
+     * Lower a student's alerted level so higher thresholds alert again; level 0 clears the row
+     */
+    public void lower(UUID studentId, int level) {
+        if (level == 0) {
+            jdbcTemplate.update(CLEAR_SQL, studentId);
+        } else {
+            jdbcTemplate.update(LOWER_SQL, level, studentId, level);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.visor.school.attendance.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Access to the class_schedules copy of academic-service schedules and the set-based
+ * attendance session pre-generation built on it.
+ */
+@Repository
+public class ClassScheduleRepository {
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO class_schedules (
+            class_id, days_of_week, status, start_date, end_date,
+            homeroom_teacher_id, class_teacher_id, event_at, updated_at
+        )
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, now())
+        ON CONFLICT (class_id) DO UPDATE
+        SET days_of_week = EXCLUDED.days_of_week,
+            status = EXCLUDED.status,
+            start_date = EXCLUDED.start_date,
+            end_date = EXCLUDED.end_date,
+            homeroom_teacher_id = EXCLUDED.homeroom_teacher_id,
+            class_teacher_id = EXCLUDED.class_teacher_id,
+            event_at = EXCLUDED.event_at,
+            updated_at = EXCLUDED.updated_at
+        WHERE class_schedules.event_at <= EXCLUDED.event_at
+        """;
+
+    // One row per active class and meeting day; sessions that already exist are left untouched
+    private static final String INSERT_SESSIONS_SQL = """
+        INSERT INTO attendance_sessions (class_id, date, status, created_by, created_at, updated_at)
+        SELECT s.class_id, d.date, 'PENDING',
+               COALESCE(s.homeroom_teacher_id, s.class_teacher_id, ?::uuid), now(), now()
+        FROM class_schedules s
+        JOIN unnest(?::date[]) AS d(date)
+          ON (s.days_of_week & (1 << (EXTRACT(ISODOW FROM d.date)::int - 1))) <> 0
+        WHERE s.status IN ('SCHEDULED', 'IN_PROGRESS')
+          AND d.date >= s.start_date
+          AND (s.end_date IS NULL OR d.date <= s.end_date)
+          AND COALESCE(s.homeroom_teacher_id, s.class_teacher_id, ?::uuid) IS NOT NULL
+        ON CONFLICT (class_id, date) DO NOTHING
+        """;
+
+    // Active classes meeting on the dates that have no creator and no session yet
+    private static final String SELECT_CLASSES_WITHOUT_CREATOR_SQL = """
+        SELECT DISTINCT s.class_id
+        FROM class_schedules s
+        JOIN unnest(?::date[]) AS d(date)
+          ON (s.days_of_week & (1 << (EXTRACT(ISODOW FROM d.date)::int - 1))) <> 0
+        WHERE s.status IN ('SCHEDULED', 'IN_PROGRESS')
+          AND d.date >= s.start_date
+          AND (s.end_date IS NULL OR d.date <= s.end_date)
+          AND s.homeroom_teacher_id IS NULL
+          AND s.class_teacher_id IS NULL
+          AND NOT EXISTS (
+              SELECT 1 FROM attendance_sessions a
+              WHERE a.class_id = s.class_id AND a.date = d.date
+          )
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ClassScheduleRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert or replace a class schedule unless the stored row came from a newer event
+     * Returns false when the row was kept
+     */
+    public boolean upsert(UUID classId, int daysOfWeek, String status, LocalDate startDate, LocalDate endDate,
+                          UUID homeroomTeacherId, UUID classTeacherId, Instant eventAt) {
+        int updated = jdbcTemplate.update(UPSERT_SQL,
+            classId,
+            (short) daysOfWeek,
+            status,
+            Date.valueOf(startDate),
+            endDate != null ? Date.valueOf(endDate) : null,
+            homeroomTeacherId,
+            classTeacherId,
+            Timestamp.from(eventAt));
+        return updated > 0;
+    }
+
+    /**
+     * Create PENDING sessions for every active class meeting on the given dates, in one statement.
+     * Classes without a homeroom or class teacher are recorded as created by defaultCreatedBy,
+     * or skipped when it is null. Returns the number of sessions created.
+     */
+    public int insertSessions(List<LocalDate> dates, UUID defaultCreatedBy) {
+        if (dates.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(INSERT_SESSIONS_SQL, (PreparedStatement ps) -> {
+            Array dateArray = ps.getConnection().createArrayOf("date", dates.stream().map(Date::valueOf).toArray());
+            ps.setObject(1, defaultCreatedBy);
+            ps.setArray(2, dateArray);
+            ps.setObject(3, defaultCreatedBy);
+        });
+    }
+
+    /**
+     * Ids of active classes meeting on the given dates that have neither a homeroom nor a class
+     * teacher and no session yet, i.e. the classes insertSessions skips without a default creator
+     */
+    public List<UUID> findClassesWithoutCreator(List<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+            connection -> {
+                PreparedStatement ps = connection.prepareStatement(SELECT_CLASSES_WITHOUT_CREATOR_SQL);
+                ps.setArray(1, connection.createArrayOf("date", dates.stream().map(Date::valueOf).toArray()));
+                return ps;
+            },
+            (rs, rowNum) -> rs.getObject("class_id", UUID.class));
+    }
+}
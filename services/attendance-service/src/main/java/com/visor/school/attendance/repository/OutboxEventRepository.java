@@ -0,0 +1,34 @@
+package com.visor.school.attendance.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.visor.school.attendance.model.OutboxEvent;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    /**
+     * Claim the oldest due PENDING events, skipping rows another instance already holds,
+     * so several attendance-service replicas can relay the outbox without double sending.
+     */
+    @Query(value = """
+        SELECT * FROM outbox_events
+        WHERE status = 'PENDING' AND next_attempt_at <= :now
+        ORDER BY created_at
+        LIMIT :batchSize
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE status = 'PUBLISHED' AND published_at < :cutoff", nativeQuery = true)
+    int deletePublishedBefore(@Param("cutoff") Instant cutoff);
+}
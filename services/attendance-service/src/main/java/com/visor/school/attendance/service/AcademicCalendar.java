@@ -0,0 +1,249 @@
+package com.visor.school.attendance.service;
+
+import com.visor.school.attendance.model.AcademicCalendarDay;
+import com.visor.school.attendance.repository.AcademicCalendarDayRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * School days and terms.
+ *
+ * A date is a school day when its weekday is one of the configured school weekdays, unless
+ * academic_calendar_days says otherwise (holidays, closures, make-up days). Each calendar year is
+ * precomputed into a bitset indexed by day of year plus a per-word prefix count, so counting the
+ * school days in a range costs O(1) per year it spans. Years are rebuilt after local edits and
+ * dropped periodically so edits made on other instances are picked up.
+ * Terms are configured as yearly start days; each term runs until the day before the next start.
+ */
+@Service
+public class AcademicCalendar {
+    private static final Logger logger = LoggerFactory.getLogger(AcademicCalendar.class);
+
+    private final AcademicCalendarDayRepository academicCalendarDayRepository;
+    private final MonthDay[] termStarts;
+    private final Set<DayOfWeek> schoolWeekdays;
+
+    private final ConcurrentMap<Integer, SchoolYear> years = new ConcurrentHashMap<>();
+
+    public AcademicCalendar(
+            AcademicCalendarDayRepository academicCalendarDayRepository,
+            @Value("${attendance.calendar.term-starts:09-01,01-16,05-01}") String[] termStarts,
+            @Value("${attendance.calendar.school-weekdays:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}") String[] schoolWeekdays) {
+        if (termStarts.length == 0) {
+            throw new IllegalArgumentException("At least one term start day is required");
+        }
+        this.academicCalendarDayRepository = academicCalendarDayRepository;
+        this.termStarts = Arrays.stream(termStarts)
+            .map(day -> MonthDay.parse("--" + day.trim()))
+            .sorted()
+            .toArray(MonthDay[]::new);
+        EnumSet<DayOfWeek> weekdays = EnumSet.noneOf(DayOfWeek.class);
+        for (String weekday : schoolWeekdays) {
+            weekdays.add(DayOfWeek.valueOf(weekday.trim().toUpperCase()));
+        }
+        this.schoolWeekdays = weekdays;
+    }
+
+    /**
+     * The term containing the given date
+     */
+    public Term termFor(LocalDate date) {
+        LocalDate start = null;
+        for (int i = termStarts.length - 1; i >= 0 && start == null; i--) {
+            LocalDate candidate = termStarts[i].atYear(date.getYear());
+            if (!candidate.isAfter(date)) {
+                start = candidate;
+            }
+        }
+        if (start == null) {
+            start = termStarts[termStarts.length - 1].atYear(date.getYear() - 1);
+        }
+        return new Term(start, nextTermStart(start).minusDays(1));
+    }
+
+    public boolean isSchoolDay(LocalDate date) {
+        return year(date.getYear()).bits.get(date.getDayOfYear() - 1);
+    }
+
+    /**
+     * Number of school days in an inclusive date range; 0 when endDate is before startDate
+     */
+    public int countSchoolDays(LocalDate startDate, LocalDate endDate) {
+        int count = 0;
+        for (int y = startDate.getYear(); y <= endDate.getYear(); y++) {
+            int from = y == startDate.getYear() ? startDate.getDayOfYear() - 1 : 0;
+            SchoolYear year = year(y);
+            int to = y == endDate.getYear() ? endDate.getDayOfYear() : year.length;
+            if (to > from) {
+                count += year.rank(to) - year.rank(from);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * School days of an inclusive date range as a bitset; bit i is startDate plus i days
+     */
+    public BitSet schoolDays(LocalDate startDate, LocalDate endDate) {
+        BitSet result = new BitSet();
+        int offset = 0;
+        for (int y = startDate.getYear(); y <= endDate.getYear(); y++) {
+            int from = y == startDate.getYear() ? startDate.getDayOfYear() - 1 : 0;
+            SchoolYear year = year(y);
+            int to = y == endDate.getYear() ? endDate.getDayOfYear() : year.length;
+            for (int i = year.bits.nextSetBit(from); i >= 0 && i < to; i = year.bits.nextSetBit(i + 1)) {
+                result.set(offset + i - from);
+            }
+            offset += Math.max(to - from, 0);
+        }
+        return result;
+    }
+
+    /**
+     * Calendar exceptions in an inclusive date range
+     */
+    @Transactional(readOnly = true)
+    public List<AcademicCalendarDay> getDays(LocalDate startDate, LocalDate endDate) {
+        return academicCalendarDayRepository.findByDateBetweenOrderByDate(startDate, endDate);
+    }
+
+    /**
+     * Mark a date as a school day or not, overriding the weekly pattern
+     */
+    @Transactional
+    public AcademicCalendarDay setDay(LocalDate date, boolean schoolDay, String description, UUID updatedBy) {
+        AcademicCalendarDay day = academicCalendarDayRepository.findById(date)
+            .map(existing -> {
+                existing.update(schoolDay, description, updatedBy);
+                return existing;
+            })
+            .orElseGet(() -> new AcademicCalendarDay(date, schoolDay, description, updatedBy));
+        AcademicCalendarDay saved = academicCalendarDayRepository.save(day);
+        evictAfterCommit(date.getYear());
+        logger.info("Academic calendar {} set to {} ({})", date, schoolDay ? "school day" : "no school", description);
+        return saved;
+    }
+
+    /**
+     * Remove an exception so the date follows the weekly pattern again
+     */
+    @Transactional
+    public void clearDay(LocalDate date) {
+        if (!academicCalendarDayRepository.existsById(date)) {
+            throw new IllegalArgumentException("No academic calendar entry for " + date);
+        }
+        academicCalendarDayRepository.deleteById(date);
+        evictAfterCommit(date.getYear());
+    }
+
+    @Scheduled(fixedDelayString = "${attendance.calendar.refresh-interval-ms:600000}")
+    public void refresh() {
+        years.clear();
+    }
+
+    // Evicting before commit would let a concurrent rebuild cache the old rows
+    private void evictAfterCommit(int year) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                years.remove(year);
+            }
+        });
+    }
+
+    private SchoolYear year(int year) {
+        return years.computeIfAbsent(year, this::buildYear);
+    }
+
+    private SchoolYear buildYear(int year) {
+        LocalDate first = LocalDate.of(year, 1, 1);
+        int length = first.lengthOfYear();
+        BitSet bits = new BitSet(length);
+        for (int i = 0; i < length; i++) {
+            if (schoolWeekdays.contains(first.plusDays(i).getDayOfWeek())) {
+                bits.set(i);
+            }
+        }
+        for (AcademicCalendarDay day : academicCalendarDayRepository.findByDateBetweenOrderByDate(first, LocalDate.of(year, 12, 31))) {
+            bits.set((int) ChronoUnit.DAYS.between(first, day.getDate()), day.isSchoolDay());
+        }
+        return new SchoolYear(bits, length);
+    }
+
+    private LocalDate nextTermStart(LocalDate start) {
+        MonthDay startDay = MonthDay.from(start);
+        for (MonthDay termStart : termStarts) {
+            if (termStart.isAfter(startDay)) {
+                return termStart.atYear(start.getYear());
+            }
+        }
+        return termStarts[0].atYear(start.getYear() + 1);
+    }
+
+    /**
+     * School-day bits of one calendar year with the number of set bits before each 64-day word
+     */
+    private static final class SchoolYear {
+        private final BitSet bits;
+        private final long[] words;
+        private final int[] prefix;
+        private final int length;
+
+        private SchoolYear(BitSet bits, int length) {
+            this.bits = bits;
+            this.length = length;
+            this.words = Arrays.copyOf(bits.toLongArray(), (length + 63) >>> 6);
+            this.prefix = new int[words.length + 1];
+            for (int w = 0; w < words.length; w++) {
+                prefix[w + 1] = prefix[w] + Long.bitCount(words[w]);
+            }
+        }
+
+        // Number of school days among day-of-year indexes [0, index)
+        private int rank(int index) {
+            int word = index >>> 6;
+            int bit = index & 63;
+            if (bit == 0) {
+                return prefix[word];
+            }
+            return prefix[word] + Long.bitCount(words[word] & ((1L << bit) - 1));
+        }
+    }
+
+    public static class Term {
+        private final LocalDate start;
+        private final LocalDate end;
+
+        public Term(LocalDate start, LocalDate end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public LocalDate getStart() {
+            return start;
+        }
+
+        public LocalDate getEnd() {
+            return end;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.visor.school.attendance.service;
+
+import com.visor.school.attendance.model.AttendanceStatus;
+import com.visor.school.attendance.repository.AttendanceBitmapRepository;
+import com.visor.school.attendance.repository.AttendanceBitmapRepository.Snapshot;
+import com.visor.school.attendance.service.AcademicCalendar.Term;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory index of StudentTermBitmap per student and term.
+ *
+ * Bitmaps are loaded on first use from attendance_term_bitmaps and caught up by replaying
+ * records written since the snapshot, or built from attendance_records when no snapshot exists.
+ * Resident bitmaps follow attendance events and changed ones are written back periodically.
+ * Terms come from the AcademicCalendar.
+ */
+@Service
+public class AttendanceBitmapIndex {
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceBitmapIndex.class);
+
+    private final AttendanceBitmapRepository attendanceBitmapRepository;
+    private final AcademicCalendar academicCalendar;
+    private final long replayMarginSeconds;
+
+    private final ConcurrentMap<Key, StudentTermBitmap> bitmaps = new ConcurrentHashMap<>();
+    private final Set<Key> dirty = ConcurrentHashMap.newKeySet();
+    private final Object feedLock = new Object();
+    private final Map<Key, PendingLoad> pendingLoads = new HashMap<>(); // guarded by feedLock
+
+    public AttendanceBitmapIndex(
+            AttendanceBitmapRepository attendanceBitmapRepository,
+            AcademicCalendar academicCalendar,
+            @Value("${attendance.bitmap.replay-margin-seconds:300}") long replayMarginSeconds) {
+        this.attendanceBitmapRepository = attendanceBitmapRepository;
+        this.academicCalendar = academicCalendar;
+        this.replayMarginSeconds = replayMarginSeconds;
+    }
+
+    /**
+     * The term containing the given date
+     */
+    public Term termFor(LocalDate date) {
+        return academicCalendar.termFor(date);
+    }
+
+    /**
+     * Apply one class's status change to the resident bitmap, if any. Non-resident bitmaps
+     * pick the change up from attendance_records when they are next loaded; changes arriving
+     * while one is loading are buffered and replayed onto it.
+     */
+    public void apply(UUID studentId, UUID classId, LocalDate date, AttendanceStatus status) {
+        Key key = new Key(studentId, termFor(date).getStart());
+        synchronized (feedLock) {
+            PendingLoad pending = pendingLoads.get(key);
+            if (pending != null) {
+                pending.changes.add(new Change(classId, date, status));
+            }
+            StudentTermBitmap bitmap = bitmaps.get(key);
+            if (bitmap != null) {
+                bitmap.set(classId, date, status);
+                dirty.add(key);
+            }
+        }
+    }
+
+    /**
+     * Bitmaps for the students over one term, loading any that are not resident in two queries
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, StudentTermBitmap> getBitmaps(Collection<UUID> studentIds, Term term) {
+        Map<UUID, StudentTermBitmap> result = new LinkedHashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID studentId : studentIds) {
+            StudentTermBitmap bitmap = bitmaps.get(new Key(studentId, term.getStart()));
+            if (bitmap != null) {
+                result.put(studentId, bitmap);
+            } else {
+                missing.add(studentId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            result.putAll(load(missing, term));
+        }
+        return result;
+    }
+
+    /**
+     * Persist bitmaps changed since the last flush and drop those of finished terms
+     */
+    @Scheduled(fixedDelayString = "${attendance.bitmap.snapshot-interval-ms:60000}")
+    @Transactional
+    public void flushSnapshots() {
+        Map<LocalDate, List<Key>> byTerm = new HashMap<>();
+        for (Key key : dirty) {
+            dirty.remove(key);
+            byTerm.computeIfAbsent(key.termStart(), t -> new ArrayList<>()).add(key);
+        }
+
+        int saved = 0;
+        for (Map.Entry<LocalDate, List<Key>> entry : byTerm.entrySet()) {
+            List<UUID> studentIds = new ArrayList<>(entry.getValue().size());
+            List<UUID> classIds = new ArrayList<>(entry.getValue().size());
+            List<long[][]> words = new ArrayList<>(entry.getValue().size());
+            LocalDate termEnd = null;
+            for (Key key : entry.getValue()) {
+                StudentTermBitmap bitmap = bitmaps.get(key);
+                if (bitmap != null) {
+                    bitmap.copyClassWords().forEach((classId, classWords) -> {
+                        studentIds.add(key.studentId());
+                        classIds.add(classId);
+                        words.add(classWords);
+                    });
+                    termEnd = bitmap.getTermEnd();
+                    saved++;
+                }
+            }
+            if (!studentIds.isEmpty()) {
+                attendanceBitmapRepository.saveSnapshots(entry.getKey(), termEnd, studentIds, classIds, words,
+                    replayMarginSeconds);
+            }
+        }
+
+        LocalDate currentTermStart = termFor(LocalDate.now()).getStart();
+        bitmaps.keySet().removeIf(key -> key.termStart().isBefore(currentTermStart) && !dirty.contains(key));
+
+        if (saved > 0) {
+            logger.debug("Saved {} attendance term bitmap snapshots", saved);
+        }
+    }
+
+    /**
+     * Load bitmaps and make them resident. The database is read without holding feedLock; changes
+     * applied meanwhile are buffered and replayed onto the loaded bitmaps under it, so a change
+     * committed after the read is not lost before the bitmap becomes resident.
+     */
+    private Map<UUID, StudentTermBitmap> load(List<UUID> studentIds, Term term) {
+        List<Key> keys = new ArrayList<>(studentIds.size());
+        for (UUID studentId : studentIds) {
+            keys.add(new Key(studentId, term.getStart()));
+        }
+        synchronized (feedLock) {
+            for (Key key : keys) {
+                pendingLoads.computeIfAbsent(key, k -> new PendingLoad()).loaders++;
+            }
+        }
+        Map<UUID, StudentTermBitmap> loaded;
+        Set<UUID> unsnapshotted = new HashSet<>();
+        try {
+            loaded = read(studentIds, term, unsnapshotted);
+        } catch (RuntimeException e) {
+            synchronized (feedLock) {
+                keys.forEach(this::releasePendingLoad);
+            }
+            throw e;
+        }
+
+        Map<UUID, StudentTermBitmap> result = new HashMap<>();
+        synchronized (feedLock) {
+            for (Key key : keys) {
+                PendingLoad pending = releasePendingLoad(key);
+                StudentTermBitmap bitmap = loaded.get(key.studentId());
+                for (Change change : pending.changes) {
+                    bitmap.set(change.classId(), change.date(), change.status());
+                }
+                StudentTermBitmap existing = bitmaps.putIfAbsent(key, bitmap);
+                result.put(key.studentId(), existing != null ? existing : bitmap);
+                if (existing == null && (unsnapshotted.contains(key.studentId()) || !pending.changes.isEmpty())) {
+                    dirty.add(key);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Caller holds feedLock
+    private PendingLoad releasePendingLoad(Key key) {
+        PendingLoad pending = pendingLoads.get(key);
+        if (--pending.loaders == 0) {
+            pendingLoads.remove(key);
+        }
+        return pending;
+    }
+
+    // Bitmaps from snapshots caught up from attendance_records; adds students without a snapshot to unsnapshotted
+    private Map<UUID, StudentTermBitmap> read(List<UUID> studentIds, Term term, Set<UUID> unsnapshotted) {
+        Map<UUID, StudentTermBitmap> loaded = new HashMap<>();
+        Timestamp oldestSnapshot = null;
+        for (Snapshot snapshot : attendanceBitmapRepository.findSnapshots(term.getStart(), studentIds)) {
+            loaded.computeIfAbsent(snapshot.getStudentId(), id -> new StudentTermBitmap(term.getStart(), term.getEnd()))
+                .restoreClass(snapshot.getClassId(), snapshot.getWords());
+            if (oldestSnapshot == null || snapshot.getSnapshotAt().before(oldestSnapshot)) {
+                oldestSnapshot = snapshot.getSnapshotAt();
+            }
+        }
+
+        for (UUID studentId : studentIds) {
+            if (!loaded.containsKey(studentId)) {
+                loaded.put(studentId, new StudentTermBitmap(term.getStart(), term.getEnd()));
+                unsnapshotted.add(studentId);
+            }
+        }
+
+        // Replaying current row state is idempotent, so catching up from the oldest snapshot is safe for all
+        RowCallbackHandler replay = rs -> loaded.get(rs.getObject("student_id", UUID.class)).set(
+            rs.getObject("class_id", UUID.class),
+            rs.getObject("date", LocalDate.class),
+            AttendanceStatus.valueOf(rs.getString("status")));
+        if (oldestSnapshot != null) {
+            Set<UUID> snapshotted = new HashSet<>(loaded.keySet());
+            snapshotted.removeAll(unsnapshotted);
+            attendanceBitmapRepository.streamStatuses(snapshotted, term.getStart(), term.getEnd(), oldestSnapshot, replay);
+        }
+        if (!unsnapshotted.isEmpty()) {
+            attendanceBitmapRepository.streamStatuses(unsnapshotted, term.getStart(), term.getEnd(), null, replay);
+        }
+        return loaded;
+    }
+
+    private record Key(UUID studentId, LocalDate termStart) {
+    }
+
+    private record Change(UUID classId, LocalDate date, AttendanceStatus status) {
+    }
+
+    private static final class PendingLoad {
+        private final List<Change> changes = new ArrayList<>();
+        private int loaders;
+    }
+}
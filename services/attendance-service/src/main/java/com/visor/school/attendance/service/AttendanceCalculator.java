@@ -2,6 +2,7 @@ package com.visor.school.attendance.service;
 
 import com.visor.school.attendance.model.AttendanceRecord;
 import com.visor.school.attendance.model.AttendanceStatus;
+import com.visor.school.attendance.repository.AttendanceRollupRepository.RollupCounts;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -13,34 +14,68 @@ import java.util.List;
 @Service
 public class AttendanceCalculator {
 
+    private final AcademicCalendar academicCalendar;
+
+    public AttendanceCalculator(AcademicCalendar academicCalendar) {
+        this.academicCalendar = academicCalendar;
+    }
+
+    /**
+     * Number of school days in an inclusive date range, excluding weekends and holidays
+     */
+    public int countSchoolDays(LocalDate startDate, LocalDate endDate) {
+        return academicCalendar.countSchoolDays(startDate, endDate);
+    }
+
     /**
      * Calculate attendance rate for a class on a specific date
      */
     public AttendanceRate calculateAttendanceRate(List<AttendanceRecord> records) {
-        if (records.isEmpty()) {
-            return new AttendanceRate(0.0, 0, 0, 0, 0, 0);
+        int[] counts = new int[AttendanceStatus.values().length];
+        for (AttendanceRecord record : records) {
+            counts[record.getStatus().ordinal()]++;
         }
+        return fromCounts(counts);
+    }
 
-        int total = records.size();
-        long present = records.stream().filter(r -> r.getStatus() == AttendanceStatus.PRESENT).count();
-        long absent = records.stream().filter(r -> r.getStatus() == AttendanceStatus.ABSENT).count();
-        long late = records.stream().filter(r -> r.getStatus() == AttendanceStatus.LATE).count();
-        long excused = records.stream().filter(r -> r.getStatus() == AttendanceStatus.EXCUSED).count();
+    /**
+     * Calculate attendance rate from daily rollup totals
+     */
+    public AttendanceRate calculateAttendanceRate(RollupCounts rollupCounts) {
+        int[] counts = new int[AttendanceStatus.values().length];
+        counts[AttendanceStatus.PRESENT.ordinal()] = rollupCounts.getPresent();
+        counts[AttendanceStatus.ABSENT.ordinal()] = rollupCounts.getAbsent();
+        counts[AttendanceStatus.LATE.ordinal()] = rollupCounts.getLate();
+        counts[AttendanceStatus.EXCUSED.ordinal()] = rollupCounts.getExcused();
+        return fromCounts(counts);
+    }
+
+    private AttendanceRate fromCounts(int[] counts) {
+        int present = counts[AttendanceStatus.PRESENT.ordinal()];
+        int absent = counts[AttendanceStatus.ABSENT.ordinal()];
+        int late = counts[AttendanceStatus.LATE.ordinal()];
+        int excused = counts[AttendanceStatus.EXCUSED.ordinal()];
+        int total = present + absent + late + excused;
+
+        if (total == 0) {
+            return new AttendanceRate(0.0, 0, 0, 0, 0, 0);
+        }
 
         double rate = ((double) present / total) * 100.0;
 
-        return new AttendanceRate(rate, total, (int) present, (int) absent, (int) late, (int) excused);
+        return new AttendanceRate(rate, total, present, absent, late, excused);
     }
 
     /**
-     * Calculate attendance rate for a date range
+     * Calculate attendance rate for the school days of a date range
      */
     public AttendanceRate calculateAttendanceRateForRange(
             List<AttendanceRecord> records,
             LocalDate startDate,
             LocalDate endDate) {
         List<AttendanceRecord> filteredRecords = records.stream()
-            .filter(r -> r.getDate().isAfter(startDate.minusDays(1)) && r.getDate().isBefore(endDate.plusDays(1)))
+            .filter(r -> !r.getDate().isBefore(startDate) && !r.getDate().isAfter(endDate))
+            .filter(r -> academicCalendar.isSchoolDay(r.getDate()))
             .toList();
         return calculateAttendanceRate(filteredRecords);
     }
@@ -57,6 +92,14 @@ public class AttendanceCalculator {
         return ((double) present / records.size()) * 100.0;
     }
 
+    /**
+     * Calculate student attendance rate over a term from the bitmap index
+     * Counts days per status, so it matches the record-based overload for one record per day
+     */
+    public AttendanceRate calculateStudentAttendanceRate(StudentTermBitmap bitmap) {
+        return fromCounts(bitmap.counts());
+    }
+
     public static class AttendanceRate {
         private final double rate;
         private final int total;
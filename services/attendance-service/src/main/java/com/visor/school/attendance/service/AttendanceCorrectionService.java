@@ -0,0 +1,165 @@
+package com.visor.school.attendance.service;
+
+import com.visor.school.attendance.model.AttendanceCorrection;
+import com.visor.school.attendance.model.AttendanceStatus;
+import com.visor.school.attendance.repository.AttendanceBulkRepository.UpsertOutcome;
+import com.visor.school.attendance.repository.AttendanceBulkRepository.UpsertedRow;
+import com.visor.school.attendance.repository.AttendanceCorrectionRepository;
+import com.visor.school.attendance.repository.AttendanceCorrectionRepository.RecordAsOf;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Correction history of attendance records and point-in-time views built from it.
+ *
+ * Every status change of an existing record appends one correction in the writer's transaction;
+ * roster writes append theirs with a single batched insert. Notes-only changes are not recorded.
+ */
+@Service
+@Transactional
+public class AttendanceCorrectionService {
+
+    private final AttendanceCorrectionRepository attendanceCorrectionRepository;
+    private final int maxRangeDays;
+
+    public AttendanceCorrectionService(
+            AttendanceCorrectionRepository attendanceCorrectionRepository,
+            @Value("${attendance.corrections.max-range-days:366}") int maxRangeDays) {
+        this.attendanceCorrectionRepository = attendanceCorrectionRepository;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    /**
+     * Record a status change of one record; no-op when the status did not change
+     */
+    public void recordCorrection(UUID recordId, AttendanceStatus previousStatus, AttendanceStatus newStatus,
+                                 UUID correctedBy) {
+        if (previousStatus == null || previousStatus == newStatus) {
+            return;
+        }
+        attendanceCorrectionRepository.save(
+            new AttendanceCorrection(recordId, previousStatus, newStatus, null, correctedBy, Instant.now()));
+    }
+
+    /**
+     * Record the status changes among the rows of a roster upsert
+     */
+    public void recordCorrections(List<UpsertedRow> rows, UUID correctedBy) {
+        Instant correctedAt = Instant.now();
+        List<AttendanceCorrection> corrections = new ArrayList<>();
+        for (UpsertedRow row : rows) {
+            if (row.getOutcome() == UpsertOutcome.UPDATED && row.getPreviousStatus() != row.getStatus()) {
+                corrections.add(new AttendanceCorrection(
+                    row.getRecordId(), row.getPreviousStatus(), row.getStatus(), null, correctedBy, correctedAt));
+            }
+        }
+        if (!corrections.isEmpty()) {
+            attendanceCorrectionRepository.saveAll(corrections);
+        }
+    }
+
+    /**
+     * Corrections of one record, oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<AttendanceCorrection> getCorrections(UUID recordId) {
+        return attendanceCorrectionRepository.findByAttendanceRecordIdOrderByCorrectedAtAsc(recordId);
+    }
+
+    /**
+     * Attendance of a class on a date as it stood at the given instant
+     */
+    @Transactional(readOnly = true)
+    public List<AttendanceAsOf> getClassAttendanceAsOf(UUID classId, LocalDate date, Instant asOf) {
+        return toAsOf(attendanceCorrectionRepository.findClassAttendanceAsOf(classId, date, asOf), asOf);
+    }
+
+    /**
+     * Attendance of a student over an inclusive date range as it stood at the given instant
+     */
+    @Transactional(readOnly = true)
+    public List<AttendanceAsOf> getStudentAttendanceAsOf(UUID studentId, LocalDate startDate, LocalDate endDate,
+                                                         Instant asOf) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= maxRangeDays) {
+            throw new IllegalArgumentException("Date range must not exceed " + maxRangeDays + " days");
+        }
+        return toAsOf(attendanceCorrectionRepository.findStudentAttendanceAsOf(studentId, startDate, endDate, asOf), asOf);
+    }
+
+    private static List<AttendanceAsOf> toAsOf(List<RecordAsOf> rows, Instant asOf) {
+        List<AttendanceAsOf> result = new ArrayList<>(rows.size());
+        for (RecordAsOf row : rows) {
+            result.add(new AttendanceAsOf(
+                row.getRecordId(),
+                row.getStudentId(),
+                row.getClassId(),
+                row.getDate(),
+                AttendanceStatus.valueOf(row.getStatus()),
+                row.isCorrectedSince(),
+                asOf
+            ));
+        }
+        return result;
+    }
+
+    public static class AttendanceAsOf {
+        private final UUID recordId;
+        private final UUID studentId;
+        private final UUID classId;
+        private final LocalDate date;
+        private final AttendanceStatus status;
+        private final boolean correctedSince;
+        private final Instant asOf;
+
+        public AttendanceAsOf(UUID recordId, UUID studentId, UUID classId, LocalDate date,
+                              AttendanceStatus status, boolean correctedSince, Instant asOf) {
+            this.recordId = recordId;
+            this.studentId = studentId;
+            this.classId = classId;
+            this.date = date;
+            this.status = status;
+            this.correctedSince = correctedSince;
+            this.asOf = asOf;
+        }
+
+        public UUID getRecordId() {
+            return recordId;
+        }
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public UUID getClassId() {
+            return classId;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public AttendanceStatus getStatus() {
+            return status;
+        }
+
+        // Whether the status was corrected after asOf
+        public boolean isCorrectedSince() {
+            return correctedSince;
+        }
+
+        public Instant getAsOf() {
+            return asOf;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.visor.school.attendance.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.visor.school.attendance.repository.AttendanceExportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Streams attendance records straight from a database cursor into CSV or NDJSON.
+ * Each row is written as soon as it is read; nothing is materialized per export.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AttendanceExportService {
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceExportService.class);
+
+    // Column label and JSON field name, in export order
+    private static final String[][] COLUMNS = {
+        {"id", "id"},
+        {"student_id", "studentId"},
+        {"class_id", "classId"},
+        {"date", "date"},
+        {"status", "status"},
+        {"marked_by", "markedBy"},
+        {"collected_by", "collectedBy"},
+        {"session_id", "sessionId"},
+        {"approved_by", "approvedBy"},
+        {"notes", "notes"}
+    };
+
+    private final AttendanceExportRepository attendanceExportRepository;
+    private final ObjectMapper objectMapper;
+
+    public AttendanceExportService(AttendanceExportRepository attendanceExportRepository, ObjectMapper objectMapper) {
+        this.attendanceExportRepository = attendanceExportRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Export one class over an inclusive date range
+     */
+    public long exportClassRange(UUID classId, LocalDate startDate, LocalDate endDate,
+                                 AttendanceExportFormat format, OutputStream out) {
+        validateRange(startDate, endDate);
+        return export(format, out, handler ->
+            attendanceExportRepository.streamByClassIdAndDateRange(classId, startDate, endDate, handler));
+    }
+
+    /**
+     * Export every class over an inclusive date range
+     */
+    public long exportSchoolRange(LocalDate startDate, LocalDate endDate,
+                                  AttendanceExportFormat format, OutputStream out) {
+        validateRange(startDate, endDate);
+        return export(format, out, handler ->
+            attendanceExportRepository.streamByDateRange(startDate, endDate, handler));
+    }
+
+    /**
+     * Export a student's full history, newest first
+     */
+    public long exportStudentHistory(UUID studentId, AttendanceExportFormat format, OutputStream out) {
+        return export(format, out, handler -> attendanceExportRepository.streamByStudentId(studentId, handler));
+    }
+
+    private long export(AttendanceExportFormat format, OutputStream out, RowSource source) {
+        try {
+            RowWriter rowWriter = format == AttendanceExportFormat.CSV
+                ? new CsvRowWriter(out)
+                : new NdjsonRowWriter(objectMapper, out);
+            long[] rows = {0};
+            rowWriter.begin();
+            source.stream(rs -> {
+                try {
+                    rowWriter.write(rs);
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            rowWriter.end();
+            logger.info("Exported {} attendance records as {}", rows[0], format);
+            return rows[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reject an inverted range; call before the response is committed so the error reaches the client as a 400
+     */
+    public void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        void stream(RowCallbackHandler handler);
+    }
+
+    private interface RowWriter {
+        void begin() throws IOException;
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void end() throws IOException;
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void begin() throws IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(COLUMNS[i][0]);
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                String value = rs.getString(i + 1);
+                if (value != null) {
+                    writeEscaped(value);
+                }
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void end() throws IOException {
+            writer.flush();
+        }
+
+        private void writeEscaped(String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            // Lines are terminated explicitly below instead of the default space between root values
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                String value = rs.getString(i + 1);
+                if (value == null) {
+                    generator.writeNullField(COLUMNS[i][1]);
+                } else {
+                    generator.writeStringField(COLUMNS[i][1], value);
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void end() throws IOException {
+            generator.flush();
+        }
+    }
+}
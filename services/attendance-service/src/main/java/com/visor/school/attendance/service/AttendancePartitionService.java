@@ -0,0 +1,248 @@
+package com.visor.school.attendance.service;
+
+import com.visor.school.attendance.model.AttendanceArchive;
+import com.visor.school.attendance.repository.AttendanceArchiveRepository;
+import com.visor.school.attendance.repository.AttendancePartitionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.YearMonth;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps monthly attendance_records partitions ahead of the calendar and archives closed academic years.
+ *
+ * Archiving detaches a partition first, so no write can reach it through attendance_records, then
+ * exports the detached table with COPY into a gzip file. The table is dropped only after a second
+ * COPY under an exclusive lock yields the same row count and the same SHA-256 of the CSV content;
+ * if the export or that check fails, the partition is attached again. Restoring loads the file into a new table and attaches it again. Daily rollups are kept, so class
+ * reports over archived months still return counts.
+ */
+@Service
+public class AttendancePartitionService {
+    private static final Logger logger = LoggerFactory.getLogger(AttendancePartitionService.class);
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final AttendancePartitionRepository partitionRepository;
+    private final AttendanceArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final MonthDay academicYearStart;
+    private final int retainClosedYears;
+    private final Duration restoredRetention;
+    private final Path archiveDirectory;
+
+    public AttendancePartitionService(
+            AttendancePartitionRepository partitionRepository,
+            AttendanceArchiveRepository archiveRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${attendance.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${attendance.archive.academic-year-start:09-01}") String academicYearStart,
+            @Value("${attendance.archive.retain-closed-years:1}") int retainClosedYears,
+            @Value("${attendance.archive.restored-retention-days:30}") long restoredRetentionDays,
+            @Value("${attendance.archive.directory:archive/attendance-records}") String archiveDirectory) {
+        this.partitionRepository = partitionRepository;
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.academicYearStart = MonthDay.parse("--" + academicYearStart.trim());
+        this.retainClosedYears = retainClosedYears;
+        this.restoredRetention = Duration.ofDays(restoredRetentionDays);
+        this.archiveDirectory = Paths.get(archiveDirectory);
+    }
+
+    /**
+     * Create partitions for the current month and the configured months ahead
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${attendance.partitions.maintain-cron:0 0 2 * * *}")
+    public void ensureFuturePartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            partitionRepository.createPartition(current.plusMonths(i));
+        }
+        logger.debug("Attendance partitions ensured through {}", current.plusMonths(monthsAhead));
+    }
+
+    /**
+     * Archive every partition that ends on or before the start of the oldest academic year kept online.
+     * Partitions restored on demand are left attached for the restored-retention period.
+     */
+    @Scheduled(cron = "${attendance.archive.cron:0 30 2 * * SUN}")
+    public int archiveClosedYears() {
+        LocalDate cutoff = archiveCutoff(LocalDate.now());
+        Instant restoredCutoff = Instant.now().minus(restoredRetention);
+        int archived = 0;
+
+        for (String partitionName : partitionRepository.findAttachedPartitions()) {
+            YearMonth month = AttendancePartitionRepository.monthOf(partitionName);
+            if (month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+                continue;
+            }
+            boolean recentlyRestored = archiveRepository.findByPartitionName(partitionName)
+                .map(archive -> archive.isRestored() && archive.getRestoredAt().isAfter(restoredCutoff))
+                .orElse(false);
+            if (recentlyRestored) {
+                continue;
+            }
+            try {
+                archivePartition(partitionName, month);
+                archived++;
+            } catch (RuntimeException e) {
+                logger.error("Failed to archive attendance partition {}", partitionName, e);
+            }
+        }
+
+        if (archived > 0) {
+            logger.info("Archived {} attendance partitions ending on or before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    /**
+     * Load an archived partition back and attach it
+     */
+    @Transactional
+    public AttendanceArchive restoreArchive(UUID archiveId) {
+        AttendanceArchive archive = archiveRepository.findById(archiveId)
+            .orElseThrow(() -> new IllegalArgumentException("Attendance archive not found: " + archiveId));
+        if (archive.isRestored()) {
+            throw new IllegalStateException("Attendance archive " + archive.getPartitionName() + " is already restored");
+        }
+        YearMonth month = AttendancePartitionRepository.monthOf(archive.getPartitionName());
+        if (partitionRepository.defaultPartitionHasRows(month)) {
+            throw new IllegalStateException("Records for " + month + " were written after archiving; "
+                + "move them out of attendance_records_default before restoring");
+        }
+
+        MessageDigest digest = sha256();
+        long rows;
+        try (InputStream in = new GZIPInputStream(new DigestInputStream(
+                new BufferedInputStream(Files.newInputStream(Paths.get(archive.getFilePath()))), digest), COPY_BUFFER_SIZE)) {
+            rows = partitionRepository.copyIn(archive.getPartitionName(), in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read attendance archive " + archive.getFilePath(), e);
+        }
+        if (!HexFormat.of().formatHex(digest.digest()).equals(archive.getSha256()) || rows != archive.getRowCount()) {
+            throw new IllegalStateException("Attendance archive " + archive.getFilePath() + " does not match its catalog entry");
+        }
+
+        partitionRepository.attach(archive.getPartitionName());
+        archive.restored();
+        logger.info("Restored attendance partition {} ({} rows)", archive.getPartitionName(), rows);
+        return archiveRepository.save(archive);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AttendanceArchive> getArchives() {
+        return archiveRepository.findAllByOrderByRangeStartDesc();
+    }
+
+    private void archivePartition(String partitionName, YearMonth month) {
+        Path file = archiveDirectory.resolve(partitionName + ".csv.gz");
+        Path tmp = archiveDirectory.resolve(partitionName + ".csv.gz.tmp");
+        MessageDigest fileDigest = sha256();
+        MessageDigest contentDigest = sha256();
+        long rows;
+
+        // Detach first: writes for the month now land in the default partition, never in the table being exported
+        transactionTemplate.executeWithoutResult(status -> partitionRepository.detach(partitionName));
+        try {
+            try {
+                Files.createDirectories(archiveDirectory);
+                try (OutputStream out = new DigestOutputStream(new GZIPOutputStream(new DigestOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(tmp)), fileDigest), COPY_BUFFER_SIZE), contentDigest)) {
+                    rows = partitionRepository.copyOut(partitionName, out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write attendance archive " + tmp, e);
+            }
+            String sha256 = HexFormat.of().formatHex(fileDigest.digest());
+            byte[] content = contentDigest.digest();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                partitionRepository.lockExclusive(partitionName);
+                MessageDigest verifyDigest = sha256();
+                long verifyRows = partitionRepository.copyOut(partitionName,
+                    new DigestOutputStream(OutputStream.nullOutputStream(), verifyDigest));
+                if (verifyRows != rows || !MessageDigest.isEqual(verifyDigest.digest(), content)) {
+                    throw new IllegalStateException("Partition " + partitionName + " changed during export");
+                }
+                partitionRepository.drop(partitionName);
+                try {
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to move attendance archive into place: " + file, e);
+                }
+                AttendanceArchive archive = archiveRepository.findByPartitionName(partitionName)
+                    .orElseGet(() -> new AttendanceArchive(partitionName, month.atDay(1), month.plusMonths(1).atDay(1)));
+                archive.archived(file.toString(), rows, sha256);
+                archiveRepository.save(archive);
+            });
+        } catch (RuntimeException e) {
+            reattach(partitionName, e);
+            throw e;
+        }
+        logger.info("Archived attendance partition {} ({} rows) to {}", partitionName, rows, file);
+    }
+
+    // Put a partition whose archiving failed back online; the next run retries it
+    private void reattach(String partitionName, RuntimeException cause) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> partitionRepository.attach(partitionName));
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+            logger.error("Attendance partition {} is detached and could not be attached again", partitionName, e);
+        }
+    }
+
+    /**
+     * Start of the oldest academic year that stays attached; partitions before it may be archived
+     */
+    public LocalDate archiveCutoff(LocalDate today) {
+        LocalDate currentYearStart = academicYearStart.atYear(today.getYear());
+        if (currentYearStart.isAfter(today)) {
+            currentYearStart = currentYearStart.minusYears(1);
+        }
+        return currentYearStart.minusYears(retainClosedYears);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,25 +1,37 @@
 package com.visor.school.attendance.service;
 
+import com.visor.school.attendance.client.ClassLeaderClient;
 import com.visor.school.attendance.event.AttendanceEventPublisher;
 import com.visor.school.attendance.model.AttendanceRecord;
 import com.visor.school.attendance.model.AttendanceSession;
 import com.visor.school.attendance.model.AttendanceSessionStatus;
 import com.visor.school.attendance.model.AttendanceStatus;
+import com.visor.school.attendance.repository.AttendanceBulkRepository;
+import com.visor.school.attendance.repository.AttendanceBulkRepository.UpsertOutcome;
+import com.visor.school.attendance.repository.AttendanceBulkRepository.UpsertedRow;
 import com.visor.school.attendance.repository.AttendanceRepository;
+import com.visor.school.attendance.repository.AttendanceRollupRepository;
 import com.visor.school.attendance.repository.AttendanceSessionRepository;
 import com.visor.school.attendance.service.AttendanceCalculator.AttendanceRate;
+import com.visor.school.common.api.Constants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Attendance service with support for direct marking and class leader delegation
@@ -30,19 +42,37 @@ public class AttendanceService {
     private static final Logger logger = LoggerFactory.getLogger(AttendanceService.class);
 
     private final AttendanceRepository attendanceRepository;
+    private final AttendanceBulkRepository attendanceBulkRepository;
+    private final AttendanceRollupRepository attendanceRollupRepository;
     private final AttendanceSessionRepository attendanceSessionRepository;
     private final AttendanceEventPublisher attendanceEventPublisher;
-    private final RestTemplate restTemplate;
+    private final AttendanceCalculator attendanceCalculator;
+    private final AttendanceBitmapIndex attendanceBitmapIndex;
+    private final ClassLeaderClient classLeaderClient;
+    private final AttendanceCorrectionService attendanceCorrectionService;
+    private final AttendancePartitionService attendancePartitionService;
 
     public AttendanceService(
             AttendanceRepository attendanceRepository,
+            AttendanceBulkRepository attendanceBulkRepository,
+            AttendanceRollupRepository attendanceRollupRepository,
             AttendanceSessionRepository attendanceSessionRepository,
             AttendanceEventPublisher attendanceEventPublisher,
-            @Autowired(required = false) RestTemplate restTemplate) {
+            AttendanceCalculator attendanceCalculator,
+            AttendanceBitmapIndex attendanceBitmapIndex,
+            ClassLeaderClient classLeaderClient,
+            AttendanceCorrectionService attendanceCorrectionService,
+            AttendancePartitionService attendancePartitionService) {
         this.attendanceRepository = attendanceRepository;
+        this.attendanceBulkRepository = attendanceBulkRepository;
+        this.attendanceRollupRepository = attendanceRollupRepository;
         this.attendanceSessionRepository = attendanceSessionRepository;
         this.attendanceEventPublisher = attendanceEventPublisher;
-        this.restTemplate = restTemplate;
+        this.attendanceCalculator = attendanceCalculator;
+        this.attendanceBitmapIndex = attendanceBitmapIndex;
+        this.classLeaderClient = classLeaderClient;
+        this.attendanceCorrectionService = attendanceCorrectionService;
+        this.attendancePartitionService = attendancePartitionService;
     }
 
     /**
@@ -62,9 +92,14 @@ public class AttendanceService {
         Optional<AttendanceRecord> existing = attendanceRepository.findByStudentIdAndClassIdAndDate(studentId, classId, date);
         if (existing.isPresent()) {
             AttendanceRecord record = existing.get();
+            AttendanceStatus previousStatus = record.getStatus();
             record.updateStatus(status, markedBy, notes);
+            attendanceRollupRepository.applyTransition(classId, date, previousStatus, status);
+            attendanceCorrectionService.recordCorrection(record.getId(), previousStatus, status, markedBy);
             logger.info("Updated existing attendance record: {}", record.getId());
-            return attendanceRepository.save(record);
+            AttendanceRecord saved = attendanceRepository.save(record);
+            attendanceEventPublisher.publishAttendanceMarked(saved, previousStatus);
+            return saved;
         }
 
         AttendanceRecord record = new AttendanceRecord(
@@ -80,23 +115,53 @@ public class AttendanceService {
         );
 
         AttendanceRecord saved = attendanceRepository.save(record);
+        attendanceRollupRepository.applyTransition(classId, date, null, status);
         logger.info("Attendance marked directly: {}", saved.getId());
 
         // Publish event
-        attendanceEventPublisher.publishAttendanceMarked(saved);
+        attendanceEventPublisher.publishAttendanceMarked(saved, null);
 
         return saved;
     }
 
+    /**
+     * Mark attendance for a whole class roster in one batched upsert
+     * Returns one result per entry, in request order, with its inserted/updated/unchanged outcome
+     */
+    public List<UpsertedRow> markRosterAttendance(
+            UUID classId,
+            LocalDate date,
+            UUID markedBy, // Teacher ID
+            List<AttendanceEntry> entries) {
+        logger.info("Marking roster attendance: class={}, date={}, entries={}", classId, date, entries.size());
+
+        validateRoster(date, entries);
+
+        List<UpsertedRow> results = attendanceBulkRepository.upsertRoster(
+            classId, date, markedBy, null, null, markedBy, entries);
+        applyRollupDelta(classId, date, results);
+        attendanceCorrectionService.recordCorrections(results, markedBy);
+
+        // Publish one event for the whole roster
+        attendanceEventPublisher.publishAttendanceBatchMarked(classId, date, markedBy, null, null, results);
+
+        logger.info("Roster attendance marked for class {} on {}: {} entries", classId, date, results.size());
+        return results;
+    }
+
     /**
      * Create attendance session for delegation
      */
     public AttendanceSession createSession(UUID classId, LocalDate date, UUID createdBy) {
         logger.info("Creating attendance session: class={}, date={}", classId, date);
 
-        // Check if session already exists
+        // Check if session already exists; an untouched pre-generated session is handed out as is
         Optional<AttendanceSession> existing = attendanceSessionRepository.findByClassIdAndDate(classId, date);
         if (existing.isPresent()) {
+            AttendanceSession session = existing.get();
+            if (session.getStatus() == AttendanceSessionStatus.PENDING && session.getDelegatedTo() == null) {
+                return session;
+            }
             throw new IllegalArgumentException("Attendance session already exists for class " + classId + " on date " + date);
         }
 
@@ -120,13 +185,13 @@ public class AttendanceService {
             throw new IllegalArgumentException("Session class ID does not match provided class ID");
         }
 
-        // Validate class leader assignment via Academic Service API
-        // In production, this would call: GET /api/v1/academic/classes/{classId}/leaders/{classLeaderId}
-        // For now, we'll validate that the session is in correct state
         if (session.getStatus() != AttendanceSessionStatus.PENDING) {
             throw new IllegalArgumentException("Session must be in PENDING status to be delegated");
         }
 
+        // Validate class leader assignment via Academic Service API (cached per class)
+        requireClassLeader(classId, classLeaderId);
+
         // Delegate to class leader
         session.delegateTo(classLeaderId);
         AttendanceSession saved = attendanceSessionRepository.save(session);
@@ -160,36 +225,24 @@ public class AttendanceService {
             throw new IllegalArgumentException("Session is not delegated to class leader " + classLeaderId);
         }
 
-        // Validate class leader assignment via Academic Service API
-        // In production, this would call: GET /api/v1/academic/classes/{classId}/leaders/{classLeaderId}
-
-        // Create attendance records for each entry
-        for (AttendanceEntry entry : attendanceEntries) {
-            Optional<AttendanceRecord> existing = attendanceRepository.findByStudentIdAndClassIdAndDate(
-                entry.getStudentId(),
-                session.getClassId(),
-                session.getDate()
-            );
-
-            if (existing.isPresent()) {
-                AttendanceRecord record = existing.get();
-                record.updateStatus(entry.getStatus(), classLeaderId, entry.getNotes());
-                attendanceRepository.save(record);
-            } else {
-                AttendanceRecord record = new AttendanceRecord(
-                    entry.getStudentId(),
-                    session.getClassId(),
-                    session.getDate(),
-                    entry.getStatus(),
-                    null,
-                    classLeaderId,
-                    sessionId,
-                    null,
-                    entry.getNotes()
-                );
-                attendanceRepository.save(record);
-            }
-        }
+        // Leadership may have been removed since delegation
+        requireClassLeader(session.getClassId(), classLeaderId);
+
+        // Upsert all entries in one statement
+        validateRoster(session.getDate(), attendanceEntries);
+        List<UpsertedRow> results = attendanceBulkRepository.upsertRoster(
+            session.getClassId(),
+            session.getDate(),
+            null,
+            classLeaderId,
+            sessionId,
+            classLeaderId,
+            attendanceEntries
+        );
+        applyRollupDelta(session.getClassId(), session.getDate(), results);
+        attendanceCorrectionService.recordCorrections(results, classLeaderId);
+        attendanceEventPublisher.publishAttendanceBatchMarked(
+            session.getClassId(), session.getDate(), null, classLeaderId, sessionId, results);
 
         // Mark session as collected
         session.markAsCollected();
@@ -215,10 +268,9 @@ public class AttendanceService {
         session.approve(teacherId);
         AttendanceSession saved = attendanceSessionRepository.save(session);
 
-        // Note: Attendance records are linked via sessionId
-        // The approvedBy is already set on the session
-        // Records will reference the session which has approvedBy
-        logger.debug("Attendance records for session {} are now approved", sessionId);
+        // Stamp approval on the collected records so reports can filter on approved_by directly
+        int approved = attendanceBulkRepository.approveSessionRecords(sessionId, session.getDate(), teacherId);
+        logger.debug("{} attendance records for session {} are now approved", approved, sessionId);
 
         logger.info("Session approved: {}", saved.getId());
 
@@ -240,6 +292,12 @@ public class AttendanceService {
         session.reject(teacherId, reason);
         AttendanceSession saved = attendanceSessionRepository.save(session);
 
+        // Rejected records must not count as approved until the session is approved again
+        int revoked = attendanceBulkRepository.revokeSessionApproval(sessionId, session.getDate(), teacherId);
+        if (revoked > 0) {
+            logger.debug("Approval revoked on {} attendance records for session {}", revoked, sessionId);
+        }
+
         logger.info("Session rejected: {}", saved.getId());
 
         // Publish event
@@ -261,17 +319,33 @@ public class AttendanceService {
     }
 
     /**
-     * Get attendance records for a student
+     * Get one page of a student's attendance history, newest first
+     * Uses keyset pagination: cursor is the opaque nextCursor of the previous page, null for the first page
      */
     @Transactional(readOnly = true)
-    public List<AttendanceRecord> getAttendanceByStudent(UUID studentId, UUID classId) {
+    public AttendanceHistoryPage getAttendanceHistory(UUID studentId, UUID classId, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), Constants.MAX_PAGE_SIZE);
+        // Fetch one extra row to know whether another page exists
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        HistoryCursor after = cursor != null ? HistoryCursor.decode(cursor) : null;
+
+        List<AttendanceRecord> records;
         if (classId != null) {
-            return attendanceRepository.findByStudentIdAndClassId(studentId, classId);
+            records = after == null
+                ? attendanceRepository.findStudentClassHistoryFirstPage(studentId, classId, pageable)
+                : attendanceRepository.findStudentClassHistoryAfter(studentId, classId, after.date(), after.id(), pageable);
         } else {
-            return attendanceRepository.findAll().stream()
-                .filter(r -> r.getStudentId().equals(studentId))
-                .collect(Collectors.toList());
+            records = after == null
+                ? attendanceRepository.findStudentHistoryFirstPage(studentId, pageable)
+                : attendanceRepository.findStudentHistoryAfter(studentId, after.date(), after.id(), pageable);
         }
+
+        if (records.size() <= pageSize) {
+            return new AttendanceHistoryPage(records, null);
+        }
+        List<AttendanceRecord> page = records.subList(0, pageSize);
+        AttendanceRecord last = page.get(pageSize - 1);
+        return new AttendanceHistoryPage(page, new HistoryCursor(last.getDate(), last.getId()).encode());
     }
 
     /**
@@ -292,19 +366,189 @@ public class AttendanceService {
 
     /**
      * Generate attendance report for a class
+     * Counts are read from the daily rollup; record details are not loaded
      */
     @Transactional(readOnly = true)
     public AttendanceReport generateClassReport(UUID classId, LocalDate startDate, LocalDate endDate) {
-        List<AttendanceRecord> records = attendanceRepository.findByClassIdAndDateRange(classId, startDate, endDate);
-        AttendanceCalculator calculator = new AttendanceCalculator();
-        AttendanceRate rate = calculator.calculateAttendanceRateForRange(records, startDate, endDate);
+        return generateClassReport(classId, startDate, endDate, false);
+    }
 
-        long totalDays = startDate.datesUntil(endDate.plusDays(1)).count();
+    /**
+     * Generate attendance report for a class, optionally including the individual records
+     */
+    @Transactional(readOnly = true)
+    public AttendanceReport generateClassReport(UUID classId, LocalDate startDate, LocalDate endDate,
+                                                boolean includeRecords) {
+        AttendanceRate rate = attendanceCalculator.calculateAttendanceRate(
+            attendanceRollupRepository.sumByClassIdAndDateRange(classId, startDate, endDate));
+
+        List<AttendanceRecord> records = includeRecords
+            ? attendanceRepository.findByClassIdAndDateRange(classId, startDate, endDate)
+            : List.of();
+
+        long totalDays = attendanceCalculator.countSchoolDays(startDate, endDate);
 
         return new AttendanceReport(classId, startDate, endDate, totalDays, rate, records);
     }
 
+    /**
+     * Term-to-date attendance rates and present streaks for many students at once
+     * Answered from the in-memory term bitmaps; only students not yet resident touch the database
+     */
+    @Transactional(readOnly = true)
+    public List<StudentTermRate> getStudentTermRates(List<UUID> studentIds, LocalDate date) {
+        AcademicCalendar.Term term = attendanceBitmapIndex.termFor(date);
+        Map<UUID, StudentTermBitmap> bitmaps = attendanceBitmapIndex.getBitmaps(studentIds, term);
+
+        List<StudentTermRate> rates = new ArrayList<>(studentIds.size());
+        for (UUID studentId : new LinkedHashSet<>(studentIds)) {
+            StudentTermBitmap bitmap = bitmaps.get(studentId);
+            rates.add(new StudentTermRate(
+                studentId,
+                term.getStart(),
+                term.getEnd(),
+                attendanceCalculator.calculateStudentAttendanceRate(bitmap),
+                bitmap.currentStreak(AttendanceStatus.PRESENT),
+                bitmap.longestStreak(AttendanceStatus.PRESENT)
+            ));
+        }
+        return rates;
+    }
+
+    /**
+     * Rebuild the daily rollup for an inclusive date range from attendance_records
+     * Repair path for drift; regular writes keep the rollup current incrementally
+     * Ranges reaching before the archive cutoff are rejected, since their records may be archived
+     * and the rollup is then the only copy of their counts
+     */
+    public int rebuildDailyRollup(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        LocalDate cutoff = attendancePartitionService.archiveCutoff(LocalDate.now());
+        if (startDate.isBefore(cutoff)) {
+            throw new IllegalArgumentException("Start date must not be before the archive cutoff " + cutoff);
+        }
+        int rows = attendanceRollupRepository.rebuild(startDate, endDate);
+        logger.info("Rebuilt attendance daily rollup for {} to {}: {} class-days", startDate, endDate, rows);
+        return rows;
+    }
+
+    private void applyRollupDelta(UUID classId, LocalDate date, List<UpsertedRow> results) {
+        int[] delta = new int[AttendanceStatus.values().length];
+        for (UpsertedRow row : results) {
+            if (row.getOutcome() == UpsertOutcome.UNCHANGED) {
+                continue;
+            }
+            if (row.getPreviousStatus() != null) {
+                delta[row.getPreviousStatus().ordinal()]--;
+            }
+            delta[row.getStatus().ordinal()]++;
+        }
+        attendanceRollupRepository.applyDelta(classId, date, delta);
+    }
+
+    private void requireClassLeader(UUID classId, UUID studentId) {
+        if (!classLeaderClient.isClassLeader(classId, studentId)) {
+            throw new IllegalArgumentException("Student " + studentId + " is not a class leader of class " + classId);
+        }
+    }
+
+    private void validateRoster(LocalDate date, List<AttendanceEntry> entries) {
+        if (date.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Attendance date cannot be in the future");
+        }
+
+        Set<UUID> seen = new HashSet<>();
+        for (AttendanceEntry entry : entries) {
+            if (!seen.add(entry.getStudentId())) {
+                throw new IllegalArgumentException("Duplicate attendance entry for student " + entry.getStudentId());
+            }
+        }
+    }
+
     // Inner classes
+    record HistoryCursor(LocalDate date, UUID id) {
+        String encode() {
+            String raw = date + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static HistoryCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new HistoryCursor(
+                    LocalDate.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+                );
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid attendance history cursor: " + cursor);
+            }
+        }
+    }
+
+    public static class AttendanceHistoryPage {
+        private final List<AttendanceRecord> records;
+        private final String nextCursor;
+
+        public AttendanceHistoryPage(List<AttendanceRecord> records, String nextCursor) {
+            this.records = records;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<AttendanceRecord> getRecords() {
+            return records;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+
+    public static class StudentTermRate {
+        private final UUID studentId;
+        private final LocalDate termStart;
+        private final LocalDate termEnd;
+        private final AttendanceRate attendanceRate;
+        private final int currentPresentStreak;
+        private final int longestPresentStreak;
+
+        public StudentTermRate(UUID studentId, LocalDate termStart, LocalDate termEnd, AttendanceRate attendanceRate,
+                               int currentPresentStreak, int longestPresentStreak) {
+            this.studentId = studentId;
+            this.termStart = termStart;
+            this.termEnd = termEnd;
+            this.attendanceRate = attendanceRate;
+            this.currentPresentStreak = currentPresentStreak;
+            this.longestPresentStreak = longestPresentStreak;
+        }
+
+        public UUID getStudentId() {
+            return studentId;
+        }
+
+        public LocalDate getTermStart() {
+            return termStart;
+        }
+
+        public LocalDate getTermEnd() {
+            return termEnd;
+        }
+
+        public AttendanceRate getAttendanceRate() {
+            return attendanceRate;
+        }
+
+        public int getCurrentPresentStreak() {
+            return currentPresentStreak;
+        }
+
+        public int getLongestPresentStreak() {
+            return longestPresentStreak;
+        }
+    }
+
     public static class AttendanceEntry {
         private final UUID studentId;
         private final AttendanceStatus status;
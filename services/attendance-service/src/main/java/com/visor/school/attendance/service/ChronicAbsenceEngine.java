@@ -0,0 +1,310 @@
+package com.visor.school.attendance.service;
+
+import com.visor.school.attendance.event.AttendanceEventPublisher;
+import com.visor.school.attendance.model.AttendanceStatus;
+import com.visor.school.attendance.repository.AttendanceRepository;
+import com.visor.school.attendance.repository.AttendanceRepository.StudentDay;
+import com.visor.school.attendance.repository.ChronicAbsenceAlertRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Rolling N-day absence window per student, kept in memory and fed by attendance events.
+ *
+ * Each student's window is a ring buffer packed into one long per class: bit (epochDay mod N)
+ * is set when the student was ABSENT from that class that day. A day counts as absent when the
+ * student was absent from any class, so the absence count is a single bitCount of the classes
+ * OR-ed together, and records of different classes on the same day never overwrite each other.
+ * Advancing the window clears the slots of the days that fall out of it. Only students whose
+ * window changed since the last cycle are re-evaluated, and an alert is raised each time a
+ * student climbs to a higher threshold; dropping back below a threshold re-arms it.
+ *
+ * Every replica consumes the same events and evaluates the same windows. The alerted level is
+ * kept in chronic_absence_alerts, and only the replica whose write raises it publishes the alert.
+ * The in-memory level follows only once that write commits; a rolled-back cycle leaves it as it
+ * was and re-evaluates the students on the next cycle.
+ */
+@Service
+public class ChronicAbsenceEngine {
+    private static final Logger logger = LoggerFactory.getLogger(ChronicAbsenceEngine.class);
+
+    static final int MAX_WINDOW_DAYS = Long.SIZE;
+
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceEventPublisher eventPublisher;
+    private final ChronicAbsenceAlertRepository alertRepository;
+    private final int windowDays;
+    private final int[] thresholds;
+
+    private final Map<UUID, StudentWindow> windows = new HashMap<>();
+    private final Set<UUID> dirty = new HashSet<>();
+    private long windowEndDay;
+
+    public ChronicAbsenceEngine(
+            AttendanceRepository attendanceRepository,
+            AttendanceEventPublisher eventPublisher,
+            ChronicAbsenceAlertRepository alertRepository,
+            @Value("${attendance.chronic-absence.window-days:30}") int windowDays,
+            @Value("${attendance.chronic-absence.thresholds:3,5,10}") int[] thresholds) {
+        if (windowDays < 1 || windowDays > MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Chronic absence window must be between 1 and " + MAX_WINDOW_DAYS + " days");
+        }
+        for (int i = 0; i < thresholds.length; i++) {
+            if (thresholds[i] < 1 || thresholds[i] > windowDays || (i > 0 && thresholds[i] <= thresholds[i - 1])) {
+                throw new IllegalArgumentException(
+                    "Chronic absence thresholds must be ascending and within 1.." + windowDays);
+            }
+        }
+        this.attendanceRepository = attendanceRepository;
+        this.eventPublisher = eventPublisher;
+        this.alertRepository = alertRepository;
+        this.windowDays = windowDays;
+        this.thresholds = thresholds.clone();
+        this.windowEndDay = LocalDate.now().toEpochDay();
+    }
+
+    /**
+     * Load the current window from attendance_records once at startup.
+     * Students already above a threshold are treated as alerted so a restart does not re-alert them;
+     * alerts missed while no replica was running are not raised afterwards.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        LocalDate today = LocalDate.now();
+        List<StudentDay> absences = attendanceRepository.findStudentDaysByStatusAndDateRange(
+            AttendanceStatus.ABSENT, today.minusDays(windowDays - 1L), today);
+
+        synchronized (this) {
+            advanceTo(today.toEpochDay());
+            for (StudentDay absence : absences) {
+                apply(absence.getStudentId(), absence.getClassId(), absence.getDate(), AttendanceStatus.ABSENT);
+            }
+            for (StudentWindow window : windows.values()) {
+                window.alertedLevel = levelFor(window.absenceCount());
+            }
+            dirty.clear();
+        }
+        logger.info("Chronic absence window warmed up with {} absences across {} students", absences.size(), windows.size());
+    }
+
+    /**
+     * Record one student's status for a day. Dates outside the current window are ignored.
+     */
+    public synchronized void apply(UUID studentId, UUID classId, LocalDate date, AttendanceStatus status) {
+        long day = date.toEpochDay();
+        if (day > windowEndDay) {
+            advanceTo(day);
+        } else if (day <= windowEndDay - windowDays) {
+            return;
+        }
+
+        boolean absent = status == AttendanceStatus.ABSENT;
+        StudentWindow window = absent
+            ? windows.computeIfAbsent(studentId, id -> new StudentWindow())
+            : windows.get(studentId);
+        if (window == null) {
+            return;
+        }
+
+        if (window.mark(classId, 1L << slot(day), absent)) {
+            dirty.add(studentId);
+        }
+    }
+
+    /**
+     * Roll the window forward to today, re-evaluate changed students and emit alerts for new threshold crossings.
+     * Level changes are written to chronic_absence_alerts in the same transaction as the alert's outbox row,
+     * and recorded on the windows after commit.
+     */
+    @Scheduled(fixedDelayString = "${attendance.chronic-absence.evaluate-interval-ms:60000}")
+    @Transactional
+    public void evaluate() {
+        long started = System.nanoTime();
+        List<LevelChange> changes = new ArrayList<>();
+        int evaluated;
+        LocalDate windowEnd;
+
+        synchronized (this) {
+            advanceTo(LocalDate.now().toEpochDay());
+            windowEnd = LocalDate.ofEpochDay(windowEndDay);
+            evaluated = dirty.size();
+            for (UUID studentId : dirty) {
+                StudentWindow window = windows.get(studentId);
+                if (window == null) {
+                    continue;
+                }
+                int absences = window.absenceCount();
+                int level = levelFor(absences);
+                if (level != window.alertedLevel) {
+                    changes.add(new LevelChange(studentId, window.lastAbsentClassId, absences, level,
+                        level > window.alertedLevel));
+                } else if (window.absences == 0) {
+                    windows.remove(studentId);
+                }
+            }
+            dirty.clear();
+        }
+        if (!changes.isEmpty()) {
+            recordLevelsAfterCompletion(changes);
+        }
+
+        LocalDate windowStart = windowEnd.minusDays(windowDays - 1L);
+        int alerts = 0;
+        for (LevelChange change : changes) {
+            if (!change.raised()) {
+                alertRepository.lower(change.studentId(), change.level());
+                continue;
+            }
+            int threshold = thresholds[change.level() - 1];
+            if (alertRepository.raise(change.studentId(), change.level(), threshold, change.absences(), windowEnd)) {
+                eventPublisher.publishChronicAbsenceAlert(
+                    change.studentId(), change.classId(), change.absences(), threshold, windowStart, windowEnd);
+                alerts++;
+            }
+        }
+
+        if (evaluated > 0) {
+            logger.debug("Chronic absence cycle evaluated {} students, raised {} alerts in {} µs",
+                evaluated, alerts, (System.nanoTime() - started) / 1_000);
+        }
+    }
+
+    // Commit moves the windows to the written levels; rollback leaves them and re-evaluates the students
+    private void recordLevelsAfterCompletion(List<LevelChange> changes) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (ChronicAbsenceEngine.this) {
+                    for (LevelChange change : changes) {
+                        StudentWindow window = windows.get(change.studentId());
+                        if (window == null) {
+                            continue;
+                        }
+                        if (status != STATUS_COMMITTED) {
+                            dirty.add(change.studentId());
+                            continue;
+                        }
+                        window.alertedLevel = change.level();
+                        if (window.absences == 0 && window.alertedLevel == 0) {
+                            windows.remove(change.studentId());
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Current absence count in the window for one student
+     */
+    public synchronized int getAbsenceCount(UUID studentId) {
+        StudentWindow window = windows.get(studentId);
+        return window != null ? window.absenceCount() : 0;
+    }
+
+    // Caller holds the monitor
+    private void advanceTo(long day) {
+        if (day <= windowEndDay) {
+            return;
+        }
+        long expired;
+        if (day - windowEndDay >= windowDays) {
+            expired = windowDays == Long.SIZE ? -1L : (1L << windowDays) - 1;
+        } else {
+            expired = 0;
+            for (long d = windowEndDay + 1; d <= day; d++) {
+                expired |= 1L << slot(d);
+            }
+        }
+        windowEndDay = day;
+
+        for (Map.Entry<UUID, StudentWindow> entry : windows.entrySet()) {
+            if (entry.getValue().expire(expired)) {
+                dirty.add(entry.getKey());
+            }
+        }
+    }
+
+    private int slot(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) windowDays);
+    }
+
+    // Number of thresholds reached; 0 means below the lowest
+    private int levelFor(int absences) {
+        int level = 0;
+        while (level < thresholds.length && absences >= thresholds[level]) {
+            level++;
+        }
+        return level;
+    }
+
+    private static final class StudentWindow {
+        private final Map<UUID, Long> classAbsences = new HashMap<>(4);
+        private long absences; // union of classAbsences
+        private int alertedLevel;
+        private UUID lastAbsentClassId;
+
+        int absenceCount() {
+            return Long.bitCount(absences);
+        }
+
+        // Set or clear one class's slot; true if the student's day-level absences changed
+        boolean mark(UUID classId, long bit, boolean absent) {
+            long current = classAbsences.getOrDefault(classId, 0L);
+            long updated = absent ? current | bit : current & ~bit;
+            if (absent) {
+                lastAbsentClassId = classId;
+            }
+            if (updated == current) {
+                return false;
+            }
+            if (updated == 0) {
+                classAbsences.remove(classId);
+            } else {
+                classAbsences.put(classId, updated);
+            }
+            return recombine();
+        }
+
+        // Clear expired slots in every class; true if the student's day-level absences changed
+        boolean expire(long expired) {
+            if ((absences & expired) == 0) {
+                return false;
+            }
+            classAbsences.replaceAll((classId, bits) -> bits & ~expired);
+            classAbsences.values().removeIf(bits -> bits == 0);
+            return recombine();
+        }
+
+        private boolean recombine() {
+            long combined = 0;
+            for (long bits : classAbsences.values()) {
+                combined |= bits;
+            }
+            boolean changed = combined != absences;
+            absences = combined;
+            return changed;
+        }
+    }
+
+    private record LevelChange(UUID studentId, UUID classId, int absences, int level, boolean raised) {
+    }
+}
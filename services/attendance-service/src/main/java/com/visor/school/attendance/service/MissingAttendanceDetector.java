@@ -0,0 +1,130 @@
+package com.visor.school.attendance.service;
+
+import com.visor.school.attendance.client.ClassDirectoryClient;
+import com.visor.school.attendance.client.ClassDirectoryClient.ClassInfo;
+import com.visor.school.attendance.repository.AttendanceRollupRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Finds class/school-day pairs without any attendance records.
+ *
+ * Recorded days are read per class from attendance_daily_rollup into bitsets over the range;
+ * the missing days of a class are the calendar's school days minus its recorded days. Classes
+ * come from the academic-service class directory plus any class with records in the range.
+ */
+@Service
+public class MissingAttendanceDetector {
+
+    private final AcademicCalendar academicCalendar;
+    private final AttendanceRollupRepository attendanceRollupRepository;
+    private final ClassDirectoryClient classDirectoryClient;
+    private final int maxRangeDays;
+
+    public MissingAttendanceDetector(
+            AcademicCalendar academicCalendar,
+            AttendanceRollupRepository attendanceRollupRepository,
+            ClassDirectoryClient classDirectoryClient,
+            @Value("${attendance.missing-detector.max-range-days:366}") int maxRangeDays) {
+        this.academicCalendar = academicCalendar;
+        this.attendanceRollupRepository = attendanceRollupRepository;
+        this.classDirectoryClient = classDirectoryClient;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    /**
+     * Classes with school days in the inclusive range that have no records; days after today are not checked
+     */
+    public List<MissingAttendance> findMissing(LocalDate startDate, LocalDate endDate) {
+        LocalDate today = LocalDate.now();
+        LocalDate end = endDate.isAfter(today) ? today : endDate;
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= maxRangeDays) {
+            throw new IllegalArgumentException("Date range must not exceed " + maxRangeDays + " days");
+        }
+        if (startDate.isAfter(end)) {
+            return List.of();
+        }
+
+        BitSet schoolDays = academicCalendar.schoolDays(startDate, end);
+        if (schoolDays.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, BitSet> recorded = new HashMap<>();
+        attendanceRollupRepository.streamRecordedDays(startDate, end, rs -> recorded
+            .computeIfAbsent(rs.getObject("class_id", UUID.class), id -> new BitSet())
+            .set((int) ChronoUnit.DAYS.between(startDate, rs.getObject("date", LocalDate.class))));
+
+        Map<UUID, ClassInfo> classes = classDirectoryClient.getDirectory().classes();
+        Set<UUID> classIds = new LinkedHashSet<>(classes.keySet());
+        classIds.addAll(recorded.keySet());
+
+        List<MissingAttendance> result = new ArrayList<>();
+        for (UUID classId : classIds) {
+            BitSet missing = (BitSet) schoolDays.clone();
+            BitSet classRecorded = recorded.get(classId);
+            if (classRecorded != null) {
+                missing.andNot(classRecorded);
+            }
+            if (missing.isEmpty()) {
+                continue;
+            }
+            List<LocalDate> dates = new ArrayList<>(missing.cardinality());
+            for (int i = missing.nextSetBit(0); i >= 0; i = missing.nextSetBit(i + 1)) {
+                dates.add(startDate.plusDays(i));
+            }
+            ClassInfo info = classes.get(classId);
+            result.add(new MissingAttendance(
+                classId,
+                info != null ? info.className() : null,
+                info != null ? info.gradeLevel() : null,
+                dates
+            ));
+        }
+        return result;
+    }
+
+    public static class MissingAttendance {
+        private final UUID classId;
+        private final String className;
+        private final Integer gradeLevel;
+        private final List<LocalDate> missingDates;
+
+        public MissingAttendance(UUID classId, String className, Integer gradeLevel, List<LocalDate> missingDates) {
+            this.classId = classId;
+            this.className = className;
+            this.gradeLevel = gradeLevel;
+            this.missingDates = missingDates;
+        }
+
+        public UUID getClassId() {
+            return classId;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public Integer getGradeLevel() {
+            return gradeLevel;
+        }
+
+        public List<LocalDate> getMissingDates() {
+            return missingDates;
+        }
+    }
+}
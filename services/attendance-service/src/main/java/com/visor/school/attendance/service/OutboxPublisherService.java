@@ -0,0 +1,132 @@
+package com.visor.school.attendance.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.visor.school.attendance.model.OutboxEvent;
+import com.visor.school.attendance.repository.OutboxEventRepository;
+
+/**
+ * Relays queued outbox events to RabbitMQ. Each poll claims a batch of due events
+ * and sends them over a single channel; request threads never touch the broker.
+ */
+@Service
+public class OutboxPublisherService {
+
+    private static final double RETRY_MULTIPLIER = 2.0;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final Duration retention;
+
+    public OutboxPublisherService(
+        OutboxEventRepository outboxEventRepository,
+        RabbitTemplate rabbitTemplate,
+        ObjectMapper objectMapper,
+        @Value("${outbox.publisher.batch-size:200}") int batchSize,
+        @Value("${outbox.publisher.max-attempts:12}") int maxAttempts,
+        @Value("${outbox.publisher.initial-backoff-ms:1000}") long initialBackoffMs,
+        @Value("${outbox.publisher.max-backoff-ms:60000}") long maxBackoffMs,
+        @Value("${outbox.publisher.retention-hours:72}") long retentionHours
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.publisher.poll-interval-ms:1000}")
+    @Transactional
+    public void publishPendingEvents() {
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(Instant.now(), batchSize);
+
+        if (events.isEmpty()) {
+            return;
+        }
+
+        int published;
+        try {
+            published = rabbitTemplate.invoke(operations -> relayBatch(operations, events));
+        } catch (AmqpException ex) {
+            // No channel could be opened; the batch stays PENDING and is claimed again on the next poll
+            logger.warn("Outbox relay skipped, broker unavailable: {}", ex.getMessage());
+            return;
+        }
+        logger.info("Relayed {}/{} outbox events", published, events.size());
+    }
+
+    @Scheduled(cron = "${outbox.publisher.purge-cron:0 15 3 * * *}")
+    @Transactional
+    public void purgePublishedEvents() {
+        int deleted = outboxEventRepository.deletePublishedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            logger.info("Purged {} published outbox events older than {}", deleted, retention);
+        }
+    }
+
+    private int relayBatch(RabbitOperations operations, List<OutboxEvent> events) {
+        int sent = 0;
+        for (OutboxEvent event : events) {
+            Instant now = Instant.now();
+            try {
+                Object payloadObject = objectMapper.readTree(event.getPayload());
+                operations.convertAndSend(
+                    event.getExchangeName(),
+                    event.getRoutingKey(),
+                    payloadObject
+                );
+                event.markPublished(now);
+                sent++;
+                logger.debug("Published outbox event {} [{}]", event.getId(), event.getEventType());
+            } catch (JsonProcessingException ex) {
+                event.markFailed(now, now, 1, "Invalid outbox payload: " + ex.getMessage());
+                logger.error("Outbox event {} has invalid payload and is marked DEAD", event.getId(), ex);
+            } catch (AmqpException ex) {
+                long delayMs = calculateRetryDelay(event.getAttempts());
+                Instant nextAttemptAt = now.plusMillis(delayMs);
+                event.markFailed(now, nextAttemptAt, maxAttempts, ex.getMessage());
+                logger.warn(
+                    "Outbox publish failed for {} [{}], attempt {}/{}. Next attempt at {}",
+                    event.getId(),
+                    event.getEventType(),
+                    event.getAttempts(),
+                    maxAttempts,
+                    nextAttemptAt,
+                    ex
+                );
+                // The rest of the batch would fail the same way; leave it for the next poll
+                break;
+            }
+        }
+        return sent;
+    }
+
+    private long calculateRetryDelay(int previousAttempts) {
+        int exponent = Math.max(previousAttempts, 0);
+        long delay = (long) (initialBackoffMs * Math.pow(RETRY_MULTIPLIER, exponent));
+        return Math.min(delay, maxBackoffMs);
+    }
+}
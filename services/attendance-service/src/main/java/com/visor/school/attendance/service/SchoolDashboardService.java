@@ -0,0 +1,378 @@
+package com.visor.school.attendance.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.visor.school.attendance.client.ClassDirectoryClient;
+import com.visor.school.attendance.client.ClassDirectoryClient.ClassInfo;
+import com.visor.school.attendance.client.ClassDirectoryClient.Directory;
+import com.visor.school.attendance.model.AttendanceStatus;
+import com.visor.school.attendance.repository.AttendanceRollupRepository;
+import com.visor.school.attendance.repository.AttendanceRollupRepository.RollupCounts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * School-wide attendance counts per class and grade level for one day.
+ *
+ * Each requested day is loaded once from attendance_daily_rollup and then kept current by
+ * applying status transitions from attendance events; events that happened before the load are
+ * already counted and skipped. A periodic reconcile reloads resident days to correct anything an
+ * event could not (in-flight transactions at load time, rollup rebuilds) and evicts idle days.
+ * The rendered dashboard is cached until the counts or the class directory change. Its ETag is a
+ * SHA-256 of the rendered content, so every replica gives identical dashboards the same ETag.
+ */
+@Service
+public class SchoolDashboardService {
+    private static final Logger logger = LoggerFactory.getLogger(SchoolDashboardService.class);
+
+    private static final int STATUS_COUNT = AttendanceStatus.values().length;
+
+    private final AttendanceRollupRepository attendanceRollupRepository;
+    private final ClassDirectoryClient classDirectoryClient;
+    private final long idleEvictNanos;
+
+    private final ConcurrentMap<LocalDate, DaySnapshot> snapshots = new ConcurrentHashMap<>();
+
+    public SchoolDashboardService(
+            AttendanceRollupRepository attendanceRollupRepository,
+            ClassDirectoryClient classDirectoryClient,
+            @Value("${attendance.dashboard.idle-evict-minutes:15}") long idleEvictMinutes) {
+        this.attendanceRollupRepository = attendanceRollupRepository;
+        this.classDirectoryClient = classDirectoryClient;
+        this.idleEvictNanos = Duration.ofMinutes(idleEvictMinutes).toNanos();
+    }
+
+    /**
+     * Dashboard for a day, loading the day with one rollup query if it is not resident
+     */
+    public SchoolDashboard getDashboard(LocalDate date) {
+        DaySnapshot snapshot = snapshots.computeIfAbsent(date, this::load);
+        Directory directory = classDirectoryClient.getDirectory();
+        synchronized (snapshot) {
+            snapshot.lastReadAt = System.nanoTime();
+            if (snapshot.view == null || snapshot.viewDirectoryVersion != directory.version()) {
+                snapshot.view = render(snapshot, directory);
+                snapshot.viewDirectoryVersion = directory.version();
+            }
+            return snapshot.view;
+        }
+    }
+
+    /**
+     * Apply one status transition from an attendance event to the resident day, if any.
+     * previousStatus is null for a new record; occurredAt may be null when the event lacks it.
+     */
+    public void apply(UUID classId, LocalDate date, AttendanceStatus previousStatus, AttendanceStatus status,
+                      Instant occurredAt) {
+        DaySnapshot snapshot = snapshots.get(date);
+        if (snapshot == null || previousStatus == status) {
+            return;
+        }
+        synchronized (snapshot) {
+            if (occurredAt != null && occurredAt.isBefore(snapshot.loadedAt)) {
+                return;
+            }
+            int[] counts = snapshot.counts.computeIfAbsent(classId, id -> new int[STATUS_COUNT]);
+            if (previousStatus != null) {
+                counts[previousStatus.ordinal()]--;
+            }
+            counts[status.ordinal()]++;
+            snapshot.changed();
+        }
+    }
+
+    /**
+     * Drop resident days in a range, e.g. after their rollup rows were rebuilt
+     */
+    public void invalidate(LocalDate startDate, LocalDate endDate) {
+        snapshots.keySet().removeIf(date -> !date.isBefore(startDate) && !date.isAfter(endDate));
+    }
+
+    /**
+     * Reload resident days from the rollup and evict days nobody has read recently
+     */
+    @Scheduled(fixedDelayString = "${attendance.dashboard.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long now = System.nanoTime();
+        for (DaySnapshot snapshot : snapshots.values()) {
+            boolean idle;
+            synchronized (snapshot) {
+                idle = now - snapshot.lastReadAt > idleEvictNanos;
+            }
+            if (idle) {
+                snapshots.remove(snapshot.date, snapshot);
+                continue;
+            }
+
+            Instant loadedAt = Instant.now();
+            Map<UUID, int[]> counts = queryCounts(snapshot.date);
+            synchronized (snapshot) {
+                snapshot.loadedAt = loadedAt;
+                if (!sameCounts(snapshot.counts, counts)) {
+                    logger.debug("Attendance dashboard for {} corrected on reconcile", snapshot.date);
+                    snapshot.counts = counts;
+                    snapshot.changed();
+                }
+            }
+        }
+    }
+
+    private DaySnapshot load(LocalDate date) {
+        Instant loadedAt = Instant.now();
+        return new DaySnapshot(date, queryCounts(date), loadedAt);
+    }
+
+    private Map<UUID, int[]> queryCounts(LocalDate date) {
+        Map<UUID, int[]> counts = new HashMap<>();
+        for (Map.Entry<UUID, RollupCounts> entry : attendanceRollupRepository.findByDate(date).entrySet()) {
+            RollupCounts rollup = entry.getValue();
+            int[] classCounts = new int[STATUS_COUNT];
+            classCounts[AttendanceStatus.PRESENT.ordinal()] = rollup.getPresent();
+            classCounts[AttendanceStatus.ABSENT.ordinal()] = rollup.getAbsent();
+            classCounts[AttendanceStatus.LATE.ordinal()] = rollup.getLate();
+            classCounts[AttendanceStatus.EXCUSED.ordinal()] = rollup.getExcused();
+            counts.put(entry.getKey(), classCounts);
+        }
+        return counts;
+    }
+
+    private static boolean sameCounts(Map<UUID, int[]> a, Map<UUID, int[]> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (Map.Entry<UUID, int[]> entry : a.entrySet()) {
+            if (!Arrays.equals(entry.getValue(), b.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static SchoolDashboard render(DaySnapshot snapshot, Directory directory) {
+        int[] totals = new int[STATUS_COUNT];
+        Map<Integer, int[]> gradeTotals = new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+        Map<Integer, Integer> gradeClassCounts = new HashMap<>();
+        List<ClassCounts> classes = new ArrayList<>(snapshot.counts.size());
+
+        for (Map.Entry<UUID, int[]> entry : snapshot.counts.entrySet()) {
+            int[] counts = entry.getValue();
+            ClassInfo info = directory.classes().get(entry.getKey());
+            Integer gradeLevel = info != null ? info.gradeLevel() : null;
+
+            classes.add(new ClassCounts(entry.getKey(), info != null ? info.className() : null, gradeLevel,
+                StatusCounts.of(counts)));
+            int[] grade = gradeTotals.computeIfAbsent(gradeLevel, g -> new int[STATUS_COUNT]);
+            for (int i = 0; i < STATUS_COUNT; i++) {
+                grade[i] += counts[i];
+                totals[i] += counts[i];
+            }
+            gradeClassCounts.merge(gradeLevel, 1, Integer::sum);
+        }
+
+        classes.sort(Comparator.comparing(ClassCounts::getGradeLevel, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ClassCounts::getClassName, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ClassCounts::getClassId));
+        List<GradeCounts> grades = new ArrayList<>(gradeTotals.size());
+        for (Map.Entry<Integer, int[]> entry : gradeTotals.entrySet()) {
+            grades.add(new GradeCounts(entry.getKey(), gradeClassCounts.get(entry.getKey()), StatusCounts.of(entry.getValue())));
+        }
+
+        return new SchoolDashboard(snapshot.date, StatusCounts.of(totals), grades, classes,
+            etag(snapshot.date, classes));
+    }
+
+    // Totals and grade rows derive from the class rows, so hashing those covers the whole body
+    private static String etag(LocalDate date, List<ClassCounts> classes) {
+        StringBuilder content = new StringBuilder(64 + classes.size() * 96).append(date);
+        for (ClassCounts row : classes) {
+            StatusCounts counts = row.getCounts();
+            content.append('\n').append(row.getClassId())
+                .append('|').append(row.getClassName())
+                .append('|').append(row.getGradeLevel())
+                .append('|').append(counts.getPresent())
+                .append('|').append(counts.getAbsent())
+                .append('|').append(counts.getLate())
+                .append('|').append(counts.getExcused());
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class DaySnapshot {
+        private final LocalDate date;
+        private Map<UUID, int[]> counts;
+        private Instant loadedAt;
+        private long lastReadAt = System.nanoTime();
+        private SchoolDashboard view;
+        private long viewDirectoryVersion;
+
+        private DaySnapshot(LocalDate date, Map<UUID, int[]> counts, Instant loadedAt) {
+            this.date = date;
+            this.counts = counts;
+            this.loadedAt = loadedAt;
+        }
+
+        private void changed() {
+            view = null;
+        }
+    }
+
+    public static class SchoolDashboard {
+        private final LocalDate date;
+        private final StatusCounts totals;
+        private final List<GradeCounts> grades;
+        private final List<ClassCounts> classes;
+        private final String etag;
+
+        public SchoolDashboard(LocalDate date, StatusCounts totals, List<GradeCounts> grades,
+                               List<ClassCounts> classes, String etag) {
+            this.date = date;
+            this.totals = totals;
+            this.grades = grades;
+            this.classes = classes;
+            this.etag = etag;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public StatusCounts getTotals() {
+            return totals;
+        }
+
+        public List<GradeCounts> getGrades() {
+            return grades;
+        }
+
+        public List<ClassCounts> getClasses() {
+            return classes;
+        }
+
+        @JsonIgnore
+        public String getEtag() {
+            return etag;
+        }
+    }
+
+    public static class GradeCounts {
+        private final Integer gradeLevel; // null for classes unknown to academic-service
+        private final int classCount;
+        private final StatusCounts counts;
+
+        public GradeCounts(Integer gradeLevel, int classCount, StatusCounts counts) {
+            this.gradeLevel = gradeLevel;
+            this.classCount = classCount;
+            this.counts = counts;
+        }
+
+        public Integer getGradeLevel() {
+            return gradeLevel;
+        }
+
+        public int getClassCount() {
+            return classCount;
+        }
+
+        public StatusCounts getCounts() {
+            return counts;
+        }
+    }
+
+    public static class ClassCounts {
+        private final UUID classId;
+        private final String className;
+        private final Integer gradeLevel;
+        private final StatusCounts counts;
+
+        public ClassCounts(UUID classId, String className, Integer gradeLevel, StatusCounts counts) {
+            this.classId = classId;
+            this.className = className;
+            this.gradeLevel = gradeLevel;
+            this.counts = counts;
+        }
+
+        public UUID getClassId() {
+            return classId;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public Integer getGradeLevel() {
+            return gradeLevel;
+        }
+
+        public StatusCounts getCounts() {
+            return counts;
+        }
+    }
+
+    public static class StatusCounts {
+        private final int present;
+        private final int absent;
+        private final int late;
+        private final int excused;
+
+        public StatusCounts(int present, int absent, int late, int excused) {
+            this.present = present;
+            this.absent = absent;
+            this.late = late;
+            this.excused = excused;
+        }
+
+        static StatusCounts of(int[] counts) {
+            return new StatusCounts(
+                counts[AttendanceStatus.PRESENT.ordinal()],
+                counts[AttendanceStatus.ABSENT.ordinal()],
+                counts[AttendanceStatus.LATE.ordinal()],
+                counts[AttendanceStatus.EXCUSED.ordinal()]
+            );
+        }
+
+        public int getPresent() {
+            return present;
+        }
+
+        public int getAbsent() {
+            return absent;
+        }
+
+        public int getLate() {
+            return late;
+        }
+
+        public int getExcused() {
+            return excused;
+        }
+
+        public int getTotal() {
+            return present + absent + late + excused;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.visor.school.attendance.service;
+
+import com.visor.school.attendance.repository.ClassScheduleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Creates the coming week's PENDING attendance sessions ahead of time.
+ *
+ * Meeting days come from class_schedules, the local copy of academic-service schedules, and
+ * are intersected with the academic calendar's school days. All sessions of a run are inserted
+ * by one statement that skips existing (class_id, date) rows, so runs are idempotent and may
+ * overlap across replicas.
+ */
+@Service
+public class SessionPreGenerationService {
+    private static final Logger logger = LoggerFactory.getLogger(SessionPreGenerationService.class);
+
+    private final ClassScheduleRepository classScheduleRepository;
+    private final AcademicCalendar academicCalendar;
+    private final int daysAhead;
+    private final int maxRangeDays;
+    private final UUID defaultCreatedBy;
+
+    public SessionPreGenerationService(
+            ClassScheduleRepository classScheduleRepository,
+            AcademicCalendar academicCalendar,
+            @Value("${attendance.sessions.pregeneration.days-ahead:7}") int daysAhead,
+            @Value("${attendance.sessions.pregeneration.max-range-days:31}") int maxRangeDays,
+            @Value("${attendance.sessions.pregeneration.default-created-by:}") String defaultCreatedBy) {
+        this.classScheduleRepository = classScheduleRepository;
+        this.academicCalendar = academicCalendar;
+        this.daysAhead = daysAhead;
+        this.maxRangeDays = maxRangeDays;
+        this.defaultCreatedBy = defaultCreatedBy.isBlank() ? null : UUID.fromString(defaultCreatedBy.trim());
+    }
+
+    /**
+     * Create sessions from today through the configured number of days ahead
+     */
+    @Scheduled(cron = "${attendance.sessions.pregeneration.cron:0 0 18 * * SUN}")
+    public int generateUpcoming() {
+        LocalDate today = LocalDate.now();
+        return generate(today, today.plusDays(daysAhead - 1));
+    }
+
+    /**
+     * Create sessions for every active class on each school day of an inclusive range it meets on.
+     * Returns the number of sessions created; existing sessions are left as they are.
+     */
+    @Transactional
+    public int generate(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= maxRangeDays) {
+            throw new IllegalArgumentException("Date range must not exceed " + maxRangeDays + " days");
+        }
+
+        BitSet schoolDays = academicCalendar.schoolDays(startDate, endDate);
+        List<LocalDate> dates = new ArrayList<>(schoolDays.cardinality());
+        for (int i = schoolDays.nextSetBit(0); i >= 0; i = schoolDays.nextSetBit(i + 1)) {
+            dates.add(startDate.plusDays(i));
+        }
+
+        int created = classScheduleRepository.insertSessions(dates, defaultCreatedBy);
+        logger.info("Pre-generated {} attendance sessions for {} school days from {} to {}",
+            created, dates.size(), startDate, endDate);
+
+        if (defaultCreatedBy == null) {
+            List<UUID> skipped = classScheduleRepository.findClassesWithoutCreator(dates);
+            if (!skipped.isEmpty()) {
+                logger.warn("Skipped {} active classes without a homeroom or class teacher from {} to {}; "
+                        + "assign a class teacher or set attendance.sessions.pregeneration.default-created-by: {}",
+                    skipped.size(), startDate, endDate, skipped);
+            }
+        }
+        return created;
+    }
+}
@@ -0,0 +1,201 @@
+package com.visor.school.attendance.service;
+
+import com.visor.school.attendance.model.AttendanceStatus;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One student's attendance over one term as a bitset per AttendanceStatus.
+ *
+ * Bit i of a status set means the student had that status on termStart + i days. A term
+ * spans at most a year, so each status needs at most six longs and counts, streaks and
+ * day-set lookups are word-wise bit operations.
+ *
+ * Each class the student has records in keeps its own status sets, and a day's status is
+ * collapsed from all of them by precedence: ABSENT if the student was absent from any class,
+ * else EXCUSED if excused from any, else LATE if late to any, else PRESENT. The result does
+ * not depend on the order records arrive in, and replaying the same records always rebuilds
+ * the same bitmap.
+ */
+public final class StudentTermBitmap {
+    private static final AttendanceStatus[] STATUSES = AttendanceStatus.values();
+    private static final AttendanceStatus[] PRECEDENCE = {
+        AttendanceStatus.ABSENT, AttendanceStatus.EXCUSED, AttendanceStatus.LATE, AttendanceStatus.PRESENT
+    };
+
+    private final LocalDate termStart;
+    private final int termDays;
+    private final Map<UUID, long[][]> classBits = new HashMap<>(); // class -> [status ordinal][word]
+    private final long[][] bits; // collapsed days, [status ordinal][word]
+
+    public StudentTermBitmap(LocalDate termStart, LocalDate termEnd) {
+        this.termStart = termStart;
+        this.termDays = (int) ChronoUnit.DAYS.between(termStart, termEnd) + 1;
+        this.bits = new long[STATUSES.length][wordCount(termDays)];
+    }
+
+    /**
+     * Restore one class's persisted words, one array per status in ordinal order
+     */
+    synchronized void restoreClass(UUID classId, long[][] words) {
+        long[][] statusBits = classStatusBits(classId);
+        for (int s = 0; s < STATUSES.length; s++) {
+            System.arraycopy(words[s], 0, statusBits[s], 0, Math.min(words[s].length, statusBits[s].length));
+        }
+        for (int w = 0; w < bits[0].length; w++) {
+            collapse(w);
+        }
+    }
+
+    public LocalDate getTermStart() {
+        return termStart;
+    }
+
+    public LocalDate getTermEnd() {
+        return termStart.plusDays(termDays - 1L);
+    }
+
+    /**
+     * Set one class's status for one day, clearing any other status that class held that day
+     */
+    public synchronized void set(UUID classId, LocalDate date, AttendanceStatus status) {
+        int day = dayIndex(date);
+        int word = day >>> 6;
+        long bit = 1L << day;
+        long[][] statusBits = classStatusBits(classId);
+        for (int s = 0; s < STATUSES.length; s++) {
+            statusBits[s][word] &= ~bit;
+        }
+        statusBits[status.ordinal()][word] |= bit;
+        collapse(word);
+    }
+
+    public synchronized boolean hasStatusOn(LocalDate date, AttendanceStatus status) {
+        int day = dayIndex(date);
+        return (bits[status.ordinal()][day >>> 6] & (1L << day)) != 0;
+    }
+
+    public synchronized int count(AttendanceStatus status) {
+        int count = 0;
+        for (long word : bits[status.ordinal()]) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Per-status day counts indexed by ordinal
+     */
+    public synchronized int[] counts() {
+        int[] counts = new int[STATUSES.length];
+        for (int s = 0; s < STATUSES.length; s++) {
+            for (long word : bits[s]) {
+                counts[s] += Long.bitCount(word);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * How many of the given days the student had the given status; days outside the term are ignored
+     */
+    public synchronized int countOn(Collection<LocalDate> days, AttendanceStatus status) {
+        long[] mask = new long[bits[0].length];
+        for (LocalDate date : days) {
+            long offset = ChronoUnit.DAYS.between(termStart, date);
+            if (offset >= 0 && offset < termDays) {
+                mask[(int) offset >>> 6] |= 1L << offset;
+            }
+        }
+        long[] statusBits = bits[status.ordinal()];
+        int count = 0;
+        for (int w = 0; w < mask.length; w++) {
+            count += Long.bitCount(statusBits[w] & mask[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Longest run of recorded days with the given status; days without any record do not break a run
+     */
+    public synchronized int longestStreak(AttendanceStatus status) {
+        return streaks(status)[0];
+    }
+
+    /**
+     * Run of recorded days with the given status ending at the latest recorded day
+     */
+    public synchronized int currentStreak(AttendanceStatus status) {
+        return streaks(status)[1];
+    }
+
+    // [longest, current]; caller holds the monitor
+    private int[] streaks(AttendanceStatus status) {
+        long[] statusBits = bits[status.ordinal()];
+        int longest = 0;
+        int run = 0;
+        for (int w = 0; w < statusBits.length; w++) {
+            long recorded = 0;
+            for (long[] statusSet : bits) {
+                recorded |= statusSet[w];
+            }
+            while (recorded != 0) {
+                long lowest = recorded & -recorded;
+                run = (statusBits[w] & lowest) != 0 ? run + 1 : 0;
+                longest = Math.max(longest, run);
+                recorded ^= lowest;
+            }
+        }
+        return new int[] {longest, run};
+    }
+
+    /**
+     * Copy of every class's words, [status ordinal][word] per class
+     */
+    synchronized Map<UUID, long[][]> copyClassWords() {
+        Map<UUID, long[][]> copy = new HashMap<>();
+        classBits.forEach((classId, statusBits) -> {
+            long[][] words = new long[STATUSES.length][];
+            for (int s = 0; s < STATUSES.length; s++) {
+                words[s] = statusBits[s].clone();
+            }
+            copy.put(classId, words);
+        });
+        return copy;
+    }
+
+    // Caller holds the monitor
+    private long[][] classStatusBits(UUID classId) {
+        return classBits.computeIfAbsent(classId, id -> new long[STATUSES.length][bits[0].length]);
+    }
+
+    // Recompute one word of the collapsed days from every class; caller holds the monitor
+    private void collapse(int word) {
+        long claimed = 0;
+        for (AttendanceStatus status : PRECEDENCE) {
+            long any = 0;
+            for (long[][] statusBits : classBits.values()) {
+                any |= statusBits[status.ordinal()][word];
+            }
+            bits[status.ordinal()][word] = any & ~claimed;
+            claimed |= any;
+        }
+    }
+
+    private int dayIndex(LocalDate date) {
+        long offset = ChronoUnit.DAYS.between(termStart, date);
+        if (offset < 0 || offset >= termDays) {
+            throw new IllegalArgumentException("Date " + date + " is outside the term starting " + termStart);
+        }
+        return (int) offset;
+    }
+
+    private static int wordCount(int days) {
+        return (days + Long.SIZE - 1) / Long.SIZE;
+    }
+}
@@ -0,0 +1,18 @@
+-- Create attendance_term_bitmaps table
+-- Persisted snapshots of the in-memory per-student term bitmaps (one bitset per status)
+
+CREATE TABLE IF NOT EXISTS attendance_term_bitmaps (
+    student_id UUID NOT NULL,
+    term_start DATE NOT NULL,
+    term_end DATE NOT NULL,
+    present_bits BYTEA NOT NULL,
+    absent_bits BYTEA NOT NULL,
+    late_bits BYTEA NOT NULL,
+    excused_bits BYTEA NOT NULL,
+    snapshot_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (student_id, term_start)
+);
+
+-- Comments
+COMMENT ON TABLE attendance_term_bitmaps IS 'Per-student attendance bitsets per term; bit i is term_start + i days, stored as big-endian 64-bit words';
+COMMENT ON COLUMN attendance_term_bitmaps.snapshot_at IS 'Records updated after this time are replayed on load';
@@ -0,0 +1,106 @@
+-- Range-partition attendance_records by month on date
+-- Date-bounded queries prune to the months they touch, and old academic years can be
+-- detached and archived as whole partitions instead of being deleted row by row.
+-- Partition keys must be part of every unique constraint, so the primary key becomes (id, date).
+
+ALTER TABLE attendance_records RENAME TO attendance_records_unpartitioned;
+
+CREATE TABLE attendance_records (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    student_id UUID NOT NULL,
+    class_id UUID NOT NULL,
+    date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('PRESENT', 'ABSENT', 'LATE', 'EXCUSED')),
+    marked_by UUID,
+    collected_by UUID,
+    session_id UUID,
+    approved_by UUID,
+    notes TEXT,
+    marked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_by UUID,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, date),
+    UNIQUE (student_id, class_id, date),
+    CONSTRAINT check_marking_method CHECK (
+        (marked_by IS NOT NULL AND collected_by IS NULL AND session_id IS NULL) OR
+        (marked_by IS NULL AND collected_by IS NOT NULL AND session_id IS NOT NULL)
+    )
+) PARTITION BY RANGE (date);
+
+-- Catches rows outside every monthly partition; kept empty by creating partitions ahead of time
+CREATE TABLE attendance_records_default PARTITION OF attendance_records DEFAULT;
+
+-- Creates the monthly partition containing month_start if it does not exist; used by AttendancePartitionService
+CREATE OR REPLACE FUNCTION create_attendance_records_partition(month_start DATE) RETURNS TEXT AS $$
+DECLARE
+    range_start DATE := date_trunc('month', month_start)::date;
+    partition_name TEXT := format('attendance_records_y%sm%s', to_char(range_start, 'YYYY'), to_char(range_start, 'MM'));
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF attendance_records FOR VALUES FROM (%L) TO (%L)',
+        partition_name, range_start, (range_start + INTERVAL '1 month')::date
+    );
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions from the oldest existing record through three months ahead
+DO $$
+DECLARE
+    month_start DATE;
+    last_month DATE := (date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::date;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(date), CURRENT_DATE))::date
+    INTO month_start
+    FROM attendance_records_unpartitioned;
+
+    WHILE month_start <= last_month LOOP
+        PERFORM create_attendance_records_partition(month_start);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO attendance_records (
+    id, student_id, class_id, date, status, marked_by, collected_by, session_id, approved_by,
+    notes, marked_at, updated_at, updated_by, version
+)
+SELECT id, student_id, class_id, date, status, marked_by, collected_by, session_id, approved_by,
+       notes, marked_at, updated_at, updated_by, version
+FROM attendance_records_unpartitioned;
+
+DROP TABLE attendance_records_unpartitioned;
+
+-- Indexes are declared on the parent and created on every partition.
+-- idx_attendance_student_class_date and idx_attendance_class are not recreated:
+-- the unique constraint and idx_attendance_class_date_status already cover them.
+CREATE INDEX IF NOT EXISTS idx_attendance_date ON attendance_records(date);
+CREATE INDEX IF NOT EXISTS idx_attendance_session ON attendance_records(session_id);
+CREATE INDEX IF NOT EXISTS idx_attendance_collected_by ON attendance_records(collected_by);
+CREATE INDEX IF NOT EXISTS idx_attendance_student_date_id ON attendance_records(student_id, date, id);
+CREATE INDEX IF NOT EXISTS idx_attendance_class_date_status ON attendance_records(class_id, date) INCLUDE (status);
+
+-- Archived partitions, restorable on demand
+CREATE TABLE IF NOT EXISTS attendance_archives (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    partition_name VARCHAR(63) NOT NULL UNIQUE,
+    range_start DATE NOT NULL,
+    range_end DATE NOT NULL,
+    file_path TEXT NOT NULL,
+    row_count BIGINT NOT NULL,
+    sha256 VARCHAR(64) NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    restored_at TIMESTAMP
+);
+
+-- Comments
+COMMENT ON TABLE attendance_records IS 'Attendance records supporting both direct teacher marking and session-based class leader collection; range-partitioned by month on date';
+COMMENT ON COLUMN attendance_records.marked_by IS 'Teacher ID (for direct marking)';
+COMMENT ON COLUMN attendance_records.collected_by IS 'Student ID - class leader who collected attendance (for session-based)';
+COMMENT ON COLUMN attendance_records.session_id IS 'AttendanceSession ID (for session-based collection)';
+COMMENT ON COLUMN attendance_records.approved_by IS 'Teacher ID who approved the session (for session-based collection)';
+COMMENT ON COLUMN attendance_records.version IS 'Version field for optimistic locking - prevents concurrent modification conflicts';
+COMMENT ON INDEX idx_attendance_student_date_id IS 'Optimizes keyset-paginated student attendance history queries';
+COMMENT ON INDEX idx_attendance_class_date_status IS 'Optimizes class attendance report aggregation by date range';
+COMMENT ON TABLE attendance_archives IS 'Monthly attendance_records partitions detached and exported to gzip-compressed COPY files';
@@ -0,0 +1,16 @@
+-- Stamp approved_by on records of already approved sessions and index it
+-- Session approval now writes approved_by onto every collected record in the same transaction,
+-- so approval-aware reports filter attendance_records directly instead of joining sessions.
+
+UPDATE attendance_records ar
+SET approved_by = s.approved_by
+FROM attendance_sessions s
+WHERE ar.session_id = s.id
+  AND ar.date = s.date
+  AND s.status = 'APPROVED'
+  AND ar.approved_by IS NULL;
+
+-- Direct teacher marks never carry approved_by, so only approved session records are indexed
+CREATE INDEX IF NOT EXISTS idx_attendance_approved_by ON attendance_records(approved_by) WHERE approved_by IS NOT NULL;
+
+COMMENT ON INDEX idx_attendance_approved_by IS 'Approved session-collected records, for approval-aware reports';
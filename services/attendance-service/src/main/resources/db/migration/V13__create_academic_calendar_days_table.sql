@@ -0,0 +1,15 @@
+-- Create academic_calendar_days: dates that differ from the weekly school-day pattern
+-- Holidays and closures on weekdays are stored with school_day = false; make-up days
+-- on weekends with school_day = true. Every other date follows the configured weekdays.
+
+CREATE TABLE IF NOT EXISTS academic_calendar_days (
+    date DATE PRIMARY KEY,
+    school_day BOOLEAN NOT NULL,
+    description VARCHAR(200),
+    updated_by UUID,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Comments
+COMMENT ON TABLE academic_calendar_days IS 'Exceptions to the weekly school-day pattern (holidays, closures, make-up days)';
+COMMENT ON COLUMN academic_calendar_days.school_day IS 'true for an extra school day, false for a holiday or closure';
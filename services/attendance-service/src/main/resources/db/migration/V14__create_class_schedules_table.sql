@@ -0,0 +1,20 @@
+-- Create class_schedules: local copy of academic-service class schedules
+-- Kept current from academic.class.schedule.changed events and read by the weekly
+-- attendance-session pre-generation job, so the job needs no call to academic-service.
+
+CREATE TABLE IF NOT EXISTS class_schedules (
+    class_id UUID PRIMARY KEY,
+    days_of_week SMALLINT NOT NULL CHECK (days_of_week BETWEEN 0 AND 127),
+    status VARCHAR(20) NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE,
+    homeroom_teacher_id UUID,
+    class_teacher_id UUID,
+    event_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Comments
+COMMENT ON TABLE class_schedules IS 'Class meeting days and status copied from academic-service for session pre-generation';
+COMMENT ON COLUMN class_schedules.days_of_week IS 'Bitmask of meeting days; bit 0 is Monday (ISO day of week - 1)';
+COMMENT ON COLUMN class_schedules.event_at IS 'Timestamp of the event that wrote the row; older events are ignored';
@@ -0,0 +1,8 @@
+-- Index attendance_corrections for point-in-time lookups
+-- As-of queries find the first correction of a record after a given instant; the composite
+-- index answers that with one probe and makes the single-column record index redundant.
+
+CREATE INDEX IF NOT EXISTS idx_corrections_record_corrected_at
+    ON attendance_corrections(attendance_record_id, corrected_at);
+
+DROP INDEX IF EXISTS idx_corrections_record;
@@ -0,0 +1,16 @@
+-- Create chronic_absence_alerts table
+-- The highest chronic absence threshold alerted per student. Every replica evaluates the same
+-- windows; only the one whose write raises the stored level publishes the alert.
+
+CREATE TABLE IF NOT EXISTS chronic_absence_alerts (
+    student_id UUID PRIMARY KEY,
+    alerted_level INTEGER NOT NULL,
+    threshold INTEGER NOT NULL,
+    absences INTEGER NOT NULL,
+    window_end DATE NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Comments
+COMMENT ON TABLE chronic_absence_alerts IS 'Chronic absence threshold each student was last alerted for; rows are removed once the student drops below every threshold';
+COMMENT ON COLUMN chronic_absence_alerts.alerted_level IS 'Number of configured thresholds reached when the alert was raised';
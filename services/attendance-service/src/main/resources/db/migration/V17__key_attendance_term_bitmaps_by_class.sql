@@ -0,0 +1,14 @@
+-- Key attendance_term_bitmaps by class as well as student and term
+-- Bitmaps keep each class's statuses so same-day records of different classes collapse by a fixed
+-- precedence instead of the last write. Existing rows hold collapsed days only and cannot be split
+-- by class; they are dropped and rebuilt from attendance_records on next load.
+
+DELETE FROM attendance_term_bitmaps;
+
+ALTER TABLE attendance_term_bitmaps ADD COLUMN class_id UUID NOT NULL;
+
+ALTER TABLE attendance_term_bitmaps DROP CONSTRAINT attendance_term_bitmaps_pkey;
+ALTER TABLE attendance_term_bitmaps ADD PRIMARY KEY (student_id, term_start, class_id);
+
+-- Comments
+COMMENT ON TABLE attendance_term_bitmaps IS 'Per-student, per-class attendance bitsets per term; bit i is term_start + i days, stored as big-endian 64-bit words';
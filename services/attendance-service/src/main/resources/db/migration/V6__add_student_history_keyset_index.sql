@@ -0,0 +1,10 @@
+-- Keyset pagination for student attendance history
+-- Covers ORDER BY date DESC, id DESC for a single student so each page is an index range scan
+
+CREATE INDEX IF NOT EXISTS idx_attendance_student_date_id ON attendance_records(student_id, date, id);
+
+-- Superseded by idx_attendance_student_date_id (same leading columns)
+DROP INDEX IF EXISTS idx_attendance_student_date;
+
+-- Comments
+COMMENT ON INDEX idx_attendance_student_date_id IS 'Optimizes keyset-paginated student attendance history queries';
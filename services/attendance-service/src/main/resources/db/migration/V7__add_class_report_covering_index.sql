@@ -0,0 +1,10 @@
+-- Class report aggregation: GROUP BY status over a class and date range
+-- INCLUDE (status) lets the count query run as an index-only scan
+
+CREATE INDEX IF NOT EXISTS idx_attendance_class_date_status ON attendance_records(class_id, date) INCLUDE (status);
+
+-- Superseded by idx_attendance_class_date_status (same key columns)
+DROP INDEX IF EXISTS idx_attendance_class_date_range;
+
+-- Comments
+COMMENT ON INDEX idx_attendance_class_date_status IS 'Optimizes class attendance report aggregation by date range';
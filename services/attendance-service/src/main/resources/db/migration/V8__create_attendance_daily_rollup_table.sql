@@ -0,0 +1,31 @@
+-- Create attendance_daily_rollup projection: per-class, per-day status counts
+-- Maintained in the same transaction as attendance_records writes by applying per-status deltas
+
+CREATE TABLE IF NOT EXISTS attendance_daily_rollup (
+    class_id UUID NOT NULL,
+    date DATE NOT NULL,
+    present_count INTEGER NOT NULL DEFAULT 0,
+    absent_count INTEGER NOT NULL DEFAULT 0,
+    late_count INTEGER NOT NULL DEFAULT 0,
+    excused_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (class_id, date)
+);
+
+-- Indexes
+CREATE INDEX IF NOT EXISTS idx_daily_rollup_date ON attendance_daily_rollup(date);
+
+-- Backfill from existing records
+INSERT INTO attendance_daily_rollup (class_id, date, present_count, absent_count, late_count, excused_count)
+SELECT class_id,
+       date,
+       COUNT(*) FILTER (WHERE status = 'PRESENT'),
+       COUNT(*) FILTER (WHERE status = 'ABSENT'),
+       COUNT(*) FILTER (WHERE status = 'LATE'),
+       COUNT(*) FILTER (WHERE status = 'EXCUSED')
+FROM attendance_records
+GROUP BY class_id, date
+ON CONFLICT (class_id, date) DO NOTHING;
+
+-- Comments
+COMMENT ON TABLE attendance_daily_rollup IS 'Per-class daily attendance counts derived from attendance_records. Rebuildable for any date range.';
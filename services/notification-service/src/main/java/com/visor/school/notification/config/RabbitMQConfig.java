@@ -1,13 +1,19 @@
 package com.visor.school.notification.config;
 
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.retry.RejectAndDontRequeueRecoverer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+
+import java.util.Map;
 
 /**
  * RabbitMQ configuration for notification service
@@ -21,15 +27,21 @@ public class RabbitMQConfig {
     // Queue names
     public static final String GRADE_RECORDED_QUEUE = "grade_recorded_queue";
     public static final String ATTENDANCE_MARKED_QUEUE = "attendance_marked_queue";
+    public static final String ATTENDANCE_BATCH_MARKED_QUEUE = "attendance_batch_marked_queue";
+    public static final String ATTENDANCE_BATCH_MARKED_DLQ = "attendance_batch_marked_queue.dlq";
     public static final String ATTENDANCE_SESSION_APPROVED_QUEUE = "attendance_session_approved_queue";
     public static final String USER_CREATED_QUEUE = "user_created_queue";
     
     // Routing keys
     public static final String GRADE_RECORDED_ROUTING_KEY = "grade.recorded";
     public static final String ATTENDANCE_MARKED_ROUTING_KEY = "attendance.marked";
+    public static final String ATTENDANCE_BATCH_MARKED_ROUTING_KEY = "attendance.batch.marked";
     public static final String ATTENDANCE_SESSION_APPROVED_ROUTING_KEY = "attendance.session.approved";
     public static final String USER_CREATED_ROUTING_KEY = "user.created";
 
+    // Listener attempts per delivery before the message is rejected without requeue
+    private static final int LISTENER_MAX_ATTEMPTS = 3;
+
     /**
      * Declare the topic exchange
      */
@@ -76,6 +88,37 @@ public class RabbitMQConfig {
             .with(ATTENDANCE_MARKED_ROUTING_KEY);
     }
 
+    /**
+     * Declare attendance_batch_marked_queue
+     * Rejected messages are dead-lettered to attendance_batch_marked_queue.dlq instead of being dropped
+     */
+    @Bean
+    public Queue attendanceBatchMarkedQueue() {
+        return QueueBuilder.durable(ATTENDANCE_BATCH_MARKED_QUEUE)
+            .deadLetterExchange("")
+            .deadLetterRoutingKey(ATTENDANCE_BATCH_MARKED_DLQ)
+            .build();
+    }
+
+    /**
+     * Declare attendance_batch_marked_queue.dlq for batches that cannot be processed
+     */
+    @Bean
+    public Queue attendanceBatchMarkedDeadLetterQueue() {
+        return new Queue(ATTENDANCE_BATCH_MARKED_DLQ, true, false, false);
+    }
+
+    /**
+     * Bind attendance_batch_marked_queue to exchange
+     */
+    @Bean
+    public Binding attendanceBatchMarkedBinding() {
+        return BindingBuilder
+            .bind(attendanceBatchMarkedQueue())
+            .to(exchange())
+            .with(ATTENDANCE_BATCH_MARKED_ROUTING_KEY);
+    }
+
     /**
      * Declare attendance_session_approved_queue
      */
@@ -134,12 +177,21 @@ public class RabbitMQConfig {
 
     /**
      * Configure listener container factory with JSON converter
+     * A failing listener is retried in place with backoff; once the attempts are used up the message is
+     * rejected without requeue, so it goes to the queue's dead-letter queue (if any) instead of
+     * redelivering forever. Messages already rejected by the listener are not retried.
      */
     @Bean
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(ConnectionFactory connectionFactory) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
         factory.setMessageConverter(messageConverter());
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+            .retryPolicy(new SimpleRetryPolicy(LISTENER_MAX_ATTEMPTS,
+                Map.of(AmqpRejectAndDontRequeueException.class, false), true, true))
+            .backOffOptions(1000, 2.0, 10000)
+            .recoverer(new RejectAndDontRequeueRecoverer())
+            .build());
         factory.setAutoStartup(true);
         return factory;
     }
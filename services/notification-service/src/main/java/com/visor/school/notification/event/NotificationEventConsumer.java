@@ -1,13 +1,17 @@
 package com.visor.school.notification.event;
 
 import com.visor.school.notification.config.RabbitMQConfig;
+import com.visor.school.notification.model.Notification;
 import com.visor.school.notification.model.NotificationType;
 import com.visor.school.notification.service.NotificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -85,6 +89,53 @@ public class NotificationEventConsumer {
         }
     }
 
+    /**
+     * Handle AttendanceBatchMarkedEvent - Notify every student of a roster submission or session collection
+     * All notifications of the batch are written in one transaction, skipping records already notified, so a
+     * redelivered batch is harmless. A malformed batch is rejected to the dead-letter queue; any other failure
+     * propagates, is retried by the listener container and then dead-lettered rather than lost.
+     */
+    @RabbitListener(queues = RabbitMQConfig.ATTENDANCE_BATCH_MARKED_QUEUE)
+    public void handleAttendanceBatchMarked(Map<String, Object> event) {
+        String classId = event.getOrDefault("classId", "").toString();
+        String date = event.getOrDefault("date", "").toString();
+        Object entriesObj = event.get("entries");
+        if (!(entriesObj instanceof List<?> entries) || entries.isEmpty()) {
+            return;
+        }
+
+        logger.info("Received AttendanceBatchMarkedEvent for notification: class={}, entries={}", classId, entries.size());
+
+        List<Notification> notifications = new ArrayList<>(entries.size());
+        try {
+            for (Object entryObj : entries) {
+                if (!(entryObj instanceof Map<?, ?> entry)) {
+                    continue;
+                }
+                UUID studentId = UUID.fromString(entry.get("studentId").toString());
+                Object statusObj = entry.get("status");
+                String status = statusObj != null ? statusObj.toString() : "UNKNOWN";
+                Object recordIdObj = entry.get("attendanceRecordId");
+                notifications.add(new Notification(
+                    studentId,
+                    NotificationType.ATTENDANCE_MARKED,
+                    "Attendance Marked",
+                    "Your attendance for " + date + " has been marked as " + status,
+                    Map.of(
+                        "attendanceRecordId", recordIdObj != null ? recordIdObj.toString() : "",
+                        "status", status,
+                        "date", date
+                    )
+                ));
+            }
+        } catch (RuntimeException e) {
+            logger.error("Malformed AttendanceBatchMarkedEvent rejected: class={}", classId, e);
+            throw new AmqpRejectAndDontRequeueException("Malformed AttendanceBatchMarkedEvent for class " + classId, e);
+        }
+
+        notificationService.createAll(notifications);
+    }
+
     /**
      * Handle AttendanceSessionApprovedEvent - Notify class leader about approval
      */
@@ -1,6 +1,8 @@
 package com.visor.school.notification.model;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
 import java.time.Instant;
 import java.util.Map;
 import java.util.UUID;
@@ -15,10 +17,10 @@ import java.util.UUID;
     @Index(name = "idx_notification_created", columnList = "created_at"),
     @Index(name = "idx_notification_type", columnList = "type")
 })
-public class Notification {
+public class Notification implements Persistable<UUID> {
 
+    // Assigned in the constructor so batches can be persisted without a SELECT per row
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @Column(name = "user_id", nullable = false)
@@ -47,6 +49,9 @@ public class Notification {
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
+    @Transient
+    private boolean isNew = true;
+
     // Default constructor for JPA
     public Notification() {
         this.id = UUID.randomUUID();
@@ -69,8 +74,20 @@ public class Notification {
         this.metadata = metadata;
     }
 
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
     // Getters and Setters
 
+    @Override
     public UUID getId() {
         return id;
     }
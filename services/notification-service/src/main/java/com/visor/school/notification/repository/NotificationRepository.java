@@ -2,8 +2,11 @@ package com.visor.school.notification.repository;
 
 import com.visor.school.notification.model.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,4 +14,9 @@ import java.util.UUID;
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
     List<Notification> findByUserIdOrderByCreatedAtDesc(UUID userId);
     List<Notification> findByUserIdAndReadFalseOrderByCreatedAtDesc(UUID userId);
+
+    @Query(value = "SELECT metadata->>'attendanceRecordId' FROM notifications " +
+            "WHERE type = :type AND metadata->>'attendanceRecordId' IN (:attendanceRecordIds)", nativeQuery = true)
+    List<String> findExistingAttendanceRecordIds(@Param("type") String type,
+                                                 @Param("attendanceRecordIds") Collection<String> attendanceRecordIds);
 }
@@ -9,9 +9,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -56,6 +60,68 @@ public class NotificationService {
         return saved;
     }
 
+    /**
+     * Create many notifications in one transaction
+     * Used by batch event consumers so a whole class roster costs one commit
+     * Notifications for an attendance record that already has one of the same type are skipped
+     */
+    public List<Notification> createAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return notifications;
+        }
+
+        List<Notification> fresh = withoutExistingAttendanceRecords(notifications);
+        if (fresh.size() < notifications.size()) {
+            logger.info("Skipping {} notifications already created for their attendance record",
+                notifications.size() - fresh.size());
+        }
+        if (fresh.isEmpty()) {
+            return fresh;
+        }
+        logger.info("Creating {} notifications in batch", fresh.size());
+
+        List<Notification> saved = notificationRepository.saveAll(fresh);
+        saved.forEach(notificationDeliveryService::deliver);
+
+        return saved;
+    }
+
+    /**
+     * Drop notifications whose (attendanceRecordId, type) already exists or repeats earlier in the list,
+     * so a redelivered batch creates and delivers nothing twice. uq_notification_attendance_record
+     * rejects the rare concurrent duplicate; the batch then fails and its retry skips the stored rows.
+     */
+    private List<Notification> withoutExistingAttendanceRecords(List<Notification> notifications) {
+        Map<NotificationType, Set<String>> recordIdsByType = new EnumMap<>(NotificationType.class);
+        for (Notification notification : notifications) {
+            String recordId = attendanceRecordId(notification);
+            if (recordId != null) {
+                recordIdsByType.computeIfAbsent(notification.getType(), type -> new HashSet<>()).add(recordId);
+            }
+        }
+        if (recordIdsByType.isEmpty()) {
+            return notifications;
+        }
+
+        Map<NotificationType, Set<String>> seen = new EnumMap<>(NotificationType.class);
+        recordIdsByType.forEach((type, recordIds) -> seen.put(type,
+            new HashSet<>(notificationRepository.findExistingAttendanceRecordIds(type.name(), recordIds))));
+
+        List<Notification> fresh = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            String recordId = attendanceRecordId(notification);
+            if (recordId == null || seen.get(notification.getType()).add(recordId)) {
+                fresh.add(notification);
+            }
+        }
+        return fresh;
+    }
+
+    private static String attendanceRecordId(Notification notification) {
+        Object recordId = notification.getMetadata() != null ? notification.getMetadata().get("attendanceRecordId") : null;
+        return recordId != null && !recordId.toString().isBlank() ? recordId.toString() : null;
+    }
+
     /**
      * Mark notification as read
      */
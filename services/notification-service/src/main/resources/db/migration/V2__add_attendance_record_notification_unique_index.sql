@@ -0,0 +1,13 @@
+-- One notification per attendance record and type, so redelivered attendance batches create nothing twice
+
+-- Keep the earliest of any duplicates created before the index existed
+DELETE FROM notifications n
+USING notifications d
+WHERE n.type = d.type
+  AND n.metadata->>'attendanceRecordId' = d.metadata->>'attendanceRecordId'
+  AND n.metadata->>'attendanceRecordId' <> ''
+  AND (n.created_at, n.id) > (d.created_at, d.id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_notification_attendance_record
+    ON notifications ((metadata->>'attendanceRecordId'), type)
+    WHERE metadata->>'attendanceRecordId' <> '';